@@ -17,7 +17,9 @@ import java.time.Instant;
 @Getter
 @Setter
 @Entity
-@Table(name = "alerta", schema = "sicofar")
+@Table(name = "alerta", schema = "sicofar", indexes = {
+        @Index(name = "idx_alerta_entidad", columnList = "tipo, entidad_tipo, entidad_id, estado")
+})
 public class Alerta {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -0,0 +1,53 @@
+package persistence.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Agregado por hora de la línea de procesamiento: por (bodega, tipo de etapa, hora de inicio)
+ * cuenta etapas, su duración total, los kg procesados y la espera desde la etapa anterior
+ * del mismo lote. Se ajusta en la misma transacción que registra cada etapa.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "analitica_linea_hora", schema = "sicofar")
+public class AnaliticaLineaHora {
+    @EmbeddedId
+    private AnaliticaLineaHoraId id;
+
+    @ColumnDefault("0")
+    @Column(name = "etapas", nullable = false)
+    private Long etapas;
+
+    @ColumnDefault("0")
+    @Column(name = "duracion_segundos", nullable = false)
+    private Long duracionSegundos;
+
+    @ColumnDefault("0.00")
+    @Column(name = "peso_entrada", nullable = false, precision = 16, scale = 2)
+    private BigDecimal pesoEntrada;
+
+    @ColumnDefault("0.00")
+    @Column(name = "peso_salida", nullable = false, precision = 16, scale = 2)
+    private BigDecimal pesoSalida;
+
+    // Etapas con una etapa anterior en el lote (las primeras no tienen espera)
+    @ColumnDefault("0")
+    @Column(name = "esperas", nullable = false)
+    private Long esperas;
+
+    @ColumnDefault("0")
+    @Column(name = "espera_segundos", nullable = false)
+    private Long esperaSegundos;
+
+    @ColumnDefault("CURRENT_TIMESTAMP")
+    @Column(name = "fecha_actualizacion", nullable = false)
+    private Instant fechaActualizacion;
+
+}
@@ -14,10 +14,13 @@ import java.time.Instant;
 @Getter
 @Setter
 @Entity
-@Table(name = "auditoria", schema = "sicofar")
+@Table(name = "auditoria", schema = "sicofar", indexes = {
+        @Index(name = "idx_auditoria_fecha_id", columnList = "fecha, id")
+})
 public class Auditoria {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "auditoria_seq")
+    @SequenceGenerator(name = "auditoria_seq", sequenceName = "auditoria_seq", schema = "sicofar", allocationSize = 50)
     @Column(name = "id", nullable = false)
     private Long id;
 
@@ -8,6 +8,7 @@ import persistence.converter.EstadoBodegaConverter;
 import persistence.converter.TipoOrganizacionConverter;
 import persistence.enums.EstadoBodega;
 import persistence.enums.TipoOrganizacion;
+import persistence.listener.CatalogoEntityListener;
 
 import java.math.BigDecimal;
 import java.time.Instant;
@@ -15,6 +16,7 @@ import java.time.Instant;
 @Getter
 @Setter
 @Entity
+@EntityListeners(CatalogoEntityListener.class)
 @Table(name = "bodega", schema = "sicofar")
 public class Bodega {
     @Id
@@ -0,0 +1,31 @@
+package persistence.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.time.Instant;
+
+/**
+ * Último número reservado por (tipo de código, bodega, año).
+ * Las instancias reservan bloques incrementando ultimo_valor y los asignan desde memoria;
+ * los números de un bloque no usado (reinicio o caída) se pierden, nunca se repiten.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "contador_codigo", schema = "sicofar")
+public class ContadorCodigo {
+    @EmbeddedId
+    private ContadorCodigoId id;
+
+    @ColumnDefault("0")
+    @Column(name = "ultimo_valor", nullable = false)
+    private Long ultimoValor;
+
+    @ColumnDefault("CURRENT_TIMESTAMP")
+    @Column(name = "fecha_actualizacion", nullable = false)
+    private Instant fechaActualizacion;
+
+}
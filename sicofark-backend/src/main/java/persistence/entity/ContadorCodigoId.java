@@ -0,0 +1,41 @@
+package persistence.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.Hibernate;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+@Getter
+@Setter
+@Embeddable
+public class ContadorCodigoId implements Serializable {
+    private static final long serialVersionUID = 7305518246903817724L;
+    @Column(name = "tipo", nullable = false, length = 20)
+    private String tipo;
+
+    @Column(name = "bodega_id", nullable = false)
+    private Long bodegaId;
+
+    @Column(name = "anio", nullable = false)
+    private Integer anio;
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || Hibernate.getClass(this) != Hibernate.getClass(o)) return false;
+        ContadorCodigoId entity = (ContadorCodigoId) o;
+        return Objects.equals(this.tipo, entity.tipo) &&
+                Objects.equals(this.bodegaId, entity.bodegaId) &&
+                Objects.equals(this.anio, entity.anio);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(tipo, bodegaId, anio);
+    }
+
+}
@@ -15,10 +15,13 @@ import java.time.Instant;
 @Getter
 @Setter
 @Entity
-@Table(name = "detalle_transaccion", schema = "sicofar")
+@Table(name = "detalle_transaccion", schema = "sicofar", indexes = {
+        @Index(name = "idx_detalle_transaccion_lote", columnList = "lote_id")
+})
 public class DetalleTransaccion {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "detalle_transaccion_seq")
+    @SequenceGenerator(name = "detalle_transaccion_seq", sequenceName = "detalle_transaccion_seq", schema = "sicofar", allocationSize = 50)
     @Column(name = "id", nullable = false)
     private Long id;
 
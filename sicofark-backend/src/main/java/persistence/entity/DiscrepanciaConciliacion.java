@@ -0,0 +1,54 @@
+package persistence.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.math.BigDecimal;
+
+/**
+ * Descuadre encontrado por una ejecución de la conciliación (tipo: TipoDiscrepancia).
+ * lote_id y bodega_id no son llaves foráneas: el reporte se conserva tal como se generó.
+ * Las filas se insertan por lotes con JDBC desde ConciliacionServiceImpl.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "discrepancia_conciliacion", schema = "sicofar", indexes = {
+        @Index(name = "idx_discrepancia_conciliacion_ejecucion", columnList = "ejecucion_id, id")
+})
+public class DiscrepanciaConciliacion {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id", nullable = false)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @JoinColumn(name = "ejecucion_id", nullable = false)
+    private EjecucionConciliacion ejecucion;
+
+    @Column(name = "lote_id", nullable = false)
+    private Long loteId;
+
+    @Column(name = "codigo_lote", nullable = false, length = 50)
+    private String codigoLote;
+
+    @Column(name = "bodega_id", nullable = false)
+    private Long bodegaId;
+
+    @Column(name = "tipo", nullable = false, length = 30)
+    private String tipo;
+
+    @Column(name = "valor_esperado", precision = 14, scale = 2)
+    private BigDecimal valorEsperado;
+
+    @Column(name = "valor_encontrado", precision = 14, scale = 2)
+    private BigDecimal valorEncontrado;
+
+    @Column(name = "detalle", length = 200)
+    private String detalle;
+
+}
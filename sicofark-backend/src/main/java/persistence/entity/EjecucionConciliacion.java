@@ -0,0 +1,57 @@
+package persistence.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * Una ejecución de la conciliación de balance de masa de lotes y su resumen.
+ * fecha_fin nula: en curso (o interrumpida). rangos_fallidos > 0: reporte incompleto.
+ * dia_programado: día de la conciliación nocturna que la reclamó (única por día); nulo en las manuales.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "ejecucion_conciliacion", schema = "sicofar", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_ejecucion_conciliacion_dia_programado", columnNames = {"dia_programado"})
+})
+public class EjecucionConciliacion {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id", nullable = false)
+    private Long id;
+
+    @Column(name = "fecha_inicio", nullable = false)
+    private Instant fechaInicio;
+
+    @Column(name = "fecha_fin")
+    private Instant fechaFin;
+
+    @Column(name = "dia_programado")
+    private LocalDate diaProgramado;
+
+    @ColumnDefault("0")
+    @Column(name = "rangos", nullable = false)
+    private Integer rangos;
+
+    @ColumnDefault("0")
+    @Column(name = "rangos_fallidos", nullable = false)
+    private Integer rangosFallidos;
+
+    @ColumnDefault("0")
+    @Column(name = "lotes_revisados", nullable = false)
+    private Long lotesRevisados;
+
+    @ColumnDefault("0")
+    @Column(name = "etapas_revisadas", nullable = false)
+    private Long etapasRevisadas;
+
+    @ColumnDefault("0")
+    @Column(name = "discrepancias", nullable = false)
+    private Long discrepancias;
+
+}
@@ -0,0 +1,50 @@
+package persistence.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.time.Instant;
+
+/**
+ * Estadísticas de merma parcial por (tipo de etapa, tipo de material, bodega): conteo, media y
+ * M2 de Welford, mínimo, máximo y un sketch de cuantiles serializado (util.SketchCuantiles).
+ * Cada instancia acumula en memoria y fusiona lo nuevo en la fila periódicamente (checkpoint);
+ * las filas se pueden fusionar entre sí para agregados por etapa o por bodega.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "estadistica_merma_etapa", schema = "sicofar")
+public class EstadisticaMermaEtapa {
+    @EmbeddedId
+    private EstadisticaMermaEtapaId id;
+
+    @ColumnDefault("0")
+    @Column(name = "conteo", nullable = false)
+    private Long conteo;
+
+    @ColumnDefault("0")
+    @Column(name = "media", nullable = false)
+    private Double media;
+
+    // Suma de cuadrados de las desviaciones respecto a la media
+    @ColumnDefault("0")
+    @Column(name = "m2", nullable = false)
+    private Double m2;
+
+    @Column(name = "minimo")
+    private Double minimo;
+
+    @Column(name = "maximo")
+    private Double maximo;
+
+    @Column(name = "sketch", nullable = false)
+    private byte[] sketch;
+
+    @ColumnDefault("CURRENT_TIMESTAMP")
+    @Column(name = "fecha_actualizacion", nullable = false)
+    private Instant fechaActualizacion;
+
+}
@@ -0,0 +1,41 @@
+package persistence.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.Hibernate;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+@Getter
+@Setter
+@Embeddable
+public class EstadisticaMermaEtapaId implements Serializable {
+    private static final long serialVersionUID = 4127795370581266413L;
+    @Column(name = "tipo_etapa", nullable = false, length = 20)
+    private String tipoEtapa;
+
+    @Column(name = "tipo_material_id", nullable = false)
+    private Long tipoMaterialId;
+
+    @Column(name = "bodega_id", nullable = false)
+    private Long bodegaId;
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || Hibernate.getClass(this) != Hibernate.getClass(o)) return false;
+        EstadisticaMermaEtapaId entity = (EstadisticaMermaEtapaId) o;
+        return Objects.equals(this.tipoEtapa, entity.tipoEtapa) &&
+                Objects.equals(this.tipoMaterialId, entity.tipoMaterialId) &&
+                Objects.equals(this.bodegaId, entity.bodegaId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(tipoEtapa, tipoMaterialId, bodegaId);
+    }
+
+}
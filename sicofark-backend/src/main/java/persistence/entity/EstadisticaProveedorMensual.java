@@ -0,0 +1,42 @@
+package persistence.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Estadísticas de compras por (proveedor, mes) de las transacciones completadas
+ * (PROCESADA, PAGADA o FACTURADA). Se ajustan en la misma transacción en la que una
+ * transacción entra o sale de esos estados; los totales del proveedor son la suma de sus meses.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "estadistica_proveedor_mensual", schema = "sicofar", indexes = {
+        @Index(name = "idx_estadistica_proveedor_mes", columnList = "mes")
+})
+public class EstadisticaProveedorMensual {
+    @EmbeddedId
+    private EstadisticaProveedorMensualId id;
+
+    @ColumnDefault("0")
+    @Column(name = "numero_transacciones", nullable = false)
+    private Long numeroTransacciones;
+
+    @ColumnDefault("0.00")
+    @Column(name = "peso_total", nullable = false, precision = 14, scale = 2)
+    private BigDecimal pesoTotal;
+
+    @ColumnDefault("0.00")
+    @Column(name = "valor_total", nullable = false, precision = 14, scale = 2)
+    private BigDecimal valorTotal;
+
+    @ColumnDefault("CURRENT_TIMESTAMP")
+    @Column(name = "fecha_actualizacion", nullable = false)
+    private Instant fechaActualizacion;
+
+}
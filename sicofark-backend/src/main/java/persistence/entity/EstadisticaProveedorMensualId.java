@@ -0,0 +1,39 @@
+package persistence.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.Hibernate;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+@Getter
+@Setter
+@Embeddable
+public class EstadisticaProveedorMensualId implements Serializable {
+    private static final long serialVersionUID = 5528690137441864021L;
+    @Column(name = "proveedor_id", nullable = false)
+    private Long proveedorId;
+
+    // Primer día del mes
+    @Column(name = "mes", nullable = false)
+    private LocalDate mes;
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || Hibernate.getClass(this) != Hibernate.getClass(o)) return false;
+        EstadisticaProveedorMensualId entity = (EstadisticaProveedorMensualId) o;
+        return Objects.equals(this.proveedorId, entity.proveedorId) &&
+                Objects.equals(this.mes, entity.mes);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(proveedorId, mes);
+    }
+
+}
@@ -15,10 +15,13 @@ import java.time.Instant;
 @Getter
 @Setter
 @Entity
-@Table(name = "etapa_procesamiento", schema = "sicofar")
+@Table(name = "etapa_procesamiento", schema = "sicofar", indexes = {
+        @Index(name = "idx_etapa_procesamiento_lote_fecha", columnList = "lote_id, fecha_inicio, id")
+})
 public class EtapaProcesamiento {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "etapa_procesamiento_seq")
+    @SequenceGenerator(name = "etapa_procesamiento_seq", sequenceName = "etapa_procesamiento_seq", schema = "sicofar", allocationSize = 50)
     @Column(name = "id", nullable = false)
     private Long id;
 
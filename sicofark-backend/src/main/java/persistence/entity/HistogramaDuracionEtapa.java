@@ -0,0 +1,23 @@
+package persistence.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
+
+/**
+ * Histograma de duración de etapas por (bodega, tipo de etapa, hora de inicio, intervalo).
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "histograma_duracion_etapa", schema = "sicofar")
+public class HistogramaDuracionEtapa {
+    @EmbeddedId
+    private HistogramaDuracionEtapaId id;
+
+    @ColumnDefault("0")
+    @Column(name = "conteo", nullable = false)
+    private Long conteo;
+
+}
@@ -0,0 +1,48 @@
+package persistence.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.Hibernate;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+@Getter
+@Setter
+@Embeddable
+public class HistogramaDuracionEtapaId implements Serializable {
+    private static final long serialVersionUID = -6140968730329211785L;
+    @Column(name = "bodega_id", nullable = false)
+    private Long bodegaId;
+
+    @Column(name = "tipo_etapa", nullable = false, length = 20)
+    private String tipoEtapa;
+
+    // Hora de inicio de las etapas, truncada, en la zona horaria de operación
+    @Column(name = "hora", nullable = false)
+    private LocalDateTime hora;
+
+    // Índice del intervalo de duración (ver AnaliticaLineaServiceImpl.LIMITES_MINUTOS)
+    @Column(name = "cubo", nullable = false)
+    private Short cubo;
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || Hibernate.getClass(this) != Hibernate.getClass(o)) return false;
+        HistogramaDuracionEtapaId entity = (HistogramaDuracionEtapaId) o;
+        return Objects.equals(this.bodegaId, entity.bodegaId) &&
+                Objects.equals(this.tipoEtapa, entity.tipoEtapa) &&
+                Objects.equals(this.hora, entity.hora) &&
+                Objects.equals(this.cubo, entity.cubo);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(bodegaId, tipoEtapa, hora, cubo);
+    }
+
+}
@@ -13,7 +13,9 @@ import java.time.Instant;
 @Getter
 @Setter
 @Entity
-@Table(name = "inventario", schema = "sicofar")
+@Table(name = "inventario", schema = "sicofar", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_inventario_bodega_tipo_material", columnNames = {"bodega_id", "tipo_material_id"})
+})
 public class Inventario {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
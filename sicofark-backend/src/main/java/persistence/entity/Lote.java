@@ -17,7 +17,9 @@ import java.time.Instant;
 @Getter
 @Setter
 @Entity
-@Table(name = "lote", schema = "sicofar")
+@Table(name = "lote", schema = "sicofar", indexes = {
+        @Index(name = "idx_lote_padre", columnList = "lote_padre_id")
+})
 public class Lote {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -0,0 +1,39 @@
+package persistence.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+/**
+ * Tabla de clausura de la jerarquía de lotes (lote padre → lotes hijos).
+ * Una fila por cada par (ancestro, descendiente), incluido el propio lote con profundidad 0,
+ * para resolver ancestros y descendientes de cualquier nivel con una sola consulta.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "lote_genealogia", schema = "sicofar", indexes = {
+        @Index(name = "idx_lote_genealogia_descendiente", columnList = "descendiente_id, profundidad")
+})
+public class LoteGenealogia {
+    @EmbeddedId
+    private LoteGenealogiaId id;
+
+    @MapsId("ancestroId")
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @JoinColumn(name = "ancestro_id", nullable = false)
+    private Lote ancestro;
+
+    @MapsId("descendienteId")
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @JoinColumn(name = "descendiente_id", nullable = false)
+    private Lote descendiente;
+
+    @Column(name = "profundidad", nullable = false)
+    private Integer profundidad;
+
+}
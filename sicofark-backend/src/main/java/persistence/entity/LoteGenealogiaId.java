@@ -0,0 +1,37 @@
+package persistence.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.Hibernate;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+@Getter
+@Setter
+@Embeddable
+public class LoteGenealogiaId implements Serializable {
+    private static final long serialVersionUID = -3381902467785019263L;
+    @Column(name = "ancestro_id", nullable = false)
+    private Long ancestroId;
+
+    @Column(name = "descendiente_id", nullable = false)
+    private Long descendienteId;
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || Hibernate.getClass(this) != Hibernate.getClass(o)) return false;
+        LoteGenealogiaId entity = (LoteGenealogiaId) o;
+        return Objects.equals(this.ancestroId, entity.ancestroId) &&
+                Objects.equals(this.descendienteId, entity.descendienteId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(ancestroId, descendienteId);
+    }
+
+}
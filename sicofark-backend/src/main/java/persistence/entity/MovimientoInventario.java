@@ -15,10 +15,16 @@ import java.time.Instant;
 @Getter
 @Setter
 @Entity
-@Table(name = "movimiento_inventario", schema = "sicofar")
+@Table(name = "movimiento_inventario", schema = "sicofar", indexes = {
+        @Index(name = "idx_movimiento_inventario_fecha_id", columnList = "inventario_id, fecha, id"),
+        @Index(name = "idx_movimiento_usuario_fecha_id", columnList = "usuario_id, fecha, id"),
+        @Index(name = "idx_movimiento_fecha_id", columnList = "fecha, id"),
+        @Index(name = "idx_movimiento_lote", columnList = "lote_id")
+})
 public class MovimientoInventario {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "movimiento_inventario_seq")
+    @SequenceGenerator(name = "movimiento_inventario_seq", sequenceName = "movimiento_inventario_seq", schema = "sicofar", allocationSize = 50)
     @Column(name = "id", nullable = false)
     private Long id;
 
@@ -0,0 +1,40 @@
+package persistence.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Ocupación materializada de una bodega: suma del stock actual de todos sus inventarios.
+ * Se actualiza en la misma sentencia que modifica Inventario.stockActual.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "ocupacion_bodega", schema = "sicofar")
+public class OcupacionBodega {
+    @Id
+    @Column(name = "bodega_id", nullable = false)
+    private Long bodegaId;
+
+    @MapsId
+    @OneToOne(fetch = FetchType.LAZY, optional = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @JoinColumn(name = "bodega_id", nullable = false)
+    private Bodega bodega;
+
+    @ColumnDefault("0.00")
+    @Column(name = "stock_total", nullable = false, precision = 14, scale = 2)
+    private BigDecimal stockTotal;
+
+    @ColumnDefault("CURRENT_TIMESTAMP")
+    @Column(name = "fecha_actualizacion", nullable = false)
+    private Instant fechaActualizacion;
+
+}
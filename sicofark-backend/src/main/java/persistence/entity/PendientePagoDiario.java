@@ -0,0 +1,37 @@
+package persistence.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Cuentas por pagar pre-agregadas por (proveedor, día de la transacción).
+ * Cuenta las transacciones PENDIENTE sin fecha de pago; se ajusta en la misma
+ * transacción en la que una transacción entra o sale de ese estado.
+ * El día permite calcular la antigüedad de la deuda al consultar.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "pendiente_pago_diario", schema = "sicofar")
+public class PendientePagoDiario {
+    @EmbeddedId
+    private PendientePagoDiarioId id;
+
+    @ColumnDefault("0")
+    @Column(name = "numero_transacciones", nullable = false)
+    private Long numeroTransacciones;
+
+    @ColumnDefault("0.00")
+    @Column(name = "valor_total", nullable = false, precision = 14, scale = 2)
+    private BigDecimal valorTotal;
+
+    @ColumnDefault("CURRENT_TIMESTAMP")
+    @Column(name = "fecha_actualizacion", nullable = false)
+    private Instant fechaActualizacion;
+
+}
@@ -0,0 +1,38 @@
+package persistence.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.Hibernate;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+@Getter
+@Setter
+@Embeddable
+public class PendientePagoDiarioId implements Serializable {
+    private static final long serialVersionUID = -2216473958120457715L;
+    @Column(name = "proveedor_id", nullable = false)
+    private Long proveedorId;
+
+    @Column(name = "dia", nullable = false)
+    private LocalDate dia;
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || Hibernate.getClass(this) != Hibernate.getClass(o)) return false;
+        PendientePagoDiarioId entity = (PendientePagoDiarioId) o;
+        return Objects.equals(this.proveedorId, entity.proveedorId) &&
+                Objects.equals(this.dia, entity.dia);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(proveedorId, dia);
+    }
+
+}
@@ -8,6 +8,7 @@ import persistence.converter.EstadoProveedorConverter;
 import persistence.converter.TipoDocumentoConverter;
 import persistence.enums.EstadoProveedor;
 import persistence.enums.TipoDocumento;
+import persistence.listener.CatalogoEntityListener;
 
 import java.math.BigDecimal;
 import java.time.Instant;
@@ -15,6 +16,7 @@ import java.time.Instant;
 @Getter
 @Setter
 @Entity
+@EntityListeners(CatalogoEntityListener.class)
 @Table(name = "proveedor", schema = "sicofar")
 public class Proveedor {
     @Id
@@ -0,0 +1,37 @@
+package persistence.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Resumen diario pre-agregado de movimientos por (inventario, tipo de operación, día).
+ * Se incrementa en la misma transacción en la que se registran los movimientos.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "resumen_diario_movimiento", schema = "sicofar", indexes = {
+        @Index(name = "idx_resumen_diario_tipo_dia", columnList = "tipo_operacion, dia")
+})
+public class ResumenDiarioMovimiento {
+    @EmbeddedId
+    private ResumenDiarioMovimientoId id;
+
+    @ColumnDefault("0.00")
+    @Column(name = "cantidad_total", nullable = false, precision = 14, scale = 2)
+    private BigDecimal cantidadTotal;
+
+    @ColumnDefault("0")
+    @Column(name = "numero_movimientos", nullable = false)
+    private Long numeroMovimientos;
+
+    @ColumnDefault("CURRENT_TIMESTAMP")
+    @Column(name = "fecha_actualizacion", nullable = false)
+    private Instant fechaActualizacion;
+
+}
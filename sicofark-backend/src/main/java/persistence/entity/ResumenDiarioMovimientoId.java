@@ -0,0 +1,42 @@
+package persistence.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.Hibernate;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+@Getter
+@Setter
+@Embeddable
+public class ResumenDiarioMovimientoId implements Serializable {
+    private static final long serialVersionUID = 3841920475618203947L;
+    @Column(name = "inventario_id", nullable = false)
+    private Long inventarioId;
+
+    @Column(name = "tipo_operacion", nullable = false, length = 20)
+    private String tipoOperacion;
+
+    @Column(name = "dia", nullable = false)
+    private LocalDate dia;
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || Hibernate.getClass(this) != Hibernate.getClass(o)) return false;
+        ResumenDiarioMovimientoId entity = (ResumenDiarioMovimientoId) o;
+        return Objects.equals(this.inventarioId, entity.inventarioId) &&
+                Objects.equals(this.tipoOperacion, entity.tipoOperacion) &&
+                Objects.equals(this.dia, entity.dia);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(inventarioId, tipoOperacion, dia);
+    }
+
+}
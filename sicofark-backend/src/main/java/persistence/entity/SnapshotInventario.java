@@ -0,0 +1,45 @@
+package persistence.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Stock de un inventario en un instante de corte (inicio de día en la zona de operación).
+ * Base para reconstruir el stock a una fecha pasada reproduciendo solo los movimientos
+ * posteriores al corte.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "snapshot_inventario", schema = "sicofar", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_snapshot_inventario_corte", columnNames = {"inventario_id", "fecha_corte"})
+})
+public class SnapshotInventario {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id", nullable = false)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @JoinColumn(name = "inventario_id", nullable = false)
+    private Inventario inventario;
+
+    @Column(name = "fecha_corte", nullable = false)
+    private Instant fechaCorte;
+
+    @Column(name = "stock", nullable = false, precision = 12, scale = 2)
+    private BigDecimal stock;
+
+    @ColumnDefault("CURRENT_TIMESTAMP")
+    @Column(name = "fecha_creacion", nullable = false)
+    private Instant fechaCreacion;
+
+}
@@ -0,0 +1,44 @@
+package persistence.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.time.Instant;
+
+/**
+ * Clave de idempotencia de un ingreso enviado por una báscula o tableta.
+ * La clave es única por usuario. Se reclama en la misma transacción que registra el
+ * ingreso y guarda el hash del cuerpo de la solicitud y la respuesta original (JSON)
+ * para devolverla a los reintentos.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "solicitud_idempotente", schema = "sicofar", indexes = {
+        @Index(name = "idx_solicitud_idempotente_fecha", columnList = "fecha_creacion")
+})
+public class SolicitudIdempotente {
+    @EmbeddedId
+    private SolicitudIdempotenteId id;
+
+    // SHA-256 (hex) del cuerpo de la solicitud original
+    @Column(name = "hash_solicitud", nullable = false, length = 64)
+    private String hashSolicitud;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @JoinColumn(name = "transaccion_id")
+    private Transaccion transaccion;
+
+    @Column(name = "respuesta", length = Integer.MAX_VALUE)
+    private String respuesta;
+
+    @ColumnDefault("CURRENT_TIMESTAMP")
+    @Column(name = "fecha_creacion", nullable = false)
+    private Instant fechaCreacion;
+
+}
@@ -0,0 +1,44 @@
+package persistence.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.Hibernate;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@Embeddable
+public class SolicitudIdempotenteId implements Serializable {
+    private static final long serialVersionUID = 6130457729461508232L;
+    @Column(name = "usuario_id", nullable = false)
+    private Long usuarioId;
+
+    @Column(name = "clave", nullable = false, length = 100)
+    private String clave;
+
+    public SolicitudIdempotenteId(Long usuarioId, String clave) {
+        this.usuarioId = usuarioId;
+        this.clave = clave;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || Hibernate.getClass(this) != Hibernate.getClass(o)) return false;
+        SolicitudIdempotenteId entity = (SolicitudIdempotenteId) o;
+        return Objects.equals(this.usuarioId, entity.usuarioId) &&
+                Objects.equals(this.clave, entity.clave);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(usuarioId, clave);
+    }
+
+}
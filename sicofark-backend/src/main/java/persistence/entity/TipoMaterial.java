@@ -8,6 +8,7 @@ import persistence.converter.CategoriaMaterialConverter;
 import persistence.converter.UnidadMedidaConverter;
 import persistence.enums.CategoriaMaterial;
 import persistence.enums.UnidadMedida;
+import persistence.listener.CatalogoEntityListener;
 
 import java.math.BigDecimal;
 import java.time.Instant;
@@ -15,6 +16,7 @@ import java.time.Instant;
 @Getter
 @Setter
 @Entity
+@EntityListeners(CatalogoEntityListener.class)
 @Table(name = "tipo_material", schema = "sicofar")
 public class TipoMaterial {
     @Id
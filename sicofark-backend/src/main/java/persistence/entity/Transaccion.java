@@ -17,7 +17,9 @@ import java.time.Instant;
 @Getter
 @Setter
 @Entity
-@Table(name = "transaccion", schema = "sicofar")
+@Table(name = "transaccion", schema = "sicofar", indexes = {
+        @Index(name = "idx_transaccion_proveedor_fecha", columnList = "proveedor_id, fecha, id")
+})
 public class Transaccion {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -1,10 +1,26 @@
 package persistence.enums;
 
+import java.util.Arrays;
+import java.util.List;
+
 public enum EstadoTransaccion {
     PENDIENTE,
     PROCESADA,
     PAGADA,
     ANULADA,
-    FACTURADA
+    FACTURADA;
+
+    /**
+     * Transacción con el material recibido en firme: cuenta en las estadísticas del proveedor.
+     */
+    public boolean esCompletada() {
+        return this == PROCESADA || this == PAGADA || this == FACTURADA;
+    }
 
+    /**
+     * Estados completados, para filtrar consultas con IN.
+     */
+    public static List<EstadoTransaccion> completados() {
+        return Arrays.stream(values()).filter(EstadoTransaccion::esCompletada).toList();
+    }
 }
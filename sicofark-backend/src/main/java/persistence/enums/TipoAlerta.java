@@ -3,6 +3,7 @@ package persistence.enums;
 public enum TipoAlerta {
     MERMA_ALTA,
     STOCK_BAJO,
+    STOCK_ALTO,
     SISTEMA,
     CONFIGURACION
 }
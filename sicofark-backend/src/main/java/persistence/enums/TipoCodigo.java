@@ -0,0 +1,26 @@
+package persistence.enums;
+
+/**
+ * Códigos de negocio asignados por contador (bodega + año).
+ */
+public enum TipoCodigo {
+    TRANSACCION("T"),
+    LOTE("L");
+
+    private final String letra;
+
+    TipoCodigo(String letra) {
+        this.letra = letra;
+    }
+
+    /**
+     * Prefijo común de los códigos de una bodega en un año, p. ej. L3-2025-.
+     */
+    public String prefijo(Long bodegaId, int anio) {
+        return letra + bodegaId + "-" + anio + "-";
+    }
+
+    public String formatear(Long bodegaId, int anio, long numero) {
+        return String.format("%s%06d", prefijo(bodegaId, anio), numero);
+    }
+}
@@ -0,0 +1,19 @@
+package persistence.enums;
+
+/**
+ * Descuadres de balance de masa que detecta la conciliación de lotes.
+ */
+public enum TipoDiscrepancia {
+    // La primera etapa no recibe el peso neto del lote
+    ETAPA_INICIAL,
+    // El peso de entrada de una etapa no es el de salida de la anterior
+    CADENA_ETAPAS,
+    // Los lotes hijos pesan más que lo disponible del padre (salida de la última etapa o peso neto)
+    HIJOS_EXCEDEN,
+    // Las ENTRADA de inventario del lote no suman su peso neto
+    ENTRADA_INVENTARIO,
+    // El saldo de movimientos del lote es negativo
+    SALDO_NEGATIVO,
+    // El saldo de movimientos del lote supera su peso neto
+    SALDO_EXCEDE
+}
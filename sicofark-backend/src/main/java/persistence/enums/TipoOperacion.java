@@ -1,9 +1,23 @@
 package persistence.enums;
 
+import java.math.BigDecimal;
+
 public enum TipoOperacion {
     ENTRADA,
     SALIDA,
     AJUSTE,
     MERMA,
-    TRANSFORMACION
+    TRANSFORMACION;
+
+    /**
+     * Convierte la cantidad de un movimiento en el delta que se aplica sobre el stock.
+     * ENTRADA suma, SALIDA y MERMA restan; AJUSTE y TRANSFORMACION llevan el signo en la cantidad.
+     */
+    public BigDecimal aplicarSigno(BigDecimal cantidad) {
+        return switch (this) {
+            case ENTRADA -> cantidad.abs();
+            case SALIDA, MERMA -> cantidad.abs().negate();
+            case AJUSTE, TRANSFORMACION -> cantidad;
+        };
+    }
 }
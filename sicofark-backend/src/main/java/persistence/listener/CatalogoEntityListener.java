@@ -0,0 +1,44 @@
+package persistence.listener;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import persistence.entity.Bodega;
+import persistence.entity.Proveedor;
+import persistence.entity.TipoMaterial;
+import service.interfaces.CatalogoService;
+
+/**
+ * Invalida la caché de catálogos cuando JPA inserta, actualiza o elimina un tipo de material,
+ * una bodega o un proveedor. La instancia la crea Spring (SpringBeanContainer de Hibernate);
+ * el servicio se resuelve al primer evento para no depender de él al construir el EntityManagerFactory.
+ *
+ * Los UPDATE masivos (JPQL o SQL nativo) no pasan por aquí: invalidan con CatalogoService
+ * o esperan al tiempo de vida de la caché.
+ */
+public class CatalogoEntityListener {
+
+    private final ObjectProvider<CatalogoService> catalogoService;
+
+    public CatalogoEntityListener(ObjectProvider<CatalogoService> catalogoService) {
+        this.catalogoService = catalogoService;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void invalidar(Object entidad) {
+        CatalogoService servicio = catalogoService.getIfAvailable();
+        if (servicio == null) {
+            return;
+        }
+        if (entidad instanceof TipoMaterial tipoMaterial) {
+            servicio.invalidarTipoMaterial(tipoMaterial.getId());
+        } else if (entidad instanceof Bodega bodega) {
+            servicio.invalidarBodega(bodega.getId());
+        } else if (entidad instanceof Proveedor proveedor) {
+            servicio.invalidarProveedor(proveedor.getId());
+        }
+    }
+}
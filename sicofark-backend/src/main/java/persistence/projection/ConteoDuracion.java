@@ -0,0 +1,13 @@
+package persistence.projection;
+
+/**
+ * Etapas de un tipo por intervalo de duración en un período.
+ */
+public interface ConteoDuracion {
+
+    String getTipoEtapa();
+
+    Short getCubo();
+
+    Long getConteo();
+}
@@ -0,0 +1,30 @@
+package persistence.projection;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Cuentas por pagar de un proveedor con la deuda repartida por antigüedad (días desde la transacción).
+ */
+public interface CuentaPorPagar {
+
+    Long getProveedorId();
+
+    String getProveedorNombres();
+
+    String getProveedorApellidos();
+
+    Long getNumeroTransacciones();
+
+    BigDecimal getValorPendiente();
+
+    LocalDate getDiaMasAntiguo();
+
+    BigDecimal getValorHasta30Dias();
+
+    BigDecimal getValor31a60Dias();
+
+    BigDecimal getValor61a90Dias();
+
+    BigDecimal getValorMas90Dias();
+}
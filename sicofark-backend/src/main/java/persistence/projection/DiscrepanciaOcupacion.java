@@ -0,0 +1,15 @@
+package persistence.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * Bodega cuya ocupación materializada no coincide con la suma de sus inventarios.
+ */
+public interface DiscrepanciaOcupacion {
+
+    Long getBodegaId();
+
+    BigDecimal getStockRegistrado();
+
+    BigDecimal getStockCalculado();
+}
@@ -0,0 +1,19 @@
+package persistence.projection;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Lote con su peso aún disponible: peso neto menos las salidas y mermas
+ * registradas en movimiento_inventario con ese lote.
+ */
+public interface LoteDisponible {
+
+    Long getLoteId();
+
+    String getCodigo();
+
+    Instant getFechaRegistro();
+
+    BigDecimal getPesoDisponible();
+}
@@ -0,0 +1,58 @@
+package persistence.projection;
+
+import persistence.enums.CalidadMaterial;
+import persistence.enums.EstadoLote;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Fila plana de un lote con los nombres de sus relaciones, resuelta con una sola consulta.
+ * Modelo de lectura de los listados de LoteResponseDTO (evita N+1 sobre las relaciones LAZY).
+ */
+public interface LoteResumen {
+
+    Long getId();
+
+    String getCodigo();
+
+    BigDecimal getPesoBruto();
+
+    BigDecimal getTara();
+
+    BigDecimal getPesoNeto();
+
+    String getOrigen();
+
+    String getObservaciones();
+
+    EstadoLote getEstado();
+
+    CalidadMaterial getCalidad();
+
+    Long getProveedorId();
+
+    String getProveedorNombres();
+
+    String getProveedorApellidos();
+
+    Long getTipoMaterialId();
+
+    String getTipoMaterialNombre();
+
+    Long getBodegaId();
+
+    String getBodegaNombre();
+
+    Long getUsuarioRegistroId();
+
+    String getUsuarioRegistroNombres();
+
+    String getUsuarioRegistroApellidos();
+
+    Long getLotePadreId();
+
+    Instant getFechaRegistro();
+
+    Instant getFechaActualizacion();
+}
@@ -0,0 +1,21 @@
+package persistence.projection;
+
+import persistence.enums.EstadoProveedor;
+
+/**
+ * Resultado de la búsqueda de proveedores con su relevancia (0 a 1).
+ */
+public interface ProveedorBusqueda {
+
+    Long getId();
+
+    String getNombres();
+
+    String getApellidos();
+
+    String getNumeroDocumento();
+
+    EstadoProveedor getEstado();
+
+    Double getRelevancia();
+}
@@ -0,0 +1,36 @@
+package persistence.projection;
+
+import persistence.enums.EstadoProveedor;
+import persistence.enums.TipoDocumento;
+
+import java.math.BigDecimal;
+
+/**
+ * Proveedor con sus totales de compras (transacciones completadas), resuelto en una sola consulta.
+ */
+public interface ResumenProveedor {
+
+    Long getId();
+
+    String getNombres();
+
+    String getApellidos();
+
+    TipoDocumento getTipoDocumento();
+
+    String getNumeroDocumento();
+
+    String getTelefono();
+
+    String getEmail();
+
+    EstadoProveedor getEstado();
+
+    BigDecimal getCalificacion();
+
+    Long getNumeroTransacciones();
+
+    BigDecimal getPesoTotal();
+
+    BigDecimal getValorTotal();
+}
@@ -0,0 +1,20 @@
+package persistence.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * Resultado de una actualización atómica de stock (UPDATE ... RETURNING).
+ * stockAnterior se deriva del valor confirmado menos el delta aplicado.
+ */
+public interface StockActualizado {
+
+    Long getInventarioId();
+
+    BigDecimal getStockAnterior();
+
+    BigDecimal getStockNuevo();
+
+    BigDecimal getStockMinimo();
+
+    BigDecimal getStockMaximo();
+}
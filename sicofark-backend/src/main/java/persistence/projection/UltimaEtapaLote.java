@@ -0,0 +1,23 @@
+package persistence.projection;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Lo que se necesita de las etapas previas de un lote para registrar la siguiente.
+ */
+public interface UltimaEtapaLote {
+
+    Long getLoteId();
+
+    // Merma acumulada de la última etapa que empezó antes que la nueva; null si no hay
+    BigDecimal getMermaAcumulada();
+
+    // Fin de la última etapa que empezó antes que la nueva; null si no hay
+    Instant getFechaFinAnterior();
+
+    // Primera etapa que empezó después de la nueva (etapa registrada con fecha pasada); null si no hay
+    Instant getFechaInicioSiguiente();
+
+    String getTipoEtapaSiguiente();
+}
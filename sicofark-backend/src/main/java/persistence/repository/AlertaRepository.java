@@ -1,4 +1,56 @@
 package persistence.repository;
 
-public interface AlertaRepository {
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import persistence.entity.Alerta;
+import persistence.enums.EstadoAlerta;
+import persistence.enums.TipoAlerta;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repositorio para la gestión de Alertas.
+ *
+ * Funcionalidades:
+ * - Búsqueda de la alerta abierta (ACTIVA o RECONOCIDA) de una entidad
+ * - Listado de entidades con alertas abiertas para el barrido de consistencia
+ *
+ * IMPORTANTE: Una entidad tiene a lo sumo una alerta abierta por tipo; las repeticiones
+ * incrementan el contador de la alerta existente.
+ */
+@Repository
+public interface AlertaRepository extends JpaRepository<Alerta, Long> {
+
+    @Query("SELECT a FROM Alerta a WHERE a.tipo = :tipo AND a.entidadTipo = :entidadTipo " +
+           "AND a.entidadId = :entidadId AND a.estado <> :cerrada ORDER BY a.fechaGeneracion DESC")
+    List<Alerta> findAbiertasByEntidad(@Param("tipo") TipoAlerta tipo,
+                                       @Param("entidadTipo") String entidadTipo,
+                                       @Param("entidadId") Long entidadId,
+                                       @Param("cerrada") EstadoAlerta cerrada,
+                                       Limit limit);
+
+    /**
+     * Alerta abierta más reciente de una entidad para un tipo de alerta.
+     */
+    default Optional<Alerta> findAbierta(TipoAlerta tipo, String entidadTipo, Long entidadId) {
+        return findAbiertasByEntidad(tipo, entidadTipo, entidadId, EstadoAlerta.CERRADA, Limit.of(1))
+            .stream().findFirst();
+    }
+
+    @Query("SELECT a FROM Alerta a WHERE a.tipo = :tipo AND a.entidadTipo = :entidadTipo " +
+           "AND a.estado <> :cerrada")
+    List<Alerta> findAbiertasByTipo(@Param("tipo") TipoAlerta tipo,
+                                    @Param("entidadTipo") String entidadTipo,
+                                    @Param("cerrada") EstadoAlerta cerrada);
+
+    /**
+     * Alertas abiertas de un tipo sobre una clase de entidad (p. ej. INVENTARIO).
+     */
+    default List<Alerta> findAbiertas(TipoAlerta tipo, String entidadTipo) {
+        return findAbiertasByTipo(tipo, entidadTipo, EstadoAlerta.CERRADA);
+    }
 }
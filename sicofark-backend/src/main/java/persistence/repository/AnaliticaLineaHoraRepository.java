@@ -0,0 +1,108 @@
+package persistence.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import persistence.entity.AnaliticaLineaHora;
+import persistence.entity.AnaliticaLineaHoraId;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repositorio del agregado por hora de la línea de procesamiento.
+ * MÓDULO 2: Control de Material Procesado
+ *
+ * Funcionalidades:
+ * - Ajuste atómico (upsert) al registrar cada etapa
+ * - Lectura de las horas de un período para rendimiento por etapa y cuellos de botella por turno
+ * - Reconstrucción desde etapa_procesamiento
+ *
+ * IMPORTANTE: Las horas se calculan en la zona horaria de operación (sicofark.zona-horaria).
+ */
+@Repository
+public interface AnaliticaLineaHoraRepository extends JpaRepository<AnaliticaLineaHora, AnaliticaLineaHoraId> {
+
+    /**
+     * Sumar etapas a su hora. esperas: cuántas de ellas tienen una etapa anterior en su lote.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO sicofar.analitica_linea_hora AS a " +
+                   "(bodega_id, tipo_etapa, hora, etapas, duracion_segundos, peso_entrada, peso_salida, " +
+                   " esperas, espera_segundos, fecha_actualizacion) " +
+                   "VALUES (:bodegaId, :tipoEtapa, :hora, :etapas, :duracionSegundos, :pesoEntrada, :pesoSalida, " +
+                   "        :esperas, :esperaSegundos, CURRENT_TIMESTAMP) " +
+                   "ON CONFLICT (bodega_id, tipo_etapa, hora) DO UPDATE SET " +
+                   "etapas = a.etapas + EXCLUDED.etapas, " +
+                   "duracion_segundos = a.duracion_segundos + EXCLUDED.duracion_segundos, " +
+                   "peso_entrada = a.peso_entrada + EXCLUDED.peso_entrada, " +
+                   "peso_salida = a.peso_salida + EXCLUDED.peso_salida, " +
+                   "esperas = a.esperas + EXCLUDED.esperas, " +
+                   "espera_segundos = a.espera_segundos + EXCLUDED.espera_segundos, " +
+                   "fecha_actualizacion = EXCLUDED.fecha_actualizacion",
+           nativeQuery = true)
+    int acumular(
+        @Param("bodegaId") Long bodegaId,
+        @Param("tipoEtapa") String tipoEtapa,
+        @Param("hora") LocalDateTime hora,
+        @Param("etapas") long etapas,
+        @Param("duracionSegundos") long duracionSegundos,
+        @Param("pesoEntrada") BigDecimal pesoEntrada,
+        @Param("pesoSalida") BigDecimal pesoSalida,
+        @Param("esperas") long esperas,
+        @Param("esperaSegundos") long esperaSegundos
+    );
+
+    /**
+     * Horas de un período [desde, hasta), de una bodega o de todas.
+     */
+    @Query("SELECT a FROM AnaliticaLineaHora a " +
+           "WHERE a.id.hora >= :desde AND a.id.hora < :hasta " +
+           "AND (:bodegaId IS NULL OR a.id.bodegaId = :bodegaId)")
+    List<AnaliticaLineaHora> findByPeriodo(
+        @Param("bodegaId") Long bodegaId,
+        @Param("desde") LocalDateTime desde,
+        @Param("hasta") LocalDateTime hasta
+    );
+
+    // ============ RECONSTRUCCIÓN ============
+
+    /**
+     * Bloquear ambos agregados hasta el fin de la transacción: los upserts de registrarEtapas
+     * (ROW EXCLUSIVE) esperan a que termine la reconstrucción, y esta espera a los que ya
+     * empezaron, cuyas etapas quedan así dentro de su INSERT ... SELECT.
+     */
+    @Modifying
+    @Query(value = "LOCK TABLE sicofar.analitica_linea_hora, sicofar.histograma_duracion_etapa " +
+                   "IN SHARE ROW EXCLUSIVE MODE",
+           nativeQuery = true)
+    void bloquearParaReconstruir();
+
+    @Modifying
+    @Query("DELETE FROM AnaliticaLineaHora a")
+    int deleteTodo();
+
+    /**
+     * Recalcular el agregado completo. La espera es respecto a la etapa anterior del lote
+     * (por fecha de inicio) y solo cuenta si no es negativa.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO sicofar.analitica_linea_hora " +
+                   "(bodega_id, tipo_etapa, hora, etapas, duracion_segundos, peso_entrada, peso_salida, " +
+                   " esperas, espera_segundos, fecha_actualizacion) " +
+                   "SELECT l.bodega_id, CAST(e.tipo_etapa AS varchar), date_trunc('hour', e.fecha_inicio AT TIME ZONE :zona), " +
+                   "       COUNT(*), CAST(SUM(EXTRACT(EPOCH FROM (e.fecha_fin - e.fecha_inicio))) AS bigint), " +
+                   "       SUM(e.peso_entrada), SUM(e.peso_salida), " +
+                   "       COUNT(*) FILTER (WHERE e.espera >= 0), " +
+                   "       COALESCE(CAST(SUM(e.espera) FILTER (WHERE e.espera >= 0) AS bigint), 0), CURRENT_TIMESTAMP " +
+                   "FROM (SELECT p.*, EXTRACT(EPOCH FROM (p.fecha_inicio - " +
+                   "          LAG(p.fecha_fin) OVER (PARTITION BY p.lote_id ORDER BY p.fecha_inicio, p.id))) AS espera " +
+                   "      FROM sicofar.etapa_procesamiento p) e " +
+                   "JOIN sicofar.lote l ON l.id = e.lote_id " +
+                   "GROUP BY 1, 2, 3",
+           nativeQuery = true)
+    int reconstruir(@Param("zona") String zona);
+}
@@ -1,4 +1,44 @@
 package persistence.repository;
 
-public interface AuditoriaRepository {
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import persistence.entity.Auditoria;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Repositorio para la gestión de la Auditoría.
+ *
+ * La tabla auditoria está particionada por mes sobre fecha: toda consulta debe
+ * acotar fecha con un rango para que PostgreSQL descarte las particiones fuera de él.
+ */
+@Repository
+public interface AuditoriaRepository extends JpaRepository<Auditoria, Long> {
+
+    /**
+     * Listar registros de auditoría en un rango de fechas, paginado por cursor (fecha, id).
+     * El rango [fechaInicio, fechaFin] limita las particiones leídas.
+     */
+    @Query("SELECT a FROM Auditoria a WHERE a.fecha BETWEEN :fechaInicio AND :fechaFin " +
+           "AND (a.fecha, a.id) < (:fecha, :id) " +
+           "ORDER BY a.fecha DESC, a.id DESC")
+    List<Auditoria> findPaginaByFechaBetween(@Param("fechaInicio") Instant fechaInicio,
+                                             @Param("fechaFin") Instant fechaFin,
+                                             @Param("fecha") Instant fecha,
+                                             @Param("id") Long id,
+                                             Limit limit);
+
+    /**
+     * Historial de un registro auditado dentro de un rango de fechas.
+     */
+    @Query("SELECT a FROM Auditoria a WHERE a.tablaAfectada = :tablaAfectada AND a.registroId = :registroId " +
+           "AND a.fecha BETWEEN :fechaInicio AND :fechaFin ORDER BY a.fecha DESC, a.id DESC")
+    List<Auditoria> findByRegistroAndFechaBetween(@Param("tablaAfectada") String tablaAfectada,
+                                                  @Param("registroId") Long registroId,
+                                                  @Param("fechaInicio") Instant fechaInicio,
+                                                  @Param("fechaFin") Instant fechaFin);
 }
@@ -69,15 +69,15 @@ public interface BodegaRepository extends JpaRepository<Bodega, Long> {
 
     /**
      * Obtener capacidad disponible de una bodega.
-     * Capacidad Disponible = Capacidad Máxima - Stock Actual Total
+     * Capacidad Disponible = Capacidad Máxima - Ocupación
      *
-     * IMPORTANTE: Esta consulta calcula en tiempo real cuánto espacio libre tiene la bodega.
+     * IMPORTANTE: La ocupación se lee del contador materializado (OcupacionBodega),
+     * que se mantiene en la misma sentencia que cada movimiento de stock.
      */
-    @Query("SELECT (b.capacidadMaxima - COALESCE(SUM(i.stockActual), 0)) " +
+    @Query("SELECT b.capacidadMaxima - COALESCE(o.stockTotal, 0) " +
            "FROM Bodega b " +
-           "LEFT JOIN Inventario i ON i.bodega.id = b.id " +
-           "WHERE b.id = :bodegaId " +
-           "GROUP BY b.capacidadMaxima")
+           "LEFT JOIN OcupacionBodega o ON o.bodegaId = b.id " +
+           "WHERE b.id = :bodegaId")
     BigDecimal getCapacidadDisponible(@Param("bodegaId") Long bodegaId);
 
     /**
@@ -87,22 +87,20 @@ public interface BodegaRepository extends JpaRepository<Bodega, Long> {
      * @param capacidadRequerida kg de material que se necesita almacenar
      * @return Lista de bodegas activas con capacidad suficiente
      */
-    @Query("SELECT b FROM Bodega b WHERE " +
-           "(b.capacidadMaxima - COALESCE(" +
-           "   (SELECT SUM(i.stockActual) FROM Inventario i WHERE i.bodega.id = b.id), 0" +
-           ")) >= :capacidadRequerida " +
+    @Query("SELECT b FROM Bodega b " +
+           "LEFT JOIN OcupacionBodega o ON o.bodegaId = b.id " +
+           "WHERE (b.capacidadMaxima - COALESCE(o.stockTotal, 0)) >= :capacidadRequerida " +
            "AND b.estado = 'ACTIVA'")
     List<Bodega> findBodegasConCapacidadDisponible(@Param("capacidadRequerida") BigDecimal capacidadRequerida);
 
     /**
      * Obtener porcentaje de ocupación de una bodega.
-     * % Ocupación = (Stock Actual Total / Capacidad Máxima) * 100
+     * % Ocupación = (Ocupación / Capacidad Máxima) * 100
      */
-    @Query("SELECT (COALESCE(SUM(i.stockActual), 0) / b.capacidadMaxima) * 100 " +
+    @Query("SELECT (COALESCE(o.stockTotal, 0) / b.capacidadMaxima) * 100 " +
            "FROM Bodega b " +
-           "LEFT JOIN Inventario i ON i.bodega.id = b.id " +
-           "WHERE b.id = :bodegaId " +
-           "GROUP BY b.capacidadMaxima")
+           "LEFT JOIN OcupacionBodega o ON o.bodegaId = b.id " +
+           "WHERE b.id = :bodegaId")
     BigDecimal getPorcentajeOcupacion(@Param("bodegaId") Long bodegaId);
 
     /**
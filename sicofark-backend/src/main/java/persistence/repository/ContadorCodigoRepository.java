@@ -0,0 +1,55 @@
+package persistence.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import persistence.entity.ContadorCodigo;
+import persistence.entity.ContadorCodigoId;
+
+import java.util.Optional;
+
+/**
+ * Repositorio de contadores de códigos de negocio (consecutivos de transacción y códigos de lote).
+ *
+ * Funcionalidades:
+ * - Reserva atómica de bloques de números por (tipo, bodega, año)
+ * - Inicialización del contador a partir de los códigos ya existentes
+ */
+@Repository
+public interface ContadorCodigoRepository extends JpaRepository<ContadorCodigo, ContadorCodigoId> {
+
+    /**
+     * Reservar un bloque de números en una sola sentencia (UPDATE ... RETURNING).
+     * La fila del contador serializa a las instancias concurrentes: cada una recibe un rango disjunto.
+     *
+     * @return último número del bloque reservado; vacío si el contador aún no existe
+     */
+    @Query(value = "UPDATE sicofar.contador_codigo " +
+                   "SET ultimo_valor = ultimo_valor + :bloque, fecha_actualizacion = CURRENT_TIMESTAMP " +
+                   "WHERE tipo = :tipo AND bodega_id = :bodegaId AND anio = :anio " +
+                   "RETURNING ultimo_valor",
+           nativeQuery = true)
+    Optional<Long> reservarBloque(
+        @Param("tipo") String tipo,
+        @Param("bodegaId") Long bodegaId,
+        @Param("anio") int anio,
+        @Param("bloque") long bloque
+    );
+
+    /**
+     * Crear el contador con el último número ya usado. Si otra instancia lo creó primero no hace nada.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO sicofar.contador_codigo (tipo, bodega_id, anio, ultimo_valor, fecha_actualizacion) " +
+                   "VALUES (:tipo, :bodegaId, :anio, :ultimoValor, CURRENT_TIMESTAMP) " +
+                   "ON CONFLICT (tipo, bodega_id, anio) DO NOTHING",
+           nativeQuery = true)
+    int inicializar(
+        @Param("tipo") String tipo,
+        @Param("bodegaId") Long bodegaId,
+        @Param("anio") int anio,
+        @Param("ultimoValor") long ultimoValor
+    );
+}
@@ -1,4 +1,27 @@
 package persistence.repository;
 
-public interface DetalleTrasaccionRepository {
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import persistence.entity.DetalleTransaccion;
+
+import java.util.List;
+
+/**
+ * Repositorio para la gestión de Detalles de Transacción.
+ * MÓDULO 1: Control de Material Ingresado
+ */
+@Repository
+public interface DetalleTrasaccionRepository extends JpaRepository<DetalleTransaccion, Long> {
+
+    /**
+     * Listar detalles de transacción de un lote y de todos sus descendientes.
+     * Impacto de un recall: qué compras/ventas involucran material del lote.
+     */
+    @Query("SELECT d FROM DetalleTransaccion d JOIN FETCH d.transaccion " +
+           "WHERE d.lote.id IN (" +
+           "SELECT g.id.descendienteId FROM LoteGenealogia g WHERE g.id.ancestroId = :loteId) " +
+           "ORDER BY d.transaccion.id ASC, d.id ASC")
+    List<DetalleTransaccion> findByLoteOrDescendientes(@Param("loteId") Long loteId);
 }
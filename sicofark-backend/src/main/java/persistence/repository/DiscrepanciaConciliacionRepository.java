@@ -0,0 +1,46 @@
+package persistence.repository;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import persistence.entity.DiscrepanciaConciliacion;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Repositorio de discrepancias de la conciliación de balance de masa.
+ *
+ * Funcionalidades:
+ * - Reporte de una ejecución paginado por id (keyset), opcionalmente por tipo o bodega
+ * - Depuración de ejecuciones antiguas
+ */
+@Repository
+public interface DiscrepanciaConciliacionRepository extends JpaRepository<DiscrepanciaConciliacion, Long> {
+
+    /**
+     * Discrepancias de una ejecución con id mayor a despuesDe, en orden de id.
+     */
+    @Query("SELECT d FROM DiscrepanciaConciliacion d WHERE d.ejecucion.id = :ejecucionId " +
+           "AND d.id > :despuesDe " +
+           "AND (:tipo IS NULL OR d.tipo = :tipo) " +
+           "AND (:bodegaId IS NULL OR d.bodegaId = :bodegaId) " +
+           "ORDER BY d.id ASC")
+    List<DiscrepanciaConciliacion> findPagina(
+        @Param("ejecucionId") Long ejecucionId,
+        @Param("despuesDe") Long despuesDe,
+        @Param("tipo") String tipo,
+        @Param("bodegaId") Long bodegaId,
+        Limit limit
+    );
+
+    /**
+     * Eliminar las ejecuciones (y por cascada sus discrepancias) iniciadas antes de la fecha.
+     */
+    @Modifying
+    @Query(value = "DELETE FROM sicofar.ejecucion_conciliacion WHERE fecha_inicio < :fecha", nativeQuery = true)
+    int deleteEjecucionesAntesDe(@Param("fecha") Instant fecha);
+}
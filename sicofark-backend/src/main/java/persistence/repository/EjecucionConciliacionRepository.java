@@ -0,0 +1,36 @@
+package persistence.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import persistence.entity.EjecucionConciliacion;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Optional;
+
+/**
+ * Repositorio de ejecuciones de la conciliación de balance de masa.
+ */
+@Repository
+public interface EjecucionConciliacionRepository extends JpaRepository<EjecucionConciliacion, Long> {
+
+    Optional<EjecucionConciliacion> findFirstByOrderByIdDesc();
+
+    Optional<EjecucionConciliacion> findByDiaProgramado(LocalDate diaProgramado);
+
+    /**
+     * Registrar la conciliación nocturna de un día si ninguna instancia lo hizo ya.
+     *
+     * @return 1 si esta llamada reclamó el día, 0 si ya estaba reclamado
+     */
+    @Modifying
+    @Query(value = "INSERT INTO sicofar.ejecucion_conciliacion " +
+                   "(fecha_inicio, dia_programado, rangos, rangos_fallidos, lotes_revisados, etapas_revisadas, discrepancias) " +
+                   "VALUES (:fechaInicio, :dia, 0, 0, 0, 0, 0) " +
+                   "ON CONFLICT (dia_programado) DO NOTHING",
+           nativeQuery = true)
+    int reclamarDia(@Param("dia") LocalDate dia, @Param("fechaInicio") Instant fechaInicio);
+}
@@ -0,0 +1,56 @@
+package persistence.repository;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import persistence.entity.EstadisticaMermaEtapa;
+import persistence.entity.EstadisticaMermaEtapaId;
+
+import java.util.Optional;
+
+/**
+ * Repositorio de estadísticas de merma por tipo de etapa, tipo de material y bodega.
+ * MÓDULO 2: Control de Material Procesado
+ *
+ * Funcionalidades:
+ * - Creación idempotente de la fila (ON CONFLICT DO NOTHING) y bloqueo para fusionar lo acumulado
+ * - Bloqueo de la tabla para la reconstrucción inicial
+ */
+@Repository
+public interface EstadisticaMermaEtapaRepository extends JpaRepository<EstadisticaMermaEtapa, EstadisticaMermaEtapaId> {
+
+    /**
+     * Crear la fila vacía (sketch sin valores). Si otra instancia la creó primero no hace nada.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO sicofar.estadistica_merma_etapa " +
+                   "(tipo_etapa, tipo_material_id, bodega_id, conteo, media, m2, sketch, fecha_actualizacion) " +
+                   "VALUES (:tipoEtapa, :tipoMaterialId, :bodegaId, 0, 0, 0, CAST('' AS bytea), CURRENT_TIMESTAMP) " +
+                   "ON CONFLICT (tipo_etapa, tipo_material_id, bodega_id) DO NOTHING",
+           nativeQuery = true)
+    int inicializar(
+        @Param("tipoEtapa") String tipoEtapa,
+        @Param("tipoMaterialId") Long tipoMaterialId,
+        @Param("bodegaId") Long bodegaId
+    );
+
+    /**
+     * Fila bloqueada hasta el fin de la transacción: las instancias fusionan de a una.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e FROM EstadisticaMermaEtapa e WHERE e.id = :id")
+    Optional<EstadisticaMermaEtapa> findByIdParaActualizar(@Param("id") EstadisticaMermaEtapaId id);
+
+    /**
+     * Bloquear la tabla hasta el fin de la transacción para reconstruirla desde la historia.
+     * SHARE ROW EXCLUSIVE hace esperar a los checkpoints de las demás instancias y serializa
+     * la reconstrucción de dos instancias que arrancan a la vez.
+     */
+    @Modifying
+    @Query(value = "LOCK TABLE sicofar.estadistica_merma_etapa IN SHARE ROW EXCLUSIVE MODE", nativeQuery = true)
+    void bloquearParaReconstruir();
+}
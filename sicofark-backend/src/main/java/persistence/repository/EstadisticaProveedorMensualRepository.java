@@ -0,0 +1,138 @@
+package persistence.repository;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import persistence.entity.EstadisticaProveedorMensual;
+import persistence.entity.EstadisticaProveedorMensualId;
+import persistence.enums.EstadoProveedor;
+import persistence.enums.EstadoTransaccion;
+import persistence.projection.ResumenProveedor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repositorio de estadísticas mensuales de compras por proveedor.
+ * MÓDULO 1: Control de Material Ingresado
+ *
+ * Funcionalidades:
+ * - Ajuste atómico (upsert) al completar o revertir una transacción
+ * - Listado de proveedores con sus totales y ranking por período en una consulta
+ * - Reconstrucción desde transaccion
+ *
+ * IMPORTANTE: Los meses se calculan en la zona horaria de operación (sicofark.zona-horaria).
+ */
+@Repository
+public interface EstadisticaProveedorMensualRepository
+        extends JpaRepository<EstadisticaProveedorMensual, EstadisticaProveedorMensualId> {
+
+    String SELECT_RESUMEN = "SELECT p.id AS id, p.nombres AS nombres, p.apellidos AS apellidos, " +
+        "p.tipoDocumento AS tipoDocumento, p.numeroDocumento AS numeroDocumento, " +
+        "p.telefono AS telefono, p.email AS email, p.estado AS estado, p.calificacion AS calificacion, " +
+        "COALESCE(SUM(e.numeroTransacciones), 0) AS numeroTransacciones, " +
+        "COALESCE(SUM(e.pesoTotal), 0) AS pesoTotal, " +
+        "COALESCE(SUM(e.valorTotal), 0) AS valorTotal ";
+
+    // ============ MANTENIMIENTO INCREMENTAL ============
+
+    /**
+     * Sumar (o restar, con valores negativos) una transacción al mes de un proveedor.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO sicofar.estadistica_proveedor_mensual AS e " +
+                   "(proveedor_id, mes, numero_transacciones, peso_total, valor_total, fecha_actualizacion) " +
+                   "VALUES (:proveedorId, :mes, :numero, :peso, :valor, CURRENT_TIMESTAMP) " +
+                   "ON CONFLICT (proveedor_id, mes) DO UPDATE SET " +
+                   "numero_transacciones = e.numero_transacciones + EXCLUDED.numero_transacciones, " +
+                   "peso_total = e.peso_total + EXCLUDED.peso_total, " +
+                   "valor_total = e.valor_total + EXCLUDED.valor_total, " +
+                   "fecha_actualizacion = EXCLUDED.fecha_actualizacion",
+           nativeQuery = true)
+    int acumular(
+        @Param("proveedorId") Long proveedorId,
+        @Param("mes") LocalDate mes,
+        @Param("numero") long numero,
+        @Param("peso") BigDecimal peso,
+        @Param("valor") BigDecimal valor
+    );
+
+    // ============ CONSULTAS ============
+
+    /**
+     * Proveedores (opcionalmente de un estado) con sus totales históricos, ordenados por nombre.
+     */
+    @Query(SELECT_RESUMEN +
+           "FROM Proveedor p LEFT JOIN EstadisticaProveedorMensual e ON e.id.proveedorId = p.id " +
+           "WHERE (:estado IS NULL OR p.estado = :estado) " +
+           "GROUP BY p.id, p.nombres, p.apellidos, p.tipoDocumento, p.numeroDocumento, " +
+           "p.telefono, p.email, p.estado, p.calificacion " +
+           "ORDER BY p.nombres ASC, p.apellidos ASC")
+    List<ResumenProveedor> findResumenProveedores(@Param("estado") EstadoProveedor estado);
+
+    /**
+     * Proveedores con más compras entre dos meses (inclusive), de mayor a menor valor.
+     */
+    @Query(SELECT_RESUMEN +
+           "FROM EstadisticaProveedorMensual e JOIN Proveedor p ON p.id = e.id.proveedorId " +
+           "WHERE e.id.mes BETWEEN :mesInicio AND :mesFin " +
+           "GROUP BY p.id, p.nombres, p.apellidos, p.tipoDocumento, p.numeroDocumento, " +
+           "p.telefono, p.email, p.estado, p.calificacion " +
+           "ORDER BY SUM(e.valorTotal) DESC, p.id ASC")
+    List<ResumenProveedor> findRanking(
+        @Param("mesInicio") LocalDate mesInicio,
+        @Param("mesFin") LocalDate mesFin,
+        Limit limit
+    );
+
+    /**
+     * Meses de un proveedor entre dos meses (inclusive), en orden cronológico.
+     */
+    @Query("SELECT e FROM EstadisticaProveedorMensual e " +
+           "WHERE e.id.proveedorId = :proveedorId AND e.id.mes BETWEEN :mesInicio AND :mesFin " +
+           "ORDER BY e.id.mes ASC")
+    List<EstadisticaProveedorMensual> findByProveedorAndMeses(
+        @Param("proveedorId") Long proveedorId,
+        @Param("mesInicio") LocalDate mesInicio,
+        @Param("mesFin") LocalDate mesFin
+    );
+
+    // ============ RECONSTRUCCIÓN ============
+
+    /**
+     * Bloquear las estadísticas frente a los ajustes hasta el fin de la transacción.
+     * SHARE ROW EXCLUSIVE espera a las transacciones que ya ajustaron (y por tanto ya
+     * cambiaron el estado de su transacción) y hace esperar a las siguientes hasta después
+     * de la reconstrucción; también serializa la reconstrucción de dos nodos que arrancan a la vez.
+     */
+    @Modifying
+    @Query(value = "LOCK TABLE sicofar.estadistica_proveedor_mensual IN SHARE ROW EXCLUSIVE MODE", nativeQuery = true)
+    void bloquearParaReconstruir();
+
+    @Modifying
+    @Query("DELETE FROM EstadisticaProveedorMensual e")
+    int deleteTodo();
+
+    /**
+     * Recalcular las estadísticas completas desde las transacciones completadas.
+     */
+    default int reconstruir(String zona) {
+        return reconstruir(zona, EstadoTransaccion.completados().stream().map(Enum::name).toList());
+    }
+
+    @Modifying
+    @Query(value = "INSERT INTO sicofar.estadistica_proveedor_mensual " +
+                   "(proveedor_id, mes, numero_transacciones, peso_total, valor_total, fecha_actualizacion) " +
+                   "SELECT t.proveedor_id, CAST(date_trunc('month', t.fecha AT TIME ZONE :zona) AS date), " +
+                   "       COUNT(*), SUM(t.peso_total), SUM(t.valor_total), CURRENT_TIMESTAMP " +
+                   "FROM sicofar.transaccion t " +
+                   "WHERE CAST(t.estado AS text) IN (:estados) " +
+                   "GROUP BY 1, 2",
+           nativeQuery = true)
+    int reconstruir(@Param("zona") String zona, @Param("estados") Collection<String> estados);
+}
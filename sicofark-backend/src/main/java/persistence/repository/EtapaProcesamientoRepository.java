@@ -6,9 +6,11 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import persistence.entity.EtapaProcesamiento;
 import persistence.enums.TipoEtapa;
+import persistence.projection.UltimaEtapaLote;
 
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -50,6 +52,37 @@ public interface EtapaProcesamientoRepository extends JpaRepository<EtapaProcesa
            "WHERE e.lote.id = :loteId")
     BigDecimal getMermaAcumuladaByLote(@Param("loteId") Long loteId);
 
+    /**
+     * Merma acumulada y fin de la etapa anterior (la última que empezó antes que la nueva) e
+     * inicio y tipo de la siguiente (si la nueva etapa se registra con fecha pasada) de varios
+     * lotes en una consulta.
+     * REGISTRO POR CORRIDA: base para calcular la merma y la espera de las nuevas etapas.
+     * Los lotes sin etapas no aparecen en el resultado; si solo tienen etapas posteriores,
+     * la merma acumulada y el fin anterior son null.
+     */
+    @Query(value = "WITH anterior AS (" +
+                   "   SELECT DISTINCT ON (e.lote_id) e.lote_id, e.merma_acumulada, e.fecha_fin " +
+                   "   FROM sicofar.etapa_procesamiento e " +
+                   "   WHERE e.lote_id IN (:loteIds) AND e.fecha_inicio <= :fechaInicio " +
+                   "   ORDER BY e.lote_id, e.fecha_inicio DESC, e.id DESC" +
+                   "), siguiente AS (" +
+                   "   SELECT DISTINCT ON (e.lote_id) e.lote_id, e.fecha_inicio, e.tipo_etapa " +
+                   "   FROM sicofar.etapa_procesamiento e " +
+                   "   WHERE e.lote_id IN (:loteIds) AND e.fecha_inicio > :fechaInicio " +
+                   "   ORDER BY e.lote_id, e.fecha_inicio, e.id" +
+                   ") " +
+                   "SELECT COALESCE(a.lote_id, s.lote_id) AS \"loteId\", " +
+                   "       a.merma_acumulada AS \"mermaAcumulada\", " +
+                   "       a.fecha_fin AS \"fechaFinAnterior\", " +
+                   "       s.fecha_inicio AS \"fechaInicioSiguiente\", " +
+                   "       CAST(s.tipo_etapa AS varchar) AS \"tipoEtapaSiguiente\" " +
+                   "FROM anterior a FULL JOIN siguiente s ON s.lote_id = a.lote_id",
+           nativeQuery = true)
+    List<UltimaEtapaLote> findUltimasEtapas(
+        @Param("loteIds") Collection<Long> loteIds,
+        @Param("fechaInicio") Instant fechaInicio
+    );
+
     /**
      * Listar etapas por rango de fechas.
      * Reportes de producción en un período.
@@ -0,0 +1,67 @@
+package persistence.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import persistence.entity.HistogramaDuracionEtapa;
+import persistence.entity.HistogramaDuracionEtapaId;
+import persistence.projection.ConteoDuracion;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repositorio del histograma de duración de etapas por hora.
+ * MÓDULO 2: Control de Material Procesado
+ *
+ * Los intervalos de duración son los de AnaliticaLineaServiceImpl.LIMITES_MINUTOS; la
+ * reconstrucción usa los mismos límites con width_bucket.
+ */
+@Repository
+public interface HistogramaDuracionEtapaRepository extends JpaRepository<HistogramaDuracionEtapa, HistogramaDuracionEtapaId> {
+
+    @Modifying
+    @Query(value = "INSERT INTO sicofar.histograma_duracion_etapa AS h (bodega_id, tipo_etapa, hora, cubo, conteo) " +
+                   "VALUES (:bodegaId, :tipoEtapa, :hora, :cubo, :conteo) " +
+                   "ON CONFLICT (bodega_id, tipo_etapa, hora, cubo) DO UPDATE SET conteo = h.conteo + EXCLUDED.conteo",
+           nativeQuery = true)
+    int acumular(
+        @Param("bodegaId") Long bodegaId,
+        @Param("tipoEtapa") String tipoEtapa,
+        @Param("hora") LocalDateTime hora,
+        @Param("cubo") short cubo,
+        @Param("conteo") long conteo
+    );
+
+    /**
+     * Conteos por tipo de etapa e intervalo en un período [desde, hasta), de una bodega o de todas.
+     */
+    @Query("SELECT h.id.tipoEtapa AS tipoEtapa, h.id.cubo AS cubo, SUM(h.conteo) AS conteo " +
+           "FROM HistogramaDuracionEtapa h " +
+           "WHERE h.id.hora >= :desde AND h.id.hora < :hasta " +
+           "AND (:bodegaId IS NULL OR h.id.bodegaId = :bodegaId) " +
+           "GROUP BY h.id.tipoEtapa, h.id.cubo")
+    List<ConteoDuracion> findConteos(
+        @Param("bodegaId") Long bodegaId,
+        @Param("desde") LocalDateTime desde,
+        @Param("hasta") LocalDateTime hasta
+    );
+
+    // ============ RECONSTRUCCIÓN ============
+
+    @Modifying
+    @Query("DELETE FROM HistogramaDuracionEtapa h")
+    int deleteTodo();
+
+    @Modifying
+    @Query(value = "INSERT INTO sicofar.histograma_duracion_etapa (bodega_id, tipo_etapa, hora, cubo, conteo) " +
+                   "SELECT l.bodega_id, CAST(e.tipo_etapa AS varchar), date_trunc('hour', e.fecha_inicio AT TIME ZONE :zona), " +
+                   "       width_bucket(CAST(EXTRACT(EPOCH FROM (e.fecha_fin - e.fecha_inicio)) / 60 AS numeric), " +
+                   "                    CAST(ARRAY[5, 15, 30, 60, 120, 240, 480] AS numeric[])), COUNT(*) " +
+                   "FROM sicofar.etapa_procesamiento e JOIN sicofar.lote l ON l.id = e.lote_id " +
+                   "GROUP BY 1, 2, 3, 4",
+           nativeQuery = true)
+    int reconstruir(@Param("zona") String zona);
+}
@@ -1,10 +1,15 @@
 package persistence.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 import persistence.entity.Inventario;
+import persistence.enums.TipoOperacion;
+import persistence.projection.StockActualizado;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -104,4 +109,73 @@ public interface InventarioRepository extends JpaRepository<Inventario, Long> {
     @Query("SELECT i FROM Inventario i WHERE i.stockActual > 0 " +
            "ORDER BY i.bodega.nombre ASC, i.tipoMaterial.nombre ASC")
     List<Inventario> findInventariosConStock();
+
+    // ============ ACTUALIZACIONES ATÓMICAS DE STOCK ============
+
+    /**
+     * Tomar el candado de escritura de inventario al inicio de un grupo de movimientos,
+     * antes de fechar los movimientos. Es el mismo modo que toma cualquier UPDATE; tomarlo
+     * antes garantiza que un snapshot (que pide SHARE) vea todos los movimientos fechados
+     * antes de su corte.
+     */
+    @Modifying
+    @Query(value = "LOCK TABLE sicofar.inventario IN ROW EXCLUSIVE MODE", nativeQuery = true)
+    void bloquearParaMovimientos();
+
+    /**
+     * Aplicar un delta de stock en una sola sentencia (UPDATE ... RETURNING).
+     * CRÍTICO: Evita el read-modify-write; el stock nunca queda negativo y, si el delta
+     * es positivo, la bodega no supera su capacidad máxima.
+     *
+     * La ocupación materializada de la bodega (ocupacion_bodega) se actualiza en la misma
+     * sentencia; su fila actúa como candado de la capacidad, de modo que los incrementos
+     * concurrentes de una bodega se validan contra el valor ya confirmado.
+     * Si la sentencia no retorna fila, la transacción debe revertirse; por eso exige una
+     * transacción en curso (MANDATORY) en lugar de abrir una propia que confirmaría el delta.
+     *
+     * @param delta cantidad con signo (positivo = ingreso, negativo = salida)
+     * @return vacío si el inventario o el contador de ocupación no existen, el stock quedaría
+     *         negativo o se excede la capacidad
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    @Query(value = "WITH ocupacion AS (" +
+                   "   UPDATE sicofar.ocupacion_bodega o " +
+                   "   SET stock_total = o.stock_total + :delta, " +
+                   "       fecha_actualizacion = CURRENT_TIMESTAMP " +
+                   "   FROM sicofar.bodega b " +
+                   "   WHERE o.bodega_id = :bodegaId AND b.id = o.bodega_id " +
+                   "   AND (:delta <= 0 OR o.stock_total + :delta <= b.capacidad_maxima) " +
+                   "   AND EXISTS (SELECT 1 FROM sicofar.inventario x " +
+                   "               WHERE x.bodega_id = :bodegaId " +
+                   "               AND x.tipo_material_id = :tipoMaterialId " +
+                   "               AND x.stock_actual + :delta >= 0) " +
+                   "   RETURNING o.bodega_id" +
+                   ") " +
+                   "UPDATE sicofar.inventario i " +
+                   "SET stock_actual = i.stock_actual + :delta, " +
+                   "    fecha_actualizacion = CURRENT_TIMESTAMP " +
+                   "FROM ocupacion o " +
+                   "WHERE i.bodega_id = o.bodega_id " +
+                   "AND i.tipo_material_id = :tipoMaterialId " +
+                   "AND i.stock_actual + :delta >= 0 " +
+                   "RETURNING i.id AS \"inventarioId\", " +
+                   "          i.stock_actual - :delta AS \"stockAnterior\", " +
+                   "          i.stock_actual AS \"stockNuevo\", " +
+                   "          i.stock_minimo AS \"stockMinimo\", " +
+                   "          i.stock_maximo AS \"stockMaximo\"",
+           nativeQuery = true)
+    Optional<StockActualizado> aplicarDeltaStock(
+        @Param("bodegaId") Long bodegaId,
+        @Param("tipoMaterialId") Long tipoMaterialId,
+        @Param("delta") BigDecimal delta
+    );
+
+    /**
+     * Aplicar atómicamente un movimiento ENTRADA, SALIDA, AJUSTE o MERMA.
+     * El signo del delta se deriva del tipo de operación.
+     */
+    default Optional<StockActualizado> aplicarMovimientoStock(Long bodegaId, Long tipoMaterialId,
+                                                             TipoOperacion tipoOperacion, BigDecimal cantidad) {
+        return aplicarDeltaStock(bodegaId, tipoMaterialId, tipoOperacion.aplicarSigno(cantidad));
+    }
 }
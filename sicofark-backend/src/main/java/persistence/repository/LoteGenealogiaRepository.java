@@ -0,0 +1,64 @@
+package persistence.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import persistence.entity.LoteGenealogia;
+import persistence.entity.LoteGenealogiaId;
+
+/**
+ * Repositorio de la tabla de clausura de genealogía de lotes.
+ * MÓDULO 2: Trazabilidad de procesamiento
+ *
+ * Funcionalidades:
+ * - Registro de un lote nuevo: fila propia (profundidad 0) más una fila por cada ancestro del padre
+ * - Reconstrucción desde lote.lote_padre_id para lotes sin genealogía
+ *
+ * IMPORTANTE: La jerarquía de un lote se fija al crearlo (lote padre o división) y no cambia
+ * después, por lo que la clausura solo crece por inserción.
+ */
+@Repository
+public interface LoteGenealogiaRepository extends JpaRepository<LoteGenealogia, LoteGenealogiaId> {
+
+    /**
+     * Registrar un lote recién creado en la clausura.
+     * Si lotePadreId es null solo se inserta la fila propia.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO sicofar.lote_genealogia (ancestro_id, descendiente_id, profundidad) " +
+                   "SELECT CAST(:loteId AS bigint), CAST(:loteId AS bigint), 0 " +
+                   "UNION ALL " +
+                   "SELECT g.ancestro_id, :loteId, g.profundidad + 1 FROM sicofar.lote_genealogia g " +
+                   "WHERE g.descendiente_id = :lotePadreId",
+           nativeQuery = true)
+    int registrarLote(@Param("loteId") Long loteId, @Param("lotePadreId") Long lotePadreId);
+
+    /**
+     * Contar lotes que aún no tienen su fila propia en la clausura
+     * (lotes creados antes de la tabla o fuera de LoteService).
+     */
+    @Query(value = "SELECT COUNT(*) FROM sicofar.lote l WHERE NOT EXISTS (" +
+                   "SELECT 1 FROM sicofar.lote_genealogia g " +
+                   "WHERE g.ancestro_id = l.id AND g.descendiente_id = l.id)",
+           nativeQuery = true)
+    long countLotesSinGenealogia();
+
+    /**
+     * Reconstruir la clausura completa recorriendo lote.lote_padre_id.
+     * Idempotente: las filas existentes se conservan.
+     */
+    @Modifying
+    @Query(value = "WITH RECURSIVE clausura (ancestro_id, descendiente_id, profundidad) AS (" +
+                   "SELECT l.id, l.id, 0 FROM sicofar.lote l " +
+                   "UNION ALL " +
+                   "SELECT c.ancestro_id, h.id, c.profundidad + 1 " +
+                   "FROM clausura c JOIN sicofar.lote h ON h.lote_padre_id = c.descendiente_id" +
+                   ") " +
+                   "INSERT INTO sicofar.lote_genealogia (ancestro_id, descendiente_id, profundidad) " +
+                   "SELECT ancestro_id, descendiente_id, profundidad FROM clausura " +
+                   "ON CONFLICT (ancestro_id, descendiente_id) DO NOTHING",
+           nativeQuery = true)
+    int reconstruir();
+}
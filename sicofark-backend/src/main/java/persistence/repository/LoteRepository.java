@@ -1,15 +1,21 @@
 package persistence.repository;
 
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import persistence.entity.Lote;
 import persistence.enums.CalidadMaterial;
 import persistence.enums.EstadoLote;
+import persistence.projection.LoteDisponible;
+import persistence.projection.LoteResumen;
 
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -23,6 +29,9 @@ import java.util.Optional;
  * - Control de stock por lote
  * - Gestión de calidad de material
  * - Jerarquía de lotes (lote padre → lotes hijos)
+ * - Listados como LoteResumen: lote y nombres de sus relaciones en una sola consulta
+ * - Asignación FIFO: lotes disponibles con saldo, bloqueo y transición de estado por lote
+ * - Genealogía completa (ancestros y descendientes de cualquier nivel) vía lote_genealogia
  */
 @Repository
 public interface LoteRepository extends JpaRepository<Lote, Long> {
@@ -131,4 +140,149 @@ public interface LoteRepository extends JpaRepository<Lote, Long> {
         @Param("fechaInicio") Instant fechaInicio,
         @Param("fechaFin") Instant fechaFin
     );
+
+    /**
+     * Mayor número de secuencia entre los códigos con un prefijo (bodega + año).
+     * Valor inicial del contador de códigos de lote.
+     */
+    @Query(value = "SELECT COALESCE(MAX(CAST(substring(codigo FROM char_length(:prefijo) + 1) AS bigint)), 0) " +
+                   "FROM sicofar.lote " +
+                   "WHERE codigo LIKE :prefijo || '%' " +
+                   "AND substring(codigo FROM char_length(:prefijo) + 1) ~ '^[0-9]+$'",
+           nativeQuery = true)
+    long findMaxSecuenciaCodigo(@Param("prefijo") String prefijo);
+
+    // ============ ASIGNACIÓN FIFO ============
+
+    /**
+     * Lotes ACTIVO de una bodega y material con su peso disponible, en orden FIFO.
+     * Carga de la cola de asignación en memoria.
+     */
+    @Query(value = "SELECT l.id AS \"loteId\", l.codigo AS \"codigo\", l.fecha_registro AS \"fechaRegistro\", " +
+                   "l.peso_neto - COALESCE(c.consumido, 0) AS \"pesoDisponible\" " +
+                   "FROM sicofar.lote l " +
+                   "LEFT JOIN (SELECT m.lote_id, SUM(m.cantidad) AS consumido FROM sicofar.movimiento_inventario m " +
+                   "           JOIN sicofar.lote lc ON lc.id = m.lote_id " +
+                   "           WHERE lc.bodega_id = :bodegaId AND lc.tipo_material_id = :tipoMaterialId " +
+                   "           AND lc.estado = 'ACTIVO' AND m.tipo_movimiento IN ('SALIDA', 'MERMA') " +
+                   "           GROUP BY m.lote_id) c ON c.lote_id = l.id " +
+                   "WHERE l.bodega_id = :bodegaId AND l.tipo_material_id = :tipoMaterialId AND l.estado = 'ACTIVO' " +
+                   "ORDER BY l.fecha_registro ASC, l.id ASC",
+           nativeQuery = true)
+    List<LoteDisponible> findLotesDisponiblesConSaldo(
+        @Param("bodegaId") Long bodegaId,
+        @Param("tipoMaterialId") Long tipoMaterialId
+    );
+
+    /**
+     * Peso disponible actual de un conjunto de lotes, en cualquier estado.
+     * Debe ejecutarse después de bloquearLotes() o bloquearLotesPorId() para leer las salidas ya confirmadas.
+     */
+    @Query(value = "SELECT l.id AS \"loteId\", l.codigo AS \"codigo\", l.fecha_registro AS \"fechaRegistro\", " +
+                   "l.peso_neto - COALESCE((SELECT SUM(m.cantidad) FROM sicofar.movimiento_inventario m " +
+                   "                        WHERE m.lote_id = l.id AND m.tipo_movimiento IN ('SALIDA', 'MERMA')), 0) " +
+                   "AS \"pesoDisponible\" " +
+                   "FROM sicofar.lote l WHERE l.id IN (:loteIds) ORDER BY l.id",
+           nativeQuery = true)
+    List<LoteDisponible> findSaldos(@Param("loteIds") Collection<Long> loteIds);
+
+    /**
+     * Bloquear lotes en un estado (SELECT ... FOR UPDATE), en orden de id para evitar interbloqueos.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT l FROM Lote l WHERE l.id IN :loteIds AND l.estado = :estado ORDER BY l.id")
+    List<Lote> bloquearLotes(@Param("loteIds") Collection<Long> loteIds, @Param("estado") EstadoLote estado);
+
+    /**
+     * Bloquear lotes en cualquier estado (SELECT ... FOR UPDATE), en orden de id para evitar interbloqueos.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT l FROM Lote l WHERE l.id IN :loteIds ORDER BY l.id")
+    List<Lote> bloquearLotesPorId(@Param("loteIds") Collection<Long> loteIds);
+
+    /**
+     * Transición de estado en lote para varios lotes con una sola sentencia.
+     * Solo cambia los lotes que siguen en estadoActual.
+     *
+     * @return número de lotes actualizados
+     */
+    @Modifying
+    @Query("UPDATE Lote l SET l.estado = :estadoNuevo, l.fechaActualizacion = :fecha " +
+           "WHERE l.id IN :loteIds AND l.estado = :estadoActual")
+    int actualizarEstado(
+        @Param("loteIds") Collection<Long> loteIds,
+        @Param("estadoActual") EstadoLote estadoActual,
+        @Param("estadoNuevo") EstadoLote estadoNuevo,
+        @Param("fecha") Instant fecha
+    );
+
+    // ============ LISTADOS (modelo de lectura LoteResumen) ============
+
+    /**
+     * Selección común de los listados: joins explícitos a proveedor, tipo de material, bodega
+     * y usuario de registro, de modo que cada listado es una sola consulta sin N+1.
+     */
+    String SELECT_RESUMEN = "SELECT l.id AS id, l.codigo AS codigo, l.pesoBruto AS pesoBruto, l.tara AS tara, " +
+        "l.pesoNeto AS pesoNeto, l.origen AS origen, l.observaciones AS observaciones, " +
+        "l.estado AS estado, l.calidad AS calidad, " +
+        "p.id AS proveedorId, p.nombres AS proveedorNombres, p.apellidos AS proveedorApellidos, " +
+        "t.id AS tipoMaterialId, t.nombre AS tipoMaterialNombre, " +
+        "b.id AS bodegaId, b.nombre AS bodegaNombre, " +
+        "u.id AS usuarioRegistroId, u.nombres AS usuarioRegistroNombres, u.apellidos AS usuarioRegistroApellidos, " +
+        "l.lotePadre.id AS lotePadreId, l.fechaRegistro AS fechaRegistro, l.fechaActualizacion AS fechaActualizacion " +
+        "FROM Lote l JOIN l.proveedor p JOIN l.tipoMaterial t JOIN l.bodega b JOIN l.usuarioRegistro u ";
+
+    @Query(SELECT_RESUMEN + "WHERE l.estado = :estado ORDER BY l.fechaRegistro DESC")
+    List<LoteResumen> findResumenByEstado(@Param("estado") EstadoLote estado);
+
+    @Query(SELECT_RESUMEN + "WHERE p.id = :proveedorId ORDER BY l.fechaRegistro DESC")
+    List<LoteResumen> findResumenByProveedorId(@Param("proveedorId") Long proveedorId);
+
+    @Query(SELECT_RESUMEN + "WHERE b.id = :bodegaId ORDER BY l.fechaRegistro DESC")
+    List<LoteResumen> findResumenByBodegaId(@Param("bodegaId") Long bodegaId);
+
+    @Query(SELECT_RESUMEN + "WHERE t.id = :tipoMaterialId ORDER BY l.fechaRegistro DESC")
+    List<LoteResumen> findResumenByTipoMaterialId(@Param("tipoMaterialId") Long tipoMaterialId);
+
+    /**
+     * Variante de findLotesDisponiblesEnBodega para listados (orden FIFO).
+     */
+    @Query(SELECT_RESUMEN + "WHERE b.id = :bodegaId AND t.id = :tipoMaterialId AND l.estado = :estado " +
+           "ORDER BY l.fechaRegistro ASC")
+    List<LoteResumen> findResumenDisponiblesEnBodega(
+        @Param("bodegaId") Long bodegaId,
+        @Param("tipoMaterialId") Long tipoMaterialId,
+        @Param("estado") EstadoLote estado
+    );
+
+    @Query(SELECT_RESUMEN + "WHERE l.calidad = :calidad AND l.estado = :estado ORDER BY l.fechaRegistro DESC")
+    List<LoteResumen> findResumenByCalidadAndEstado(
+        @Param("calidad") CalidadMaterial calidad,
+        @Param("estado") EstadoLote estado
+    );
+
+    @Query(SELECT_RESUMEN + "WHERE l.lotePadre.id = :lotePadreId ORDER BY l.fechaRegistro ASC")
+    List<LoteResumen> findResumenHijos(@Param("lotePadreId") Long lotePadreId);
+
+    @Query(SELECT_RESUMEN + "WHERE l.fechaRegistro BETWEEN :fechaInicio AND :fechaFin ORDER BY l.fechaRegistro DESC")
+    List<LoteResumen> findResumenByFechaRegistroBetween(
+        @Param("fechaInicio") Instant fechaInicio,
+        @Param("fechaFin") Instant fechaFin
+    );
+
+    /**
+     * Ancestros de un lote (del padre a la raíz) como LoteResumen.
+     */
+    @Query(SELECT_RESUMEN + "JOIN LoteGenealogia g ON g.ancestro = l " +
+           "WHERE g.id.descendienteId = :loteId AND g.profundidad > 0 ORDER BY g.profundidad ASC")
+    List<LoteResumen> findResumenAncestros(@Param("loteId") Long loteId);
+
+    /**
+     * Descendientes de un lote por nivel como LoteResumen; con incluirOrigen incluye el propio lote.
+     */
+    @Query(SELECT_RESUMEN + "JOIN LoteGenealogia g ON g.descendiente = l " +
+           "WHERE g.id.ancestroId = :loteId AND (g.profundidad > 0 OR :incluirOrigen = true) " +
+           "ORDER BY g.profundidad ASC, l.id ASC")
+    List<LoteResumen> findResumenDescendientes(@Param("loteId") Long loteId,
+                                               @Param("incluirOrigen") boolean incluirOrigen);
 }
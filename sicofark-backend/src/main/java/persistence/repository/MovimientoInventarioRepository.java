@@ -1,5 +1,6 @@
 package persistence.repository;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -30,7 +31,10 @@ public interface MovimientoInventarioRepository extends JpaRepository<Movimiento
     /**
      * Listar movimientos por inventario específico.
      * Historial completo de cambios en un inventario (bodega + tipo material).
+     *
+     * @deprecated carga el historial completo en memoria; usar findPaginaByInventarioId
      */
+    @Deprecated
     @Query("SELECT m FROM MovimientoInventario m WHERE m.inventario.id = :inventarioId " +
            "ORDER BY m.fecha DESC")
     List<MovimientoInventario> findByInventarioId(@Param("inventarioId") Long inventarioId);
@@ -46,7 +50,10 @@ public interface MovimientoInventarioRepository extends JpaRepository<Movimiento
     /**
      * Listar movimientos por usuario.
      * Auditoría de operaciones realizadas por un usuario específico.
+     *
+     * @deprecated carga el historial completo en memoria; usar findPaginaByUsuarioId
      */
+    @Deprecated
     @Query("SELECT m FROM MovimientoInventario m WHERE m.usuario.id = :usuarioId " +
            "ORDER BY m.fecha DESC")
     List<MovimientoInventario> findByUsuarioId(@Param("usuarioId") Long usuarioId);
@@ -62,7 +69,10 @@ public interface MovimientoInventarioRepository extends JpaRepository<Movimiento
     /**
      * Listar movimientos por rango de fechas.
      * Reportes periódicos de actividad de inventario.
+     *
+     * @deprecated sin límite de filas; usar findPaginaByFechaBetween
      */
+    @Deprecated
     @Query("SELECT m FROM MovimientoInventario m " +
            "WHERE m.fecha BETWEEN :fechaInicio AND :fechaFin " +
            "ORDER BY m.fecha DESC")
@@ -126,10 +136,115 @@ public interface MovimientoInventarioRepository extends JpaRepository<Movimiento
         @Param("fechaFin") Instant fechaFin
     );
 
+    /**
+     * Obtener suma de cantidades de un tipo de operación en un inventario en [desde, hasta).
+     * Intervalo semiabierto: se usa para los tramos de días incompletos de un período
+     * cuyos días completos se leen del resumen diario.
+     */
+    @Query("SELECT COALESCE(SUM(m.cantidad), 0) FROM MovimientoInventario m " +
+           "WHERE m.inventario.id = :inventarioId " +
+           "AND m.tipoOperacion = :tipoOperacion " +
+           "AND m.fecha >= :desde AND m.fecha < :hasta")
+    BigDecimal getSumaByInventarioAndTipoInRango(
+        @Param("inventarioId") Long inventarioId,
+        @Param("tipoOperacion") TipoOperacion tipoOperacion,
+        @Param("desde") Instant desde,
+        @Param("hasta") Instant hasta
+    );
+
+    /**
+     * Variación neta de stock de un inventario en (desde, hasta].
+     * Reproduce los movimientos posteriores a un snapshot hasta la fecha de consulta.
+     */
+    @Query("SELECT COALESCE(SUM(m.cantidadNueva - m.cantidadAnterior), 0) FROM MovimientoInventario m " +
+           "WHERE m.inventario.id = :inventarioId " +
+           "AND m.fecha > :desde AND m.fecha <= :hasta")
+    BigDecimal getVariacionStockEnRango(
+        @Param("inventarioId") Long inventarioId,
+        @Param("desde") Instant desde,
+        @Param("hasta") Instant hasta
+    );
+
+    /**
+     * Contar movimientos por tipo de operación en [desde, hasta).
+     * Intervalo semiabierto para los tramos de días incompletos de un período.
+     */
+    @Query("SELECT COUNT(m) FROM MovimientoInventario m " +
+           "WHERE m.tipoOperacion = :tipoOperacion " +
+           "AND m.fecha >= :desde AND m.fecha < :hasta")
+    Long countByTipoOperacionInRango(
+        @Param("tipoOperacion") TipoOperacion tipoOperacion,
+        @Param("desde") Instant desde,
+        @Param("hasta") Instant hasta
+    );
+
     /**
      * Listar últimos N movimientos globales.
      * Vista reciente de actividad del sistema.
+     *
+     * @param limit número máximo de movimientos a retornar
+     */
+    @Query("SELECT m FROM MovimientoInventario m JOIN FETCH m.inventario " +
+           "ORDER BY m.fecha DESC, m.id DESC")
+    List<MovimientoInventario> findTopMovimientosRecientes(Limit limit);
+
+    // ============ PAGINACIÓN POR KEYSET (fecha, id) ============
+    // Cada página continúa estrictamente después del último (fecha, id) entregado.
+    // El orden (fecha DESC, id DESC) se resuelve con los índices declarados en MovimientoInventario.
+    // El cursor se compara como fila, (fecha, id) < (:fecha, :id): PostgreSQL lo usa como límite
+    // de un único recorrido del índice, mientras que la forma con OR filtra fila por fila.
+
+    /**
+     * Página del historial de un inventario anterior al cursor (fecha, id).
+     */
+    @Query("SELECT m FROM MovimientoInventario m JOIN FETCH m.inventario " +
+           "WHERE m.inventario.id = :inventarioId " +
+           "AND (m.fecha, m.id) < (:fecha, :id) " +
+           "ORDER BY m.fecha DESC, m.id DESC")
+    List<MovimientoInventario> findPaginaByInventarioId(
+        @Param("inventarioId") Long inventarioId,
+        @Param("fecha") Instant fecha,
+        @Param("id") Long id,
+        Limit limit
+    );
+
+    /**
+     * Página de los movimientos registrados por un usuario anterior al cursor (fecha, id).
+     */
+    @Query("SELECT m FROM MovimientoInventario m JOIN FETCH m.inventario " +
+           "WHERE m.usuario.id = :usuarioId " +
+           "AND (m.fecha, m.id) < (:fecha, :id) " +
+           "ORDER BY m.fecha DESC, m.id DESC")
+    List<MovimientoInventario> findPaginaByUsuarioId(
+        @Param("usuarioId") Long usuarioId,
+        @Param("fecha") Instant fecha,
+        @Param("id") Long id,
+        Limit limit
+    );
+
+    /**
+     * Página de movimientos de un período anterior al cursor (fecha, id).
+     */
+    @Query("SELECT m FROM MovimientoInventario m JOIN FETCH m.inventario " +
+           "WHERE m.fecha BETWEEN :fechaInicio AND :fechaFin " +
+           "AND (m.fecha, m.id) < (:fecha, :id) " +
+           "ORDER BY m.fecha DESC, m.id DESC")
+    List<MovimientoInventario> findPaginaByFechaBetween(
+        @Param("fechaInicio") Instant fechaInicio,
+        @Param("fechaFin") Instant fechaFin,
+        @Param("fecha") Instant fecha,
+        @Param("id") Long id,
+        Limit limit
+    );
+
+    // ============ TRAZABILIDAD DE LOTES ============
+
+    /**
+     * IDs de los movimientos asociados a un lote o a cualquiera de sus descendientes.
+     * Impacto de un recall resuelto con una sola consulta sobre lote_genealogia.
      */
-    @Query("SELECT m FROM MovimientoInventario m ORDER BY m.fecha DESC")
-    List<MovimientoInventario> findTopMovimientosRecientes();
+    @Query("SELECT m.id FROM MovimientoInventario m WHERE m.lote.id IN (" +
+           "SELECT g.id.descendienteId FROM LoteGenealogia g WHERE g.id.ancestroId = :loteId) " +
+           "ORDER BY m.fecha ASC, m.id ASC")
+    List<Long> findIdsByLoteOrDescendientes(@Param("loteId") Long loteId);
 }
@@ -0,0 +1,90 @@
+package persistence.repository;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import persistence.entity.OcupacionBodega;
+import persistence.projection.DiscrepanciaOcupacion;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repositorio de la ocupación materializada por bodega.
+ * MÓDULO 1: Control de Material Ingresado
+ *
+ * Funcionalidades:
+ * - Inicialización del contador de una bodega a partir de sus inventarios
+ * - Reconstrucción y verificación contra SUM(inventario.stock_actual)
+ *
+ * IMPORTANTE: Los incrementos y decrementos NO se hacen aquí sino en
+ * InventarioRepository.aplicarDeltaStock, en la misma sentencia que el stock.
+ */
+@Repository
+public interface OcupacionBodegaRepository extends JpaRepository<OcupacionBodega, Long> {
+
+    /**
+     * Crear el contador de una bodega si no existe, partiendo del stock actual.
+     * Idempotente: si otro nodo lo crea primero no hace nada.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO sicofar.ocupacion_bodega (bodega_id, stock_total, fecha_actualizacion) " +
+                   "SELECT b.id, COALESCE((SELECT SUM(i.stock_actual) FROM sicofar.inventario i " +
+                   "                       WHERE i.bodega_id = b.id), 0), CURRENT_TIMESTAMP " +
+                   "FROM sicofar.bodega b WHERE b.id = :bodegaId " +
+                   "ON CONFLICT (bodega_id) DO NOTHING",
+           nativeQuery = true)
+    int inicializar(@Param("bodegaId") Long bodegaId);
+
+    /**
+     * Crear los contadores faltantes de todas las bodegas.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO sicofar.ocupacion_bodega (bodega_id, stock_total, fecha_actualizacion) " +
+                   "SELECT b.id, COALESCE((SELECT SUM(i.stock_actual) FROM sicofar.inventario i " +
+                   "                       WHERE i.bodega_id = b.id), 0), CURRENT_TIMESTAMP " +
+                   "FROM sicofar.bodega b " +
+                   "ON CONFLICT (bodega_id) DO NOTHING",
+           nativeQuery = true)
+    int inicializarFaltantes();
+
+    /**
+     * Bloquear el contador de una bodega (SELECT ... FOR UPDATE).
+     * Mientras se mantiene el bloqueo ningún movimiento puede cambiar el stock de la bodega.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM OcupacionBodega o WHERE o.bodegaId = :bodegaId")
+    Optional<OcupacionBodega> bloquear(@Param("bodegaId") Long bodegaId);
+
+    /**
+     * Recalcular el contador de una bodega desde sus inventarios.
+     * Debe ejecutarse después de bloquear() en la misma transacción.
+     */
+    @Modifying
+    @Query(value = "UPDATE sicofar.ocupacion_bodega o " +
+                   "SET stock_total = COALESCE((SELECT SUM(i.stock_actual) FROM sicofar.inventario i " +
+                   "                            WHERE i.bodega_id = o.bodega_id), 0), " +
+                   "    fecha_actualizacion = CURRENT_TIMESTAMP " +
+                   "WHERE o.bodega_id = :bodegaId",
+           nativeQuery = true)
+    int recalcular(@Param("bodegaId") Long bodegaId);
+
+    /**
+     * Listar bodegas cuyo contador difiere de la suma real de sus inventarios
+     * (incluye bodegas sin contador).
+     */
+    @Query(value = "SELECT b.id AS \"bodegaId\", " +
+                   "       o.stock_total AS \"stockRegistrado\", " +
+                   "       COALESCE(SUM(i.stock_actual), 0) AS \"stockCalculado\" " +
+                   "FROM sicofar.bodega b " +
+                   "LEFT JOIN sicofar.ocupacion_bodega o ON o.bodega_id = b.id " +
+                   "LEFT JOIN sicofar.inventario i ON i.bodega_id = b.id " +
+                   "GROUP BY b.id, o.stock_total " +
+                   "HAVING o.stock_total IS NULL OR o.stock_total <> COALESCE(SUM(i.stock_actual), 0)",
+           nativeQuery = true)
+    List<DiscrepanciaOcupacion> findDiscrepancias();
+}
@@ -0,0 +1,111 @@
+package persistence.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import persistence.entity.PendientePagoDiario;
+import persistence.entity.PendientePagoDiarioId;
+import persistence.projection.CuentaPorPagar;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Repositorio de cuentas por pagar pre-agregadas (transacciones PENDIENTE sin pago).
+ * MÓDULO 1: Control de Material Ingresado
+ *
+ * Funcionalidades:
+ * - Ajuste atómico (upsert) al crear una transacción o cambiar su estado
+ * - Resumen por proveedor con antigüedad de la deuda, sin recorrer las transacciones
+ * - Reconstrucción desde transaccion
+ *
+ * IMPORTANTE: Los días se calculan en la zona horaria de operación (sicofark.zona-horaria).
+ */
+@Repository
+public interface PendientePagoDiarioRepository extends JpaRepository<PendientePagoDiario, PendientePagoDiarioId> {
+
+    // ============ MANTENIMIENTO INCREMENTAL ============
+
+    /**
+     * Sumar (o restar, con valores negativos) transacciones y valor a un día de un proveedor.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO sicofar.pendiente_pago_diario AS r " +
+                   "(proveedor_id, dia, numero_transacciones, valor_total, fecha_actualizacion) " +
+                   "VALUES (:proveedorId, :dia, :numero, :valor, CURRENT_TIMESTAMP) " +
+                   "ON CONFLICT (proveedor_id, dia) DO UPDATE SET " +
+                   "numero_transacciones = r.numero_transacciones + EXCLUDED.numero_transacciones, " +
+                   "valor_total = r.valor_total + EXCLUDED.valor_total, " +
+                   "fecha_actualizacion = EXCLUDED.fecha_actualizacion",
+           nativeQuery = true)
+    int acumular(
+        @Param("proveedorId") Long proveedorId,
+        @Param("dia") LocalDate dia,
+        @Param("numero") long numero,
+        @Param("valor") BigDecimal valor
+    );
+
+    /**
+     * Eliminar el día de un proveedor si ya no tiene transacciones pendientes.
+     */
+    @Modifying
+    @Query("DELETE FROM PendientePagoDiario r " +
+           "WHERE r.id.proveedorId = :proveedorId AND r.id.dia = :dia AND r.numeroTransacciones <= 0")
+    int deleteSiVacio(@Param("proveedorId") Long proveedorId, @Param("dia") LocalDate dia);
+
+    // ============ CONSULTAS ============
+
+    /**
+     * Cuentas por pagar por proveedor, de mayor a menor valor pendiente.
+     * Los cortes son días (inclusive) a partir de los cuales la deuda tiene como máximo
+     * 30, 60 y 90 días.
+     */
+    @Query("SELECT r.id.proveedorId AS proveedorId, p.nombres AS proveedorNombres, p.apellidos AS proveedorApellidos, " +
+           "SUM(r.numeroTransacciones) AS numeroTransacciones, SUM(r.valorTotal) AS valorPendiente, " +
+           "MIN(r.id.dia) AS diaMasAntiguo, " +
+           "COALESCE(SUM(CASE WHEN r.id.dia >= :corte30 THEN r.valorTotal END), 0) AS valorHasta30Dias, " +
+           "COALESCE(SUM(CASE WHEN r.id.dia < :corte30 AND r.id.dia >= :corte60 THEN r.valorTotal END), 0) AS valor31a60Dias, " +
+           "COALESCE(SUM(CASE WHEN r.id.dia < :corte60 AND r.id.dia >= :corte90 THEN r.valorTotal END), 0) AS valor61a90Dias, " +
+           "COALESCE(SUM(CASE WHEN r.id.dia < :corte90 THEN r.valorTotal END), 0) AS valorMas90Dias " +
+           "FROM PendientePagoDiario r JOIN Proveedor p ON p.id = r.id.proveedorId " +
+           "GROUP BY r.id.proveedorId, p.nombres, p.apellidos " +
+           "ORDER BY SUM(r.valorTotal) DESC")
+    List<CuentaPorPagar> findCuentasPorPagar(
+        @Param("corte30") LocalDate corte30,
+        @Param("corte60") LocalDate corte60,
+        @Param("corte90") LocalDate corte90
+    );
+
+    // ============ RECONSTRUCCIÓN ============
+
+    /**
+     * Bloquear el agregado frente a los ajustes hasta el fin de la transacción.
+     * SHARE ROW EXCLUSIVE espera a las transacciones que ya ajustaron (y por tanto ya
+     * escribieron su transacción) y hace esperar a las siguientes hasta después de la
+     * reconstrucción; también serializa la reconstrucción de dos nodos que arrancan a la vez.
+     */
+    @Modifying
+    @Query(value = "LOCK TABLE sicofar.pendiente_pago_diario IN SHARE ROW EXCLUSIVE MODE", nativeQuery = true)
+    void bloquearParaReconstruir();
+
+    @Modifying
+    @Query("DELETE FROM PendientePagoDiario r")
+    int deleteTodo();
+
+    /**
+     * Recalcular el agregado completo desde las transacciones pendientes.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO sicofar.pendiente_pago_diario " +
+                   "(proveedor_id, dia, numero_transacciones, valor_total, fecha_actualizacion) " +
+                   "SELECT t.proveedor_id, CAST(t.fecha AT TIME ZONE :zona AS date), COUNT(*), SUM(t.valor_total), " +
+                   "       CURRENT_TIMESTAMP " +
+                   "FROM sicofar.transaccion t " +
+                   "WHERE t.estado = 'PENDIENTE' AND t.fecha_pago IS NULL " +
+                   "GROUP BY 1, 2",
+           nativeQuery = true)
+    int reconstruir(@Param("zona") String zona);
+}
@@ -1,5 +1,6 @@
 package persistence.repository;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -7,8 +8,10 @@ import org.springframework.stereotype.Repository;
 import persistence.entity.Proveedor;
 import persistence.enums.EstadoProveedor;
 import persistence.enums.TipoDocumento;
+import persistence.projection.ProveedorBusqueda;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,6 +21,7 @@ import java.util.Optional;
  *
  * Funcionalidades:
  * - Gestión de proveedores (búsqueda, validación)
+ * - Búsqueda por trigramas (pg_trgm) sin acentos sobre nombres, apellidos y documento
  * - Consultas para calificación y evaluación
  * - Estadísticas de transacciones por proveedor
  */
@@ -53,6 +57,13 @@ public interface ProveedorRepository extends JpaRepository<Proveedor, Long> {
      */
     List<Proveedor> findByEstadoOrderByNombresAsc(EstadoProveedor estado);
 
+    /**
+     * Ids de los proveedores indicados que no están activos, leídos de la base y no de la caché
+     * de catálogos (que en otras instancias puede no conocer aún una desactivación).
+     */
+    @Query("SELECT p.id FROM Proveedor p WHERE p.id IN :ids AND p.estado <> 'ACTIVO' ORDER BY p.id")
+    List<Long> findIdsNoActivos(@Param("ids") Collection<Long> ids);
+
     /**
      * Verificar si existe un proveedor por documento.
      * Validación rápida antes de crear un nuevo proveedor.
@@ -68,6 +79,48 @@ public interface ProveedorRepository extends JpaRepository<Proveedor, Long> {
            "LOWER(p.apellidos) LIKE LOWER(CONCAT('%', :search, '%'))")
     List<Proveedor> searchByNombreOrApellido(@Param("search") String search);
 
+    // ============ BÚSQUEDA POR TRIGRAMAS ============
+    // La expresión sicofar.proveedor_texto_busqueda(...) es la del índice GIN
+    // idx_proveedor_busqueda_trgm; ambos los crea el script db/busqueda_proveedor.sql.
+
+    /**
+     * Buscar proveedores por similitud de palabras (operador <%) o subcadena (LIKE), sin
+     * distinguir mayúsculas ni acentos, de mayor a menor relevancia.
+     *
+     * @param termino texto buscado
+     * @param patron  texto buscado con los comodines de LIKE escapados
+     */
+    @Query(value = "SELECT p.id AS \"id\", p.nombres AS \"nombres\", p.apellidos AS \"apellidos\", " +
+                   "       p.numero_documento AS \"numeroDocumento\", CAST(p.estado AS varchar) AS \"estado\", " +
+                   "       CAST(word_similarity(sicofar.normalizar_busqueda(:termino), " +
+                   "            sicofar.proveedor_texto_busqueda(p.nombres, p.apellidos, p.numero_documento)) " +
+                   "            AS double precision) AS \"relevancia\" " +
+                   "FROM sicofar.proveedor p " +
+                   "WHERE sicofar.normalizar_busqueda(:termino) " +
+                   "      <% sicofar.proveedor_texto_busqueda(p.nombres, p.apellidos, p.numero_documento) " +
+                   "   OR sicofar.proveedor_texto_busqueda(p.nombres, p.apellidos, p.numero_documento) " +
+                   "      LIKE '%' || sicofar.normalizar_busqueda(:patron) || '%' " +
+                   "ORDER BY \"relevancia\" DESC, p.nombres ASC, p.id ASC " +
+                   "LIMIT :limite",
+           nativeQuery = true)
+    List<ProveedorBusqueda> buscarPorTrigramas(
+        @Param("termino") String termino,
+        @Param("patron") String patron,
+        @Param("limite") int limite
+    );
+
+    /**
+     * Búsqueda sin índice de trigramas (base de datos sin pg_trgm/unaccent).
+     *
+     * @param search texto buscado con los comodines de LIKE escapados
+     */
+    @Query("SELECT p FROM Proveedor p WHERE " +
+           "LOWER(p.nombres) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
+           "LOWER(p.apellidos) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
+           "p.numeroDocumento LIKE CONCAT('%', :search, '%') " +
+           "ORDER BY p.nombres ASC, p.id ASC")
+    List<Proveedor> buscarSinIndice(@Param("search") String search, Limit limit);
+
     // ============ CONSULTAS PARA MÓDULO 1 - INGRESO DE MATERIAL ============
 
     /**
@@ -85,12 +138,20 @@ public interface ProveedorRepository extends JpaRepository<Proveedor, Long> {
     @Query("SELECT COUNT(t) FROM Transaccion t WHERE t.proveedor.id = :proveedorId")
     Long countTransaccionesByProveedor(@Param("proveedorId") Long proveedorId);
 
+    /**
+     * Contar transacciones completadas por proveedor, leídas de estadistica_proveedor_mensual.
+     */
+    @Query("SELECT COALESCE(SUM(e.numeroTransacciones), 0) FROM EstadisticaProveedorMensual e " +
+           "WHERE e.id.proveedorId = :proveedorId")
+    Long countTransaccionesCompletadasByProveedor(@Param("proveedorId") Long proveedorId);
+
     /**
      * Obtener peso total entregado por proveedor.
-     * Estadística de volumen total entregado (solo transacciones completadas).
+     * Estadística de volumen total entregado (solo transacciones completadas),
+     * leída de estadistica_proveedor_mensual.
      */
-    @Query("SELECT COALESCE(SUM(t.pesoTotal), 0) FROM Transaccion t " +
-           "WHERE t.proveedor.id = :proveedorId AND t.estado = 'COMPLETADA'")
+    @Query("SELECT COALESCE(SUM(e.pesoTotal), 0) FROM EstadisticaProveedorMensual e " +
+           "WHERE e.id.proveedorId = :proveedorId")
     BigDecimal getTotalPesoEntregadoByProveedor(@Param("proveedorId") Long proveedorId);
 
     /**
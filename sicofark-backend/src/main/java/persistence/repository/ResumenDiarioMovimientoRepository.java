@@ -0,0 +1,120 @@
+package persistence.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import persistence.entity.ResumenDiarioMovimiento;
+import persistence.entity.ResumenDiarioMovimientoId;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * Repositorio del resumen diario de movimientos de inventario.
+ * MÓDULO 1 y 2: Reportes de inventario
+ *
+ * Funcionalidades:
+ * - Incremento atómico (upsert) del resumen al registrar movimientos
+ * - Sumas y conteos por rango de días completos
+ * - Reconstrucción del resumen desde movimiento_inventario
+ *
+ * IMPORTANTE: Los días se calculan en la zona horaria de operación
+ * (sicofark.zona-horaria), la misma con la que se escriben los incrementos.
+ */
+@Repository
+public interface ResumenDiarioMovimientoRepository
+        extends JpaRepository<ResumenDiarioMovimiento, ResumenDiarioMovimientoId> {
+
+    // ============ MANTENIMIENTO INCREMENTAL ============
+
+    /**
+     * Sumar cantidad y número de movimientos al resumen de un día.
+     * Crea la fila del día si no existe.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO sicofar.resumen_diario_movimiento AS r " +
+                   "(inventario_id, tipo_operacion, dia, cantidad_total, numero_movimientos, fecha_actualizacion) " +
+                   "VALUES (:inventarioId, :tipoOperacion, :dia, :cantidad, :numeroMovimientos, CURRENT_TIMESTAMP) " +
+                   "ON CONFLICT (inventario_id, tipo_operacion, dia) DO UPDATE SET " +
+                   "cantidad_total = r.cantidad_total + EXCLUDED.cantidad_total, " +
+                   "numero_movimientos = r.numero_movimientos + EXCLUDED.numero_movimientos, " +
+                   "fecha_actualizacion = EXCLUDED.fecha_actualizacion",
+           nativeQuery = true)
+    int acumular(
+        @Param("inventarioId") Long inventarioId,
+        @Param("tipoOperacion") String tipoOperacion,
+        @Param("dia") LocalDate dia,
+        @Param("cantidad") BigDecimal cantidad,
+        @Param("numeroMovimientos") long numeroMovimientos
+    );
+
+    // ============ CONSULTAS POR DÍAS COMPLETOS ============
+
+    /**
+     * Obtener la cantidad total de un tipo de operación en un inventario entre dos días (inclusive).
+     */
+    @Query("SELECT COALESCE(SUM(r.cantidadTotal), 0) FROM ResumenDiarioMovimiento r " +
+           "WHERE r.id.inventarioId = :inventarioId " +
+           "AND r.id.tipoOperacion = :tipoOperacion " +
+           "AND r.id.dia BETWEEN :diaInicio AND :diaFin")
+    BigDecimal getCantidadByInventarioAndTipoInDias(
+        @Param("inventarioId") Long inventarioId,
+        @Param("tipoOperacion") String tipoOperacion,
+        @Param("diaInicio") LocalDate diaInicio,
+        @Param("diaFin") LocalDate diaFin
+    );
+
+    /**
+     * Contar movimientos de un tipo de operación en todos los inventarios entre dos días (inclusive).
+     */
+    @Query("SELECT COALESCE(SUM(r.numeroMovimientos), 0) FROM ResumenDiarioMovimiento r " +
+           "WHERE r.id.tipoOperacion = :tipoOperacion " +
+           "AND r.id.dia BETWEEN :diaInicio AND :diaFin")
+    Long countByTipoInDias(
+        @Param("tipoOperacion") String tipoOperacion,
+        @Param("diaInicio") LocalDate diaInicio,
+        @Param("diaFin") LocalDate diaFin
+    );
+
+    // ============ RECONSTRUCCIÓN ============
+
+    /**
+     * Bloquear el resumen frente a los incrementos hasta el fin de la transacción.
+     * SHARE ROW EXCLUSIVE espera a las transacciones que ya acumularon (y por tanto ya
+     * insertaron sus movimientos) y hace esperar a las siguientes hasta después de la
+     * reconstrucción, cuyo INSERT ... SELECT no ve sus movimientos aún sin confirmar.
+     */
+    @Modifying
+    @Query(value = "LOCK TABLE sicofar.resumen_diario_movimiento IN SHARE ROW EXCLUSIVE MODE", nativeQuery = true)
+    void bloquearParaReconstruir();
+
+    /**
+     * Eliminar el resumen de un rango de días (inclusive) antes de reconstruirlo.
+     * Ejecutar después de bloquearParaReconstruir, en la misma transacción.
+     */
+    @Modifying
+    @Query("DELETE FROM ResumenDiarioMovimiento r WHERE r.id.dia BETWEEN :diaInicio AND :diaFin")
+    int deleteByDias(@Param("diaInicio") LocalDate diaInicio, @Param("diaFin") LocalDate diaFin);
+
+    /**
+     * Recalcular el resumen desde los movimientos con fecha en [desde, hasta).
+     * desde y hasta deben ser inicios de día en la zona indicada.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO sicofar.resumen_diario_movimiento " +
+                   "(inventario_id, tipo_operacion, dia, cantidad_total, numero_movimientos, fecha_actualizacion) " +
+                   "SELECT m.inventario_id, CAST(m.tipo_movimiento AS varchar), " +
+                   "       CAST(m.fecha AT TIME ZONE :zona AS date), SUM(m.cantidad), COUNT(*), CURRENT_TIMESTAMP " +
+                   "FROM sicofar.movimiento_inventario m " +
+                   "WHERE m.fecha >= :desde AND m.fecha < :hasta " +
+                   "GROUP BY 1, 2, 3",
+           nativeQuery = true)
+    int reconstruir(
+        @Param("desde") Instant desde,
+        @Param("hasta") Instant hasta,
+        @Param("zona") String zona
+    );
+}
@@ -0,0 +1,75 @@
+package persistence.repository;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import persistence.entity.SnapshotInventario;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repositorio de snapshots periódicos de stock.
+ * MÓDULO 1: Control de Material Ingresado
+ *
+ * Funcionalidades:
+ * - Registro de un corte para todos los inventarios existentes en ese instante
+ * - Búsqueda del snapshot más cercano anterior a una fecha de consulta
+ */
+@Repository
+public interface SnapshotInventarioRepository extends JpaRepository<SnapshotInventario, Long> {
+
+    /**
+     * Esperar a los grupos de movimientos en curso y detener los nuevos hasta el fin de la
+     * transacción (SHARE frente al ROW EXCLUSIVE de InventarioService). Los grupos que
+     * esperan fechan sus movimientos después del bloqueo, es decir, después del corte.
+     */
+    @Modifying
+    @Query(value = "LOCK TABLE sicofar.inventario IN SHARE MODE", nativeQuery = true)
+    void bloquearInventarios();
+
+    /**
+     * Registrar el stock de todos los inventarios en el instante de corte.
+     *
+     * El stock al corte se deriva del stock actual menos los deltas de los movimientos
+     * posteriores al corte, en una sola sentencia; así el snapshot es exacto aunque se
+     * tome después del corte y con movimientos en curso. Idempotente por (inventario, corte).
+     * Ejecutar después de bloquearInventarios, en la misma transacción: sin el bloqueo, un
+     * movimiento fechado antes del corte y confirmado después no quedaría ni en el snapshot
+     * ni en la reproducción.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO sicofar.snapshot_inventario (inventario_id, fecha_corte, stock, fecha_creacion) " +
+                   "SELECT i.id, :corte, " +
+                   "i.stock_actual - COALESCE(SUM(m.cantidad_nueva - m.cantidad_anterior), 0), CURRENT_TIMESTAMP " +
+                   "FROM sicofar.inventario i " +
+                   "LEFT JOIN sicofar.movimiento_inventario m ON m.inventario_id = i.id AND m.fecha > :corte " +
+                   "WHERE i.fecha_creacion <= :corte " +
+                   "GROUP BY i.id, i.stock_actual " +
+                   "ON CONFLICT (inventario_id, fecha_corte) DO NOTHING",
+           nativeQuery = true)
+    int registrarCorte(@Param("corte") Instant corte);
+
+    @Query("SELECT s FROM SnapshotInventario s WHERE s.inventario.id = :inventarioId " +
+           "AND s.fechaCorte <= :fecha ORDER BY s.fechaCorte DESC")
+    List<SnapshotInventario> findAnterioresA(@Param("inventarioId") Long inventarioId,
+                                             @Param("fecha") Instant fecha,
+                                             Limit limit);
+
+    /**
+     * Snapshot más reciente con corte en o antes de la fecha indicada.
+     */
+    default Optional<SnapshotInventario> findUltimoAntesDe(Long inventarioId, Instant fecha) {
+        return findAnterioresA(inventarioId, fecha, Limit.of(1)).stream().findFirst();
+    }
+
+    /**
+     * Verificar si ya existe un corte registrado.
+     */
+    @Query("SELECT COUNT(s) > 0 FROM SnapshotInventario s WHERE s.fechaCorte = :corte")
+    boolean existsByFechaCorte(@Param("corte") Instant corte);
+}
@@ -0,0 +1,62 @@
+package persistence.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import persistence.entity.SolicitudIdempotente;
+import persistence.entity.SolicitudIdempotenteId;
+
+import java.time.Instant;
+
+/**
+ * Repositorio de claves de idempotencia de ingresos.
+ *
+ * Funcionalidades:
+ * - Reclamar una clave (por usuario) de forma atómica entre nodos (INSERT ... ON CONFLICT DO NOTHING)
+ * - Guardar la respuesta original de la solicitud; se lee con findById junto con el hash del cuerpo
+ * - Purga de claves vencidas
+ */
+@Repository
+public interface SolicitudIdempotenteRepository extends JpaRepository<SolicitudIdempotente, SolicitudIdempotenteId> {
+
+    /**
+     * Reclamar una clave dentro de la transacción actual.
+     * Si otra transacción reclamó la misma clave y no ha terminado, la sentencia espera
+     * a que confirme (retorna 0) o revierta (retorna 1).
+     *
+     * @return 1 si la clave quedó reclamada por esta transacción, 0 si ya existía
+     */
+    @Modifying
+    @Query(value = "INSERT INTO sicofar.solicitud_idempotente (usuario_id, clave, hash_solicitud, fecha_creacion) " +
+                   "VALUES (:usuarioId, :clave, :hashSolicitud, :fecha) " +
+                   "ON CONFLICT (usuario_id, clave) DO NOTHING",
+           nativeQuery = true)
+    int reclamar(@Param("usuarioId") Long usuarioId,
+                 @Param("clave") String clave,
+                 @Param("hashSolicitud") String hashSolicitud,
+                 @Param("fecha") Instant fecha);
+
+    /**
+     * Registrar el resultado de la solicitud que reclamó la clave.
+     */
+    @Modifying
+    @Query(value = "UPDATE sicofar.solicitud_idempotente " +
+                   "SET transaccion_id = :transaccionId, respuesta = :respuesta " +
+                   "WHERE usuario_id = :usuarioId AND clave = :clave",
+           nativeQuery = true)
+    int completar(@Param("usuarioId") Long usuarioId,
+                  @Param("clave") String clave,
+                  @Param("transaccionId") Long transaccionId,
+                  @Param("respuesta") String respuesta);
+
+    /**
+     * Eliminar claves creadas antes de una fecha.
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM SolicitudIdempotente s WHERE s.fechaCreacion < :limite")
+    int deleteByFechaCreacionBefore(@Param("limite") Instant limite);
+}
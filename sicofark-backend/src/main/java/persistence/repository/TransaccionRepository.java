@@ -1,6 +1,9 @@
 package persistence.repository;
 
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -9,6 +12,7 @@ import persistence.enums.EstadoTransaccion;
 
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,7 +22,7 @@ import java.util.Optional;
  *
  * Funcionalidades:
  * - Registro y seguimiento de ingresos de material
- * - Control de pagos a proveedores
+ * - Control de pagos a proveedores (detalle paginado de las cuentas por pagar)
  * - Reportes y estadísticas de compras
  * - Trazabilidad de material ingresado por bodega
  */
@@ -39,6 +43,17 @@ public interface TransaccionRepository extends JpaRepository<Transaccion, Long>
      */
     boolean existsByConsecutivo(String consecutivo);
 
+    /**
+     * Mayor número de secuencia entre los consecutivos con un prefijo (bodega + año).
+     * Valor inicial del contador de consecutivos.
+     */
+    @Query(value = "SELECT COALESCE(MAX(CAST(substring(consecutivo FROM char_length(:prefijo) + 1) AS bigint)), 0) " +
+                   "FROM sicofar.transaccion " +
+                   "WHERE consecutivo LIKE :prefijo || '%' " +
+                   "AND substring(consecutivo FROM char_length(:prefijo) + 1) ~ '^[0-9]+$'",
+           nativeQuery = true)
+    long findMaxSecuenciaConsecutivo(@Param("prefijo") String prefijo);
+
     /**
      * Listar transacciones por estado.
      * Permite filtrar por PENDIENTE, COMPLETADA, CANCELADA.
@@ -92,19 +107,23 @@ public interface TransaccionRepository extends JpaRepository<Transaccion, Long>
 
     /**
      * Obtener total de compras por proveedor en un período.
-     * Estadística financiera para evaluación de proveedores.
+     * Estadística financiera para evaluación de proveedores (solo transacciones completadas).
      */
+    default BigDecimal getTotalComprasByProveedorInPeriod(Long proveedorId, Instant fechaInicio, Instant fechaFin) {
+        return getTotalComprasByProveedorInPeriod(proveedorId, fechaInicio, fechaFin, EstadoTransaccion.completados());
+    }
+
     @Query("SELECT COALESCE(SUM(t.valorTotal), 0) FROM Transaccion t " +
            "WHERE t.proveedor.id = :proveedorId " +
            "AND t.fecha BETWEEN :fechaInicio AND :fechaFin " +
-           "AND t.estado = 'COMPLETADA'")
+           "AND t.estado IN :estados")
     BigDecimal getTotalComprasByProveedorInPeriod(
         @Param("proveedorId") Long proveedorId,
         @Param("fechaInicio") Instant fechaInicio,
-        @Param("fechaFin") Instant fechaFin
+        @Param("fechaFin") Instant fechaFin,
+        @Param("estados") Collection<EstadoTransaccion> estados
     );
 
-
     /**
      * Obtener peso total ingresado por bodega en un período.
      * Control de volumen de material recibido.
@@ -128,4 +147,30 @@ public interface TransaccionRepository extends JpaRepository<Transaccion, Long>
         @Param("bodegaId") Long bodegaId,
         @Param("estado") EstadoTransaccion estado
     );
+
+    // ============ CUENTAS POR PAGAR ============
+
+    /**
+     * Obtener una transacción bloqueada (SELECT ... FOR UPDATE) para cambiar su estado.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM Transaccion t WHERE t.id = :id")
+    Optional<Transaccion> findByIdParaActualizar(@Param("id") Long id);
+
+    boolean existsByEstadoAndFechaPagoIsNull(EstadoTransaccion estado);
+
+    /**
+     * Página de transacciones pendientes de pago de un proveedor posterior al cursor (fecha, id),
+     * de la más antigua a la más reciente. Usa idx_transaccion_proveedor_fecha.
+     */
+    @Query("SELECT t FROM Transaccion t " +
+           "WHERE t.proveedor.id = :proveedorId AND t.estado = 'PENDIENTE' AND t.fechaPago IS NULL " +
+           "AND (t.fecha, t.id) > (:fecha, :id) " +
+           "ORDER BY t.fecha ASC, t.id ASC")
+    List<Transaccion> findPaginaPendientesPagoByProveedor(
+        @Param("proveedorId") Long proveedorId,
+        @Param("fecha") Instant fecha,
+        @Param("id") Long id,
+        Limit limit
+    );
 }
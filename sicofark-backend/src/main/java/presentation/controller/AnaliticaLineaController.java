@@ -0,0 +1,50 @@
+package presentation.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import presentation.dto.RendimientoEtapaDTO;
+import service.interfaces.AnaliticaLineaService;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/linea")
+@RequiredArgsConstructor
+public class AnaliticaLineaController {
+
+    private final AnaliticaLineaService analiticaLineaService;
+
+    /**
+     * Duración, kg/hora, merma y espera por tipo de etapa entre dos días (yyyy-MM-dd, inclusive).
+     */
+    @GetMapping("/rendimiento")
+    public ResponseEntity<List<RendimientoEtapaDTO>> getRendimiento(
+            @RequestParam(required = false) Long bodegaId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta) {
+        return ResponseEntity.ok(analiticaLineaService.getRendimiento(bodegaId, desde, hasta));
+    }
+
+    /**
+     * Ranking de etapas por bodega y turno (posición 1 = cuello de botella).
+     */
+    @GetMapping("/cuellos-botella")
+    public ResponseEntity<List<RendimientoEtapaDTO>> getCuellosBotella(
+            @RequestParam(required = false) Long bodegaId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta) {
+        return ResponseEntity.ok(analiticaLineaService.getCuellosBotella(bodegaId, desde, hasta));
+    }
+
+    @PostMapping("/reconstruccion")
+    public ResponseEntity<Integer> reconstruir() {
+        return ResponseEntity.ok(analiticaLineaService.reconstruir());
+    }
+}
@@ -0,0 +1,51 @@
+package presentation.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import persistence.enums.EstadoBodega;
+import presentation.dto.BodegaCatalogoDTO;
+import presentation.dto.EstadisticasCacheDTO;
+import presentation.dto.TipoMaterialCatalogoDTO;
+import service.interfaces.CatalogoService;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/catalogos")
+@RequiredArgsConstructor
+public class CatalogoController {
+
+    private final CatalogoService catalogoService;
+
+    @GetMapping("/tipos-material")
+    public ResponseEntity<List<TipoMaterialCatalogoDTO>> getTiposMaterialActivos() {
+        return ResponseEntity.ok(catalogoService.getTiposMaterialActivos());
+    }
+
+    @GetMapping("/bodegas/estado/{estado}")
+    public ResponseEntity<List<BodegaCatalogoDTO>> getBodegasPorEstado(@PathVariable EstadoBodega estado) {
+        return ResponseEntity.ok(catalogoService.getBodegasPorEstado(estado));
+    }
+
+    /**
+     * Aciertos, fallos y expulsiones de las cachés de catálogos.
+     */
+    @GetMapping("/cache/estadisticas")
+    public ResponseEntity<List<EstadisticasCacheDTO>> getEstadisticasCache() {
+        return ResponseEntity.ok(catalogoService.getEstadisticas());
+    }
+
+    /**
+     * Vaciar las cachés (p. ej. tras cambios hechos directamente en la base de datos).
+     */
+    @DeleteMapping("/cache")
+    public ResponseEntity<Void> invalidarCache() {
+        catalogoService.invalidarTodo();
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,57 @@
+package presentation.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import persistence.enums.TipoDiscrepancia;
+import presentation.dto.DiscrepanciaConciliacionDTO;
+import presentation.dto.EjecucionConciliacionDTO;
+import service.interfaces.ConciliacionService;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/conciliacion")
+@RequiredArgsConstructor
+public class ConciliacionController {
+
+    private final ConciliacionService conciliacionService;
+
+    /**
+     * Iniciar la conciliación de balance de masa ahora (la programada corre cada noche).
+     * Responde de inmediato con el id de la ejecución; termina cuando GET /{ejecucionId} trae fechaFin.
+     */
+    @PostMapping
+    public ResponseEntity<EjecucionConciliacionDTO> conciliar() {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(conciliacionService.iniciarConciliacion());
+    }
+
+    @GetMapping("/ultima")
+    public ResponseEntity<EjecucionConciliacionDTO> getUltimaEjecucion() {
+        return ResponseEntity.of(conciliacionService.getUltimaEjecucion());
+    }
+
+    @GetMapping("/{ejecucionId}")
+    public ResponseEntity<EjecucionConciliacionDTO> getEjecucion(@PathVariable Long ejecucionId) {
+        return ResponseEntity.ok(conciliacionService.getEjecucion(ejecucionId));
+    }
+
+    /**
+     * Reporte de discrepancias; para la página siguiente enviar despuesDe = id de la última recibida.
+     */
+    @GetMapping("/{ejecucionId}/discrepancias")
+    public ResponseEntity<List<DiscrepanciaConciliacionDTO>> getDiscrepancias(
+            @PathVariable Long ejecucionId,
+            @RequestParam(required = false) TipoDiscrepancia tipo,
+            @RequestParam(required = false) Long bodegaId,
+            @RequestParam(required = false) Long despuesDe,
+            @RequestParam(defaultValue = "100") int tamano) {
+        return ResponseEntity.ok(conciliacionService.getDiscrepancias(ejecucionId, tipo, bodegaId, despuesDe, tamano));
+    }
+}
@@ -0,0 +1,70 @@
+package presentation.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import persistence.enums.TipoEtapa;
+import presentation.dto.CorridaEtapaDTO;
+import presentation.dto.EstadisticaMermaDTO;
+import presentation.dto.EtapaProcesamientoDTO;
+import service.interfaces.EstadisticaMermaService;
+import service.interfaces.EtapaProcesamientoService;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/etapas")
+@RequiredArgsConstructor
+public class EtapaProcesamientoController {
+
+    private final EtapaProcesamientoService etapaProcesamientoService;
+    private final EstadisticaMermaService estadisticaMermaService;
+
+    @PostMapping
+    public ResponseEntity<EtapaProcesamientoDTO> registrarEtapa(
+            @RequestBody EtapaProcesamientoDTO etapa,
+            @RequestParam Long usuarioId) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(etapaProcesamientoService.registrarEtapa(etapa, usuarioId));
+    }
+
+    /**
+     * Misma etapa para varios lotes procesados juntos.
+     */
+    @PostMapping("/corridas")
+    public ResponseEntity<List<EtapaProcesamientoDTO>> registrarCorrida(
+            @RequestBody CorridaEtapaDTO corrida,
+            @RequestParam Long usuarioId) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(etapaProcesamientoService.registrarCorrida(corrida, usuarioId));
+    }
+
+    @GetMapping("/lote/{loteId}")
+    public ResponseEntity<List<EtapaProcesamientoDTO>> getEtapasPorLote(@PathVariable Long loteId) {
+        return ResponseEntity.ok(etapaProcesamientoService.getEtapasPorLote(loteId));
+    }
+
+    /**
+     * Merma por tipo de etapa, tipo de material y bodega (media, desviación, p50/p90/p99).
+     */
+    @GetMapping("/merma/estadisticas")
+    public ResponseEntity<List<EstadisticaMermaDTO>> getEstadisticasMerma(
+            @RequestParam(required = false) TipoEtapa tipoEtapa,
+            @RequestParam(required = false) Long tipoMaterialId,
+            @RequestParam(required = false) Long bodegaId) {
+        return ResponseEntity.ok(estadisticaMermaService.getEstadisticas(tipoEtapa, tipoMaterialId, bodegaId));
+    }
+
+    /**
+     * Merma por tipo de etapa, de una bodega o de todas.
+     */
+    @GetMapping("/merma/resumen")
+    public ResponseEntity<List<EstadisticaMermaDTO>> getResumenMerma(@RequestParam(required = false) Long bodegaId) {
+        return ResponseEntity.ok(estadisticaMermaService.getResumenPorTipoEtapa(bodegaId));
+    }
+}
@@ -1,4 +1,79 @@
 package presentation.controller;
 
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import presentation.dto.EstadisticasMotorStockDTO;
+import presentation.dto.InventarioDTO;
+import presentation.dto.MovimientoInventarioDTO;
+import presentation.dto.PaginaCursorDTO;
+import service.interfaces.InventarioService;
+import service.interfaces.MovimientoInventarioService;
+
+import java.time.Instant;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/inventarios")
+@RequiredArgsConstructor
 public class InventarioController {
+
+    private final InventarioService inventarioService;
+    private final MovimientoInventarioService movimientoInventarioService;
+
+    /**
+     * Métricas del motor de stock: throughput, tamaño de grupo y profundidad de colas.
+     */
+    @GetMapping("/motor/estadisticas")
+    public ResponseEntity<EstadisticasMotorStockDTO> getEstadisticasMotor() {
+        return ResponseEntity.ok(inventarioService.getEstadisticasMotor());
+    }
+
+    /**
+     * Stock de un inventario (bodega + tipo material) en una fecha pasada, p. ej. cierre de mes.
+     */
+    @GetMapping("/stock-a-fecha")
+    public ResponseEntity<InventarioDTO> getStockAFecha(
+            @RequestParam Long bodegaId,
+            @RequestParam Long tipoMaterialId,
+            @RequestParam Instant fecha) {
+        return ResponseEntity.of(inventarioService.getStockAFecha(bodegaId, tipoMaterialId, fecha));
+    }
+
+    // ============ HISTORIAL DE MOVIMIENTOS (paginación por cursor) ============
+
+    @GetMapping("/{inventarioId}/movimientos")
+    public ResponseEntity<PaginaCursorDTO<MovimientoInventarioDTO>> getHistorialInventario(
+            @PathVariable Long inventarioId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int tamano) {
+        return ResponseEntity.ok(movimientoInventarioService.getHistorialInventario(inventarioId, cursor, tamano));
+    }
+
+    @GetMapping("/movimientos/usuario/{usuarioId}")
+    public ResponseEntity<PaginaCursorDTO<MovimientoInventarioDTO>> getHistorialUsuario(
+            @PathVariable Long usuarioId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int tamano) {
+        return ResponseEntity.ok(movimientoInventarioService.getHistorialUsuario(usuarioId, cursor, tamano));
+    }
+
+    @GetMapping("/movimientos")
+    public ResponseEntity<PaginaCursorDTO<MovimientoInventarioDTO>> getMovimientosEnPeriodo(
+            @RequestParam Instant desde,
+            @RequestParam Instant hasta,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int tamano) {
+        return ResponseEntity.ok(movimientoInventarioService.getMovimientosEnPeriodo(desde, hasta, cursor, tamano));
+    }
+
+    @GetMapping("/movimientos/recientes")
+    public ResponseEntity<List<MovimientoInventarioDTO>> getMovimientosRecientes(
+            @RequestParam(defaultValue = "20") int limite) {
+        return ResponseEntity.ok(movimientoInventarioService.getMovimientosRecientes(limite));
+    }
 }
@@ -0,0 +1,138 @@
+package presentation.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import persistence.enums.CalidadMaterial;
+import persistence.enums.EstadoLote;
+import presentation.dto.AsignacionLoteDTO;
+import presentation.dto.ImpactoRecallDTO;
+import presentation.dto.LoteRequestDTO;
+import presentation.dto.LoteResponseDTO;
+import presentation.dto.SolicitudAsignacionDTO;
+import service.interfaces.AsignacionLoteService;
+import service.interfaces.LoteService;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/lotes")
+@RequiredArgsConstructor
+public class LoteController {
+
+    private final LoteService loteService;
+    private final AsignacionLoteService asignacionLoteService;
+
+    @PostMapping
+    public ResponseEntity<LoteResponseDTO> crearLote(
+            @RequestBody LoteRequestDTO solicitud,
+            @RequestParam Long usuarioId) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(loteService.crearLote(solicitud, usuarioId));
+    }
+
+    /**
+     * Registro masivo de lotes (sincronización de fin de día de los centros de acopio).
+     */
+    @PostMapping("/masivo")
+    public ResponseEntity<List<LoteResponseDTO>> crearLotes(
+            @RequestBody List<LoteRequestDTO> solicitudes,
+            @RequestParam Long usuarioId) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(loteService.crearLotes(solicitudes, usuarioId));
+    }
+
+    /**
+     * Dividir un lote en sublotes con los pesos netos indicados.
+     */
+    @PostMapping("/{loteId}/division")
+    public ResponseEntity<List<LoteResponseDTO>> dividirLote(
+            @PathVariable Long loteId,
+            @RequestBody List<BigDecimal> pesosNetos,
+            @RequestParam Long usuarioId) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(loteService.dividirLote(loteId, pesosNetos, usuarioId));
+    }
+
+    /**
+     * Asignar un peso de material entre los lotes disponibles en orden FIFO (ventas y procesamiento).
+     */
+    @PostMapping("/asignacion")
+    public ResponseEntity<AsignacionLoteDTO> asignar(@RequestBody SolicitudAsignacionDTO solicitud) {
+        return ResponseEntity.ok(asignacionLoteService.asignar(solicitud));
+    }
+
+    // ============ LISTADOS ============
+
+    @GetMapping("/estado/{estado}")
+    public ResponseEntity<List<LoteResponseDTO>> getLotesPorEstado(@PathVariable EstadoLote estado) {
+        return ResponseEntity.ok(loteService.getLotesPorEstado(estado));
+    }
+
+    @GetMapping("/proveedor/{proveedorId}")
+    public ResponseEntity<List<LoteResponseDTO>> getLotesPorProveedor(@PathVariable Long proveedorId) {
+        return ResponseEntity.ok(loteService.getLotesPorProveedor(proveedorId));
+    }
+
+    @GetMapping("/bodega/{bodegaId}")
+    public ResponseEntity<List<LoteResponseDTO>> getLotesPorBodega(@PathVariable Long bodegaId) {
+        return ResponseEntity.ok(loteService.getLotesPorBodega(bodegaId));
+    }
+
+    @GetMapping("/tipo-material/{tipoMaterialId}")
+    public ResponseEntity<List<LoteResponseDTO>> getLotesPorTipoMaterial(@PathVariable Long tipoMaterialId) {
+        return ResponseEntity.ok(loteService.getLotesPorTipoMaterial(tipoMaterialId));
+    }
+
+    /**
+     * Lotes ACTIVOS de un material en una bodega, en orden FIFO.
+     */
+    @GetMapping("/disponibles")
+    public ResponseEntity<List<LoteResponseDTO>> getLotesDisponibles(
+            @RequestParam Long bodegaId,
+            @RequestParam Long tipoMaterialId) {
+        return ResponseEntity.ok(loteService.getLotesDisponibles(bodegaId, tipoMaterialId));
+    }
+
+    @GetMapping("/calidad/{calidad}")
+    public ResponseEntity<List<LoteResponseDTO>> getLotesPorCalidad(
+            @PathVariable CalidadMaterial calidad,
+            @RequestParam(defaultValue = "ACTIVO") EstadoLote estado) {
+        return ResponseEntity.ok(loteService.getLotesPorCalidad(calidad, estado));
+    }
+
+    @GetMapping("/{loteId}/hijos")
+    public ResponseEntity<List<LoteResponseDTO>> getLotesHijos(@PathVariable Long loteId) {
+        return ResponseEntity.ok(loteService.getLotesHijos(loteId));
+    }
+
+    @GetMapping("/registro")
+    public ResponseEntity<List<LoteResponseDTO>> getLotesPorFechaRegistro(
+            @RequestParam Instant desde,
+            @RequestParam Instant hasta) {
+        return ResponseEntity.ok(loteService.getLotesPorFechaRegistro(desde, hasta));
+    }
+
+    // ============ GENEALOGÍA ============
+
+    @GetMapping("/{loteId}/ancestros")
+    public ResponseEntity<List<LoteResponseDTO>> getAncestros(@PathVariable Long loteId) {
+        return ResponseEntity.ok(loteService.getAncestros(loteId));
+    }
+
+    @GetMapping("/{loteId}/descendientes")
+    public ResponseEntity<List<LoteResponseDTO>> getDescendientes(@PathVariable Long loteId) {
+        return ResponseEntity.ok(loteService.getDescendientes(loteId));
+    }
+
+    @GetMapping("/{loteId}/impacto-recall")
+    public ResponseEntity<ImpactoRecallDTO> getImpactoRecall(@PathVariable Long loteId) {
+        return ResponseEntity.ok(loteService.getImpactoRecall(loteId));
+    }
+}
@@ -1,4 +1,61 @@
 package presentation.controller;
 
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import persistence.enums.EstadoProveedor;
+import presentation.dto.EstadisticaMensualProveedorDTO;
+import presentation.dto.ProveedorDTO;
+import service.interfaces.ProveedorService;
+
+import java.time.YearMonth;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/proveedores")
+@RequiredArgsConstructor
 public class ProveedorController {
+
+    private final ProveedorService proveedorService;
+
+    /**
+     * Listado de proveedores con sus totales de compras.
+     */
+    @GetMapping
+    public ResponseEntity<List<ProveedorDTO>> getProveedores(@RequestParam(required = false) EstadoProveedor estado) {
+        return ResponseEntity.ok(proveedorService.getProveedores(estado));
+    }
+
+    /**
+     * Autocompletado de proveedores por nombres, apellidos o documento.
+     */
+    @GetMapping("/busqueda")
+    public ResponseEntity<List<ProveedorDTO>> buscar(
+            @RequestParam String texto,
+            @RequestParam(defaultValue = "10") int limite) {
+        return ResponseEntity.ok(proveedorService.buscar(texto, limite));
+    }
+
+    /**
+     * Proveedores con más compras entre dos meses (formato yyyy-MM).
+     */
+    @GetMapping("/ranking")
+    public ResponseEntity<List<ProveedorDTO>> getRanking(
+            @RequestParam YearMonth desde,
+            @RequestParam YearMonth hasta,
+            @RequestParam(defaultValue = "10") int limite) {
+        return ResponseEntity.ok(proveedorService.getRanking(desde, hasta, limite));
+    }
+
+    @GetMapping("/{proveedorId}/estadisticas")
+    public ResponseEntity<List<EstadisticaMensualProveedorDTO>> getEstadisticasMensuales(
+            @PathVariable Long proveedorId,
+            @RequestParam YearMonth desde,
+            @RequestParam YearMonth hasta) {
+        return ResponseEntity.ok(proveedorService.getEstadisticasMensuales(proveedorId, desde, hasta));
+    }
 }
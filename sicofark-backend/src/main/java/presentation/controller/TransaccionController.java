@@ -1,4 +1,70 @@
 package presentation.controller;
 
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import persistence.enums.EstadoTransaccion;
+import persistence.enums.MetodoPago;
+import presentation.dto.CuentaPorPagarDTO;
+import presentation.dto.PaginaCursorDTO;
+import presentation.dto.TransaccionDTO;
+import service.interfaces.TransaccionService;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/transacciones")
+@RequiredArgsConstructor
 public class TransaccionController {
+
+    private final TransaccionService transaccionService;
+
+    /**
+     * Registrar un documento de entrega: transacción, detalles, lotes y entradas de inventario.
+     * Con Idempotency-Key, los reintentos del dispositivo devuelven el ingreso original;
+     * la misma clave del mismo usuario con otro documento responde 422.
+     */
+    @PostMapping("/ingresos")
+    public ResponseEntity<TransaccionDTO> registrarIngreso(
+            @RequestBody TransaccionDTO documento,
+            @RequestParam Long usuarioId,
+            @RequestHeader(value = "Idempotency-Key", required = false) String claveIdempotencia) {
+        return ResponseEntity.status(HttpStatus.CREATED)
+            .body(transaccionService.registrarIngreso(documento, usuarioId, claveIdempotencia));
+    }
+
+    @PatchMapping("/{transaccionId}/estado")
+    public ResponseEntity<TransaccionDTO> cambiarEstado(
+            @PathVariable Long transaccionId,
+            @RequestParam EstadoTransaccion estado,
+            @RequestParam(required = false) MetodoPago metodoPago) {
+        return ResponseEntity.ok(transaccionService.cambiarEstado(transaccionId, estado, metodoPago));
+    }
+
+    // ============ CUENTAS POR PAGAR ============
+
+    @GetMapping("/cuentas-por-pagar")
+    public ResponseEntity<List<CuentaPorPagarDTO>> getCuentasPorPagar() {
+        return ResponseEntity.ok(transaccionService.getCuentasPorPagar());
+    }
+
+    /**
+     * Detalle de la deuda de un proveedor: transacciones pendientes de la más antigua a la más reciente.
+     */
+    @GetMapping("/cuentas-por-pagar/{proveedorId}")
+    public ResponseEntity<PaginaCursorDTO<TransaccionDTO>> getPendientesPago(
+            @PathVariable Long proveedorId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int tamano) {
+        return ResponseEntity.ok(transaccionService.getPendientesPago(proveedorId, cursor, tamano));
+    }
 }
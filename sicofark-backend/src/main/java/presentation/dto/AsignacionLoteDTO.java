@@ -0,0 +1,29 @@
+package presentation.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+public class AsignacionLoteDTO {
+    private Long bodegaId;
+    private Long tipoMaterialId;
+    private BigDecimal pesoAsignado;
+
+    // Lotes usados en orden FIFO
+    private List<Detalle> lotes;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Detalle {
+        private Long loteId;
+        private String codigo;
+        private BigDecimal pesoAsignado;
+        private boolean agotado;
+        private Long movimientoId;
+    }
+}
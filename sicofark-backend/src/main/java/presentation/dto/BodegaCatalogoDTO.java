@@ -0,0 +1,24 @@
+package presentation.dto;
+
+import persistence.enums.EstadoBodega;
+import persistence.enums.TipoOrganizacion;
+
+import java.math.BigDecimal;
+
+/**
+ * Bodega servida por la caché de catálogos: copia inmutable, compartible entre hilos.
+ */
+public record BodegaCatalogoDTO(
+    Long id,
+    String nombre,
+    String direccion,
+    String telefono,
+    String email,
+    String nit,
+    TipoOrganizacion tipoOrganizacion,
+    BigDecimal coordenadasLatitud,
+    BigDecimal coordenadasLongitud,
+    EstadoBodega estado,
+    BigDecimal capacidadMaxima
+) {
+}
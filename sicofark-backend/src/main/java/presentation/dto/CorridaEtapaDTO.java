@@ -0,0 +1,19 @@
+package presentation.dto;
+
+import lombok.Data;
+import persistence.enums.TipoEtapa;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+public class CorridaEtapaDTO {
+    private TipoEtapa tipoEtapa;
+    private Instant fechaInicio;
+    private Instant fechaFin;
+    private String observaciones;
+
+    // Un elemento por lote de la corrida: loteId, pesoEntrada, pesoSalida y, opcionalmente,
+    // observaciones propias (si no, se usan las de la corrida)
+    private List<EtapaProcesamientoDTO> lotes;
+}
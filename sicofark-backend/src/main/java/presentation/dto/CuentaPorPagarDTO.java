@@ -0,0 +1,21 @@
+package presentation.dto;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+public class CuentaPorPagarDTO {
+    private Long proveedorId;
+    private String proveedorNombre;
+    private Long numeroTransacciones;
+    private BigDecimal valorPendiente;
+    private LocalDate fechaMasAntigua;
+
+    // Antigüedad de la deuda (días desde la fecha de la transacción)
+    private BigDecimal valorHasta30Dias;
+    private BigDecimal valor31a60Dias;
+    private BigDecimal valor61a90Dias;
+    private BigDecimal valorMas90Dias;
+}
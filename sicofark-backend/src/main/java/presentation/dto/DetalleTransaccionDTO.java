@@ -1,4 +1,29 @@
 package presentation.dto;
 
+import lombok.Data;
+import persistence.enums.CalidadMaterial;
+
+import java.math.BigDecimal;
+
+@Data
 public class DetalleTransaccionDTO {
+    private Long id;
+    private Long tipoMaterialId;
+
+    // Pesaje de la línea; el peso neto (bruto - tara) es el peso del lote y de la entrada
+    private BigDecimal pesoBruto;
+    private BigDecimal tara;
+    private BigDecimal peso;
+
+    private BigDecimal cantidad; // Opcional: por defecto el peso neto
+    private BigDecimal precioUnitario;
+    private BigDecimal subtotal;
+    private CalidadMaterial calidad;
+    private String origen;
+    private String observaciones;
+
+    // Resultado del registro
+    private Long loteId;
+    private String loteCodigo;
+    private Long movimientoId;
 }
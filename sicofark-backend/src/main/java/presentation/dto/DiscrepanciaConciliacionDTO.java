@@ -0,0 +1,18 @@
+package presentation.dto;
+
+import lombok.Data;
+import persistence.enums.TipoDiscrepancia;
+
+import java.math.BigDecimal;
+
+@Data
+public class DiscrepanciaConciliacionDTO {
+    private Long id;
+    private Long loteId;
+    private String codigoLote;
+    private Long bodegaId;
+    private TipoDiscrepancia tipo;
+    private BigDecimal valorEsperado;
+    private BigDecimal valorEncontrado;
+    private String detalle;
+}
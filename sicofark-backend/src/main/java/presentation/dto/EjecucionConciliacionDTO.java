@@ -0,0 +1,20 @@
+package presentation.dto;
+
+import lombok.Data;
+
+import java.time.Instant;
+
+@Data
+public class EjecucionConciliacionDTO {
+    private Long id;
+    private Instant fechaInicio;
+    private Instant fechaFin;
+    private int rangos;
+    private int rangosFallidos;
+    private long lotesRevisados;
+    private long etapasRevisadas;
+    private long discrepancias;
+
+    // Terminó y revisó todos los rangos de lotes
+    private boolean completa;
+}
@@ -0,0 +1,18 @@
+package presentation.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EstadisticaMensualProveedorDTO {
+    private YearMonth mes;
+    private Long numeroTransacciones;
+    private BigDecimal pesoEntregado;
+    private BigDecimal valorCompras;
+}
@@ -0,0 +1,26 @@
+package presentation.dto;
+
+import lombok.Data;
+import persistence.enums.TipoEtapa;
+
+/**
+ * Merma parcial (%) de un grupo de etapas. tipoMaterialId y bodegaId son nulos
+ * cuando la estadística agrega varios materiales o bodegas.
+ */
+@Data
+public class EstadisticaMermaDTO {
+    private TipoEtapa tipoEtapa;
+    private Long tipoMaterialId;
+    private Long bodegaId;
+
+    private long conteo;
+    private double media;
+    private double desviacionEstandar;
+    private double minimo;
+    private double maximo;
+
+    // Cuantiles con error relativo de 1 %
+    private double p50;
+    private double p90;
+    private double p99;
+}
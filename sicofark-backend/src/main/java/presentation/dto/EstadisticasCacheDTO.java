@@ -0,0 +1,18 @@
+package presentation.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EstadisticasCacheDTO {
+    private String cache;
+    private int tamaño;
+    private long aciertos;
+    private long fallos;
+    // Entradas descartadas por tamaño máximo o tiempo de vida (no cuenta invalidaciones)
+    private long expulsiones;
+    private double tasaAciertos;
+}
@@ -0,0 +1,21 @@
+package presentation.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class EstadisticasMotorStockDTO {
+    private int shards;
+    private long movimientosProcesados;
+    private long movimientosFallidos;
+    private long gruposConfirmados;
+    private double tamañoPromedioGrupo;
+    private double latenciaPromedioCommitMs;
+    private double movimientosPorSegundo;
+
+    // Profundidad de cola por shard (índice = número de shard)
+    private List<Integer> profundidadColas;
+    private int profundidadTotal;
+    private int profundidadMaxima;
+}
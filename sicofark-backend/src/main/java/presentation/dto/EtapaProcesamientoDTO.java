@@ -0,0 +1,26 @@
+package presentation.dto;
+
+import lombok.Data;
+import persistence.enums.TipoEtapa;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+@Data
+public class EtapaProcesamientoDTO {
+    private Long id;
+    private Long loteId;
+    private TipoEtapa tipoEtapa;
+    private Instant fechaInicio;
+    private Instant fechaFin;
+    private BigDecimal pesoEntrada;
+    private BigDecimal pesoSalida;
+    private String observaciones;
+
+    // Calculadas al registrar (porcentajes)
+    private BigDecimal mermaParcial;
+    private BigDecimal mermaAcumulada;
+
+    private Long usuarioRegistroId;
+    private Instant fechaRegistro;
+}
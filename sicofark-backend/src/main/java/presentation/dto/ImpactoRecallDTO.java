@@ -0,0 +1,22 @@
+package presentation.dto;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+public class ImpactoRecallDTO {
+    private Long loteOrigenId;
+    private String loteOrigenCodigo;
+
+    // Lote de origen y todos sus descendientes, por nivel
+    private List<LoteResponseDTO> lotesAfectados;
+    private BigDecimal pesoNetoAfectado;
+
+    // Registros que referencian a cualquiera de los lotes afectados
+    private List<Long> transaccionIds;
+    private List<String> consecutivosTransaccion;
+    private List<Long> detalleTransaccionIds;
+    private List<Long> movimientoIds;
+}
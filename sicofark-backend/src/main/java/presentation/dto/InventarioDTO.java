@@ -1,4 +1,22 @@
 package presentation.dto;
 
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+@Data
 public class InventarioDTO {
+    private Long id;
+    private Long bodegaId;
+    private Long tipoMaterialId;
+    private BigDecimal stockActual;
+    private BigDecimal stockMinimo;
+    private BigDecimal stockMaximo;
+    private String ubicacion;
+    private Instant fechaActualizacion;
+
+    // Solo en consultas a una fecha pasada: instante consultado y corte del snapshot usado
+    private Instant fechaConsulta;
+    private Instant fechaSnapshot;
 }
@@ -1,4 +1,28 @@
 package presentation.dto;
 
+import lombok.Data;
+import persistence.enums.TipoOperacion;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+@Data
 public class MovimientoInventarioDTO {
+    private Long id;
+    private TipoOperacion tipoOperacion;
+    private BigDecimal cantidad;
+    private BigDecimal cantidadAnterior;
+    private BigDecimal cantidadNueva;
+    private String motivo;
+    private String referencia;
+
+    // Inventario afectado (bodega + tipo de material)
+    private Long inventarioId;
+    private Long bodegaId;
+    private Long tipoMaterialId;
+
+    private Long usuarioId;
+    private Long loteId; // Opcional: lote asociado al movimiento
+
+    private Instant fecha;
 }
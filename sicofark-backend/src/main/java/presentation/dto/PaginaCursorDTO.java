@@ -0,0 +1,17 @@
+package presentation.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaginaCursorDTO<T> {
+    private List<T> elementos;
+
+    // Token opaco para pedir la página siguiente; null si no hay más registros
+    private String siguienteCursor;
+}
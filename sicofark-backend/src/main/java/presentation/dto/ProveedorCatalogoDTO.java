@@ -0,0 +1,20 @@
+package presentation.dto;
+
+import persistence.enums.EstadoProveedor;
+import persistence.enums.TipoDocumento;
+
+import java.math.BigDecimal;
+
+/**
+ * Proveedor servido por la caché de catálogos: copia inmutable, compartible entre hilos.
+ */
+public record ProveedorCatalogoDTO(
+    Long id,
+    String nombres,
+    String apellidos,
+    TipoDocumento tipoDocumento,
+    String numeroDocumento,
+    EstadoProveedor estado,
+    BigDecimal calificacion
+) {
+}
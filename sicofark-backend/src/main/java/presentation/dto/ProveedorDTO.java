@@ -1,4 +1,28 @@
 package presentation.dto;
 
+import lombok.Data;
+import persistence.enums.EstadoProveedor;
+import persistence.enums.TipoDocumento;
+
+import java.math.BigDecimal;
+
+@Data
 public class ProveedorDTO {
+    private Long id;
+    private String nombres;
+    private String apellidos;
+    private TipoDocumento tipoDocumento;
+    private String numeroDocumento;
+    private String telefono;
+    private String email;
+    private EstadoProveedor estado;
+    private BigDecimal calificacion;
+
+    // Compras completadas (histórico o del período consultado)
+    private Long numeroTransacciones;
+    private BigDecimal pesoEntregado;
+    private BigDecimal valorCompras;
+
+    // Solo en búsquedas: similitud con el texto buscado (0 a 1)
+    private Double relevancia;
 }
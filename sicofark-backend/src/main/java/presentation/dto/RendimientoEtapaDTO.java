@@ -0,0 +1,31 @@
+package presentation.dto;
+
+import lombok.Data;
+import persistence.enums.TipoEtapa;
+
+import java.util.Map;
+
+/**
+ * Rendimiento de un tipo de etapa en un período, de una bodega (o todas) y opcionalmente un turno.
+ */
+@Data
+public class RendimientoEtapaDTO {
+    private TipoEtapa tipoEtapa;
+    private Long bodegaId;
+    // Nombre del turno (p. ej. "06:00-14:00"); null si agrega todas las horas
+    private String turno;
+
+    private long etapas;
+    private double duracionPromedioMinutos;
+    // Kg de entrada por hora de etapa
+    private double kgPorHora;
+    private double mermaPromedio;
+    // Espera desde el fin de la etapa anterior del mismo lote (cola antes de esta etapa)
+    private double esperaPromedioMinutos;
+
+    // Intervalo de duración ("0-5 min", "5-15 min", ..., "480+ min") -> etapas
+    private Map<String, Long> histogramaDuracion;
+
+    // Posición como cuello de botella dentro de la bodega y turno (1 = mayor espera)
+    private Integer posicion;
+}
@@ -0,0 +1,20 @@
+package presentation.dto;
+
+import lombok.Data;
+import persistence.enums.EstadoLote;
+
+import java.math.BigDecimal;
+
+@Data
+public class SolicitudAsignacionDTO {
+    private Long bodegaId;
+    private Long tipoMaterialId;
+    private BigDecimal peso;
+
+    // Estado de los lotes que se agotan: FACTURADO (venta) o EN_PROCESO (procesamiento)
+    private EstadoLote estadoDestino;
+
+    private Long usuarioId;
+    private String referencia;
+    private String motivo;
+}
@@ -0,0 +1,22 @@
+package presentation.dto;
+
+import persistence.enums.CategoriaMaterial;
+import persistence.enums.UnidadMedida;
+
+import java.math.BigDecimal;
+
+/**
+ * Tipo de material servido por la caché de catálogos: copia inmutable, compartible entre hilos.
+ */
+public record TipoMaterialCatalogoDTO(
+    Long id,
+    String nombre,
+    String descripcion,
+    CategoriaMaterial categoriaMaterial,
+    UnidadMedida unidadMedida,
+    BigDecimal precioBase,
+    BigDecimal factorCalidad,
+    BigDecimal umbralMerma,
+    boolean activo
+) {
+}
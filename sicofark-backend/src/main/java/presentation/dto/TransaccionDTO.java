@@ -1,4 +1,32 @@
 package presentation.dto;
 
+import lombok.Data;
+import persistence.enums.EstadoTransaccion;
+import persistence.enums.MetodoPago;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+@Data
 public class TransaccionDTO {
+    private Long id;
+    private String consecutivo;
+    private Instant fecha;
+    private BigDecimal pesoTotal;
+    private BigDecimal valorTotal;
+    private String observaciones;
+    private EstadoTransaccion estado;
+    private MetodoPago metodoPago;
+    private Instant fechaPago;
+
+    private Long proveedorId;
+    private Long bodegaId;
+    private Long usuarioId;
+
+    // Líneas del documento de entrega: cada una genera un lote y una entrada de inventario
+    private List<DetalleTransaccionDTO> detalles;
+
+    // Códigos de los lotes creados, en el orden de los detalles
+    private List<String> codigosLote;
 }
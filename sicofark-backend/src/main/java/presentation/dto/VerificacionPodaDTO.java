@@ -0,0 +1,19 @@
+package presentation.dto;
+
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+public class VerificacionPodaDTO {
+    private String tabla;
+    private Instant fechaInicio;
+    private Instant fechaFin;
+
+    // Particiones adjuntas a la tabla, las que cubren el rango y las que aparecen en el plan
+    private int particionesTotales;
+    private List<String> particionesEsperadas;
+    private List<String> particionesEscaneadas;
+    private boolean podaEfectiva;
+}
@@ -0,0 +1,14 @@
+package service.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Una clave de idempotencia ya usada llegó con un cuerpo distinto al de la solicitud original.
+ */
+@ResponseStatus(HttpStatus.UNPROCESSABLE_ENTITY)
+public class ClaveIdempotenciaReutilizadaException extends RuntimeException {
+    public ClaveIdempotenciaReutilizadaException(String message) {
+        super(message);
+    }
+}
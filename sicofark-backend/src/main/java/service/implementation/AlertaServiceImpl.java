@@ -1,4 +1,275 @@
 package service.implementation;
 
-public class AlertaServiceImpl {
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import persistence.entity.Alerta;
+import persistence.entity.EtapaProcesamiento;
+import persistence.entity.Inventario;
+import persistence.enums.EstadoAlerta;
+import persistence.enums.SeveridadAlerta;
+import persistence.enums.TipoAlerta;
+import persistence.projection.StockActualizado;
+import persistence.repository.AlertaRepository;
+import persistence.repository.InventarioRepository;
+import presentation.dto.EstadisticaMermaDTO;
+import presentation.dto.TipoMaterialCatalogoDTO;
+import service.interfaces.AlertaService;
+import service.interfaces.CatalogoService;
+import service.interfaces.EstadisticaMermaService;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Implementación del servicio de Alertas.
+ *
+ * Funcionalidades:
+ * - Evaluación incremental de umbrales de stock en cada cambio confirmado por el motor:
+ *   sin cruce de umbral no hay acceso a la base de datos
+ * - Deduplicación: una alerta abierta por (tipo, inventario); las repeticiones incrementan contador
+ * - Barrido periódico de consistencia con las consultas completas de InventarioRepository
+ * - Merma alta por etapa: umbral del tipo de material (desde la caché de catálogos) y z-score
+ *   sobre las estadísticas en memoria del grupo; solo las etapas anómalas acceden a la base
+ *
+ * IMPORTANTE: La evaluación corre en la transacción que actualizó el stock, después del
+ * UPDATE del inventario; el bloqueo de esa fila serializa la evaluación de un mismo inventario.
+ * El stock por debajo del mínimo genera STOCK_BAJO y el exceso sobre el máximo STOCK_ALTO;
+ * el barrido solo abre y cierra alertas de esos dos tipos.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AlertaServiceImpl implements AlertaService {
+
+    static final String ENTIDAD_INVENTARIO = "INVENTARIO";
+    static final String ENTIDAD_LOTE = "LOTE";
+
+    private final AlertaRepository alertaRepository;
+    private final InventarioRepository inventarioRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final CatalogoService catalogoService;
+    private final EstadisticaMermaService estadisticaMermaService;
+
+    @Value("${sicofark.alerta.merma.z-umbral:3.0}")
+    private double zUmbral;
+
+    // Con menos etapas en el grupo la desviación estándar no es confiable y solo se usa el umbral
+    @Value("${sicofark.alerta.merma.minimo-muestras:30}")
+    private long minimoMuestras;
+
+    // ============ EVALUACIÓN INCREMENTAL ============
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void evaluarUmbralesStock(StockActualizado stock) {
+        BigDecimal anterior = stock.getStockAnterior();
+        BigDecimal nuevo = stock.getStockNuevo();
+
+        boolean bajoAntes = bajoMinimo(anterior, stock.getStockMinimo());
+        boolean bajoAhora = bajoMinimo(nuevo, stock.getStockMinimo());
+        if (!bajoAntes && bajoAhora) {
+            abrirAlertaStockBajo(stock.getInventarioId(), nuevo, stock.getStockMinimo());
+        } else if (bajoAntes && !bajoAhora) {
+            cerrarAlerta(TipoAlerta.STOCK_BAJO, stock.getInventarioId());
+        }
+
+        boolean sobreAntes = sobreMaximo(anterior, stock.getStockMaximo());
+        boolean sobreAhora = sobreMaximo(nuevo, stock.getStockMaximo());
+        if (!sobreAntes && sobreAhora) {
+            abrirAlertaStockAlto(stock.getInventarioId(), nuevo, stock.getStockMaximo());
+        } else if (sobreAntes && !sobreAhora) {
+            cerrarAlerta(TipoAlerta.STOCK_ALTO, stock.getInventarioId());
+        }
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void evaluarMerma(EtapaProcesamiento etapa) {
+        double merma = etapa.getMermaParcial().doubleValue();
+        Long tipoMaterialId = etapa.getLote().getTipoMaterial().getId();
+        Long bodegaId = etapa.getLote().getBodega().getId();
+
+        BigDecimal umbral = catalogoService.getTipoMaterial(tipoMaterialId)
+            .map(TipoMaterialCatalogoDTO::umbralMerma)
+            .orElse(null);
+        SeveridadAlerta porUmbral = umbral != null && umbral.signum() > 0
+            ? severidadPorRazon(merma / umbral.doubleValue())
+            : null;
+
+        // Las estadísticas aún no incluyen esta etapa (se agrega al confirmarse)
+        EstadisticaMermaDTO estadistica = estadisticaMermaService
+            .getEstadistica(etapa.getTipoEtapa(), tipoMaterialId, bodegaId)
+            .filter(e -> e.getConteo() >= minimoMuestras && e.getDesviacionEstandar() > 0)
+            .orElse(null);
+        double z = estadistica != null ? (merma - estadistica.getMedia()) / estadistica.getDesviacionEstandar() : 0;
+        SeveridadAlerta porDesviacion = severidadPorZ(z);
+
+        SeveridadAlerta severidad = mayor(porUmbral, porDesviacion);
+        if (severidad == null) {
+            return;
+        }
+        StringBuilder descripcion = new StringBuilder()
+            .append("Etapa ").append(etapa.getTipoEtapa())
+            .append(" del lote ").append(etapa.getLote().getCodigo())
+            .append(": merma parcial ").append(etapa.getMermaParcial()).append(" %");
+        if (umbral != null) {
+            descripcion.append(", umbral del material ").append(umbral).append(" %");
+        }
+        if (estadistica != null) {
+            descripcion.append(String.format(", media del grupo %.2f %% (z = %.1f, p99 %.2f %%)",
+                estadistica.getMedia(), z, estadistica.getP99()));
+        }
+        abrirAlerta(TipoAlerta.MERMA_ALTA, ENTIDAD_LOTE, etapa.getLote().getId(), severidad,
+            "Merma alta en " + etapa.getTipoEtapa(), descripcion.toString());
+    }
+
+    // ============ BARRIDO DE CONSISTENCIA ============
+
+    @Override
+    public int verificarAlertasStock() {
+        Integer corregidas = new TransactionTemplate(transactionManager).execute(status -> {
+            Map<Long, Inventario> bajoMinimo = inventarioRepository.findInventariosBajoMinimo().stream()
+                .collect(Collectors.toMap(Inventario::getId, Function.identity()));
+            Map<Long, Inventario> sobreMaximo = inventarioRepository.findInventariosSobreMaximo().stream()
+                .filter(i -> i.getStockMaximo().signum() > 0)
+                .collect(Collectors.toMap(Inventario::getId, Function.identity()));
+
+            int cambios = 0;
+            for (Alerta alerta : alertaRepository.findAbiertas(TipoAlerta.STOCK_BAJO, ENTIDAD_INVENTARIO)) {
+                if (bajoMinimo.remove(alerta.getEntidadId()) == null) {
+                    cerrar(alerta);
+                    cambios++;
+                }
+            }
+            for (Inventario inventario : bajoMinimo.values()) {
+                abrirAlertaStockBajo(inventario.getId(), inventario.getStockActual(), inventario.getStockMinimo());
+                cambios++;
+            }
+
+            for (Alerta alerta : alertaRepository.findAbiertas(TipoAlerta.STOCK_ALTO, ENTIDAD_INVENTARIO)) {
+                if (sobreMaximo.remove(alerta.getEntidadId()) == null) {
+                    cerrar(alerta);
+                    cambios++;
+                }
+            }
+            for (Inventario inventario : sobreMaximo.values()) {
+                abrirAlertaStockAlto(inventario.getId(), inventario.getStockActual(), inventario.getStockMaximo());
+                cambios++;
+            }
+            return cambios;
+        });
+        return corregidas;
+    }
+
+    /**
+     * Barrido periódico: las diferencias indican cambios de stock o de umbrales que no
+     * pasaron por el motor (p. ej. edición de stockMinimo).
+     */
+    @Scheduled(cron = "${sicofark.alerta.stock.barrido-cron:0 0 * * * *}")
+    public void verificarAlertasStockPeriodico() {
+        int corregidas = verificarAlertasStock();
+        if (corregidas > 0) {
+            log.warn("Barrido de alertas de stock: {} alertas abiertas o cerradas", corregidas);
+        }
+    }
+
+    // ============ UTILIDADES ============
+
+    private boolean bajoMinimo(BigDecimal stock, BigDecimal minimo) {
+        return stock.compareTo(minimo) < 0;
+    }
+
+    // Un máximo de 0 significa "sin máximo configurado" (valor por defecto al crear el inventario)
+    private boolean sobreMaximo(BigDecimal stock, BigDecimal maximo) {
+        return maximo.signum() > 0 && stock.compareTo(maximo) > 0;
+    }
+
+    /**
+     * Razón merma / umbral: hasta 1 no hay alerta; 1,5 y 2 veces el umbral suben la severidad.
+     */
+    static SeveridadAlerta severidadPorRazon(double razon) {
+        if (razon >= 2) {
+            return SeveridadAlerta.CRITICA;
+        }
+        if (razon >= 1.5) {
+            return SeveridadAlerta.ALTA;
+        }
+        return razon > 1 ? SeveridadAlerta.MEDIA : null;
+    }
+
+    /**
+     * Desviaciones sobre la media: zUmbral, 1,5 y 2 veces zUmbral.
+     */
+    SeveridadAlerta severidadPorZ(double z) {
+        if (z >= 2 * zUmbral) {
+            return SeveridadAlerta.CRITICA;
+        }
+        if (z >= 1.5 * zUmbral) {
+            return SeveridadAlerta.ALTA;
+        }
+        return z >= zUmbral ? SeveridadAlerta.MEDIA : null;
+    }
+
+    static SeveridadAlerta mayor(SeveridadAlerta a, SeveridadAlerta b) {
+        if (a == null) {
+            return b;
+        }
+        return b == null || a.compareTo(b) >= 0 ? a : b;
+    }
+
+    private void abrirAlertaStockBajo(Long inventarioId, BigDecimal stock, BigDecimal minimo) {
+        abrirAlerta(TipoAlerta.STOCK_BAJO, ENTIDAD_INVENTARIO, inventarioId,
+            stock.signum() == 0 ? SeveridadAlerta.CRITICA : SeveridadAlerta.ALTA,
+            "Stock bajo mínimo",
+            "El inventario " + inventarioId + " tiene " + stock + " unidades, por debajo del mínimo " + minimo);
+    }
+
+    private void abrirAlertaStockAlto(Long inventarioId, BigDecimal stock, BigDecimal maximo) {
+        abrirAlerta(TipoAlerta.STOCK_ALTO, ENTIDAD_INVENTARIO, inventarioId, SeveridadAlerta.MEDIA,
+            "Stock sobre máximo",
+            "El inventario " + inventarioId + " tiene " + stock + " unidades, por encima del máximo " + maximo);
+    }
+
+    private void abrirAlerta(TipoAlerta tipo, String entidadTipo, Long entidadId, SeveridadAlerta severidad,
+                             String titulo, String descripcion) {
+        Alerta alerta = alertaRepository.findAbierta(tipo, entidadTipo, entidadId).orElse(null);
+        if (alerta != null) {
+            alerta.setContador(alerta.getContador() + 1);
+            // Merma: una etapa leve no baja la severidad de una alerta abierta del mismo lote
+            alerta.setSeveridad(tipo == TipoAlerta.MERMA_ALTA ? mayor(alerta.getSeveridad(), severidad) : severidad);
+            alerta.setDescripcion(descripcion);
+            return;
+        }
+
+        alerta = new Alerta();
+        alerta.setTipo(tipo);
+        alerta.setSeveridad(severidad);
+        alerta.setTitulo(titulo);
+        alerta.setDescripcion(descripcion);
+        alerta.setEstado(EstadoAlerta.ACTIVA);
+        alerta.setEntidadTipo(entidadTipo);
+        alerta.setEntidadId(entidadId);
+        alerta.setFechaGeneracion(Instant.now());
+        alerta.setContador(1);
+        alertaRepository.save(alerta);
+    }
+
+    private void cerrarAlerta(TipoAlerta tipo, Long inventarioId) {
+        alertaRepository.findAbierta(tipo, ENTIDAD_INVENTARIO, inventarioId).ifPresent(this::cerrar);
+    }
+
+    private void cerrar(Alerta alerta) {
+        alerta.setEstado(EstadoAlerta.CERRADA);
+        alerta.setFechaCierre(Instant.now());
+    }
 }
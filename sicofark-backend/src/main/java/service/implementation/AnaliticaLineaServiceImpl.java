@@ -0,0 +1,321 @@
+package service.implementation;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import persistence.entity.AnaliticaLineaHora;
+import persistence.entity.AnaliticaLineaHoraId;
+import persistence.entity.EtapaProcesamiento;
+import persistence.entity.HistogramaDuracionEtapaId;
+import persistence.enums.TipoEtapa;
+import persistence.projection.ConteoDuracion;
+import persistence.projection.UltimaEtapaLote;
+import persistence.repository.AnaliticaLineaHoraRepository;
+import persistence.repository.EtapaProcesamientoRepository;
+import persistence.repository.HistogramaDuracionEtapaRepository;
+import presentation.dto.RendimientoEtapaDTO;
+import service.interfaces.AnaliticaLineaService;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Implementación de la analítica de la línea de procesamiento.
+ * MÓDULO 2: Control de Material Procesado
+ *
+ * Funcionalidades:
+ * - Las etapas registradas se agrupan por hora (analitica_linea_hora) y por intervalo de
+ *   duración (histograma_duracion_etapa): un upsert por grupo, no por etapa
+ * - Rendimiento por tipo de etapa y cuellos de botella por bodega y turno sumando las horas
+ *   del período en memoria (a lo sumo una fila por bodega, etapa y hora)
+ * - Turnos configurables (sicofark.linea.turnos): cada hora pertenece al turno que empezó
+ *   más recientemente; el último turno continúa pasada la medianoche
+ * - Una etapa registrada con fecha pasada corrige la espera de la etapa siguiente de su lote
+ * - Reconstrucción al arrancar si los agregados aún no existen, con los agregados bloqueados
+ *   frente a los upserts concurrentes
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class AnaliticaLineaServiceImpl implements AnaliticaLineaService {
+
+    /**
+     * Límites (minutos) de los intervalos del histograma: [0, 5), [5, 15), ..., [480, ∞).
+     * Deben coincidir con el arreglo de HistogramaDuracionEtapaRepository.reconstruir.
+     */
+    static final int[] LIMITES_MINUTOS = {5, 15, 30, 60, 120, 240, 480};
+    private static final double SEGUNDOS_POR_HORA = 3600.0;
+
+    private final AnaliticaLineaHoraRepository analiticaLineaHoraRepository;
+    private final HistogramaDuracionEtapaRepository histogramaDuracionEtapaRepository;
+    private final EtapaProcesamientoRepository etapaProcesamientoRepository;
+
+    @Value("${sicofark.zona-horaria:America/Bogota}")
+    private ZoneId zonaHoraria;
+
+    @Value("${sicofark.linea.turnos:06:00,14:00,22:00}")
+    private String turnos;
+
+    private List<LocalTime> inicioTurnos;
+
+    @PostConstruct
+    void iniciar() {
+        inicioTurnos = Arrays.stream(turnos.split(","))
+            .map(String::trim)
+            .filter(t -> !t.isEmpty())
+            .map(LocalTime::parse)
+            .sorted()
+            .toList();
+        if (inicioTurnos.isEmpty()) {
+            throw new IllegalStateException("sicofark.linea.turnos requiere al menos un turno");
+        }
+    }
+
+    /**
+     * Construir los agregados la primera vez (etapas anteriores a las tablas).
+     */
+    @Transactional
+    @EventListener(ApplicationReadyEvent.class)
+    public void inicializar() {
+        if (analiticaLineaHoraRepository.count() == 0 && etapaProcesamientoRepository.count() > 0) {
+            reconstruir();
+        }
+    }
+
+    // ============ MANTENIMIENTO INCREMENTAL ============
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrarEtapas(List<EtapaProcesamiento> etapas, Map<Long, UltimaEtapaLote> etapasVecinas) {
+        // Una corrida comparte etapa y horario: casi siempre queda un grupo por bodega
+        Map<AnaliticaLineaHoraId, Acumulado> horas = new LinkedHashMap<>();
+        Map<HistogramaDuracionEtapaId, Long> histograma = new LinkedHashMap<>();
+        for (EtapaProcesamiento etapa : etapas) {
+            Instant inicio = etapa.getFechaInicio();
+            long duracion = Duration.between(inicio, etapa.getFechaFin()).getSeconds();
+            Long bodegaId = etapa.getLote().getBodega().getId();
+            UltimaEtapaLote vecinas = etapasVecinas.get(etapa.getLote().getId());
+            Instant finAnterior = vecinas != null ? vecinas.getFechaFinAnterior() : null;
+
+            AnaliticaLineaHoraId hora = hora(bodegaId, etapa.getTipoEtapa().name(), inicio);
+            horas.computeIfAbsent(hora, h -> new Acumulado())
+                .sumar(1, duracion, etapa.getPesoEntrada(), etapa.getPesoSalida(),
+                    conEspera(finAnterior, inicio) ? 1 : 0, espera(finAnterior, inicio));
+
+            // Registrada con fecha pasada: la siguiente ya no espera desde finAnterior sino desde esta
+            Instant inicioSiguiente = vecinas != null ? vecinas.getFechaInicioSiguiente() : null;
+            if (inicioSiguiente != null) {
+                Instant fin = etapa.getFechaFin();
+                horas.computeIfAbsent(hora(bodegaId, vecinas.getTipoEtapaSiguiente(), inicioSiguiente), h -> new Acumulado())
+                    .sumar(0, 0, BigDecimal.ZERO, BigDecimal.ZERO,
+                        (conEspera(fin, inicioSiguiente) ? 1 : 0) - (conEspera(finAnterior, inicioSiguiente) ? 1 : 0),
+                        espera(fin, inicioSiguiente) - espera(finAnterior, inicioSiguiente));
+            }
+
+            HistogramaDuracionEtapaId cubo = new HistogramaDuracionEtapaId();
+            cubo.setBodegaId(hora.getBodegaId());
+            cubo.setTipoEtapa(hora.getTipoEtapa());
+            cubo.setHora(hora.getHora());
+            cubo.setCubo(cubo(duracion / 60.0));
+            histograma.merge(cubo, 1L, Long::sum);
+        }
+
+        horas.forEach((hora, a) -> analiticaLineaHoraRepository.acumular(hora.getBodegaId(), hora.getTipoEtapa(),
+            hora.getHora(), a.etapas, a.duracionSegundos, a.pesoEntrada, a.pesoSalida, a.esperas, a.esperaSegundos));
+        histograma.forEach((cubo, conteo) -> histogramaDuracionEtapaRepository.acumular(cubo.getBodegaId(),
+            cubo.getTipoEtapa(), cubo.getHora(), cubo.getCubo(), conteo));
+    }
+
+    @Override
+    @Transactional
+    public int reconstruir() {
+        analiticaLineaHoraRepository.bloquearParaReconstruir();
+        analiticaLineaHoraRepository.deleteTodo();
+        histogramaDuracionEtapaRepository.deleteTodo();
+        int horas = analiticaLineaHoraRepository.reconstruir(zonaHoraria.getId());
+        histogramaDuracionEtapaRepository.reconstruir(zonaHoraria.getId());
+        log.info("Analítica de línea reconstruida: {} horas (bodega, etapa, hora)", horas);
+        return horas;
+    }
+
+    // ============ CONSULTAS ============
+
+    @Override
+    public List<RendimientoEtapaDTO> getRendimiento(Long bodegaId, LocalDate desde, LocalDate hasta) {
+        validarPeriodo(desde, hasta);
+        Map<TipoEtapa, Acumulado> porEtapa = new EnumMap<>(TipoEtapa.class);
+        for (AnaliticaLineaHora fila : horas(bodegaId, desde, hasta)) {
+            porEtapa.computeIfAbsent(TipoEtapa.valueOf(fila.getId().getTipoEtapa()), t -> new Acumulado()).sumar(fila);
+        }
+
+        Map<TipoEtapa, long[]> histogramas = new EnumMap<>(TipoEtapa.class);
+        for (ConteoDuracion conteo : histogramaDuracionEtapaRepository.findConteos(
+                bodegaId, desde.atStartOfDay(), hasta.plusDays(1).atStartOfDay())) {
+            histogramas.computeIfAbsent(TipoEtapa.valueOf(conteo.getTipoEtapa()), t -> new long[LIMITES_MINUTOS.length + 1])
+                [conteo.getCubo()] += conteo.getConteo();
+        }
+
+        List<RendimientoEtapaDTO> rendimiento = new ArrayList<>(porEtapa.size());
+        porEtapa.forEach((tipoEtapa, acumulado) -> {
+            RendimientoEtapaDTO dto = acumulado.toDTO(tipoEtapa, bodegaId, null);
+            dto.setHistogramaDuracion(histograma(histogramas.getOrDefault(tipoEtapa, new long[LIMITES_MINUTOS.length + 1])));
+            rendimiento.add(dto);
+        });
+        return rendimiento;
+    }
+
+    @Override
+    public List<RendimientoEtapaDTO> getCuellosBotella(Long bodegaId, LocalDate desde, LocalDate hasta) {
+        validarPeriodo(desde, hasta);
+        // bodega -> índice de turno -> etapa
+        Map<Long, Map<Integer, Map<TipoEtapa, Acumulado>>> grupos = new TreeMap<>();
+        for (AnaliticaLineaHora fila : horas(bodegaId, desde, hasta)) {
+            grupos.computeIfAbsent(fila.getId().getBodegaId(), b -> new TreeMap<>())
+                .computeIfAbsent(turno(fila.getId().getHora().toLocalTime()), t -> new EnumMap<>(TipoEtapa.class))
+                .computeIfAbsent(TipoEtapa.valueOf(fila.getId().getTipoEtapa()), t -> new Acumulado())
+                .sumar(fila);
+        }
+
+        List<RendimientoEtapaDTO> ranking = new ArrayList<>();
+        grupos.forEach((bodega, turnos) -> turnos.forEach((turno, etapas) -> {
+            List<RendimientoEtapaDTO> enTurno = etapas.entrySet().stream()
+                .map(e -> e.getValue().toDTO(e.getKey(), bodega, nombreTurno(turno)))
+                .sorted(Comparator.comparingDouble(RendimientoEtapaDTO::getEsperaPromedioMinutos).reversed()
+                    .thenComparingDouble(RendimientoEtapaDTO::getKgPorHora))
+                .toList();
+            for (int i = 0; i < enTurno.size(); i++) {
+                enTurno.get(i).setPosicion(i + 1);
+            }
+            ranking.addAll(enTurno);
+        }));
+        return ranking;
+    }
+
+    // ============ MÉTODOS AUXILIARES ============
+
+    private List<AnaliticaLineaHora> horas(Long bodegaId, LocalDate desde, LocalDate hasta) {
+        return analiticaLineaHoraRepository.findByPeriodo(bodegaId, desde.atStartOfDay(), hasta.plusDays(1).atStartOfDay());
+    }
+
+    private static void validarPeriodo(LocalDate desde, LocalDate hasta) {
+        if (desde == null || hasta == null || hasta.isBefore(desde)) {
+            throw new IllegalArgumentException("El período requiere fecha inicial y una fecha final posterior");
+        }
+    }
+
+    private AnaliticaLineaHoraId hora(Long bodegaId, String tipoEtapa, Instant inicio) {
+        AnaliticaLineaHoraId hora = new AnaliticaLineaHoraId();
+        hora.setBodegaId(bodegaId);
+        hora.setTipoEtapa(tipoEtapa);
+        hora.setHora(LocalDateTime.ofInstant(inicio, zonaHoraria).truncatedTo(ChronoUnit.HOURS));
+        return hora;
+    }
+
+    /**
+     * La espera cuenta si hay etapa anterior y terminó antes de empezar esta (igual que en reconstruir).
+     */
+    private static boolean conEspera(Instant finAnterior, Instant inicio) {
+        return finAnterior != null && !finAnterior.isAfter(inicio);
+    }
+
+    private static long espera(Instant finAnterior, Instant inicio) {
+        return conEspera(finAnterior, inicio) ? Duration.between(finAnterior, inicio).getSeconds() : 0;
+    }
+
+    static short cubo(double minutos) {
+        short cubo = 0;
+        while (cubo < LIMITES_MINUTOS.length && minutos >= LIMITES_MINUTOS[cubo]) {
+            cubo++;
+        }
+        return cubo;
+    }
+
+    private static Map<String, Long> histograma(long[] conteos) {
+        Map<String, Long> histograma = new LinkedHashMap<>();
+        for (int i = 0; i < conteos.length; i++) {
+            String etiqueta = i < LIMITES_MINUTOS.length
+                ? (i == 0 ? 0 : LIMITES_MINUTOS[i - 1]) + "-" + LIMITES_MINUTOS[i] + " min"
+                : LIMITES_MINUTOS[i - 1] + "+ min";
+            histograma.put(etiqueta, conteos[i]);
+        }
+        return histograma;
+    }
+
+    /**
+     * Turno de una hora: el último que empezó a esa hora o antes (o el último del día anterior).
+     */
+    int turno(LocalTime hora) {
+        for (int i = inicioTurnos.size() - 1; i >= 0; i--) {
+            if (!hora.isBefore(inicioTurnos.get(i))) {
+                return i;
+            }
+        }
+        return inicioTurnos.size() - 1;
+    }
+
+    private String nombreTurno(int turno) {
+        return inicioTurnos.get(turno) + "-" + inicioTurnos.get((turno + 1) % inicioTurnos.size());
+    }
+
+    /**
+     * Suma de las horas de un grupo.
+     */
+    private static final class Acumulado {
+        private long etapas;
+        private long duracionSegundos;
+        private BigDecimal pesoEntrada = BigDecimal.ZERO;
+        private BigDecimal pesoSalida = BigDecimal.ZERO;
+        private long esperas;
+        private long esperaSegundos;
+
+        void sumar(AnaliticaLineaHora fila) {
+            sumar(fila.getEtapas(), fila.getDuracionSegundos(), fila.getPesoEntrada(), fila.getPesoSalida(),
+                fila.getEsperas(), fila.getEsperaSegundos());
+        }
+
+        void sumar(long etapas, long duracionSegundos, BigDecimal pesoEntrada, BigDecimal pesoSalida,
+                   long esperas, long esperaSegundos) {
+            this.etapas += etapas;
+            this.duracionSegundos += duracionSegundos;
+            this.pesoEntrada = this.pesoEntrada.add(pesoEntrada);
+            this.pesoSalida = this.pesoSalida.add(pesoSalida);
+            this.esperas += esperas;
+            this.esperaSegundos += esperaSegundos;
+        }
+
+        RendimientoEtapaDTO toDTO(TipoEtapa tipoEtapa, Long bodegaId, String turno) {
+            RendimientoEtapaDTO dto = new RendimientoEtapaDTO();
+            dto.setTipoEtapa(tipoEtapa);
+            dto.setBodegaId(bodegaId);
+            dto.setTurno(turno);
+            dto.setEtapas(etapas);
+            dto.setDuracionPromedioMinutos(etapas == 0 ? 0 : duracionSegundos / 60.0 / etapas);
+            dto.setKgPorHora(duracionSegundos == 0 ? 0 : pesoEntrada.doubleValue() / (duracionSegundos / SEGUNDOS_POR_HORA));
+            dto.setMermaPromedio(pesoEntrada.signum() == 0 ? 0
+                : pesoEntrada.subtract(pesoSalida).doubleValue() * 100 / pesoEntrada.doubleValue());
+            dto.setEsperaPromedioMinutos(esperas == 0 ? 0 : esperaSegundos / 60.0 / esperas);
+            return dto;
+        }
+    }
+}
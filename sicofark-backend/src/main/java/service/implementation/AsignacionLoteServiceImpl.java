@@ -0,0 +1,306 @@
+package service.implementation;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import persistence.enums.EstadoLote;
+import persistence.enums.TipoOperacion;
+import persistence.projection.LoteDisponible;
+import persistence.repository.LoteRepository;
+import presentation.dto.AsignacionLoteDTO;
+import presentation.dto.MovimientoInventarioDTO;
+import presentation.dto.SolicitudAsignacionDTO;
+import service.exception.StockInsuficienteException;
+import service.interfaces.AsignacionLoteService;
+import service.interfaces.InventarioService;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Implementación de la asignación FIFO de lotes.
+ * MÓDULO 1: Control de Material Ingresado
+ * MÓDULO 2: Control de Material Procesado
+ *
+ * Funcionalidades:
+ * - Cola FIFO en memoria por (bodega, tipo material) con el peso disponible de cada lote,
+ *   cargada con una consulta y mantenida con el resultado de cada asignación
+ * - Una asignación reparte el peso solicitado entre los lotes de la cabeza de la cola y
+ *   confirma en una transacción: bloqueo de los lotes, transición de estado de los agotados
+ *   en una sola sentencia y las SALIDAS de inventario como un grupo
+ * - Los lotes que se consumen parcialmente siguen ACTIVO; su saldo es el peso neto menos
+ *   las salidas y mermas registradas con ese lote
+ *
+ * IMPORTANTE: La cola es una caché del nodo. Dentro de la transacción se bloquean los lotes
+ * y se verifica su saldo contra la base de datos; si otro nodo los consumió la cola se recarga
+ * y se reintenta. Las colas se recargan además periódicamente para incorporar lotes creados
+ * en otros nodos.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AsignacionLoteServiceImpl implements AsignacionLoteService {
+
+    private static final int MAXIMO_INTENTOS = 3;
+
+    private final LoteRepository loteRepository;
+    private final InventarioService inventarioService;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${sicofark.lote.fifo.recarga-segundos:60}")
+    private long segundosRecarga;
+
+    private final Map<ClaveCola, ColaFifo> colas = new ConcurrentHashMap<>();
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    void iniciar() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public AsignacionLoteDTO asignar(SolicitudAsignacionDTO solicitud) {
+        validarSolicitud(solicitud);
+        ClaveCola clave = new ClaveCola(solicitud.getBodegaId(), solicitud.getTipoMaterialId());
+        ColaFifo cola = colas.computeIfAbsent(clave, k -> new ColaFifo());
+
+        // Las asignaciones de una misma bodega y material se serializan dentro del nodo
+        synchronized (cola) {
+            for (int intento = 1; ; intento++) {
+                boolean recienCargada = false;
+                if (cola.requiereRecarga()) {
+                    cargar(cola, clave);
+                    recienCargada = true;
+                }
+
+                List<Asignacion> plan = cola.planificar(solicitud.getPeso());
+                if (plan == null) {
+                    if (!recienCargada) {
+                        cola.invalidar();
+                        continue;
+                    }
+                    throw new StockInsuficienteException(
+                        "Lotes disponibles insuficientes en bodega " + clave.bodegaId() +
+                        " para el material " + clave.tipoMaterialId() + ": se requieren " + solicitud.getPeso());
+                }
+
+                try {
+                    AsignacionLoteDTO resultado = transactionTemplate.execute(status -> confirmar(solicitud, plan));
+                    cola.aplicar(plan);
+                    return resultado;
+                } catch (ConflictoAsignacionException e) {
+                    cola.invalidar();
+                    if (intento >= MAXIMO_INTENTOS) {
+                        throw new IllegalStateException(
+                            "No se pudo asignar tras " + intento + " intentos: " + e.getMessage(), e);
+                    }
+                    log.debug("Cola FIFO desactualizada para {}, recargando: {}", clave, e.getMessage());
+                } catch (RuntimeException e) {
+                    cola.invalidar();
+                    throw e;
+                }
+            }
+        }
+    }
+
+    @Override
+    public void invalidarCola(Long bodegaId, Long tipoMaterialId) {
+        ClaveCola clave = new ClaveCola(bodegaId, tipoMaterialId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidar(clave);
+                }
+            });
+        } else {
+            invalidar(clave);
+        }
+    }
+
+    // ============ CONFIRMACIÓN ============
+
+    /**
+     * Confirmar un plan de asignación en la transacción actual.
+     * Los lotes se bloquean antes de leer su saldo, de modo que la lectura ve todas las
+     * salidas confirmadas por otras transacciones sobre esos lotes.
+     */
+    private AsignacionLoteDTO confirmar(SolicitudAsignacionDTO solicitud, List<Asignacion> plan) {
+        List<Long> loteIds = plan.stream().map(a -> a.entrada().loteId).toList();
+
+        if (loteRepository.bloquearLotes(loteIds, EstadoLote.ACTIVO).size() != loteIds.size()) {
+            throw new ConflictoAsignacionException("algún lote ya no está ACTIVO");
+        }
+        Map<Long, BigDecimal> saldos = loteRepository.findSaldos(loteIds).stream()
+            .collect(Collectors.toMap(LoteDisponible::getLoteId, LoteDisponible::getPesoDisponible));
+        for (Asignacion asignacion : plan) {
+            BigDecimal saldo = saldos.get(asignacion.entrada().loteId);
+            if (saldo == null || saldo.compareTo(asignacion.disponibleAntes()) != 0) {
+                throw new ConflictoAsignacionException("saldo del lote " + asignacion.entrada().codigo + " modificado");
+            }
+        }
+
+        Instant ahora = Instant.now();
+        List<Long> agotados = plan.stream().filter(Asignacion::agota).map(a -> a.entrada().loteId).toList();
+        if (!agotados.isEmpty()) {
+            loteRepository.actualizarEstado(agotados, EstadoLote.ACTIVO, solicitud.getEstadoDestino(), ahora);
+        }
+
+        List<MovimientoInventarioDTO> salidas = new ArrayList<>(plan.size());
+        for (Asignacion asignacion : plan) {
+            MovimientoInventarioDTO salida = new MovimientoInventarioDTO();
+            salida.setTipoOperacion(TipoOperacion.SALIDA);
+            salida.setCantidad(asignacion.peso());
+            salida.setBodegaId(solicitud.getBodegaId());
+            salida.setTipoMaterialId(solicitud.getTipoMaterialId());
+            salida.setUsuarioId(solicitud.getUsuarioId());
+            salida.setLoteId(asignacion.entrada().loteId);
+            salida.setReferencia(solicitud.getReferencia());
+            salida.setMotivo(solicitud.getMotivo());
+            salidas.add(salida);
+        }
+        List<MovimientoInventarioDTO> registrados = inventarioService.aplicarMovimientos(salidas);
+
+        AsignacionLoteDTO dto = new AsignacionLoteDTO();
+        dto.setBodegaId(solicitud.getBodegaId());
+        dto.setTipoMaterialId(solicitud.getTipoMaterialId());
+        dto.setPesoAsignado(solicitud.getPeso());
+        List<AsignacionLoteDTO.Detalle> detalles = new ArrayList<>(plan.size());
+        for (int i = 0; i < plan.size(); i++) {
+            Asignacion asignacion = plan.get(i);
+            detalles.add(new AsignacionLoteDTO.Detalle(asignacion.entrada().loteId, asignacion.entrada().codigo,
+                asignacion.peso(), asignacion.agota(), registrados.get(i).getId()));
+        }
+        dto.setLotes(detalles);
+        return dto;
+    }
+
+    // ============ COLAS ============
+
+    private void cargar(ColaFifo cola, ClaveCola clave) {
+        List<LoteDisponible> disponibles = transactionTemplate.execute(status ->
+            loteRepository.findLotesDisponiblesConSaldo(clave.bodegaId(), clave.tipoMaterialId()));
+        cola.reemplazar(disponibles);
+    }
+
+    private void invalidar(ClaveCola clave) {
+        ColaFifo cola = colas.get(clave);
+        if (cola != null) {
+            cola.invalidar();
+        }
+    }
+
+    private void validarSolicitud(SolicitudAsignacionDTO solicitud) {
+        if (solicitud.getBodegaId() == null || solicitud.getTipoMaterialId() == null || solicitud.getUsuarioId() == null) {
+            throw new IllegalArgumentException("La asignación debe indicar bodega, tipo de material y usuario");
+        }
+        if (solicitud.getPeso() == null || solicitud.getPeso().signum() <= 0) {
+            throw new IllegalArgumentException("El peso a asignar debe ser positivo");
+        }
+        if (solicitud.getEstadoDestino() != EstadoLote.FACTURADO && solicitud.getEstadoDestino() != EstadoLote.EN_PROCESO) {
+            throw new IllegalArgumentException("Estado destino no válido para una asignación: " + solicitud.getEstadoDestino());
+        }
+    }
+
+    private record ClaveCola(Long bodegaId, Long tipoMaterialId) {
+    }
+
+    private record Asignacion(EntradaCola entrada, BigDecimal peso, BigDecimal disponibleAntes) {
+        boolean agota() {
+            return peso.compareTo(disponibleAntes) == 0;
+        }
+    }
+
+    private static final class EntradaCola {
+        private final Long loteId;
+        private final String codigo;
+        private BigDecimal disponible;
+
+        EntradaCola(LoteDisponible lote) {
+            this.loteId = lote.getLoteId();
+            this.codigo = lote.getCodigo();
+            this.disponible = lote.getPesoDisponible();
+        }
+    }
+
+    /**
+     * Lotes disponibles de una bodega y material en orden FIFO.
+     * Solo se accede con el monitor de la propia cola tomado.
+     */
+    private final class ColaFifo {
+        private final Deque<EntradaCola> lotes = new ArrayDeque<>();
+        private volatile boolean valida;
+        private long cargadaNanos;
+
+        boolean requiereRecarga() {
+            return !valida || System.nanoTime() - cargadaNanos > TimeUnit.SECONDS.toNanos(segundosRecarga);
+        }
+
+        void invalidar() {
+            valida = false;
+        }
+
+        void reemplazar(List<LoteDisponible> disponibles) {
+            lotes.clear();
+            disponibles.stream()
+                .filter(l -> l.getPesoDisponible().signum() > 0)
+                .map(EntradaCola::new)
+                .forEach(lotes::addLast);
+            cargadaNanos = System.nanoTime();
+            valida = true;
+        }
+
+        /**
+         * Repartir el peso desde la cabeza de la cola sin modificarla.
+         *
+         * @return asignaciones en orden FIFO, o null si los lotes no cubren el peso
+         */
+        List<Asignacion> planificar(BigDecimal peso) {
+            List<Asignacion> plan = new ArrayList<>();
+            BigDecimal restante = peso;
+            for (EntradaCola entrada : lotes) {
+                BigDecimal tomado = entrada.disponible.min(restante);
+                plan.add(new Asignacion(entrada, tomado, entrada.disponible));
+                restante = restante.subtract(tomado);
+                if (restante.signum() == 0) {
+                    return plan;
+                }
+            }
+            return null;
+        }
+
+        void aplicar(List<Asignacion> plan) {
+            Map<Long, Asignacion> porLote = plan.stream()
+                .collect(Collectors.toMap(a -> a.entrada().loteId, Function.identity()));
+            lotes.removeIf(entrada -> {
+                Asignacion asignacion = porLote.get(entrada.loteId);
+                if (asignacion == null) {
+                    return false;
+                }
+                entrada.disponible = entrada.disponible.subtract(asignacion.peso());
+                return asignacion.agota();
+            });
+        }
+    }
+
+    private static final class ConflictoAsignacionException extends RuntimeException {
+        ConflictoAsignacionException(String message) {
+            super(message);
+        }
+    }
+}
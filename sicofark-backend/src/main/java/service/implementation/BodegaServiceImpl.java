@@ -1,4 +1,89 @@
 package service.implementation;
 
-public class BodegaServiceImpl {
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import persistence.projection.DiscrepanciaOcupacion;
+import persistence.repository.OcupacionBodegaRepository;
+import service.interfaces.BodegaService;
+
+import java.util.List;
+
+/**
+ * Implementación del servicio de Bodegas.
+ * MÓDULO 1: Control de Material Ingresado
+ *
+ * Funcionalidades:
+ * - Inicialización de los contadores de ocupación al arrancar
+ * - Verificación periódica del contador contra SUM(inventario.stock_actual)
+ * - Reconstrucción por bodega bajo bloqueo del contador
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BodegaServiceImpl implements BodegaService {
+
+    private final OcupacionBodegaRepository ocupacionBodegaRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    /**
+     * Crear los contadores de ocupación de las bodegas que aún no lo tienen.
+     */
+    @Transactional
+    @EventListener(ApplicationReadyEvent.class)
+    public void inicializarOcupacion() {
+        int creados = ocupacionBodegaRepository.inicializarFaltantes();
+        if (creados > 0) {
+            log.info("Contadores de ocupación inicializados para {} bodegas", creados);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<DiscrepanciaOcupacion> verificarOcupacion() {
+        return ocupacionBodegaRepository.findDiscrepancias();
+    }
+
+    @Override
+    public int reconstruirOcupacion() {
+        List<DiscrepanciaOcupacion> discrepancias = verificarOcupacion();
+        for (DiscrepanciaOcupacion discrepancia : discrepancias) {
+            reconstruirOcupacion(discrepancia.getBodegaId());
+        }
+        return discrepancias.size();
+    }
+
+    /**
+     * Cada bodega se reconstruye en su propia transacción: se bloquea el contador
+     * (lo que detiene los movimientos de esa bodega) y se recalcula con una lectura
+     * posterior al bloqueo.
+     */
+    @Override
+    public void reconstruirOcupacion(Long bodegaId) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            ocupacionBodegaRepository.inicializar(bodegaId);
+            ocupacionBodegaRepository.bloquear(bodegaId);
+            ocupacionBodegaRepository.recalcular(bodegaId);
+        });
+    }
+
+    /**
+     * Verificación periódica de consistencia de la ocupación materializada.
+     * Las discrepancias se registran en el log y se reconstruyen.
+     */
+    @Scheduled(cron = "${sicofark.bodega.ocupacion.verificacion-cron:0 30 2 * * *}")
+    public void verificarOcupacionPeriodica() {
+        List<DiscrepanciaOcupacion> discrepancias = verificarOcupacion();
+        for (DiscrepanciaOcupacion discrepancia : discrepancias) {
+            log.warn("Ocupación de bodega {} desalineada: registrada {}, calculada {}",
+                discrepancia.getBodegaId(), discrepancia.getStockRegistrado(), discrepancia.getStockCalculado());
+            reconstruirOcupacion(discrepancia.getBodegaId());
+        }
+    }
 }
@@ -0,0 +1,260 @@
+package service.implementation;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import persistence.entity.Bodega;
+import persistence.entity.Proveedor;
+import persistence.entity.TipoMaterial;
+import persistence.enums.EstadoBodega;
+import persistence.enums.EstadoProveedor;
+import persistence.repository.BodegaRepository;
+import persistence.repository.ProveedorRepository;
+import persistence.repository.TipoMaterialRepository;
+import presentation.dto.BodegaCatalogoDTO;
+import presentation.dto.EstadisticasCacheDTO;
+import presentation.dto.ProveedorCatalogoDTO;
+import presentation.dto.TipoMaterialCatalogoDTO;
+import service.interfaces.CatalogoService;
+import util.CacheLocal;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Implementación de la caché de catálogos.
+ *
+ * Funcionalidades:
+ * - Tipos de material, bodegas y proveedores por id, con carga agrupada (findAllById) de los faltantes
+ * - Listados de tipos de material activos, bodegas por estado y proveedores activos
+ * - Cada caché acotada por tamaño (LRU) y por tiempo de vida; contadores de aciertos y fallos
+ * - Invalidación al confirmar la transacción que modificó la entidad (CatalogoEntityListener),
+ *   solo en esta instancia: las demás ven el cambio al vencer el tiempo de vida. Por eso el
+ *   registro de lotes comprueba en la base que el proveedor siga activo
+ * - Se guardan copias inmutables (records), no entidades: nada gestionado por un EntityManager
+ *   queda compartido entre hilos ni sesiones
+ *
+ * Sin transacción propia: las lecturas a la base usan la del llamador o la del repositorio.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CatalogoServiceImpl implements CatalogoService {
+
+    private final TipoMaterialRepository tipoMaterialRepository;
+    private final BodegaRepository bodegaRepository;
+    private final ProveedorRepository proveedorRepository;
+
+    @Value("${sicofark.catalogo.cache.ttl-segundos:300}")
+    private long ttlSegundos;
+
+    @Value("${sicofark.catalogo.cache.maximo:1000}")
+    private int maximo;
+
+    private CacheLocal<Long, TipoMaterialCatalogoDTO> tiposMaterial;
+    private CacheLocal<Long, BodegaCatalogoDTO> bodegas;
+    private CacheLocal<Long, ProveedorCatalogoDTO> proveedores;
+    // Una entrada por listado (clave fija o estado)
+    private CacheLocal<String, List<TipoMaterialCatalogoDTO>> listadosTipoMaterial;
+    private CacheLocal<EstadoBodega, List<BodegaCatalogoDTO>> listadosBodega;
+    private CacheLocal<String, List<ProveedorCatalogoDTO>> listadosProveedor;
+
+    private static final String ACTIVOS = "activos";
+
+    @PostConstruct
+    void inicializar() {
+        Duration ttl = Duration.ofSeconds(ttlSegundos);
+        tiposMaterial = new CacheLocal<>("tipoMaterial", maximo, ttl);
+        bodegas = new CacheLocal<>("bodega", maximo, ttl);
+        proveedores = new CacheLocal<>("proveedor", maximo, ttl);
+        listadosTipoMaterial = new CacheLocal<>("tipoMaterial.activos", 1, ttl);
+        listadosBodega = new CacheLocal<>("bodega.porEstado", EstadoBodega.values().length, ttl);
+        listadosProveedor = new CacheLocal<>("proveedor.activos", 1, ttl);
+    }
+
+    // ============ TIPOS DE MATERIAL ============
+
+    @Override
+    public Optional<TipoMaterialCatalogoDTO> getTipoMaterial(Long id) {
+        return Optional.ofNullable(tiposMaterial.obtener(id,
+            () -> tipoMaterialRepository.findById(id).map(CatalogoServiceImpl::toDTO).orElse(null)));
+    }
+
+    @Override
+    public Map<Long, TipoMaterialCatalogoDTO> getTiposMaterial(Collection<Long> ids) {
+        return tiposMaterial.obtenerTodos(ids,
+            faltantes -> porId(tipoMaterialRepository.findAllById(faltantes), CatalogoServiceImpl::toDTO, TipoMaterialCatalogoDTO::id));
+    }
+
+    @Override
+    public List<TipoMaterialCatalogoDTO> getTiposMaterialActivos() {
+        return listadosTipoMaterial.obtener(ACTIVOS, () -> tipoMaterialRepository.findByActivoTrueOrderByNombreAsc().stream()
+            .map(CatalogoServiceImpl::toDTO)
+            .toList());
+    }
+
+    // ============ BODEGAS ============
+
+    @Override
+    public Optional<BodegaCatalogoDTO> getBodega(Long id) {
+        return Optional.ofNullable(bodegas.obtener(id,
+            () -> bodegaRepository.findById(id).map(CatalogoServiceImpl::toDTO).orElse(null)));
+    }
+
+    @Override
+    public Map<Long, BodegaCatalogoDTO> getBodegas(Collection<Long> ids) {
+        return bodegas.obtenerTodos(ids,
+            faltantes -> porId(bodegaRepository.findAllById(faltantes), CatalogoServiceImpl::toDTO, BodegaCatalogoDTO::id));
+    }
+
+    @Override
+    public List<BodegaCatalogoDTO> getBodegasPorEstado(EstadoBodega estado) {
+        return listadosBodega.obtener(estado, () -> bodegaRepository.findByEstadoOrderByNombreAsc(estado).stream()
+            .map(CatalogoServiceImpl::toDTO)
+            .toList());
+    }
+
+    // ============ PROVEEDORES ============
+
+    @Override
+    public Optional<ProveedorCatalogoDTO> getProveedor(Long id) {
+        return Optional.ofNullable(proveedores.obtener(id,
+            () -> proveedorRepository.findById(id).map(CatalogoServiceImpl::toDTO).orElse(null)));
+    }
+
+    @Override
+    public Map<Long, ProveedorCatalogoDTO> getProveedores(Collection<Long> ids) {
+        return proveedores.obtenerTodos(ids,
+            faltantes -> porId(proveedorRepository.findAllById(faltantes), CatalogoServiceImpl::toDTO, ProveedorCatalogoDTO::id));
+    }
+
+    @Override
+    public List<ProveedorCatalogoDTO> getProveedoresActivos() {
+        return listadosProveedor.obtener(ACTIVOS, () -> proveedorRepository.findByEstadoOrderByNombresAsc(EstadoProveedor.ACTIVO).stream()
+            .map(CatalogoServiceImpl::toDTO)
+            .toList());
+    }
+
+    // ============ INVALIDACIÓN ============
+
+    @Override
+    public void invalidarTipoMaterial(Long id) {
+        alConfirmar(() -> {
+            tiposMaterial.invalidar(id);
+            listadosTipoMaterial.invalidarTodo();
+        });
+    }
+
+    @Override
+    public void invalidarBodega(Long id) {
+        alConfirmar(() -> {
+            bodegas.invalidar(id);
+            listadosBodega.invalidarTodo();
+        });
+    }
+
+    @Override
+    public void invalidarProveedor(Long id) {
+        alConfirmar(() -> {
+            proveedores.invalidar(id);
+            listadosProveedor.invalidarTodo();
+        });
+    }
+
+    @Override
+    public void invalidarTodo() {
+        cachés().forEach(CacheLocal::invalidarTodo);
+        log.info("Cachés de catálogos invalidadas");
+    }
+
+    @Override
+    public List<EstadisticasCacheDTO> getEstadisticas() {
+        return cachés()
+            .map(CacheLocal::estadisticas)
+            .map(e -> {
+                long consultas = e.aciertos() + e.fallos();
+                return new EstadisticasCacheDTO(e.nombre(), e.tamaño(), e.aciertos(), e.fallos(), e.expulsiones(),
+                    consultas == 0 ? 0.0 : (double) e.aciertos() / consultas);
+            })
+            .toList();
+    }
+
+    // ============ MÉTODOS AUXILIARES ============
+
+    /**
+     * Con transacción activa, después del commit: invalidar antes dejaría que otra lectura
+     * vuelva a cargar el valor anterior. Un rollback no cambia nada y no invalida.
+     */
+    private void alConfirmar(Runnable invalidacion) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidacion.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                invalidacion.run();
+            }
+        });
+    }
+
+    private Stream<CacheLocal<?, ?>> cachés() {
+        return Stream.of(tiposMaterial, bodegas, proveedores, listadosTipoMaterial, listadosBodega, listadosProveedor);
+    }
+
+    private static <E, T> Map<Long, T> porId(Collection<E> entidades, Function<E, T> copia, Function<T, Long> id) {
+        return entidades.stream().map(copia).collect(Collectors.toMap(id, Function.identity()));
+    }
+
+    private static TipoMaterialCatalogoDTO toDTO(TipoMaterial tipoMaterial) {
+        return new TipoMaterialCatalogoDTO(
+            tipoMaterial.getId(),
+            tipoMaterial.getNombre(),
+            tipoMaterial.getDescripcion(),
+            tipoMaterial.getCategoriaMaterial(),
+            tipoMaterial.getUnidadMedida(),
+            tipoMaterial.getPrecioBase(),
+            tipoMaterial.getFactorCalidad(),
+            tipoMaterial.getUmbralMerma(),
+            Boolean.TRUE.equals(tipoMaterial.getActivo())
+        );
+    }
+
+    private static BodegaCatalogoDTO toDTO(Bodega bodega) {
+        return new BodegaCatalogoDTO(
+            bodega.getId(),
+            bodega.getNombre(),
+            bodega.getDireccion(),
+            bodega.getTelefono(),
+            bodega.getEmail(),
+            bodega.getNit(),
+            bodega.getTipoOrganizacion(),
+            bodega.getCoordenadasLatitud(),
+            bodega.getCoordenadasLongitud(),
+            bodega.getEstado(),
+            bodega.getCapacidadMaxima()
+        );
+    }
+
+    private static ProveedorCatalogoDTO toDTO(Proveedor proveedor) {
+        return new ProveedorCatalogoDTO(
+            proveedor.getId(),
+            proveedor.getNombres(),
+            proveedor.getApellidos(),
+            proveedor.getTipoDocumento(),
+            proveedor.getNumeroDocumento(),
+            proveedor.getEstado(),
+            proveedor.getCalificacion()
+        );
+    }
+}
@@ -0,0 +1,171 @@
+package service.implementation;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import persistence.enums.TipoCodigo;
+import persistence.repository.ContadorCodigoRepository;
+import persistence.repository.LoteRepository;
+import persistence.repository.TransaccionRepository;
+import service.interfaces.CodigoService;
+
+import java.time.Year;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Implementación del asignador de códigos.
+ *
+ * Cada (tipo, bodega, año) tiene un contador en contador_codigo. Una instancia reserva
+ * un bloque incrementando el contador en su propia transacción (REQUIRES_NEW), de modo
+ * que la fila queda bloqueada solo durante esa sentencia y el bloque sobrevive aunque
+ * la transacción que pidió el código se revierta. Los números se entregan desde memoria
+ * hasta agotar el bloque; ningún hilo retiene un candado mientras se reserva un bloque.
+ *
+ * - Concurrencia entre instancias: el UPDATE ... RETURNING entrega rangos disjuntos
+ * - Caídas y reinicios: los números no entregados de un bloque se pierden (huecos)
+ * - Cambio de año: el año forma parte de la clave, la numeración reinicia sola
+ * - Primer uso: el contador se inicializa con el mayor número ya existente
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CodigoServiceImpl implements CodigoService {
+
+    private final ContadorCodigoRepository contadorCodigoRepository;
+    private final LoteRepository loteRepository;
+    private final TransaccionRepository transaccionRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${sicofark.codigos.tamano-bloque:50}")
+    private int tamanoBloque;
+
+    @Value("${sicofark.zona-horaria:America/Bogota}")
+    private ZoneId zonaHoraria;
+
+    private final Map<ClaveContador, RangosReservados> bloques = new ConcurrentHashMap<>();
+    private volatile int anioVigente;
+    private TransactionTemplate transaccionNueva;
+
+    @PostConstruct
+    void iniciar() {
+        transaccionNueva = new TransactionTemplate(transactionManager);
+        transaccionNueva.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    public String siguienteConsecutivo(Long bodegaId) {
+        return siguientes(TipoCodigo.TRANSACCION, bodegaId, 1).get(0);
+    }
+
+    @Override
+    public List<String> siguientesCodigosLote(Long bodegaId, int cantidad) {
+        return siguientes(TipoCodigo.LOTE, bodegaId, cantidad);
+    }
+
+    // ============ BLOQUES ============
+
+    private List<String> siguientes(TipoCodigo tipo, Long bodegaId, int cantidad) {
+        if (bodegaId == null || cantidad < 1) {
+            throw new IllegalArgumentException("Se requiere bodega y una cantidad positiva de códigos");
+        }
+        int anio = Year.now(zonaHoraria).getValue();
+        descartarAniosAnteriores(anio);
+        ClaveContador clave = new ClaveContador(tipo, bodegaId, anio);
+        RangosReservados rangos = bloques.computeIfAbsent(clave, k -> new RangosReservados());
+
+        // La reserva corre fuera de cualquier candado: el hilo que la hace usa una segunda
+        // conexión solo durante esa sentencia y ningún otro hilo espera por ella
+        List<Long> numeros = rangos.tomar(cantidad);
+        while (numeros.size() < cantidad) {
+            // Un registro masivo grande reserva de una vez todo lo que le falta
+            long tamano = Math.max(tamanoBloque, cantidad - numeros.size());
+            long ultimo = reservarBloque(clave, tamano);
+            rangos.agregar(ultimo - tamano + 1, ultimo);
+            numeros.addAll(rangos.tomar(cantidad - numeros.size()));
+        }
+        numeros.sort(null);
+        return numeros.stream().map(numero -> tipo.formatear(bodegaId, anio, numero)).toList();
+    }
+
+    /**
+     * Olvidar los rangos de años cerrados. Fuera de computeIfAbsent: ConcurrentHashMap no
+     * admite modificar el mapa desde la función de cálculo.
+     */
+    private void descartarAniosAnteriores(int anio) {
+        if (anio > anioVigente) {
+            anioVigente = anio;
+            bloques.keySet().removeIf(c -> c.anio() < anio);
+        }
+    }
+
+    /**
+     * @return último número del bloque reservado
+     */
+    private long reservarBloque(ClaveContador clave, long tamano) {
+        String tipo = clave.tipo().name();
+        return transaccionNueva.execute(status -> contadorCodigoRepository
+            .reservarBloque(tipo, clave.bodegaId(), clave.anio(), tamano)
+            .orElseGet(() -> {
+                long existente = secuenciaExistente(clave);
+                contadorCodigoRepository.inicializar(tipo, clave.bodegaId(), clave.anio(), existente);
+                log.info("Contador {} inicializado en {}", clave.tipo().prefijo(clave.bodegaId(), clave.anio()), existente);
+                return contadorCodigoRepository.reservarBloque(tipo, clave.bodegaId(), clave.anio(), tamano)
+                    .orElseThrow(() -> new IllegalStateException("No se pudo reservar el contador " + clave));
+            }));
+    }
+
+    /**
+     * Mayor número ya usado con el prefijo del contador (códigos anteriores al contador).
+     */
+    private long secuenciaExistente(ClaveContador clave) {
+        String prefijo = clave.tipo().prefijo(clave.bodegaId(), clave.anio());
+        return switch (clave.tipo()) {
+            case LOTE -> loteRepository.findMaxSecuenciaCodigo(prefijo);
+            case TRANSACCION -> transaccionRepository.findMaxSecuenciaConsecutivo(prefijo);
+        };
+    }
+
+    private record ClaveContador(TipoCodigo tipo, Long bodegaId, int anio) {
+    }
+
+    /**
+     * Rangos [desde, hasta] reservados y aún no entregados de un contador. Varios hilos pueden
+     * reservar a la vez; cada rango se agrega completo y se entrega en orden ascendente.
+     * El candado cubre solo operaciones en memoria.
+     */
+    static final class RangosReservados {
+        private final TreeMap<Long, Long> rangos = new TreeMap<>();
+
+        synchronized void agregar(long desde, long hasta) {
+            rangos.put(desde, hasta);
+        }
+
+        /**
+         * @return hasta {@code cantidad} números, menos si no alcanzan los reservados
+         */
+        synchronized List<Long> tomar(int cantidad) {
+            List<Long> numeros = new ArrayList<>(cantidad);
+            while (numeros.size() < cantidad && !rangos.isEmpty()) {
+                Map.Entry<Long, Long> rango = rangos.pollFirstEntry();
+                long siguiente = rango.getKey();
+                while (numeros.size() < cantidad && siguiente <= rango.getValue()) {
+                    numeros.add(siguiente++);
+                }
+                if (siguiente <= rango.getValue()) {
+                    rangos.put(siguiente, rango.getValue());
+                }
+            }
+            return numeros;
+        }
+    }
+}
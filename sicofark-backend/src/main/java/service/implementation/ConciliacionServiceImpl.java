@@ -0,0 +1,511 @@
+package service.implementation;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import persistence.entity.DiscrepanciaConciliacion;
+import persistence.entity.EjecucionConciliacion;
+import persistence.enums.TipoDiscrepancia;
+import persistence.repository.DiscrepanciaConciliacionRepository;
+import persistence.repository.EjecucionConciliacionRepository;
+import presentation.dto.DiscrepanciaConciliacionDTO;
+import presentation.dto.EjecucionConciliacionDTO;
+import service.interfaces.ConciliacionService;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Implementación de la conciliación de balance de masa.
+ * MÓDULO 2: Control de Material Procesado
+ *
+ * - Los lotes se reparten en rangos de id (sicofark.conciliacion.tamano-rango) y cada rango
+ *   se concilia en un hilo virtual; un semáforo limita los rangos simultáneos (y con ello las
+ *   conexiones usadas) a sicofark.conciliacion.paralelismo
+ * - Cada rango es una sola consulta leída por cursor: una fila por etapa (o por lote sin etapas)
+ *   con el peso de los hijos y los totales de movimientos ya agregados por lote en SQL.
+ *   En memoria solo queda el lote en curso y las discrepancias del rango
+ * - Las discrepancias de cada rango se insertan por lotes con JDBC al terminar el rango
+ * - Un rango que falla se cuenta en rangos_fallidos sin detener a los demás
+ *
+ * - La ejecución manual corre en segundo plano: se registra la ejecución y se devuelve su id
+ * - Una ejecución a la vez en todas las instancias: la ejecución retiene el bloqueo consultivo
+ *   CANDADO_CONCILIACION en una conexión propia; enCurso solo evita pedirlo dentro de la instancia
+ * - La nocturna además reclama su día (dia_programado único): si el cron de otra instancia ya
+ *   la corrió esa noche, aunque haya terminado, se omite
+ *
+ * IMPORTANTE: La conciliación es de solo lectura sobre lotes, etapas y movimientos; no corrige nada.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ConciliacionServiceImpl implements ConciliacionService {
+
+    private static final int TAMAÑO_MAXIMO_PAGINA = 500;
+    private static final int TAMANO_CURSOR = 2000;
+
+    // Clave de pg_try_advisory_lock para la conciliación (única en la base)
+    private static final long CANDADO_CONCILIACION = 2_302_001L;
+
+    /**
+     * Rango [?, ?] de ids en las tres partes. El saldo aplica el mismo signo que
+     * TipoOperacion.aplicarSigno: ENTRADA suma, SALIDA y MERMA restan, el resto lleva su signo.
+     */
+    private static final String SQL_RANGO =
+        "SELECT l.id, l.codigo, l.bodega_id, l.peso_neto, h.peso_hijos, m.entradas, m.saldo, " +
+        "e.id AS etapa_id, e.peso_entrada, e.peso_salida " +
+        "FROM sicofar.lote l " +
+        "LEFT JOIN (SELECT lote_padre_id, SUM(peso_neto) AS peso_hijos FROM sicofar.lote " +
+        "           WHERE lote_padre_id BETWEEN ? AND ? GROUP BY lote_padre_id) h ON h.lote_padre_id = l.id " +
+        "LEFT JOIN (SELECT lote_id, " +
+        "           SUM(CASE WHEN tipo_movimiento = 'ENTRADA' THEN abs(cantidad) ELSE 0 END) AS entradas, " +
+        "           SUM(CASE WHEN tipo_movimiento = 'ENTRADA' THEN abs(cantidad) " +
+        "                    WHEN tipo_movimiento IN ('SALIDA', 'MERMA') THEN -abs(cantidad) " +
+        "                    ELSE cantidad END) AS saldo " +
+        "           FROM sicofar.movimiento_inventario " +
+        "           WHERE lote_id BETWEEN ? AND ? GROUP BY lote_id) m ON m.lote_id = l.id " +
+        "LEFT JOIN sicofar.etapa_procesamiento e ON e.lote_id = l.id " +
+        "WHERE l.id BETWEEN ? AND ? AND l.estado <> 'ANULADO' " +
+        "ORDER BY l.id, e.fecha_inicio, e.id";
+
+    private static final String SQL_INSERTAR_DISCREPANCIA =
+        "INSERT INTO sicofar.discrepancia_conciliacion " +
+        "(ejecucion_id, lote_id, codigo_lote, bodega_id, tipo, valor_esperado, valor_encontrado, detalle) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final EjecucionConciliacionRepository ejecucionConciliacionRepository;
+    private final DiscrepanciaConciliacionRepository discrepanciaConciliacionRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${sicofark.conciliacion.tamano-rango:50000}")
+    private long tamanoRango;
+
+    @Value("${sicofark.conciliacion.paralelismo:4}")
+    private int paralelismo;
+
+    // Diferencia en kg que se tolera por redondeo de las básculas
+    @Value("${sicofark.conciliacion.tolerancia-kg:0.05}")
+    private BigDecimal tolerancia;
+
+    @Value("${sicofark.conciliacion.retencion-dias:90}")
+    private int retencionDias;
+
+    @Value("${sicofark.zona-horaria:America/Bogota}")
+    private ZoneId zonaHoraria;
+
+    private final AtomicBoolean enCurso = new AtomicBoolean();
+    private TransactionTemplate transaccion;
+    private TransactionTemplate lectura;
+
+    @PostConstruct
+    void iniciar() {
+        transaccion = new TransactionTemplate(transactionManager);
+        lectura = new TransactionTemplate(transactionManager);
+        lectura.setReadOnly(true);
+    }
+
+    // ============ EJECUCIÓN ============
+
+    /**
+     * Registra la ejecución y la corre en un hilo virtual; el estado se consulta con getEjecucion.
+     */
+    @Override
+    public EjecucionConciliacionDTO iniciarConciliacion() {
+        if (!enCurso.compareAndSet(false, true)) {
+            throw new IllegalStateException("Ya hay una conciliación en curso");
+        }
+        Connection candado = null;
+        try {
+            candado = tomarCandado();
+            if (candado == null) {
+                throw new IllegalStateException("Ya hay una conciliación en curso en otra instancia");
+            }
+            EjecucionConciliacion ejecucion = registrarInicio();
+            // Copia antes de arrancar el hilo, que sigue modificando la entidad
+            EjecucionConciliacionDTO iniciada = toDTO(ejecucion);
+            Connection retenido = candado;
+            Thread.ofVirtual().name("conciliacion-" + ejecucion.getId()).start(() -> {
+                try {
+                    informarResumen(ejecutar(ejecucion));
+                } catch (RuntimeException e) {
+                    log.error("Conciliación {} interrumpida", ejecucion.getId(), e);
+                } finally {
+                    liberarCandado(retenido);
+                    enCurso.set(false);
+                }
+            });
+            return iniciada;
+        } catch (RuntimeException e) {
+            if (candado != null) {
+                liberarCandado(candado);
+            }
+            enCurso.set(false);
+            throw e;
+        }
+    }
+
+    /**
+     * Conciliación nocturna y depuración de reportes antiguos, en una sola instancia por noche.
+     */
+    @Scheduled(cron = "${sicofark.conciliacion.cron:0 0 1 * * *}", zone = "${sicofark.zona-horaria:America/Bogota}")
+    public void conciliarPeriodico() {
+        if (!enCurso.compareAndSet(false, true)) {
+            log.warn("Conciliación programada omitida: hay otra en curso");
+            return;
+        }
+        try {
+            Connection candado = tomarCandado();
+            if (candado == null) {
+                log.warn("Conciliación programada omitida: hay otra en curso en otra instancia");
+                return;
+            }
+            try {
+                LocalDate dia = LocalDate.now(zonaHoraria);
+                Optional<EjecucionConciliacion> reclamada = reclamarDia(dia);
+                if (reclamada.isEmpty()) {
+                    log.info("Conciliación programada del {} omitida: otra instancia ya la ejecutó", dia);
+                    return;
+                }
+                informarResumen(ejecutar(reclamada.get()));
+            } finally {
+                liberarCandado(candado);
+            }
+        } finally {
+            enCurso.set(false);
+        }
+
+        Instant limite = Instant.now().minus(Duration.ofDays(retencionDias));
+        Integer eliminadas = transaccion.execute(status -> discrepanciaConciliacionRepository.deleteEjecucionesAntesDe(limite));
+        if (eliminadas != null && eliminadas > 0) {
+            log.info("Depuradas {} ejecuciones de conciliación anteriores a {}", eliminadas, limite);
+        }
+    }
+
+    private EjecucionConciliacion registrarInicio() {
+        EjecucionConciliacion ejecucion = new EjecucionConciliacion();
+        ejecucion.setFechaInicio(Instant.now());
+        ejecucion.setRangos(0);
+        ejecucion.setRangosFallidos(0);
+        ejecucion.setLotesRevisados(0L);
+        ejecucion.setEtapasRevisadas(0L);
+        ejecucion.setDiscrepancias(0L);
+        return Objects.requireNonNull(transaccion.execute(status -> ejecucionConciliacionRepository.save(ejecucion)));
+    }
+
+    /**
+     * Registrar la ejecución nocturna de un día, o vacío si ya la registró otra instancia.
+     */
+    private Optional<EjecucionConciliacion> reclamarDia(LocalDate dia) {
+        return Objects.requireNonNull(transaccion.execute(status ->
+            ejecucionConciliacionRepository.reclamarDia(dia, Instant.now()) == 0
+                ? Optional.<EjecucionConciliacion>empty()
+                : ejecucionConciliacionRepository.findByDiaProgramado(dia)));
+    }
+
+    /**
+     * Tomar el bloqueo consultivo de sesión en una conexión propia, que queda retenida mientras
+     * dura la ejecución; si la instancia cae, PostgreSQL lo libera al cerrarse la sesión.
+     *
+     * @return la conexión que retiene el bloqueo, o null si lo tiene otra instancia
+     */
+    private Connection tomarCandado() {
+        DataSource dataSource = Objects.requireNonNull(jdbcTemplate.getDataSource());
+        Connection conexion = DataSourceUtils.getConnection(dataSource);
+        try (PreparedStatement ps = conexion.prepareStatement("SELECT pg_try_advisory_lock(?)")) {
+            ps.setLong(1, CANDADO_CONCILIACION);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next() && rs.getBoolean(1)) {
+                    return conexion;
+                }
+            }
+        } catch (SQLException e) {
+            DataSourceUtils.releaseConnection(conexion, dataSource);
+            throw new IllegalStateException("No se pudo tomar el bloqueo de la conciliación", e);
+        }
+        DataSourceUtils.releaseConnection(conexion, dataSource);
+        return null;
+    }
+
+    /**
+     * Soltar el bloqueo antes de devolver la conexión al pool, donde la sesión sigue abierta.
+     */
+    private void liberarCandado(Connection conexion) {
+        try (PreparedStatement ps = conexion.prepareStatement("SELECT pg_advisory_unlock(?)")) {
+            ps.setLong(1, CANDADO_CONCILIACION);
+            ps.execute();
+        } catch (SQLException e) {
+            log.error("No se pudo liberar el bloqueo de la conciliación", e);
+        } finally {
+            DataSourceUtils.releaseConnection(conexion, jdbcTemplate.getDataSource());
+        }
+    }
+
+    private void informarResumen(EjecucionConciliacion ejecucion) {
+        log.info("Conciliación {}: {} lotes, {} etapas, {} discrepancias ({} rangos, {} fallidos) en {}",
+            ejecucion.getId(), ejecucion.getLotesRevisados(), ejecucion.getEtapasRevisadas(),
+            ejecucion.getDiscrepancias(), ejecucion.getRangos(), ejecucion.getRangosFallidos(),
+            Duration.between(ejecucion.getFechaInicio(), ejecucion.getFechaFin()));
+    }
+
+    private EjecucionConciliacion ejecutar(EjecucionConciliacion ejecucion) {
+        Long ejecucionId = ejecucion.getId();
+        List<long[]> rangos = rangos();
+        List<Future<ResultadoRango>> resultados = new ArrayList<>(rangos.size());
+        Semaphore permisos = new Semaphore(Math.max(1, paralelismo));
+        try (ExecutorService hilos = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long[] rango : rangos) {
+                resultados.add(hilos.submit(() -> {
+                    permisos.acquire();
+                    try {
+                        return conciliarRango(ejecucionId, rango[0], rango[1]);
+                    } finally {
+                        permisos.release();
+                    }
+                }));
+            }
+        }
+
+        // El executor ya esperó a todas las tareas al cerrarse
+        int fallidos = 0;
+        long lotes = 0, etapas = 0, discrepancias = 0;
+        for (int i = 0; i < resultados.size(); i++) {
+            try {
+                ResultadoRango resultado = resultados.get(i).get();
+                lotes += resultado.lotes();
+                etapas += resultado.etapas();
+                discrepancias += resultado.discrepancias();
+            } catch (ExecutionException e) {
+                fallidos++;
+                log.error("Conciliación {}: falló el rango de lotes {}-{}", ejecucionId,
+                    rangos.get(i)[0], rangos.get(i)[1], e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Conciliación interrumpida", e);
+            }
+        }
+
+        ejecucion.setFechaFin(Instant.now());
+        ejecucion.setRangos(rangos.size());
+        ejecucion.setRangosFallidos(fallidos);
+        ejecucion.setLotesRevisados(lotes);
+        ejecucion.setEtapasRevisadas(etapas);
+        ejecucion.setDiscrepancias(discrepancias);
+        return transaccion.execute(status -> ejecucionConciliacionRepository.save(ejecucion));
+    }
+
+    /**
+     * Rangos [desde, hasta] de tamanoRango ids entre el menor y el mayor id de lote.
+     */
+    private List<long[]> rangos() {
+        Map<String, Object> extremos = jdbcTemplate.queryForMap("SELECT MIN(id) AS minimo, MAX(id) AS maximo FROM sicofar.lote");
+        List<long[]> rangos = new ArrayList<>();
+        if (extremos.get("minimo") == null) {
+            return rangos;
+        }
+        long minimo = ((Number) extremos.get("minimo")).longValue();
+        long maximo = ((Number) extremos.get("maximo")).longValue();
+        for (long desde = minimo; desde <= maximo; desde += tamanoRango) {
+            rangos.add(new long[]{desde, Math.min(desde + tamanoRango - 1, maximo)});
+        }
+        return rangos;
+    }
+
+    private ResultadoRango conciliarRango(Long ejecucionId, long desde, long hasta) {
+        Conciliador conciliador = new Conciliador();
+        // Dentro de una transacción para que el driver lea por cursor
+        lectura.executeWithoutResult(status -> jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(SQL_RANGO);
+            ps.setFetchSize(TAMANO_CURSOR);
+            for (int i = 0; i < 3; i++) {
+                ps.setLong(2 * i + 1, desde);
+                ps.setLong(2 * i + 2, hasta);
+            }
+            return ps;
+        }, (RowCallbackHandler) conciliador::procesar));
+        conciliador.cerrarLote();
+
+        List<Discrepancia> discrepancias = conciliador.discrepancias;
+        if (!discrepancias.isEmpty()) {
+            transaccion.executeWithoutResult(status -> jdbcTemplate.batchUpdate(SQL_INSERTAR_DISCREPANCIA,
+                discrepancias.stream().map(d -> new Object[]{ejecucionId, d.loteId(), d.codigoLote(), d.bodegaId(),
+                    d.tipo().name(), d.esperado(), d.encontrado(), d.detalle()}).toList(),
+                new int[]{Types.BIGINT, Types.BIGINT, Types.VARCHAR, Types.BIGINT,
+                    Types.VARCHAR, Types.NUMERIC, Types.NUMERIC, Types.VARCHAR}));
+        }
+        return new ResultadoRango(conciliador.lotes, conciliador.etapas, discrepancias.size());
+    }
+
+    // ============ CONSULTAS ============
+
+    @Override
+    public Optional<EjecucionConciliacionDTO> getUltimaEjecucion() {
+        return ejecucionConciliacionRepository.findFirstByOrderByIdDesc().map(this::toDTO);
+    }
+
+    @Override
+    public EjecucionConciliacionDTO getEjecucion(Long ejecucionId) {
+        return ejecucionConciliacionRepository.findById(ejecucionId)
+            .map(this::toDTO)
+            .orElseThrow(() -> new EntityNotFoundException("Ejecución de conciliación no encontrada: " + ejecucionId));
+    }
+
+    @Override
+    public List<DiscrepanciaConciliacionDTO> getDiscrepancias(Long ejecucionId, TipoDiscrepancia tipo, Long bodegaId,
+                                                              Long despuesDe, int tamaño) {
+        int limite = Math.max(1, Math.min(tamaño, TAMAÑO_MAXIMO_PAGINA));
+        return discrepanciaConciliacionRepository.findPagina(ejecucionId, despuesDe != null ? despuesDe : 0L,
+                tipo != null ? tipo.name() : null, bodegaId, Limit.of(limite)).stream()
+            .map(this::toDTO)
+            .toList();
+    }
+
+    // ============ BALANCE POR LOTE ============
+
+    /**
+     * Recorre las filas de un rango (ordenadas por lote y fecha de etapa) con un lote a la vez.
+     */
+    final class Conciliador {
+        final List<Discrepancia> discrepancias = new ArrayList<>();
+        long lotes;
+        long etapas;
+
+        private Long loteId;
+        private String codigo;
+        private Long bodegaId;
+        private BigDecimal pesoNeto;
+        private BigDecimal pesoHijos;
+        private BigDecimal entradas;
+        private BigDecimal saldo;
+        private BigDecimal salidaAnterior;
+        private int etapasLote;
+
+        void procesar(ResultSet rs) throws SQLException {
+            long id = rs.getLong("id");
+            if (loteId == null || loteId != id) {
+                cerrarLote();
+                loteId = id;
+                codigo = rs.getString("codigo");
+                bodegaId = rs.getLong("bodega_id");
+                pesoNeto = rs.getBigDecimal("peso_neto");
+                pesoHijos = rs.getBigDecimal("peso_hijos");
+                entradas = rs.getBigDecimal("entradas");
+                saldo = rs.getBigDecimal("saldo");
+                salidaAnterior = null;
+                etapasLote = 0;
+                lotes++;
+            }
+            long etapaId = rs.getLong("etapa_id");
+            if (rs.wasNull()) {
+                return;
+            }
+            BigDecimal entrada = rs.getBigDecimal("peso_entrada");
+            if (etapasLote == 0) {
+                verificar(TipoDiscrepancia.ETAPA_INICIAL, pesoNeto, entrada, "Etapa " + etapaId);
+            } else {
+                verificar(TipoDiscrepancia.CADENA_ETAPAS, salidaAnterior, entrada, "Etapa " + etapaId);
+            }
+            salidaAnterior = rs.getBigDecimal("peso_salida");
+            etapasLote++;
+            etapas++;
+        }
+
+        void cerrarLote() {
+            if (loteId == null) {
+                return;
+            }
+            // Lo disponible para dividir es la salida de la última etapa (o el peso neto sin etapas)
+            BigDecimal disponible = etapasLote > 0 ? salidaAnterior : pesoNeto;
+            if (pesoHijos != null && pesoHijos.subtract(disponible).compareTo(tolerancia) > 0) {
+                agregar(TipoDiscrepancia.HIJOS_EXCEDEN, disponible, pesoHijos, null);
+            }
+            if (entradas != null && entradas.signum() > 0) {
+                verificar(TipoDiscrepancia.ENTRADA_INVENTARIO, pesoNeto, entradas, null);
+            }
+            if (saldo != null) {
+                if (saldo.compareTo(tolerancia.negate()) < 0) {
+                    agregar(TipoDiscrepancia.SALDO_NEGATIVO, BigDecimal.ZERO, saldo, null);
+                } else if (saldo.subtract(pesoNeto).compareTo(tolerancia) > 0) {
+                    agregar(TipoDiscrepancia.SALDO_EXCEDE, pesoNeto, saldo, null);
+                }
+            }
+            loteId = null;
+        }
+
+        private void verificar(TipoDiscrepancia tipo, BigDecimal esperado, BigDecimal encontrado, String detalle) {
+            if (esperado.subtract(encontrado).abs().compareTo(tolerancia) > 0) {
+                agregar(tipo, esperado, encontrado, detalle);
+            }
+        }
+
+        private void agregar(TipoDiscrepancia tipo, BigDecimal esperado, BigDecimal encontrado, String detalle) {
+            discrepancias.add(new Discrepancia(loteId, codigo, bodegaId, tipo, esperado, encontrado, detalle));
+        }
+    }
+
+    record Discrepancia(Long loteId, String codigoLote, Long bodegaId, TipoDiscrepancia tipo,
+                        BigDecimal esperado, BigDecimal encontrado, String detalle) {
+    }
+
+    private record ResultadoRango(long lotes, long etapas, long discrepancias) {
+    }
+
+    // ============ MÉTODOS AUXILIARES ============
+
+    private EjecucionConciliacionDTO toDTO(EjecucionConciliacion ejecucion) {
+        EjecucionConciliacionDTO dto = new EjecucionConciliacionDTO();
+        dto.setId(ejecucion.getId());
+        dto.setFechaInicio(ejecucion.getFechaInicio());
+        dto.setFechaFin(ejecucion.getFechaFin());
+        dto.setRangos(ejecucion.getRangos());
+        dto.setRangosFallidos(ejecucion.getRangosFallidos());
+        dto.setLotesRevisados(ejecucion.getLotesRevisados());
+        dto.setEtapasRevisadas(ejecucion.getEtapasRevisadas());
+        dto.setDiscrepancias(ejecucion.getDiscrepancias());
+        dto.setCompleta(ejecucion.getFechaFin() != null && ejecucion.getRangosFallidos() == 0);
+        return dto;
+    }
+
+    private DiscrepanciaConciliacionDTO toDTO(DiscrepanciaConciliacion discrepancia) {
+        DiscrepanciaConciliacionDTO dto = new DiscrepanciaConciliacionDTO();
+        dto.setId(discrepancia.getId());
+        dto.setLoteId(discrepancia.getLoteId());
+        dto.setCodigoLote(discrepancia.getCodigoLote());
+        dto.setBodegaId(discrepancia.getBodegaId());
+        dto.setTipo(TipoDiscrepancia.valueOf(discrepancia.getTipo()));
+        dto.setValorEsperado(discrepancia.getValorEsperado());
+        dto.setValorEncontrado(discrepancia.getValorEncontrado());
+        dto.setDetalle(discrepancia.getDetalle());
+        return dto;
+    }
+}
@@ -0,0 +1,295 @@
+package service.implementation;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import persistence.entity.EstadisticaMermaEtapa;
+import persistence.entity.EstadisticaMermaEtapaId;
+import persistence.enums.TipoEtapa;
+import persistence.repository.EstadisticaMermaEtapaRepository;
+import presentation.dto.EstadisticaMermaDTO;
+import service.interfaces.EstadisticaMermaService;
+import util.EstadisticaAcumulada;
+import util.SketchCuantiles;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Implementación de las estadísticas de merma por etapa.
+ * MÓDULO 2: Control de Material Procesado
+ *
+ * Cada grupo (tipo de etapa, tipo de material, bodega) tiene en memoria:
+ * - total: la fila guardada en el último checkpoint más lo agregado después (lo que se consulta)
+ * - pendiente: lo agregado en esta instancia desde el último checkpoint
+ *
+ * El checkpoint fusiona cada pendiente con su fila bloqueada (las estadísticas y el sketch
+ * se fusionan sin perder nada, así que varias instancias pueden escribir en la misma fila)
+ * y recarga los totales, que así incluyen lo de las demás instancias. Si una fusión falla,
+ * el pendiente se conserva para el siguiente checkpoint.
+ *
+ * La primera vez, las estadísticas se reconstruyen leyendo etapa_procesamiento por cursor,
+ * con la tabla bloqueada y tras comprobar de nuevo que sigue vacía.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class EstadisticaMermaServiceImpl implements EstadisticaMermaService {
+
+    private static final String SQL_HISTORIA =
+        "SELECT e.tipo_etapa, l.tipo_material_id, l.bodega_id, e.merma_parcial " +
+        "FROM sicofar.etapa_procesamiento e JOIN sicofar.lote l ON l.id = e.lote_id";
+    private static final int TAMANO_CURSOR = 5000;
+
+    private final EstadisticaMermaEtapaRepository estadisticaMermaEtapaRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+
+    private final Map<Clave, Grupo> grupos = new ConcurrentHashMap<>();
+    private TransactionTemplate transaccion;
+
+    @PostConstruct
+    void iniciar() {
+        transaccion = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Reconstruir desde la historia si la tabla está vacía y cargar los totales.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void inicializar() {
+        if (estadisticaMermaEtapaRepository.count() == 0) {
+            reconstruir();
+        }
+        cargar();
+    }
+
+    @PreDestroy
+    void detener() {
+        checkpoint();
+    }
+
+    // ============ REGISTRO ============
+
+    @Override
+    public void registrar(TipoEtapa tipoEtapa, Long tipoMaterialId, Long bodegaId, BigDecimal mermaParcial) {
+        Clave clave = new Clave(tipoEtapa, tipoMaterialId, bodegaId);
+        double valor = mermaParcial.doubleValue();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            agregar(clave, valor);
+            return;
+        }
+        // Una etapa revertida no debe contar
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                agregar(clave, valor);
+            }
+        });
+    }
+
+    private void agregar(Clave clave, double valor) {
+        Grupo grupo = grupos.computeIfAbsent(clave, k -> new Grupo());
+        synchronized (grupo) {
+            grupo.total.agregar(valor);
+            grupo.pendiente.agregar(valor);
+        }
+    }
+
+    // ============ CONSULTAS ============
+
+    @Override
+    public Optional<EstadisticaMermaDTO> getEstadistica(TipoEtapa tipoEtapa, Long tipoMaterialId, Long bodegaId) {
+        Grupo grupo = grupos.get(new Clave(tipoEtapa, tipoMaterialId, bodegaId));
+        if (grupo == null) {
+            return Optional.empty();
+        }
+        EstadisticaAcumulada total = grupo.copiaTotal();
+        return total.getConteo() == 0 ? Optional.empty()
+            : Optional.of(toDTO(tipoEtapa, tipoMaterialId, bodegaId, total));
+    }
+
+    @Override
+    public List<EstadisticaMermaDTO> getEstadisticas(TipoEtapa tipoEtapa, Long tipoMaterialId, Long bodegaId) {
+        return grupos.entrySet().stream()
+            .filter(e -> tipoEtapa == null || e.getKey().tipoEtapa() == tipoEtapa)
+            .filter(e -> tipoMaterialId == null || e.getKey().tipoMaterialId().equals(tipoMaterialId))
+            .filter(e -> bodegaId == null || e.getKey().bodegaId().equals(bodegaId))
+            .map(e -> toDTO(e.getKey().tipoEtapa(), e.getKey().tipoMaterialId(), e.getKey().bodegaId(), e.getValue().copiaTotal()))
+            .filter(dto -> dto.getConteo() > 0)
+            .sorted(Comparator.comparing(EstadisticaMermaDTO::getTipoEtapa)
+                .thenComparing(EstadisticaMermaDTO::getTipoMaterialId)
+                .thenComparing(EstadisticaMermaDTO::getBodegaId))
+            .toList();
+    }
+
+    @Override
+    public List<EstadisticaMermaDTO> getResumenPorTipoEtapa(Long bodegaId) {
+        Map<TipoEtapa, EstadisticaAcumulada> porEtapa = new EnumMap<>(TipoEtapa.class);
+        grupos.forEach((clave, grupo) -> {
+            if (bodegaId == null || clave.bodegaId().equals(bodegaId)) {
+                porEtapa.computeIfAbsent(clave.tipoEtapa(), t -> new EstadisticaAcumulada()).fusionar(grupo.copiaTotal());
+            }
+        });
+        return porEtapa.entrySet().stream()
+            .filter(e -> e.getValue().getConteo() > 0)
+            .map(e -> toDTO(e.getKey(), null, bodegaId, e.getValue()))
+            .toList();
+    }
+
+    // ============ CHECKPOINT ============
+
+    @Override
+    @Scheduled(fixedDelayString = "${sicofark.merma.checkpoint-ms:30000}", initialDelayString = "${sicofark.merma.checkpoint-ms:30000}")
+    public synchronized void checkpoint() {
+        int fusionados = 0;
+        for (Map.Entry<Clave, Grupo> entrada : grupos.entrySet()) {
+            Grupo grupo = entrada.getValue();
+            EstadisticaAcumulada delta;
+            synchronized (grupo) {
+                if (grupo.pendiente.getConteo() == 0) {
+                    continue;
+                }
+                delta = grupo.pendiente;
+                grupo.pendiente = new EstadisticaAcumulada();
+            }
+            try {
+                transaccion.executeWithoutResult(status -> fusionarEnFila(entrada.getKey(), delta));
+                fusionados++;
+            } catch (RuntimeException e) {
+                synchronized (grupo) {
+                    grupo.pendiente = delta.fusionar(grupo.pendiente);
+                }
+                log.warn("No se pudo guardar la estadística de merma {}: {}", entrada.getKey(), e.getMessage());
+            }
+        }
+        cargar();
+        if (fusionados > 0) {
+            log.debug("Checkpoint de estadísticas de merma: {} grupos", fusionados);
+        }
+    }
+
+    private void fusionarEnFila(Clave clave, EstadisticaAcumulada delta) {
+        EstadisticaMermaEtapaId id = clave.toId();
+        estadisticaMermaEtapaRepository.inicializar(id.getTipoEtapa(), id.getTipoMaterialId(), id.getBodegaId());
+        EstadisticaMermaEtapa fila = estadisticaMermaEtapaRepository.findByIdParaActualizar(id)
+            .orElseThrow(() -> new IllegalStateException("Estadística de merma no inicializada: " + clave));
+        EstadisticaAcumulada total = toAcumulada(fila).fusionar(delta);
+        fila.setConteo(total.getConteo());
+        fila.setMedia(total.getMedia());
+        fila.setM2(total.getM2());
+        fila.setMinimo(total.getMinimo());
+        fila.setMaximo(total.getMaximo());
+        fila.setSketch(total.getSketch().serializar());
+        fila.setFechaActualizacion(Instant.now());
+    }
+
+    /**
+     * Totales = filas guardadas + lo pendiente de esta instancia.
+     */
+    private void cargar() {
+        List<EstadisticaMermaEtapa> filas = transaccion.execute(status -> estadisticaMermaEtapaRepository.findAll());
+        for (EstadisticaMermaEtapa fila : Objects.requireNonNull(filas)) {
+            Grupo grupo = grupos.computeIfAbsent(Clave.de(fila.getId()), k -> new Grupo());
+            EstadisticaAcumulada guardada = toAcumulada(fila);
+            synchronized (grupo) {
+                grupo.total = guardada.fusionar(grupo.pendiente);
+            }
+        }
+    }
+
+    private void reconstruir() {
+        Map<Clave, EstadisticaAcumulada> historia = new HashMap<>();
+        // Una sola transacción: tabla bloqueada y cursor sobre la historia
+        boolean reconstruida = Boolean.TRUE.equals(transaccion.execute(status -> {
+            estadisticaMermaEtapaRepository.bloquearParaReconstruir();
+            // Otra instancia pudo reconstruir (o hacer un checkpoint) mientras se esperaba el bloqueo
+            if (estadisticaMermaEtapaRepository.count() > 0) {
+                return false;
+            }
+            jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement(SQL_HISTORIA);
+                ps.setFetchSize(TAMANO_CURSOR);
+                return ps;
+            }, (RowCallbackHandler) rs -> historia
+                .computeIfAbsent(new Clave(TipoEtapa.valueOf(rs.getString(1)), rs.getLong(2), rs.getLong(3)), k -> new EstadisticaAcumulada())
+                .agregar(rs.getBigDecimal(4).doubleValue()));
+            historia.forEach(this::fusionarEnFila);
+            return true;
+        }));
+        if (!reconstruida || historia.isEmpty()) {
+            return;
+        }
+        log.info("Estadísticas de merma reconstruidas: {} grupos, {} etapas", historia.size(),
+            historia.values().stream().mapToLong(EstadisticaAcumulada::getConteo).sum());
+    }
+
+    // ============ MÉTODOS AUXILIARES ============
+
+    private static EstadisticaAcumulada toAcumulada(EstadisticaMermaEtapa fila) {
+        return EstadisticaAcumulada.de(fila.getConteo(), fila.getMedia(), fila.getM2(),
+            fila.getMinimo() != null ? fila.getMinimo() : Double.NaN,
+            fila.getMaximo() != null ? fila.getMaximo() : Double.NaN,
+            SketchCuantiles.deserializar(fila.getSketch()));
+    }
+
+    private static EstadisticaMermaDTO toDTO(TipoEtapa tipoEtapa, Long tipoMaterialId, Long bodegaId, EstadisticaAcumulada acumulada) {
+        EstadisticaMermaDTO dto = new EstadisticaMermaDTO();
+        dto.setTipoEtapa(tipoEtapa);
+        dto.setTipoMaterialId(tipoMaterialId);
+        dto.setBodegaId(bodegaId);
+        dto.setConteo(acumulada.getConteo());
+        dto.setMedia(acumulada.getMedia());
+        dto.setDesviacionEstandar(acumulada.getDesviacionEstandar());
+        dto.setMinimo(acumulada.getMinimo());
+        dto.setMaximo(acumulada.getMaximo());
+        dto.setP50(acumulada.cuantil(0.50));
+        dto.setP90(acumulada.cuantil(0.90));
+        dto.setP99(acumulada.cuantil(0.99));
+        return dto;
+    }
+
+    private record Clave(TipoEtapa tipoEtapa, Long tipoMaterialId, Long bodegaId) {
+
+        static Clave de(EstadisticaMermaEtapaId id) {
+            return new Clave(TipoEtapa.valueOf(id.getTipoEtapa()), id.getTipoMaterialId(), id.getBodegaId());
+        }
+
+        EstadisticaMermaEtapaId toId() {
+            EstadisticaMermaEtapaId id = new EstadisticaMermaEtapaId();
+            id.setTipoEtapa(tipoEtapa.name());
+            id.setTipoMaterialId(tipoMaterialId);
+            id.setBodegaId(bodegaId);
+            return id;
+        }
+    }
+
+    private static final class Grupo {
+        private EstadisticaAcumulada total = new EstadisticaAcumulada();
+        private EstadisticaAcumulada pendiente = new EstadisticaAcumulada();
+
+        synchronized EstadisticaAcumulada copiaTotal() {
+            return total.copia();
+        }
+    }
+}
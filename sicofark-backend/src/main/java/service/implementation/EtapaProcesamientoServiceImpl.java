@@ -1,4 +1,218 @@
 package service.implementation;
 
-public class EtapaProcesamientoServiceImpl {
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import persistence.entity.EtapaProcesamiento;
+import persistence.entity.Lote;
+import persistence.entity.Usuario;
+import persistence.enums.EstadoLote;
+import persistence.projection.UltimaEtapaLote;
+import persistence.repository.EtapaProcesamientoRepository;
+import persistence.repository.LoteRepository;
+import presentation.dto.CorridaEtapaDTO;
+import presentation.dto.EtapaProcesamientoDTO;
+import service.interfaces.AlertaService;
+import service.interfaces.AnaliticaLineaService;
+import service.interfaces.EstadisticaMermaService;
+import service.interfaces.EtapaProcesamientoService;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Implementación del servicio de Etapas de Procesamiento.
+ * MÓDULO 2: Control de Material Procesado
+ *
+ * Funcionalidades:
+ * - Registro de etapas con merma parcial ((entrada - salida) / entrada) y merma acumulada
+ *   compuesta sobre la de la etapa anterior: 100 - (100 - anterior) * (100 - parcial) / 100
+ * - Cada etapa registrada se evalúa contra el umbral de su material y las estadísticas de su
+ *   grupo (alertas MERMA_ALTA) y luego alimenta esas estadísticas
+ * - Cada etapa suma su duración, kg y espera desde la etapa anterior a la analítica de línea
+ * - Registro por corrida: una misma etapa para N lotes con una consulta de lotes, una de sus
+ *   etapas previas y los inserts/updates agrupados por Hibernate; una etapa suelta es una
+ *   corrida de un lote
+ * - Los lotes de la corrida se bloquean (FOR UPDATE, en orden de id) antes de leer sus etapas
+ *   previas: los registros concurrentes sobre un mismo lote se encadenan en vez de compartir base
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class EtapaProcesamientoServiceImpl implements EtapaProcesamientoService {
+
+    private static final BigDecimal CIEN = BigDecimal.valueOf(100);
+
+    private final EtapaProcesamientoRepository etapaProcesamientoRepository;
+    private final LoteRepository loteRepository;
+    private final EstadisticaMermaService estadisticaMermaService;
+    private final AlertaService alertaService;
+    private final AnaliticaLineaService analiticaLineaService;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // ============ REGISTRO ============
+
+    @Override
+    @Transactional
+    public EtapaProcesamientoDTO registrarEtapa(EtapaProcesamientoDTO solicitud, Long usuarioId) {
+        CorridaEtapaDTO corrida = new CorridaEtapaDTO();
+        corrida.setTipoEtapa(solicitud.getTipoEtapa());
+        corrida.setFechaInicio(solicitud.getFechaInicio());
+        corrida.setFechaFin(solicitud.getFechaFin());
+        corrida.setLotes(List.of(solicitud));
+        return registrarCorrida(corrida, usuarioId).get(0);
+    }
+
+    @Override
+    @Transactional
+    public List<EtapaProcesamientoDTO> registrarCorrida(CorridaEtapaDTO corrida, Long usuarioId) {
+        validar(corrida);
+        List<Long> loteIds = corrida.getLotes().stream().map(EtapaProcesamientoDTO::getLoteId).toList();
+        // Lotes bloqueados hasta el commit: dos corridas sobre un mismo lote no parten de la misma
+        // etapa anterior (merma acumulada y espera); se serializan en orden de id
+        Map<Long, Lote> lotes = new HashMap<>();
+        for (Lote lote : loteRepository.bloquearLotesPorId(loteIds)) {
+            lotes.put(lote.getId(), lote);
+        }
+        for (Long loteId : loteIds) {
+            Lote lote = lotes.get(loteId);
+            if (lote == null) {
+                throw new EntityNotFoundException("Lote no encontrado: " + loteId);
+            }
+            if (lote.getEstado() != EstadoLote.ACTIVO && lote.getEstado() != EstadoLote.EN_PROCESO) {
+                throw new IllegalArgumentException("Solo se registran etapas de lotes activos o en proceso: " + lote.getCodigo());
+            }
+        }
+
+        // Merma acumulada y etapas vecinas (anterior y siguiente) de todos los lotes en una sola consulta
+        Map<Long, UltimaEtapaLote> etapasVecinas = new HashMap<>();
+        for (UltimaEtapaLote ultima : etapaProcesamientoRepository.findUltimasEtapas(loteIds, corrida.getFechaInicio())) {
+            etapasVecinas.put(ultima.getLoteId(), ultima);
+        }
+
+        Instant ahora = Instant.now();
+        Usuario usuario = entityManager.getReference(Usuario.class, usuarioId);
+        List<EtapaProcesamiento> etapas = new ArrayList<>(loteIds.size());
+        for (EtapaProcesamientoDTO solicitud : corrida.getLotes()) {
+            Lote lote = lotes.get(solicitud.getLoteId());
+            BigDecimal mermaParcial = mermaParcial(solicitud.getPesoEntrada(), solicitud.getPesoSalida());
+
+            EtapaProcesamiento etapa = new EtapaProcesamiento();
+            etapa.setLote(lote);
+            etapa.setTipoEtapa(corrida.getTipoEtapa());
+            etapa.setFechaInicio(corrida.getFechaInicio());
+            etapa.setFechaFin(corrida.getFechaFin());
+            etapa.setPesoEntrada(solicitud.getPesoEntrada());
+            etapa.setPesoSalida(solicitud.getPesoSalida());
+            etapa.setMermaParcial(mermaParcial);
+            UltimaEtapaLote anterior = etapasVecinas.get(lote.getId());
+            etapa.setMermaAcumulada(mermaAcumulada(anterior != null && anterior.getMermaAcumulada() != null
+                ? anterior.getMermaAcumulada() : BigDecimal.ZERO, mermaParcial));
+            etapa.setObservaciones(solicitud.getObservaciones() != null ? solicitud.getObservaciones() : corrida.getObservaciones());
+            etapa.setUsuarioRegistro(usuario);
+            etapa.setFechaRegistro(ahora);
+            etapas.add(etapa);
+
+            // Lote administrado: el cambio de estado sale en el mismo lote JDBC de updates al hacer flush
+            if (lote.getEstado() == EstadoLote.ACTIVO) {
+                lote.setEstado(EstadoLote.EN_PROCESO);
+                lote.setFechaActualizacion(ahora);
+            }
+        }
+        // Secuencia con allocationSize = 50: los inserts se agrupan en lotes JDBC (hibernate.jdbc.batch_size)
+        etapaProcesamientoRepository.saveAll(etapas);
+
+        analiticaLineaService.registrarEtapas(etapas, etapasVecinas);
+        for (EtapaProcesamiento etapa : etapas) {
+            Lote lote = etapa.getLote();
+            // Antes de agregarla a las estadísticas: la etapa se compara con las anteriores
+            alertaService.evaluarMerma(etapa);
+            estadisticaMermaService.registrar(etapa.getTipoEtapa(), lote.getTipoMaterial().getId(),
+                lote.getBodega().getId(), etapa.getMermaParcial());
+        }
+        if (etapas.size() > 1) {
+            log.info("Corrida {} registrada: {} lotes", corrida.getTipoEtapa(), etapas.size());
+        }
+        return etapas.stream().map(this::toDTO).toList();
+    }
+
+    // ============ CONSULTAS ============
+
+    @Override
+    public List<EtapaProcesamientoDTO> getEtapasPorLote(Long loteId) {
+        return etapaProcesamientoRepository.findByLoteIdOrderByFechaInicio(loteId).stream()
+            .map(this::toDTO)
+            .toList();
+    }
+
+    // ============ MÉTODOS AUXILIARES ============
+
+    private static void validar(CorridaEtapaDTO corrida) {
+        if (corrida.getTipoEtapa() == null) {
+            throw new IllegalArgumentException("La etapa requiere tipo de etapa");
+        }
+        if (corrida.getFechaInicio() == null || corrida.getFechaFin() == null
+                || corrida.getFechaFin().isBefore(corrida.getFechaInicio())) {
+            throw new IllegalArgumentException("La etapa requiere fecha de inicio y una fecha de fin posterior");
+        }
+        if (corrida.getLotes() == null || corrida.getLotes().isEmpty()) {
+            throw new IllegalArgumentException("La corrida requiere al menos un lote");
+        }
+        Set<Long> loteIds = new HashSet<>();
+        for (EtapaProcesamientoDTO solicitud : corrida.getLotes()) {
+            if (solicitud.getLoteId() == null) {
+                throw new IllegalArgumentException("La etapa requiere lote");
+            }
+            if (!loteIds.add(solicitud.getLoteId())) {
+                throw new IllegalArgumentException("Lote repetido en la corrida: " + solicitud.getLoteId());
+            }
+            if (solicitud.getPesoEntrada() == null || solicitud.getPesoEntrada().signum() <= 0
+                    || solicitud.getPesoSalida() == null || solicitud.getPesoSalida().signum() < 0
+                    || solicitud.getPesoSalida().compareTo(solicitud.getPesoEntrada()) > 0) {
+                throw new IllegalArgumentException("Lote " + solicitud.getLoteId()
+                    + ": el peso de salida debe estar entre 0 y el peso de entrada");
+            }
+        }
+    }
+
+    static BigDecimal mermaParcial(BigDecimal pesoEntrada, BigDecimal pesoSalida) {
+        return pesoEntrada.subtract(pesoSalida).multiply(CIEN).divide(pesoEntrada, 2, RoundingMode.HALF_UP);
+    }
+
+    static BigDecimal mermaAcumulada(BigDecimal anterior, BigDecimal parcial) {
+        BigDecimal conservado = CIEN.subtract(anterior).multiply(CIEN.subtract(parcial))
+            .divide(CIEN, 2, RoundingMode.HALF_UP);
+        return CIEN.subtract(conservado);
+    }
+
+    private EtapaProcesamientoDTO toDTO(EtapaProcesamiento etapa) {
+        EtapaProcesamientoDTO dto = new EtapaProcesamientoDTO();
+        dto.setId(etapa.getId());
+        dto.setLoteId(etapa.getLote().getId());
+        dto.setTipoEtapa(etapa.getTipoEtapa());
+        dto.setFechaInicio(etapa.getFechaInicio());
+        dto.setFechaFin(etapa.getFechaFin());
+        dto.setPesoEntrada(etapa.getPesoEntrada());
+        dto.setPesoSalida(etapa.getPesoSalida());
+        dto.setObservaciones(etapa.getObservaciones());
+        dto.setMermaParcial(etapa.getMermaParcial());
+        dto.setMermaAcumulada(etapa.getMermaAcumulada());
+        dto.setUsuarioRegistroId(etapa.getUsuarioRegistro().getId());
+        dto.setFechaRegistro(etapa.getFechaRegistro());
+        return dto;
+    }
 }
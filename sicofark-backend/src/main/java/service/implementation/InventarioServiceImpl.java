@@ -1,4 +1,562 @@
 package service.implementation;
 
-public class InventarioServiceImpl {
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import persistence.entity.Bodega;
+import persistence.entity.Inventario;
+import persistence.entity.Lote;
+import persistence.entity.MovimientoInventario;
+import persistence.entity.SnapshotInventario;
+import persistence.entity.TipoMaterial;
+import persistence.entity.Usuario;
+import persistence.enums.TipoOperacion;
+import persistence.projection.StockActualizado;
+import persistence.repository.InventarioRepository;
+import persistence.repository.MovimientoInventarioRepository;
+import persistence.repository.OcupacionBodegaRepository;
+import persistence.repository.ResumenDiarioMovimientoRepository;
+import persistence.repository.SnapshotInventarioRepository;
+import presentation.dto.EstadisticasMotorStockDTO;
+import presentation.dto.InventarioDTO;
+import presentation.dto.MovimientoInventarioDTO;
+import service.exception.BodegaCapacityExceededException;
+import service.exception.StockInsuficienteException;
+import service.interfaces.AlertaService;
+import service.interfaces.InventarioService;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Implementación del servicio de Inventarios con motor de mutación de stock.
+ * MÓDULO 1: Control de Material Ingresado
+ *
+ * Funcionalidades:
+ * - Un shard de escritor único por bodega (bodegaId módulo número de shards)
+ * - Group commit: cada shard drena su cola y confirma en una sola transacción
+ *   los MovimientoInventario del grupo junto con el delta resultante de cada Inventario
+ * - Aislamiento de fallos: si un grupo falla se reintenta movimiento por movimiento
+ * - Resumen diario por (inventario, tipo de operación, día) actualizado en el mismo commit
+ * - Alertas de stock mínimo/máximo evaluadas sobre el delta neto del grupo, en el mismo commit
+ * - Métricas de throughput y profundidad de colas
+ * - Stock a una fecha pasada: snapshot diario (inicio de día en la zona de operación)
+ *   más reproducción de los movimientos posteriores al snapshot
+ *
+ * IMPORTANTE: Dentro de un nodo el shard evita la contención; entre nodos cada inventario
+ * del grupo recibe un único UPDATE atómico (stock_actual = stock_actual + delta) que valida
+ * stock no negativo y capacidad de la bodega en la misma sentencia, junto con la
+ * ocupación materializada de la bodega.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class InventarioServiceImpl implements InventarioService {
+
+    private final InventarioRepository inventarioRepository;
+    private final MovimientoInventarioRepository movimientoInventarioRepository;
+    private final OcupacionBodegaRepository ocupacionBodegaRepository;
+    private final ResumenDiarioMovimientoRepository resumenDiarioMovimientoRepository;
+    private final SnapshotInventarioRepository snapshotInventarioRepository;
+    private final AlertaService alertaService;
+    private final PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${sicofark.inventario.motor.shards:4}")
+    private int numeroShards;
+
+    @Value("${sicofark.inventario.motor.tamano-grupo:200}")
+    private int tamañoMaximoGrupo;
+
+    @Value("${sicofark.inventario.motor.capacidad-cola:10000}")
+    private int capacidadCola;
+
+    @Value("${sicofark.inventario.motor.timeout-encolado-ms:2000}")
+    private long timeoutEncoladoMs;
+
+    @Value("${sicofark.zona-horaria:America/Bogota}")
+    private ZoneId zonaHoraria;
+
+    private TransactionTemplate transactionTemplate;
+    private ShardStock[] shards;
+
+    // ============ MÉTRICAS ============
+
+    private final LongAdder movimientosProcesados = new LongAdder();
+    private final LongAdder movimientosFallidos = new LongAdder();
+    private final LongAdder gruposConfirmados = new LongAdder();
+    private final LongAdder nanosCommit = new LongAdder();
+    private final AtomicInteger profundidadMaxima = new AtomicInteger();
+    private long inicioNanos;
+
+    @PostConstruct
+    void iniciarMotor() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        shards = new ShardStock[numeroShards];
+        for (int i = 0; i < numeroShards; i++) {
+            shards[i] = new ShardStock(i);
+            shards[i].hilo.start();
+        }
+        inicioNanos = System.nanoTime();
+        log.info("Motor de stock iniciado con {} shards (grupo máximo {})", numeroShards, tamañoMaximoGrupo);
+    }
+
+    @PreDestroy
+    void detenerMotor() {
+        for (ShardStock shard : shards) {
+            shard.activo = false;
+        }
+        for (ShardStock shard : shards) {
+            try {
+                shard.hilo.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            SolicitudPendiente pendiente;
+            while ((pendiente = shard.cola.poll()) != null) {
+                pendiente.resultado().completeExceptionally(
+                    new IllegalStateException("Motor de stock detenido antes de procesar el movimiento"));
+            }
+        }
+    }
+
+    // ============ API PÚBLICA ============
+
+    @Override
+    public CompletableFuture<MovimientoInventarioDTO> registrarMovimiento(MovimientoInventarioDTO solicitud) {
+        validarSolicitud(solicitud);
+        ShardStock shard = shards[Math.floorMod(solicitud.getBodegaId().hashCode(), shards.length)];
+        SolicitudPendiente pendiente = new SolicitudPendiente(solicitud, new CompletableFuture<>());
+        try {
+            if (!shard.cola.offer(pendiente, timeoutEncoladoMs, TimeUnit.MILLISECONDS)) {
+                throw new IllegalStateException(
+                    "Cola de stock saturada para la bodega " + solicitud.getBodegaId());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Encolado de movimiento interrumpido", e);
+        }
+        profundidadMaxima.accumulateAndGet(shard.cola.size(), Math::max);
+        return pendiente.resultado();
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public List<MovimientoInventarioDTO> aplicarMovimientos(List<MovimientoInventarioDTO> solicitudes) {
+        solicitudes.forEach(this::validarSolicitud);
+        return aplicarGrupo(solicitudes);
+    }
+
+    @Override
+    public EstadisticasMotorStockDTO getEstadisticasMotor() {
+        EstadisticasMotorStockDTO dto = new EstadisticasMotorStockDTO();
+        long procesados = movimientosProcesados.sum();
+        long grupos = gruposConfirmados.sum();
+        double segundos = (System.nanoTime() - inicioNanos) / 1_000_000_000.0;
+
+        dto.setShards(shards.length);
+        dto.setMovimientosProcesados(procesados);
+        dto.setMovimientosFallidos(movimientosFallidos.sum());
+        dto.setGruposConfirmados(grupos);
+        dto.setTamañoPromedioGrupo(grupos == 0 ? 0 : (double) procesados / grupos);
+        dto.setLatenciaPromedioCommitMs(grupos == 0 ? 0 : nanosCommit.sum() / 1_000_000.0 / grupos);
+        dto.setMovimientosPorSegundo(segundos <= 0 ? 0 : procesados / segundos);
+
+        List<Integer> colas = Arrays.stream(shards).map(s -> s.cola.size()).toList();
+        dto.setProfundidadColas(colas);
+        dto.setProfundidadTotal(colas.stream().mapToInt(Integer::intValue).sum());
+        dto.setProfundidadMaxima(profundidadMaxima.get());
+        return dto;
+    }
+
+    // ============ STOCK A UNA FECHA (snapshot + reproducción) ============
+
+    /**
+     * El costo es una búsqueda del snapshot más cercano más la suma de los movimientos
+     * de, como máximo, un día; no depende de la antigüedad de la fecha consultada.
+     * Sin snapshot previo (inventarios anteriores al primer corte) se reproduce desde el inicio.
+     */
+    @Override
+    public Optional<InventarioDTO> getStockAFecha(Long bodegaId, Long tipoMaterialId, Instant fecha) {
+        return transactionTemplate.execute(status -> {
+            Optional<Inventario> inventario = inventarioRepository.findByBodegaAndTipoMaterial(bodegaId, tipoMaterialId);
+            if (inventario.isEmpty() || inventario.get().getFechaCreacion().isAfter(fecha)) {
+                return Optional.<InventarioDTO>empty();
+            }
+
+            Long inventarioId = inventario.get().getId();
+            Optional<SnapshotInventario> snapshot = snapshotInventarioRepository.findUltimoAntesDe(inventarioId, fecha);
+            Instant desde = snapshot.map(SnapshotInventario::getFechaCorte).orElse(Instant.EPOCH);
+            BigDecimal base = snapshot.map(SnapshotInventario::getStock).orElse(BigDecimal.ZERO);
+
+            InventarioDTO dto = toDTO(inventario.get());
+            dto.setStockActual(base.add(movimientoInventarioRepository.getVariacionStockEnRango(inventarioId, desde, fecha)));
+            dto.setFechaActualizacion(null);
+            dto.setFechaConsulta(fecha);
+            dto.setFechaSnapshot(snapshot.map(SnapshotInventario::getFechaCorte).orElse(null));
+            return Optional.of(dto);
+        });
+    }
+
+    @Override
+    public int registrarSnapshot(Instant corte) {
+        // Los movimientos que esperen al bloqueo se fechan después de este instante
+        if (corte.isAfter(Instant.now())) {
+            throw new IllegalArgumentException("El corte del snapshot no puede ser posterior al momento actual: " + corte);
+        }
+        Integer registrados = transactionTemplate.execute(status -> {
+            snapshotInventarioRepository.bloquearInventarios();
+            return snapshotInventarioRepository.registrarCorte(corte);
+        });
+        log.info("Snapshot de stock al {}: {} inventarios", corte, registrados);
+        return registrados;
+    }
+
+    /**
+     * Registrar el corte del día en curso si aún no existe (por ejemplo, tras una caída
+     * durante la ejecución programada).
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void inicializarSnapshot() {
+        Instant corte = LocalDate.now(zonaHoraria).atStartOfDay(zonaHoraria).toInstant();
+        if (!snapshotInventarioRepository.existsByFechaCorte(corte)) {
+            registrarSnapshot(corte);
+        }
+    }
+
+    /**
+     * Snapshot diario con corte al inicio del día. La exactitud no depende de la demora:
+     * el bloqueo de registrarSnapshot espera a los grupos fechados antes del corte.
+     */
+    @Scheduled(cron = "${sicofark.inventario.snapshot-cron:0 15 0 * * *}", zone = "${sicofark.zona-horaria:America/Bogota}")
+    public void registrarSnapshotDiario() {
+        registrarSnapshot(LocalDate.now(zonaHoraria).atStartOfDay(zonaHoraria).toInstant());
+    }
+
+    // ============ GROUP COMMIT ============
+
+    /**
+     * Confirmar un grupo drenado de la cola de un shard.
+     * Si la transacción del grupo falla, cada movimiento se reintenta en su propia
+     * transacción para que un movimiento inválido no arrastre a los demás.
+     */
+    private void procesarGrupo(List<SolicitudPendiente> grupo) {
+        long inicio = System.nanoTime();
+        try {
+            List<MovimientoInventarioDTO> solicitudes = grupo.stream().map(SolicitudPendiente::solicitud).toList();
+            List<MovimientoInventarioDTO> resultados = transactionTemplate.execute(status -> aplicarGrupo(solicitudes));
+
+            nanosCommit.add(System.nanoTime() - inicio);
+            gruposConfirmados.increment();
+            movimientosProcesados.add(grupo.size());
+            for (int i = 0; i < grupo.size(); i++) {
+                grupo.get(i).resultado().complete(resultados.get(i));
+            }
+        } catch (RuntimeException e) {
+            if (grupo.size() == 1) {
+                movimientosFallidos.increment();
+                grupo.get(0).resultado().completeExceptionally(e);
+                return;
+            }
+            log.warn("Grupo de {} movimientos rechazado, reintentando individualmente: {}", grupo.size(), e.getMessage());
+            for (SolicitudPendiente pendiente : grupo) {
+                procesarGrupo(List.of(pendiente));
+            }
+        }
+    }
+
+    /**
+     * Aplicar un grupo de movimientos dentro de la transacción actual.
+     * Los deltas se suman por inventario (bodega + material) y cada inventario recibe
+     * una única actualización atómica; los inventarios se procesan en orden
+     * (bodega, material) para evitar interbloqueos entre nodos.
+     * Las cantidades anterior/nueva de cada movimiento se reconstruyen en orden de llegada
+     * a partir del stock confirmado por la base de datos.
+     *
+     * @return movimientos registrados en el mismo orden que las solicitudes
+     */
+    private List<MovimientoInventarioDTO> aplicarGrupo(List<MovimientoInventarioDTO> solicitudes) {
+        // Antes de fechar: un snapshot en curso retiene el grupo y sus movimientos quedan después del corte
+        inventarioRepository.bloquearParaMovimientos();
+        Instant ahora = Instant.now();
+
+        Map<ClaveInventario, List<Integer>> posicionesPorClave = new TreeMap<>(ClaveInventario.ORDEN);
+        for (int i = 0; i < solicitudes.size(); i++) {
+            posicionesPorClave.computeIfAbsent(ClaveInventario.de(solicitudes.get(i)), k -> new ArrayList<>()).add(i);
+        }
+
+        MovimientoInventario[] movimientos = new MovimientoInventario[solicitudes.size()];
+        for (Map.Entry<ClaveInventario, List<Integer>> entrada : posicionesPorClave.entrySet()) {
+            ClaveInventario clave = entrada.getKey();
+            List<Integer> posiciones = entrada.getValue();
+
+            BigDecimal deltaTotal = posiciones.stream()
+                .map(solicitudes::get)
+                .map(s -> s.getTipoOperacion().aplicarSigno(s.getCantidad()))
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+            StockActualizado stock = aplicarDelta(clave, deltaTotal, ahora);
+            alertaService.evaluarUmbralesStock(stock);
+
+            Inventario inventario = entityManager.getReference(Inventario.class, stock.getInventarioId());
+            BigDecimal anterior = stock.getStockAnterior();
+            for (Integer posicion : posiciones) {
+                MovimientoInventarioDTO solicitud = solicitudes.get(posicion);
+                BigDecimal nuevo = anterior.add(solicitud.getTipoOperacion().aplicarSigno(solicitud.getCantidad()));
+                if (nuevo.signum() < 0) {
+                    throw new StockInsuficienteException(
+                        "Stock insuficiente en bodega " + clave.bodegaId() +
+                        " para el material " + clave.tipoMaterialId() +
+                        ": disponible " + anterior + ", solicitado " + solicitud.getCantidad());
+                }
+                movimientos[posicion] = construirMovimiento(solicitud, inventario, anterior, nuevo, ahora);
+                anterior = nuevo;
+            }
+        }
+
+        List<MovimientoInventario> registrados = movimientoInventarioRepository.saveAll(Arrays.asList(movimientos));
+        acumularResumenDiario(registrados, LocalDate.ofInstant(ahora, zonaHoraria));
+        List<MovimientoInventarioDTO> resultados = new ArrayList<>(registrados.size());
+        for (int i = 0; i < registrados.size(); i++) {
+            resultados.add(toDTO(registrados.get(i), solicitudes.get(i)));
+        }
+        return resultados;
+    }
+
+    /**
+     * Aplicar el delta agregado de un inventario con una sola sentencia atómica.
+     * Cuando la sentencia no retorna fila se distingue la causa: contador de ocupación
+     * o inventario inexistentes (se crean y se reintenta), capacidad de bodega excedida
+     * o stock insuficiente.
+     */
+    private StockActualizado aplicarDelta(ClaveInventario clave, BigDecimal delta, Instant ahora) {
+        Optional<StockActualizado> stock =
+            inventarioRepository.aplicarDeltaStock(clave.bodegaId(), clave.tipoMaterialId(), delta);
+        if (stock.isPresent()) {
+            return stock.get();
+        }
+
+        boolean reintentar = false;
+        if (!ocupacionBodegaRepository.existsById(clave.bodegaId())) {
+            ocupacionBodegaRepository.inicializar(clave.bodegaId());
+            reintentar = true;
+        }
+        if (delta.signum() >= 0 &&
+            inventarioRepository.findByBodegaAndTipoMaterial(clave.bodegaId(), clave.tipoMaterialId()).isEmpty()) {
+            crearInventario(clave, ahora);
+            reintentar = true;
+        }
+        if (reintentar) {
+            stock = inventarioRepository.aplicarDeltaStock(clave.bodegaId(), clave.tipoMaterialId(), delta);
+            if (stock.isPresent()) {
+                return stock.get();
+            }
+        }
+
+        if (delta.signum() > 0) {
+            throw new BodegaCapacityExceededException(
+                "La bodega " + clave.bodegaId() + " no tiene capacidad para " + delta +
+                " adicionales del material " + clave.tipoMaterialId());
+        }
+        throw new StockInsuficienteException(
+            "Stock insuficiente en bodega " + clave.bodegaId() +
+            " para el material " + clave.tipoMaterialId() + ": se requieren " + delta.negate());
+    }
+
+    /**
+     * Incrementar el resumen diario (inventario, tipo de operación, día) con los movimientos del grupo.
+     * Un upsert por clave distinta, en orden fijo para no interbloquear con otros nodos.
+     */
+    private void acumularResumenDiario(List<MovimientoInventario> movimientos, LocalDate dia) {
+        Map<ClaveResumen, ClaveResumen.Acumulado> acumulados = new TreeMap<>(ClaveResumen.ORDEN);
+        for (MovimientoInventario movimiento : movimientos) {
+            acumulados.computeIfAbsent(
+                    new ClaveResumen(movimiento.getInventario().getId(), movimiento.getTipoOperacion()),
+                    k -> new ClaveResumen.Acumulado())
+                .sumar(movimiento.getCantidad());
+        }
+        acumulados.forEach((clave, acumulado) -> resumenDiarioMovimientoRepository.acumular(
+            clave.inventarioId(), clave.tipoOperacion().name(), dia, acumulado.cantidad, acumulado.numeroMovimientos));
+    }
+
+    /**
+     * Crear el registro de inventario (bodega + material) en su primer movimiento.
+     * Si otro nodo lo crea en paralelo, la restricción única hace fallar el grupo
+     * y el reintento individual lo encuentra ya creado.
+     */
+    private void crearInventario(ClaveInventario clave, Instant ahora) {
+        Inventario inventario = new Inventario();
+        inventario.setBodega(entityManager.getReference(Bodega.class, clave.bodegaId()));
+        inventario.setTipoMaterial(entityManager.getReference(TipoMaterial.class, clave.tipoMaterialId()));
+        inventario.setStockActual(BigDecimal.ZERO);
+        inventario.setStockMinimo(BigDecimal.ZERO);
+        inventario.setStockMaximo(BigDecimal.ZERO);
+        inventario.setFechaCreacion(ahora);
+        inventario.setFechaActualizacion(ahora);
+        inventarioRepository.saveAndFlush(inventario);
+    }
+
+    private MovimientoInventario construirMovimiento(MovimientoInventarioDTO solicitud, Inventario inventario,
+                                                     BigDecimal anterior, BigDecimal nuevo, Instant ahora) {
+        MovimientoInventario movimiento = new MovimientoInventario();
+        movimiento.setInventario(inventario);
+        movimiento.setTipoOperacion(solicitud.getTipoOperacion());
+        movimiento.setCantidad(solicitud.getCantidad());
+        movimiento.setCantidadAnterior(anterior);
+        movimiento.setCantidadNueva(nuevo);
+        movimiento.setMotivo(solicitud.getMotivo());
+        movimiento.setReferencia(solicitud.getReferencia());
+        movimiento.setUsuario(entityManager.getReference(Usuario.class, solicitud.getUsuarioId()));
+        if (solicitud.getLoteId() != null) {
+            movimiento.setLote(entityManager.getReference(Lote.class, solicitud.getLoteId()));
+        }
+        movimiento.setFecha(ahora);
+        movimiento.setFechaRegistro(ahora);
+        return movimiento;
+    }
+
+    private MovimientoInventarioDTO toDTO(MovimientoInventario movimiento, MovimientoInventarioDTO solicitud) {
+        MovimientoInventarioDTO dto = new MovimientoInventarioDTO();
+        dto.setId(movimiento.getId());
+        dto.setTipoOperacion(movimiento.getTipoOperacion());
+        dto.setCantidad(movimiento.getCantidad());
+        dto.setCantidadAnterior(movimiento.getCantidadAnterior());
+        dto.setCantidadNueva(movimiento.getCantidadNueva());
+        dto.setMotivo(movimiento.getMotivo());
+        dto.setReferencia(movimiento.getReferencia());
+        dto.setInventarioId(movimiento.getInventario().getId());
+        dto.setBodegaId(solicitud.getBodegaId());
+        dto.setTipoMaterialId(solicitud.getTipoMaterialId());
+        dto.setUsuarioId(solicitud.getUsuarioId());
+        dto.setLoteId(solicitud.getLoteId());
+        dto.setFecha(movimiento.getFecha());
+        return dto;
+    }
+
+    private InventarioDTO toDTO(Inventario inventario) {
+        InventarioDTO dto = new InventarioDTO();
+        dto.setId(inventario.getId());
+        dto.setBodegaId(inventario.getBodega().getId());
+        dto.setTipoMaterialId(inventario.getTipoMaterial().getId());
+        dto.setStockActual(inventario.getStockActual());
+        dto.setStockMinimo(inventario.getStockMinimo());
+        dto.setStockMaximo(inventario.getStockMaximo());
+        dto.setUbicacion(inventario.getUbicacion());
+        dto.setFechaActualizacion(inventario.getFechaActualizacion());
+        return dto;
+    }
+
+    private void validarSolicitud(MovimientoInventarioDTO solicitud) {
+        if (solicitud.getBodegaId() == null || solicitud.getTipoMaterialId() == null) {
+            throw new IllegalArgumentException("El movimiento debe indicar bodega y tipo de material");
+        }
+        if (solicitud.getTipoOperacion() == null || solicitud.getCantidad() == null) {
+            throw new IllegalArgumentException("El movimiento debe indicar tipo de operación y cantidad");
+        }
+        if (solicitud.getUsuarioId() == null) {
+            throw new IllegalArgumentException("El movimiento debe indicar el usuario que lo registra");
+        }
+        if (solicitud.getCantidad().signum() == 0) {
+            throw new IllegalArgumentException("La cantidad del movimiento no puede ser cero");
+        }
+    }
+
+    // ============ ESTRUCTURAS INTERNAS ============
+
+    private record SolicitudPendiente(MovimientoInventarioDTO solicitud,
+                                      CompletableFuture<MovimientoInventarioDTO> resultado) {
+    }
+
+    private record ClaveInventario(Long bodegaId, Long tipoMaterialId) {
+        static final Comparator<ClaveInventario> ORDEN = Comparator
+            .comparing(ClaveInventario::bodegaId)
+            .thenComparing(ClaveInventario::tipoMaterialId);
+
+        static ClaveInventario de(MovimientoInventarioDTO solicitud) {
+            return new ClaveInventario(solicitud.getBodegaId(), solicitud.getTipoMaterialId());
+        }
+    }
+
+    private record ClaveResumen(Long inventarioId, TipoOperacion tipoOperacion) {
+        static final Comparator<ClaveResumen> ORDEN = Comparator
+            .comparing(ClaveResumen::inventarioId)
+            .thenComparing(ClaveResumen::tipoOperacion);
+
+        static final class Acumulado {
+            private BigDecimal cantidad = BigDecimal.ZERO;
+            private long numeroMovimientos;
+
+            void sumar(BigDecimal valor) {
+                cantidad = cantidad.add(valor);
+                numeroMovimientos++;
+            }
+        }
+    }
+
+    /**
+     * Shard de escritor único: un hilo dedicado que drena su cola en grupos
+     * de hasta tamañoMaximoGrupo movimientos.
+     */
+    private final class ShardStock implements Runnable {
+        private final BlockingQueue<SolicitudPendiente> cola = new LinkedBlockingQueue<>(capacidadCola);
+        private final Thread hilo;
+        private volatile boolean activo = true;
+
+        ShardStock(int numero) {
+            this.hilo = new Thread(this, "stock-shard-" + numero);
+            this.hilo.setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            List<SolicitudPendiente> grupo = new ArrayList<>(tamañoMaximoGrupo);
+            while (activo || !cola.isEmpty()) {
+                try {
+                    SolicitudPendiente primera = cola.poll(200, TimeUnit.MILLISECONDS);
+                    if (primera == null) {
+                        continue;
+                    }
+                    grupo.add(primera);
+                    cola.drainTo(grupo, tamañoMaximoGrupo - 1);
+                    procesarGrupo(grupo);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (RuntimeException e) {
+                    log.error("Error inesperado en {}", hilo.getName(), e);
+                    grupo.forEach(p -> p.resultado().completeExceptionally(e));
+                } finally {
+                    grupo.clear();
+                }
+            }
+        }
+    }
 }
@@ -1,4 +1,532 @@
 package service.implementation;
 
-public class LoteServiceImpl {
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import persistence.entity.Bodega;
+import persistence.entity.DetalleTransaccion;
+import persistence.entity.Lote;
+import persistence.entity.Proveedor;
+import persistence.entity.TipoMaterial;
+import persistence.entity.Usuario;
+import persistence.enums.CalidadMaterial;
+import persistence.enums.EstadoLote;
+import persistence.projection.LoteResumen;
+import persistence.repository.DetalleTrasaccionRepository;
+import persistence.repository.LoteGenealogiaRepository;
+import persistence.repository.LoteRepository;
+import persistence.repository.MovimientoInventarioRepository;
+import persistence.repository.ProveedorRepository;
+import presentation.dto.BodegaCatalogoDTO;
+import presentation.dto.ImpactoRecallDTO;
+import presentation.dto.LoteRequestDTO;
+import presentation.dto.LoteResponseDTO;
+import presentation.dto.ProveedorCatalogoDTO;
+import presentation.dto.TipoMaterialCatalogoDTO;
+import service.exception.ProveedorInactivoException;
+import service.interfaces.AsignacionLoteService;
+import service.interfaces.CatalogoService;
+import service.interfaces.CodigoService;
+import service.interfaces.LoteService;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Implementación del servicio de Lotes.
+ * MÓDULO 1: Control de Material Ingresado
+ * MÓDULO 2: Control de Material Procesado
+ *
+ * Funcionalidades:
+ * - Registro y división de lotes con mantenimiento de lote_genealogia en la misma transacción
+ * - Proveedor, tipo de material y bodega validados con la caché de catálogos (CatalogoService) y
+ *   asociados con EntityManager.getReference, sin consultar las entidades
+ * - Registro masivo: referencias faltantes en caché resueltas con una consulta por entidad, códigos tomados
+ *   del bloque reservado por CodigoService e inserción con batching JDBC
+ * - Listados armados desde el modelo de lectura LoteResumen: una consulta por listado,
+ *   sin cargar entidades ni disparar las relaciones LAZY por cada lote
+ * - Ancestros, descendientes e impacto de recall con una consulta cada uno,
+ *   sin recorrer la jerarquía nivel por nivel
+ * - Reconstrucción de la genealogía al arrancar para lotes que no la tengan
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class LoteServiceImpl implements LoteService {
+
+    // Una solicitud masiva es una sola transacción y un solo batch JDBC
+    static final int MAXIMO_LOTES_POR_SOLICITUD = 1_000;
+
+    private final LoteRepository loteRepository;
+    private final LoteGenealogiaRepository loteGenealogiaRepository;
+    private final DetalleTrasaccionRepository detalleTrasaccionRepository;
+    private final MovimientoInventarioRepository movimientoInventarioRepository;
+    private final AsignacionLoteService asignacionLoteService;
+    private final CodigoService codigoService;
+    private final CatalogoService catalogoService;
+    private final ProveedorRepository proveedorRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Completar la genealogía de lotes creados antes de la tabla de clausura.
+     */
+    @Transactional
+    @EventListener(ApplicationReadyEvent.class)
+    public void inicializarGenealogia() {
+        long faltantes = loteGenealogiaRepository.countLotesSinGenealogia();
+        if (faltantes > 0) {
+            int filas = loteGenealogiaRepository.reconstruir();
+            log.info("Genealogía reconstruida para {} lotes ({} filas nuevas)", faltantes, filas);
+        }
+    }
+
+    // ============ REGISTRO Y DIVISIÓN ============
+
+    @Override
+    @Transactional
+    public LoteResponseDTO crearLote(LoteRequestDTO solicitud, Long usuarioId) {
+        ProveedorCatalogoDTO proveedor = catalogoService.getProveedor(solicitud.getProveedorId())
+            .orElseThrow(() -> new EntityNotFoundException("Proveedor no encontrado: " + solicitud.getProveedorId()));
+        TipoMaterialCatalogoDTO tipoMaterial = catalogoService.getTipoMaterial(solicitud.getTipoMaterialId())
+            .orElseThrow(() -> new EntityNotFoundException("Tipo de material no encontrado: " + solicitud.getTipoMaterialId()));
+        BodegaCatalogoDTO bodega = catalogoService.getBodega(solicitud.getBodegaId())
+            .orElseThrow(() -> new EntityNotFoundException("Bodega no encontrada: " + solicitud.getBodegaId()));
+        Lote lotePadre = solicitud.getLotePadreId() != null ? buscarLote(solicitud.getLotePadreId()) : null;
+        verificarProveedoresActivos(List.of(proveedor.id()));
+
+        Lote lote = construirLote(solicitud, proveedor, tipoMaterial, bodega, lotePadre,
+            entityManager.getReference(Usuario.class, usuarioId), Instant.now());
+        // El código se reserva solo con la solicitud ya validada: los bloques no se devuelven
+        lote.setCodigo(codigoService.siguientesCodigosLote(bodega.id(), 1).get(0));
+
+        LoteResponseDTO creado = toResponseDTO(registrar(lote), proveedor, tipoMaterial, bodega);
+        asignacionLoteService.invalidarCola(bodega.id(), tipoMaterial.id());
+        return creado;
+    }
+
+    /**
+     * Las referencias salen de la caché de catálogos (las que falten, con una consulta por entidad
+     * para todo el lote de solicitudes), los códigos se toman de CodigoService (sin verificar unicidad)
+     * y los lotes y su genealogía se insertan con batching JDBC. Todo o nada: cualquier solicitud inválida aborta el registro.
+     */
+    @Override
+    @Transactional
+    public List<LoteResponseDTO> crearLotes(List<LoteRequestDTO> solicitudes, Long usuarioId) {
+        if (solicitudes == null || solicitudes.isEmpty()) {
+            return List.of();
+        }
+        if (solicitudes.size() > MAXIMO_LOTES_POR_SOLICITUD) {
+            throw new IllegalArgumentException(
+                "No se pueden registrar más de " + MAXIMO_LOTES_POR_SOLICITUD + " lotes por solicitud");
+        }
+        for (int i = 0; i < solicitudes.size(); i++) {
+            LoteRequestDTO solicitud = solicitudes.get(i);
+            if (solicitud.getProveedorId() == null || solicitud.getTipoMaterialId() == null || solicitud.getBodegaId() == null) {
+                throw new IllegalArgumentException("Solicitud " + (i + 1) + ": proveedor, tipo de material y bodega son obligatorios");
+            }
+            if (solicitud.getPesoBruto() == null || solicitud.getTara() == null) {
+                throw new IllegalArgumentException("Solicitud " + (i + 1) + ": peso bruto y tara son obligatorios");
+            }
+            if (solicitud.getCalidad() == null) {
+                throw new IllegalArgumentException("Solicitud " + (i + 1) + ": la calidad es obligatoria");
+            }
+        }
+
+        Map<Long, ProveedorCatalogoDTO> proveedores = catalogoService.getProveedores(idsDistintos(solicitudes, LoteRequestDTO::getProveedorId));
+        Map<Long, TipoMaterialCatalogoDTO> tiposMaterial = catalogoService.getTiposMaterial(idsDistintos(solicitudes, LoteRequestDTO::getTipoMaterialId));
+        Map<Long, BodegaCatalogoDTO> bodegas = catalogoService.getBodegas(idsDistintos(solicitudes, LoteRequestDTO::getBodegaId));
+        Set<Long> idsPadre = idsDistintos(solicitudes, LoteRequestDTO::getLotePadreId);
+        Map<Long, Lote> lotesPadre = idsPadre.isEmpty() ? Map.of() : porId(loteRepository.findAllById(idsPadre), Lote::getId);
+        Usuario usuario = entityManager.find(Usuario.class, usuarioId);
+        if (usuario == null) {
+            throw new EntityNotFoundException("Usuario no encontrado: " + usuarioId);
+        }
+        verificarProveedoresActivos(proveedores.keySet());
+
+        Instant ahora = Instant.now();
+        List<Lote> lotes = new ArrayList<>(solicitudes.size());
+        for (int i = 0; i < solicitudes.size(); i++) {
+            LoteRequestDTO solicitud = solicitudes.get(i);
+            String posicion = "Solicitud " + (i + 1) + ": ";
+            ProveedorCatalogoDTO proveedor = requerido(proveedores, solicitud.getProveedorId(), posicion + "proveedor no encontrado");
+            TipoMaterialCatalogoDTO tipoMaterial = requerido(tiposMaterial, solicitud.getTipoMaterialId(), posicion + "tipo de material no encontrado");
+            BodegaCatalogoDTO bodega = requerido(bodegas, solicitud.getBodegaId(), posicion + "bodega no encontrada");
+            Lote lotePadre = solicitud.getLotePadreId() == null ? null
+                : requerido(lotesPadre, solicitud.getLotePadreId(), posicion + "lote padre no encontrado");
+
+            try {
+                lotes.add(construirLote(solicitud, proveedor, tipoMaterial, bodega, lotePadre, usuario, ahora));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException(posicion + e.getMessage(), e);
+            }
+        }
+
+        // Códigos por bodega, en el orden de las solicitudes; solo con todas las solicitudes validadas
+        Map<Long, List<Lote>> lotesPorBodega = lotes.stream()
+            .collect(Collectors.groupingBy(l -> l.getBodega().getId(), LinkedHashMap::new, Collectors.toList()));
+        lotesPorBodega.forEach((bodegaId, deBodega) -> {
+            List<String> codigos = codigoService.siguientesCodigosLote(bodegaId, deBodega.size());
+            for (int i = 0; i < deBodega.size(); i++) {
+                deBodega.get(i).setCodigo(codigos.get(i));
+            }
+        });
+
+        insertarLotes(lotes);
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO sicofar.lote_genealogia (ancestro_id, descendiente_id, profundidad) " +
+            "SELECT CAST(? AS bigint), CAST(? AS bigint), 0 " +
+            "UNION ALL " +
+            "SELECT g.ancestro_id, CAST(? AS bigint), g.profundidad + 1 FROM sicofar.lote_genealogia g " +
+            "WHERE g.descendiente_id = ?",
+            lotes.stream().map(l -> new Object[]{l.getId(), l.getId(), l.getId(),
+                l.getLotePadre() != null ? l.getLotePadre().getId() : null}).toList(),
+            new int[]{Types.BIGINT, Types.BIGINT, Types.BIGINT, Types.BIGINT});
+
+        lotes.stream()
+            .map(l -> List.of(l.getBodega().getId(), l.getTipoMaterial().getId()))
+            .distinct()
+            .forEach(clave -> asignacionLoteService.invalidarCola(clave.get(0), clave.get(1)));
+        return lotes.stream()
+            .map(l -> toResponseDTO(l, proveedores.get(l.getProveedor().getId()),
+                tiposMaterial.get(l.getTipoMaterial().getId()), bodegas.get(l.getBodega().getId())))
+            .toList();
+    }
+
+    @Override
+    @Transactional
+    public List<LoteResponseDTO> dividirLote(Long loteId, List<BigDecimal> pesosNetos, Long usuarioId) {
+        // Mismo bloqueo que la confirmación FIFO: el saldo leído no cambia hasta el commit
+        Lote lote = loteRepository.bloquearLotesPorId(List.of(loteId)).stream().findFirst()
+            .orElseThrow(() -> new EntityNotFoundException("Lote no encontrado: " + loteId));
+        if (lote.getEstado() != EstadoLote.ACTIVO && lote.getEstado() != EstadoLote.EN_PROCESO) {
+            throw new IllegalArgumentException("Solo se pueden dividir lotes activos o en proceso: " + lote.getCodigo());
+        }
+        if (pesosNetos == null || pesosNetos.isEmpty() || pesosNetos.stream().anyMatch(p -> p.signum() <= 0)) {
+            throw new IllegalArgumentException("La división requiere al menos un peso neto positivo");
+        }
+        BigDecimal total = pesosNetos.stream().reduce(BigDecimal.ZERO, BigDecimal::add);
+        BigDecimal saldo = loteRepository.findSaldos(List.of(loteId)).get(0).getPesoDisponible();
+        if (total.compareTo(saldo) > 0) {
+            throw new IllegalArgumentException(
+                "Los sublotes suman " + total + ", más que el saldo disponible del lote " + saldo);
+        }
+
+        Instant ahora = Instant.now();
+        Usuario usuario = entityManager.getReference(Usuario.class, usuarioId);
+        List<String> codigos = codigoService.siguientesCodigosLote(lote.getBodega().getId(), pesosNetos.size());
+        List<LoteResponseDTO> sublotes = new ArrayList<>(pesosNetos.size());
+        for (int i = 0; i < pesosNetos.size(); i++) {
+            BigDecimal pesoNeto = pesosNetos.get(i);
+            Lote sublote = new Lote();
+            sublote.setCodigo(codigos.get(i));
+            sublote.setPesoBruto(pesoNeto);
+            sublote.setTara(BigDecimal.ZERO);
+            sublote.setPesoNeto(pesoNeto);
+            sublote.setOrigen(lote.getOrigen());
+            sublote.setEstado(EstadoLote.ACTIVO);
+            sublote.setCalidad(lote.getCalidad());
+            sublote.setProveedor(lote.getProveedor());
+            sublote.setTipoMaterial(lote.getTipoMaterial());
+            sublote.setBodega(lote.getBodega());
+            sublote.setUsuarioRegistro(usuario);
+            sublote.setLotePadre(lote);
+            sublote.setFechaRegistro(ahora);
+            sublote.setFechaActualizacion(ahora);
+            sublotes.add(toResponseDTO(registrar(sublote)));
+        }
+
+        lote.setEstado(EstadoLote.PROCESADO);
+        lote.setFechaActualizacion(ahora);
+        asignacionLoteService.invalidarCola(lote.getBodega().getId(), lote.getTipoMaterial().getId());
+        return sublotes;
+    }
+
+    // ============ LISTADOS ============
+
+    @Override
+    public List<LoteResponseDTO> getLotesPorEstado(EstadoLote estado) {
+        return toResponseDTOs(loteRepository.findResumenByEstado(estado));
+    }
+
+    @Override
+    public List<LoteResponseDTO> getLotesPorProveedor(Long proveedorId) {
+        return toResponseDTOs(loteRepository.findResumenByProveedorId(proveedorId));
+    }
+
+    @Override
+    public List<LoteResponseDTO> getLotesPorBodega(Long bodegaId) {
+        return toResponseDTOs(loteRepository.findResumenByBodegaId(bodegaId));
+    }
+
+    @Override
+    public List<LoteResponseDTO> getLotesPorTipoMaterial(Long tipoMaterialId) {
+        return toResponseDTOs(loteRepository.findResumenByTipoMaterialId(tipoMaterialId));
+    }
+
+    @Override
+    public List<LoteResponseDTO> getLotesDisponibles(Long bodegaId, Long tipoMaterialId) {
+        return toResponseDTOs(loteRepository.findResumenDisponiblesEnBodega(bodegaId, tipoMaterialId, EstadoLote.ACTIVO));
+    }
+
+    @Override
+    public List<LoteResponseDTO> getLotesPorCalidad(CalidadMaterial calidad, EstadoLote estado) {
+        return toResponseDTOs(loteRepository.findResumenByCalidadAndEstado(calidad, estado));
+    }
+
+    @Override
+    public List<LoteResponseDTO> getLotesHijos(Long lotePadreId) {
+        return toResponseDTOs(loteRepository.findResumenHijos(lotePadreId));
+    }
+
+    @Override
+    public List<LoteResponseDTO> getLotesPorFechaRegistro(Instant desde, Instant hasta) {
+        if (desde == null || hasta == null || desde.isAfter(hasta)) {
+            throw new IllegalArgumentException("Rango de fechas inválido");
+        }
+        return toResponseDTOs(loteRepository.findResumenByFechaRegistroBetween(desde, hasta));
+    }
+
+    // ============ GENEALOGÍA ============
+
+    @Override
+    public List<LoteResponseDTO> getAncestros(Long loteId) {
+        return toResponseDTOs(loteRepository.findResumenAncestros(loteId));
+    }
+
+    @Override
+    public List<LoteResponseDTO> getDescendientes(Long loteId) {
+        return toResponseDTOs(loteRepository.findResumenDescendientes(loteId, false));
+    }
+
+    @Override
+    public ImpactoRecallDTO getImpactoRecall(Long loteId) {
+        Lote origen = buscarLote(loteId);
+        List<LoteResumen> afectados = loteRepository.findResumenDescendientes(loteId, true);
+        List<DetalleTransaccion> detalles = detalleTrasaccionRepository.findByLoteOrDescendientes(loteId);
+
+        ImpactoRecallDTO dto = new ImpactoRecallDTO();
+        dto.setLoteOrigenId(origen.getId());
+        dto.setLoteOrigenCodigo(origen.getCodigo());
+        dto.setLotesAfectados(toResponseDTOs(afectados));
+        dto.setPesoNetoAfectado(afectados.stream().map(LoteResumen::getPesoNeto).reduce(BigDecimal.ZERO, BigDecimal::add));
+        dto.setTransaccionIds(detalles.stream().map(d -> d.getTransaccion().getId()).distinct().toList());
+        dto.setConsecutivosTransaccion(detalles.stream().map(d -> d.getTransaccion().getConsecutivo()).distinct().toList());
+        dto.setDetalleTransaccionIds(detalles.stream().map(DetalleTransaccion::getId).toList());
+        dto.setMovimientoIds(movimientoInventarioRepository.findIdsByLoteOrDescendientes(loteId));
+        return dto;
+    }
+
+    // ============ UTILIDADES ============
+
+    /**
+     * Persistir el lote y registrarlo en la genealogía bajo su lote padre.
+     */
+    private Lote registrar(Lote lote) {
+        Lote guardado = loteRepository.saveAndFlush(lote);
+        loteGenealogiaRepository.registrarLote(guardado.getId(),
+            guardado.getLotePadre() != null ? guardado.getLotePadre().getId() : null);
+        return guardado;
+    }
+
+    private Lote buscarLote(Long loteId) {
+        return loteRepository.findById(loteId)
+            .orElseThrow(() -> new EntityNotFoundException("Lote no encontrado: " + loteId));
+    }
+
+    /**
+     * El estado del proveedor se lee de la base en la transacción del registro: la caché de
+     * catálogos de esta instancia puede no haber recibido aún una desactivación hecha en otra.
+     */
+    private void verificarProveedoresActivos(Collection<Long> proveedorIds) {
+        List<Long> inactivos = proveedorRepository.findIdsNoActivos(proveedorIds);
+        if (!inactivos.isEmpty()) {
+            throw new ProveedorInactivoException("El proveedor " + inactivos.get(0) + " no está activo");
+        }
+    }
+
+    /**
+     * Validar la solicitud y armar el lote, todavía sin código. Las asociaciones de catálogo son
+     * referencias (getReference) a partir de las copias de la caché.
+     */
+    private Lote construirLote(LoteRequestDTO solicitud, ProveedorCatalogoDTO proveedor, TipoMaterialCatalogoDTO tipoMaterial,
+                               BodegaCatalogoDTO bodega, Lote lotePadre, Usuario usuario, Instant ahora) {
+        BigDecimal pesoNeto = solicitud.getPesoBruto().subtract(solicitud.getTara());
+        if (pesoNeto.signum() <= 0) {
+            throw new IllegalArgumentException("El peso bruto debe ser mayor que la tara");
+        }
+
+        Lote lote = new Lote();
+        lote.setPesoBruto(solicitud.getPesoBruto());
+        lote.setTara(solicitud.getTara());
+        lote.setPesoNeto(pesoNeto);
+        lote.setOrigen(solicitud.getOrigen());
+        lote.setObservaciones(solicitud.getObservaciones());
+        lote.setEstado(EstadoLote.ACTIVO);
+        lote.setCalidad(solicitud.getCalidad());
+        lote.setProveedor(entityManager.getReference(Proveedor.class, proveedor.id()));
+        lote.setTipoMaterial(entityManager.getReference(TipoMaterial.class, tipoMaterial.id()));
+        lote.setBodega(entityManager.getReference(Bodega.class, bodega.id()));
+        lote.setUsuarioRegistro(usuario);
+        lote.setLotePadre(lotePadre);
+        lote.setFechaRegistro(ahora);
+        lote.setFechaActualizacion(ahora);
+        return lote;
+    }
+
+    /**
+     * Insertar lotes con un solo batch JDBC y asignarles el id generado.
+     * Los lotes no quedan en el contexto de persistencia.
+     */
+    private void insertarLotes(List<Lote> lotes) {
+        GeneratedKeyHolder ids = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+            con -> con.prepareStatement(
+                "INSERT INTO sicofar.lote (codigo, peso_bruto, tara, peso_neto, origen, observaciones, estado, calidad, " +
+                "proveedor_id, tipo_material_id, bodega_id, usuario_registro_id, lote_padre_id, " +
+                "fecha_registro, fecha_actualizacion) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                new String[]{"id"}),
+            new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    Lote lote = lotes.get(i);
+                    ps.setString(1, lote.getCodigo());
+                    ps.setBigDecimal(2, lote.getPesoBruto());
+                    ps.setBigDecimal(3, lote.getTara());
+                    ps.setBigDecimal(4, lote.getPesoNeto());
+                    ps.setString(5, lote.getOrigen());
+                    ps.setString(6, lote.getObservaciones());
+                    ps.setObject(7, lote.getEstado().name(), Types.OTHER);
+                    ps.setObject(8, lote.getCalidad().name(), Types.OTHER);
+                    ps.setLong(9, lote.getProveedor().getId());
+                    ps.setLong(10, lote.getTipoMaterial().getId());
+                    ps.setLong(11, lote.getBodega().getId());
+                    ps.setLong(12, lote.getUsuarioRegistro().getId());
+                    ps.setObject(13, lote.getLotePadre() != null ? lote.getLotePadre().getId() : null, Types.BIGINT);
+                    ps.setTimestamp(14, Timestamp.from(lote.getFechaRegistro()));
+                    ps.setTimestamp(15, Timestamp.from(lote.getFechaActualizacion()));
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return lotes.size();
+                }
+            },
+            ids);
+
+        List<Map<String, Object>> claves = ids.getKeyList();
+        for (int i = 0; i < lotes.size(); i++) {
+            lotes.get(i).setId(((Number) claves.get(i).get("id")).longValue());
+        }
+    }
+
+    private static Set<Long> idsDistintos(List<LoteRequestDTO> solicitudes, Function<LoteRequestDTO, Long> id) {
+        return solicitudes.stream().map(id).filter(Objects::nonNull).collect(Collectors.toSet());
+    }
+
+    private static <T> Map<Long, T> porId(Collection<T> entidades, Function<T, Long> id) {
+        return entidades.stream().collect(Collectors.toMap(id, Function.identity()));
+    }
+
+    private static <T> T requerido(Map<Long, T> entidades, Long id, String mensaje) {
+        T entidad = id != null ? entidades.get(id) : null;
+        if (entidad == null) {
+            throw new EntityNotFoundException(mensaje + " (" + id + ")");
+        }
+        return entidad;
+    }
+
+    private LoteResponseDTO toResponseDTO(Lote lote) {
+        return toResponseDTO(lote,
+            lote.getProveedor().getNombres() + " " + lote.getProveedor().getApellidos(),
+            lote.getTipoMaterial().getNombre(),
+            lote.getBodega().getNombre());
+    }
+
+    /**
+     * Los nombres salen de las copias de la caché: las asociaciones del lote son referencias sin cargar.
+     */
+    private LoteResponseDTO toResponseDTO(Lote lote, ProveedorCatalogoDTO proveedor,
+                                          TipoMaterialCatalogoDTO tipoMaterial, BodegaCatalogoDTO bodega) {
+        return toResponseDTO(lote, proveedor.nombres() + " " + proveedor.apellidos(), tipoMaterial.nombre(), bodega.nombre());
+    }
+
+    private LoteResponseDTO toResponseDTO(Lote lote, String proveedorNombre, String tipoMaterialNombre, String bodegaNombre) {
+        LoteResponseDTO dto = new LoteResponseDTO();
+        dto.setId(lote.getId());
+        dto.setCodigo(lote.getCodigo());
+        dto.setPesoBruto(lote.getPesoBruto());
+        dto.setTara(lote.getTara());
+        dto.setPesoNeto(lote.getPesoNeto());
+        dto.setOrigen(lote.getOrigen());
+        dto.setObservaciones(lote.getObservaciones());
+        dto.setEstado(lote.getEstado());
+        dto.setCalidad(lote.getCalidad());
+        dto.setProveedorId(lote.getProveedor().getId());
+        dto.setProveedorNombre(proveedorNombre);
+        dto.setTipoMaterialId(lote.getTipoMaterial().getId());
+        dto.setTipoMaterialNombre(tipoMaterialNombre);
+        dto.setBodegaId(lote.getBodega().getId());
+        dto.setBodegaNombre(bodegaNombre);
+        dto.setUsuarioRegistroId(lote.getUsuarioRegistro().getId());
+        dto.setUsuarioRegistroNombre(lote.getUsuarioRegistro().getNombres() + " " + lote.getUsuarioRegistro().getApellidos());
+        dto.setLotePadreId(lote.getLotePadre() != null ? lote.getLotePadre().getId() : null);
+        dto.setFechaRegistro(lote.getFechaRegistro());
+        dto.setFechaActualizacion(lote.getFechaActualizacion());
+        return dto;
+    }
+
+    private List<LoteResponseDTO> toResponseDTOs(List<LoteResumen> resumenes) {
+        return resumenes.stream().map(LoteServiceImpl::toResponseDTO).toList();
+    }
+
+    private static LoteResponseDTO toResponseDTO(LoteResumen resumen) {
+        LoteResponseDTO dto = new LoteResponseDTO();
+        dto.setId(resumen.getId());
+        dto.setCodigo(resumen.getCodigo());
+        dto.setPesoBruto(resumen.getPesoBruto());
+        dto.setTara(resumen.getTara());
+        dto.setPesoNeto(resumen.getPesoNeto());
+        dto.setOrigen(resumen.getOrigen());
+        dto.setObservaciones(resumen.getObservaciones());
+        dto.setEstado(resumen.getEstado());
+        dto.setCalidad(resumen.getCalidad());
+        dto.setProveedorId(resumen.getProveedorId());
+        dto.setProveedorNombre(resumen.getProveedorNombres() + " " + resumen.getProveedorApellidos());
+        dto.setTipoMaterialId(resumen.getTipoMaterialId());
+        dto.setTipoMaterialNombre(resumen.getTipoMaterialNombre());
+        dto.setBodegaId(resumen.getBodegaId());
+        dto.setBodegaNombre(resumen.getBodegaNombre());
+        dto.setUsuarioRegistroId(resumen.getUsuarioRegistroId());
+        dto.setUsuarioRegistroNombre(resumen.getUsuarioRegistroNombres() + " " + resumen.getUsuarioRegistroApellidos());
+        dto.setLotePadreId(resumen.getLotePadreId());
+        dto.setFechaRegistro(resumen.getFechaRegistro());
+        dto.setFechaActualizacion(resumen.getFechaActualizacion());
+        return dto;
+    }
 }
@@ -1,4 +1,192 @@
 package service.implementation;
 
-public class MovimientoInventarioServiceImpl {
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import persistence.entity.MovimientoInventario;
+import persistence.enums.TipoOperacion;
+import persistence.repository.MovimientoInventarioRepository;
+import persistence.repository.ResumenDiarioMovimientoRepository;
+import presentation.dto.MovimientoInventarioDTO;
+import presentation.dto.PaginaCursorDTO;
+import service.interfaces.MovimientoInventarioService;
+import util.CursorPaginacion;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.BinaryOperator;
+
+/**
+ * Implementación del servicio de historial de Movimientos de Inventario.
+ * MÓDULO 1 y 2: Auditoría de inventario
+ *
+ * Funcionalidades:
+ * - Paginación por keyset sobre (fecha, id) respaldada por índices
+ * - Cursores opacos (CursorPaginacion) entre páginas
+ * - Tamaño de página acotado a TAMAÑO_MAXIMO_PAGINA
+ * - Sumas y conteos por período sobre el resumen diario: días completos desde
+ *   resumen_diario_movimiento y solo los tramos de días incompletos desde los movimientos
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class MovimientoInventarioServiceImpl implements MovimientoInventarioService {
+
+    static final int TAMAÑO_MAXIMO_PAGINA = 500;
+
+    private final MovimientoInventarioRepository movimientoInventarioRepository;
+    private final ResumenDiarioMovimientoRepository resumenDiarioMovimientoRepository;
+
+    @Value("${sicofark.zona-horaria:America/Bogota}")
+    private ZoneId zonaHoraria;
+
+    @Override
+    public PaginaCursorDTO<MovimientoInventarioDTO> getHistorialInventario(Long inventarioId, String cursor, int tamaño) {
+        return paginar(cursor, tamaño, (posicion, limite) ->
+            movimientoInventarioRepository.findPaginaByInventarioId(inventarioId, posicion.fecha(), posicion.id(), limite));
+    }
+
+    @Override
+    public PaginaCursorDTO<MovimientoInventarioDTO> getHistorialUsuario(Long usuarioId, String cursor, int tamaño) {
+        return paginar(cursor, tamaño, (posicion, limite) ->
+            movimientoInventarioRepository.findPaginaByUsuarioId(usuarioId, posicion.fecha(), posicion.id(), limite));
+    }
+
+    @Override
+    public PaginaCursorDTO<MovimientoInventarioDTO> getMovimientosEnPeriodo(Instant fechaInicio, Instant fechaFin,
+                                                                            String cursor, int tamaño) {
+        return paginar(cursor, tamaño, (posicion, limite) ->
+            movimientoInventarioRepository.findPaginaByFechaBetween(
+                fechaInicio, fechaFin, posicion.fecha(), posicion.id(), limite));
+    }
+
+    @Override
+    public List<MovimientoInventarioDTO> getMovimientosRecientes(int limite) {
+        return movimientoInventarioRepository.findTopMovimientosRecientes(Limit.of(acotar(limite)))
+            .stream()
+            .map(this::toDTO)
+            .toList();
+    }
+
+    @Override
+    public BigDecimal getSumaEntradas(Long inventarioId, Instant fechaInicio, Instant fechaFin) {
+        return getSumaPorTipo(inventarioId, TipoOperacion.ENTRADA, fechaInicio, fechaFin);
+    }
+
+    @Override
+    public BigDecimal getSumaSalidas(Long inventarioId, Instant fechaInicio, Instant fechaFin) {
+        return getSumaPorTipo(inventarioId, TipoOperacion.SALIDA, fechaInicio, fechaFin);
+    }
+
+    @Override
+    public Long contarPorTipoOperacion(TipoOperacion tipoOperacion, Instant fechaInicio, Instant fechaFin) {
+        return agregarPeriodo(fechaInicio, fechaFin,
+            (desde, hasta) -> movimientoInventarioRepository.countByTipoOperacionInRango(tipoOperacion, desde, hasta),
+            (diaInicio, diaFin) -> resumenDiarioMovimientoRepository.countByTipoInDias(
+                tipoOperacion.name(), diaInicio, diaFin),
+            Long::sum);
+    }
+
+    @Override
+    @Transactional
+    public int reconstruirResumenDiario(LocalDate diaInicio, LocalDate diaFin) {
+        // Sin el bloqueo, un movimiento confirmado entre el DELETE y el INSERT ... SELECT se
+        // contaría dos veces, y uno acumulado sobre filas borradas se perdería
+        resumenDiarioMovimientoRepository.bloquearParaReconstruir();
+        resumenDiarioMovimientoRepository.deleteByDias(diaInicio, diaFin);
+        return resumenDiarioMovimientoRepository.reconstruir(
+            diaInicio.atStartOfDay(zonaHoraria).toInstant(),
+            diaFin.plusDays(1).atStartOfDay(zonaHoraria).toInstant(),
+            zonaHoraria.getId());
+    }
+
+    private BigDecimal getSumaPorTipo(Long inventarioId, TipoOperacion tipoOperacion,
+                                      Instant fechaInicio, Instant fechaFin) {
+        return agregarPeriodo(fechaInicio, fechaFin,
+            (desde, hasta) -> movimientoInventarioRepository.getSumaByInventarioAndTipoInRango(
+                inventarioId, tipoOperacion, desde, hasta),
+            (diaInicio, diaFin) -> resumenDiarioMovimientoRepository.getCantidadByInventarioAndTipoInDias(
+                inventarioId, tipoOperacion.name(), diaInicio, diaFin),
+            BigDecimal::add);
+    }
+
+    /**
+     * Dividir [fechaInicio, fechaFin] en días completos (leídos del resumen) y los tramos
+     * incompletos del inicio y del final (leídos de los movimientos, en intervalos semiabiertos).
+     */
+    private <T> T agregarPeriodo(Instant fechaInicio, Instant fechaFin,
+                                 BiFunction<Instant, Instant, T> desdeMovimientos,
+                                 BiFunction<LocalDate, LocalDate, T> desdeResumen,
+                                 BinaryOperator<T> sumar) {
+        Instant finExclusivo = fechaFin.truncatedTo(ChronoUnit.MICROS).plus(1, ChronoUnit.MICROS);
+
+        LocalDate diaInicio = LocalDate.ofInstant(fechaInicio, zonaHoraria);
+        LocalDate primerDia = diaInicio.atStartOfDay(zonaHoraria).toInstant().equals(fechaInicio)
+            ? diaInicio : diaInicio.plusDays(1);
+        LocalDate ultimoDia = LocalDate.ofInstant(finExclusivo, zonaHoraria).minusDays(1);
+
+        if (primerDia.isAfter(ultimoDia)) {
+            return desdeMovimientos.apply(fechaInicio, finExclusivo);
+        }
+
+        Instant inicioDiasCompletos = primerDia.atStartOfDay(zonaHoraria).toInstant();
+        Instant finDiasCompletos = ultimoDia.plusDays(1).atStartOfDay(zonaHoraria).toInstant();
+
+        T total = desdeResumen.apply(primerDia, ultimoDia);
+        if (fechaInicio.isBefore(inicioDiasCompletos)) {
+            total = sumar.apply(total, desdeMovimientos.apply(fechaInicio, inicioDiasCompletos));
+        }
+        if (finDiasCompletos.isBefore(finExclusivo)) {
+            total = sumar.apply(total, desdeMovimientos.apply(finDiasCompletos, finExclusivo));
+        }
+        return total;
+    }
+
+    /**
+     * Consultar una página pidiendo un registro extra para saber si existe la siguiente.
+     */
+    private PaginaCursorDTO<MovimientoInventarioDTO> paginar(
+            String cursor, int tamaño,
+            BiFunction<CursorPaginacion, Limit, List<MovimientoInventario>> consulta) {
+        int limite = acotar(tamaño);
+        List<MovimientoInventario> filas = consulta.apply(CursorPaginacion.decodificar(cursor), Limit.of(limite + 1));
+
+        boolean hayMas = filas.size() > limite;
+        List<MovimientoInventario> pagina = hayMas ? filas.subList(0, limite) : filas;
+        String siguiente = null;
+        if (hayMas) {
+            MovimientoInventario ultimo = pagina.get(pagina.size() - 1);
+            siguiente = new CursorPaginacion(ultimo.getFecha(), ultimo.getId()).codificar();
+        }
+        return new PaginaCursorDTO<>(pagina.stream().map(this::toDTO).toList(), siguiente);
+    }
+
+    private int acotar(int tamaño) {
+        return Math.max(1, Math.min(tamaño, TAMAÑO_MAXIMO_PAGINA));
+    }
+
+    private MovimientoInventarioDTO toDTO(MovimientoInventario movimiento) {
+        MovimientoInventarioDTO dto = new MovimientoInventarioDTO();
+        dto.setId(movimiento.getId());
+        dto.setTipoOperacion(movimiento.getTipoOperacion());
+        dto.setCantidad(movimiento.getCantidad());
+        dto.setCantidadAnterior(movimiento.getCantidadAnterior());
+        dto.setCantidadNueva(movimiento.getCantidadNueva());
+        dto.setMotivo(movimiento.getMotivo());
+        dto.setReferencia(movimiento.getReferencia());
+        dto.setInventarioId(movimiento.getInventario().getId());
+        dto.setBodegaId(movimiento.getInventario().getBodega().getId());
+        dto.setTipoMaterialId(movimiento.getInventario().getTipoMaterial().getId());
+        dto.setUsuarioId(movimiento.getUsuario().getId());
+        dto.setLoteId(movimiento.getLote() != null ? movimiento.getLote().getId() : null);
+        dto.setFecha(movimiento.getFecha());
+        return dto;
+    }
 }
@@ -0,0 +1,250 @@
+package service.implementation;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import presentation.dto.VerificacionPodaDTO;
+import service.interfaces.ParticionService;
+
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Implementación del mantenimiento de particiones mensuales.
+ *
+ * movimiento_inventario y auditoria son tablas de solo inserción consultadas por rango
+ * de fecha. Con particionado mensual (ver db/particionado_movimiento_auditoria.sql) el costo
+ * de una consulta por rango depende del tamaño de la ventana y no del historial total,
+ * y la retención se resuelve separando particiones completas en lugar de borrar filas.
+ *
+ * Funcionalidades:
+ * - Creación anticipada de las particiones de los próximos meses (la partición DEFAULT
+ *   debe quedar vacía; si recibe filas de un mes, esa partición ya no se puede crear)
+ * - Separación (DETACH) de las particiones más antiguas que la retención; quedan como
+ *   tablas independientes para archivarlas o eliminarlas manualmente
+ * - Verificación de poda de particiones con EXPLAIN al arrancar: el plan solo debe leer las
+ *   particiones de los meses del rango (y la DEFAULT si a alguno le falta partición)
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ParticionServiceImpl implements ParticionService {
+
+    private static final String ESQUEMA = "sicofar";
+    private static final List<String> TABLAS_PARTICIONADAS = List.of("movimiento_inventario", "auditoria");
+    private static final Pattern SUFIJO_PARTICION = Pattern.compile("_p(\\d{4})_(\\d{2})$");
+    private static final DateTimeFormatter FORMATO_SUFIJO = DateTimeFormatter.ofPattern("'_p'yyyy_MM");
+    private static final DateTimeFormatter FORMATO_LIMITE = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ssxxx");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${sicofark.particionado.meses-adelante:3}")
+    private int mesesAdelante;
+
+    @Value("${sicofark.particionado.meses-retencion:24}")
+    private int mesesRetencion;
+
+    @Value("${sicofark.zona-horaria:America/Bogota}")
+    private ZoneId zonaHoraria;
+
+    /**
+     * Asegurar las particiones futuras y comprobar la poda del mes en curso.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void inicializarParticiones() {
+        mantenerParticiones();
+
+        YearMonth mesActual = YearMonth.now(zonaHoraria);
+        for (String tabla : TABLAS_PARTICIONADAS) {
+            if (!estaParticionada(tabla)) {
+                continue;
+            }
+            VerificacionPodaDTO verificacion = verificarPoda(tabla, inicioMes(mesActual), inicioMes(mesActual.plusMonths(1)));
+            if (!verificacion.isPodaEfectiva()) {
+                log.warn("Consulta por rango de fecha sobre {} lee {} en lugar de {}",
+                    tabla, verificacion.getParticionesEscaneadas(), verificacion.getParticionesEsperadas());
+            }
+        }
+    }
+
+    @Scheduled(cron = "${sicofark.particionado.mantenimiento-cron:0 0 3 * * *}")
+    public void mantenerParticionesPeriodico() {
+        mantenerParticiones();
+    }
+
+    @Override
+    public void mantenerParticiones() {
+        YearMonth mesActual = YearMonth.now(zonaHoraria);
+        for (String tabla : TABLAS_PARTICIONADAS) {
+            if (!estaParticionada(tabla)) {
+                log.debug("La tabla {} no está particionada; se omite el mantenimiento", tabla);
+                continue;
+            }
+            crearParticionesFuturas(tabla, mesActual);
+            separarParticionesAntiguas(tabla, mesActual.minusMonths(mesesRetencion));
+        }
+    }
+
+    @Override
+    public VerificacionPodaDTO verificarPoda(String tabla, Instant fechaInicio, Instant fechaFin) {
+        validarTabla(tabla);
+        if (!fechaInicio.isBefore(fechaFin)) {
+            throw new IllegalArgumentException("El rango de fechas a verificar está vacío");
+        }
+
+        // Con literales el planificador poda al planificar; con parámetros podría mostrar el plan genérico
+        String plan = jdbcTemplate.queryForObject(
+            "EXPLAIN (FORMAT JSON) SELECT id FROM " + ESQUEMA + "." + tabla +
+            " WHERE fecha >= " + literalFecha(fechaInicio) + " AND fecha < " + literalFecha(fechaFin),
+            String.class);
+
+        TreeSet<String> escaneadas = new TreeSet<>();
+        try {
+            recolectarRelaciones(objectMapper.readTree(plan).path(0).path("Plan"), tabla, escaneadas);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Plan de ejecución no válido para " + tabla, e);
+        }
+
+        List<String> particiones = listarParticiones(tabla);
+        List<String> esperadas = particionesEsperadas(tabla, particiones, fechaInicio, fechaFin);
+
+        VerificacionPodaDTO dto = new VerificacionPodaDTO();
+        dto.setTabla(tabla);
+        dto.setFechaInicio(fechaInicio);
+        dto.setFechaFin(fechaFin);
+        dto.setParticionesTotales(particiones.size());
+        dto.setParticionesEsperadas(esperadas);
+        dto.setParticionesEscaneadas(new ArrayList<>(escaneadas));
+        dto.setPodaEfectiva(esperadas.containsAll(escaneadas));
+        return dto;
+    }
+
+    // ============ MANTENIMIENTO ============
+
+    private void crearParticionesFuturas(String tabla, YearMonth mesActual) {
+        for (int i = 0; i <= mesesAdelante; i++) {
+            YearMonth mes = mesActual.plusMonths(i);
+            String sql = "CREATE TABLE IF NOT EXISTS " + ESQUEMA + "." + nombreParticion(tabla, mes) +
+                " PARTITION OF " + ESQUEMA + "." + tabla +
+                " FOR VALUES FROM ('" + limiteMes(mes) + "') TO ('" + limiteMes(mes.plusMonths(1)) + "')";
+            try {
+                jdbcTemplate.execute(sql);
+            } catch (DataAccessException e) {
+                // Típicamente la partición DEFAULT ya contiene filas de ese mes
+                log.error("No se pudo crear la partición {} de {}: {}", mes, tabla, e.getMessage());
+            }
+        }
+    }
+
+    private void separarParticionesAntiguas(String tabla, YearMonth mesLimite) {
+        for (String particion : listarParticiones(tabla)) {
+            Matcher matcher = SUFIJO_PARTICION.matcher(particion);
+            if (!matcher.find()) {
+                continue;
+            }
+            YearMonth mes = YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)));
+            if (mes.isBefore(mesLimite)) {
+                jdbcTemplate.execute("ALTER TABLE " + ESQUEMA + "." + tabla +
+                    " DETACH PARTITION " + ESQUEMA + "." + particion);
+                log.info("Partición {} separada de {} (retención de {} meses)", particion, tabla, mesesRetencion);
+            }
+        }
+    }
+
+    // ============ CATÁLOGO ============
+
+    private boolean estaParticionada(String tabla) {
+        Integer particionadas = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM pg_partitioned_table pt " +
+            "JOIN pg_class c ON c.oid = pt.partrelid " +
+            "JOIN pg_namespace n ON n.oid = c.relnamespace " +
+            "WHERE n.nspname = ? AND c.relname = ?",
+            Integer.class, ESQUEMA, tabla);
+        return particionadas != null && particionadas > 0;
+    }
+
+    private List<String> listarParticiones(String tabla) {
+        return jdbcTemplate.queryForList(
+            "SELECT hijo.relname FROM pg_inherits i " +
+            "JOIN pg_class padre ON padre.oid = i.inhparent " +
+            "JOIN pg_class hijo ON hijo.oid = i.inhrelid " +
+            "JOIN pg_namespace n ON n.oid = padre.relnamespace " +
+            "WHERE n.nspname = ? AND padre.relname = ? ORDER BY hijo.relname",
+            String.class, ESQUEMA, tabla);
+    }
+
+    private void recolectarRelaciones(JsonNode nodo, String tabla, TreeSet<String> relaciones) {
+        String relacion = nodo.path("Relation Name").asText(null);
+        if (relacion != null && relacion.startsWith(tabla + "_")) {
+            relaciones.add(relacion);
+        }
+        for (JsonNode hijo : nodo.path("Plans")) {
+            recolectarRelaciones(hijo, tabla, relaciones);
+        }
+    }
+
+    /**
+     * Particiones mensuales que cubren [fechaInicio, fechaFin). Si algún mes del rango no tiene
+     * partición propia sus filas van a la DEFAULT, que entonces también debe leerse.
+     */
+    private List<String> particionesEsperadas(String tabla, List<String> particiones, Instant fechaInicio, Instant fechaFin) {
+        List<String> esperadas = new ArrayList<>();
+        boolean requiereDefault = false;
+        YearMonth ultimo = YearMonth.from(fechaFin.minusNanos(1).atZone(zonaHoraria));
+        for (YearMonth mes = YearMonth.from(fechaInicio.atZone(zonaHoraria)); !mes.isAfter(ultimo); mes = mes.plusMonths(1)) {
+            String particion = nombreParticion(tabla, mes);
+            if (particiones.contains(particion)) {
+                esperadas.add(particion);
+            } else {
+                requiereDefault = true;
+            }
+        }
+        String particionDefault = tabla + "_default";
+        if (requiereDefault && particiones.contains(particionDefault)) {
+            esperadas.add(particionDefault);
+        }
+        return esperadas;
+    }
+
+    // ============ UTILIDADES ============
+
+    private void validarTabla(String tabla) {
+        if (!TABLAS_PARTICIONADAS.contains(tabla)) {
+            throw new IllegalArgumentException("Tabla no particionada: " + tabla);
+        }
+    }
+
+    private String nombreParticion(String tabla, YearMonth mes) {
+        return tabla + FORMATO_SUFIJO.format(mes);
+    }
+
+    private String limiteMes(YearMonth mes) {
+        return FORMATO_LIMITE.format(mes.atDay(1).atStartOfDay(zonaHoraria));
+    }
+
+    private String literalFecha(Instant fecha) {
+        return "TIMESTAMPTZ '" + DateTimeFormatter.ISO_OFFSET_DATE_TIME.format(fecha.atOffset(ZoneOffset.UTC)) + "'";
+    }
+
+    private Instant inicioMes(YearMonth mes) {
+        return mes.atDay(1).atStartOfDay(zonaHoraria).toInstant();
+    }
+}
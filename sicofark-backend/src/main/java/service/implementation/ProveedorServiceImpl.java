@@ -1,4 +1,205 @@
 package service.implementation;
 
-public class ProveedorServiceImpl {
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import persistence.entity.EstadisticaProveedorMensual;
+import persistence.entity.Proveedor;
+import persistence.enums.EstadoProveedor;
+import persistence.projection.ProveedorBusqueda;
+import persistence.projection.ResumenProveedor;
+import persistence.repository.EstadisticaProveedorMensualRepository;
+import persistence.repository.ProveedorRepository;
+import persistence.repository.TransaccionRepository;
+import presentation.dto.EstadisticaMensualProveedorDTO;
+import presentation.dto.ProveedorDTO;
+import service.interfaces.ProveedorService;
+
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * Implementación del servicio de Proveedores.
+ * MÓDULO 1: Control de Material Ingresado
+ *
+ * Funcionalidades:
+ * - Listado de proveedores con totales de compras y ranking por período, una consulta cada uno
+ *   sobre las estadísticas mensuales (no sobre transaccion)
+ * - Reconstrucción de las estadísticas al arrancar si aún no existen
+ * - Búsqueda con índice GIN de trigramas (pg_trgm) sobre el texto sin acentos (unaccent) de
+ *   nombres, apellidos y documento; extensiones, funciones e índice los crea el script
+ *   db/busqueda_proveedor.sql. Mientras no exista el índice se usa la búsqueda LIKE sin índice.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class ProveedorServiceImpl implements ProveedorService {
+
+    private static final int LIMITE_MAXIMO_RANKING = 100;
+    private static final int LIMITE_MAXIMO_BUSQUEDA = 50;
+    private static final int LONGITUD_MAXIMA_BUSQUEDA = 100;
+
+    private final EstadisticaProveedorMensualRepository estadisticaProveedorMensualRepository;
+    private final TransaccionRepository transaccionRepository;
+    private final ProveedorRepository proveedorRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${sicofark.zona-horaria:America/Bogota}")
+    private ZoneId zonaHoraria;
+
+    private volatile boolean busquedaIndexada;
+
+    /**
+     * Construir las estadísticas la primera vez (transacciones anteriores a la tabla).
+     */
+    @Transactional
+    @EventListener(ApplicationReadyEvent.class)
+    public void inicializarEstadisticas() {
+        if (estadisticaProveedorMensualRepository.count() != 0 || transaccionRepository.count() == 0) {
+            return;
+        }
+        // Otro nodo o un ajuste en curso pudo llenarlas entre la consulta y el bloqueo
+        estadisticaProveedorMensualRepository.bloquearParaReconstruir();
+        if (estadisticaProveedorMensualRepository.count() == 0) {
+            reconstruirEstadisticas();
+        }
+    }
+
+    /**
+     * Detectar si el índice de búsqueda (db/busqueda_proveedor.sql) ya está creado.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void inicializarBusqueda() {
+        busquedaIndexada = Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+            "SELECT to_regclass('sicofar.idx_proveedor_busqueda_trgm') IS NOT NULL", Boolean.class));
+        if (!busquedaIndexada) {
+            log.warn("Búsqueda de proveedores sin índice de trigramas: falta ejecutar db/busqueda_proveedor.sql");
+        }
+    }
+
+    // ============ CONSULTAS ============
+
+    @Override
+    public List<ProveedorDTO> buscar(String texto, int limite) {
+        String termino = texto == null ? "" : texto.strip();
+        if (termino.isEmpty()) {
+            return List.of();
+        }
+        if (termino.length() > LONGITUD_MAXIMA_BUSQUEDA) {
+            termino = termino.substring(0, LONGITUD_MAXIMA_BUSQUEDA);
+        }
+        int limiteAcotado = Math.max(1, Math.min(limite, LIMITE_MAXIMO_BUSQUEDA));
+        String patron = termino.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+
+        if (!busquedaIndexada) {
+            return proveedorRepository.buscarSinIndice(patron, Limit.of(limiteAcotado)).stream()
+                .map(ProveedorServiceImpl::toDTO)
+                .toList();
+        }
+        return proveedorRepository.buscarPorTrigramas(termino, patron, limiteAcotado).stream()
+            .map(ProveedorServiceImpl::toDTO)
+            .toList();
+    }
+
+    @Override
+    public List<ProveedorDTO> getProveedores(EstadoProveedor estado) {
+        return estadisticaProveedorMensualRepository.findResumenProveedores(estado).stream()
+            .map(ProveedorServiceImpl::toDTO)
+            .toList();
+    }
+
+    @Override
+    public List<ProveedorDTO> getRanking(YearMonth desde, YearMonth hasta, int limite) {
+        validarPeriodo(desde, hasta);
+        return estadisticaProveedorMensualRepository.findRanking(desde.atDay(1), hasta.atDay(1),
+                Limit.of(Math.max(1, Math.min(limite, LIMITE_MAXIMO_RANKING))))
+            .stream()
+            .map(ProveedorServiceImpl::toDTO)
+            .toList();
+    }
+
+    @Override
+    public List<EstadisticaMensualProveedorDTO> getEstadisticasMensuales(Long proveedorId, YearMonth desde, YearMonth hasta) {
+        validarPeriodo(desde, hasta);
+        return estadisticaProveedorMensualRepository.findByProveedorAndMeses(proveedorId, desde.atDay(1), hasta.atDay(1))
+            .stream()
+            .map(ProveedorServiceImpl::toDTO)
+            .toList();
+    }
+
+    @Override
+    @Transactional
+    public int reconstruirEstadisticas() {
+        estadisticaProveedorMensualRepository.bloquearParaReconstruir();
+        estadisticaProveedorMensualRepository.deleteTodo();
+        int filas = estadisticaProveedorMensualRepository.reconstruir(zonaHoraria.getId());
+        log.info("Estadísticas de proveedores reconstruidas: {} filas (proveedor, mes)", filas);
+        return filas;
+    }
+
+    // ============ UTILIDADES ============
+
+    private static void validarPeriodo(YearMonth desde, YearMonth hasta) {
+        if (desde == null || hasta == null || desde.isAfter(hasta)) {
+            throw new IllegalArgumentException("Período inválido");
+        }
+    }
+
+    private static ProveedorDTO toDTO(ResumenProveedor resumen) {
+        ProveedorDTO dto = new ProveedorDTO();
+        dto.setId(resumen.getId());
+        dto.setNombres(resumen.getNombres());
+        dto.setApellidos(resumen.getApellidos());
+        dto.setTipoDocumento(resumen.getTipoDocumento());
+        dto.setNumeroDocumento(resumen.getNumeroDocumento());
+        dto.setTelefono(resumen.getTelefono());
+        dto.setEmail(resumen.getEmail());
+        dto.setEstado(resumen.getEstado());
+        dto.setCalificacion(resumen.getCalificacion());
+        dto.setNumeroTransacciones(resumen.getNumeroTransacciones());
+        dto.setPesoEntregado(resumen.getPesoTotal());
+        dto.setValorCompras(resumen.getValorTotal());
+        return dto;
+    }
+
+    private static ProveedorDTO toDTO(ProveedorBusqueda resultado) {
+        ProveedorDTO dto = new ProveedorDTO();
+        dto.setId(resultado.getId());
+        dto.setNombres(resultado.getNombres());
+        dto.setApellidos(resultado.getApellidos());
+        dto.setNumeroDocumento(resultado.getNumeroDocumento());
+        dto.setEstado(resultado.getEstado());
+        dto.setRelevancia(resultado.getRelevancia());
+        return dto;
+    }
+
+    private static ProveedorDTO toDTO(Proveedor proveedor) {
+        ProveedorDTO dto = new ProveedorDTO();
+        dto.setId(proveedor.getId());
+        dto.setNombres(proveedor.getNombres());
+        dto.setApellidos(proveedor.getApellidos());
+        dto.setTipoDocumento(proveedor.getTipoDocumento());
+        dto.setNumeroDocumento(proveedor.getNumeroDocumento());
+        dto.setTelefono(proveedor.getTelefono());
+        dto.setEmail(proveedor.getEmail());
+        dto.setEstado(proveedor.getEstado());
+        dto.setCalificacion(proveedor.getCalificacion());
+        return dto;
+    }
+
+    private static EstadisticaMensualProveedorDTO toDTO(EstadisticaProveedorMensual estadistica) {
+        return new EstadisticaMensualProveedorDTO(
+            YearMonth.from(estadistica.getId().getMes()),
+            estadistica.getNumeroTransacciones(),
+            estadistica.getPesoTotal(),
+            estadistica.getValorTotal());
+    }
 }
@@ -0,0 +1,71 @@
+package service.implementation;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import service.interfaces.SecuenciaService;
+
+import java.util.Map;
+
+/**
+ * Implementación del mantenimiento de secuencias.
+ *
+ * Las entidades de alto volumen (MovimientoInventario, DetalleTransaccion, Auditoria,
+ * EtapaProcesamiento) obtienen sus ids de secuencias con incremento 50: Hibernate reserva
+ * un bloque de ids por cada nextval y puede agrupar los INSERT en batches JDBC, cosa que
+ * IDENTITY impide. Las secuencias las crea Hibernate empezando en 1, por lo que en una base
+ * con datos previos hay que adelantarlas antes de la primera inserción.
+ *
+ * IMPORTANTE: El default IDENTITY de las columnas id queda sin uso; toda inserción en estas
+ * tablas debe tomar el id de la secuencia de la entidad (las tablas particionadas por
+ * db/particionado_movimiento_auditoria.sql usan esa misma secuencia como default).
+ * La alineación corre al terminar de crear los singletons: después de que Hibernate crea
+ * las secuencias y antes de que el servidor web acepte peticiones.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SecuenciaServiceImpl implements SecuenciaService, SmartInitializingSingleton {
+
+    private static final String ESQUEMA = "sicofar";
+
+    // tabla -> secuencia (@SequenceGenerator de la entidad)
+    private static final Map<String, String> SECUENCIAS = Map.of(
+        "movimiento_inventario", "movimiento_inventario_seq",
+        "detalle_transaccion", "detalle_transaccion_seq",
+        "auditoria", "auditoria_seq",
+        "etapa_procesamiento", "etapa_procesamiento_seq"
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        int ajustadas = alinearSecuencias();
+        if (ajustadas > 0) {
+            log.info("{} secuencias de ids adelantadas al id máximo de su tabla", ajustadas);
+        }
+    }
+
+    /**
+     * Con el optimizador pooled, nextval devuelve el extremo superior del bloque;
+     * fijar la secuencia en MAX(id) hace que el siguiente bloque empiece en MAX(id) + 1.
+     */
+    @Override
+    public int alinearSecuencias() {
+        int ajustadas = 0;
+        for (Map.Entry<String, String> entrada : SECUENCIAS.entrySet()) {
+            String tabla = ESQUEMA + "." + entrada.getKey();
+            String secuencia = ESQUEMA + "." + entrada.getValue();
+            Long maximo = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + tabla, Long.class);
+            Long actual = jdbcTemplate.queryForObject("SELECT last_value FROM " + secuencia, Long.class);
+            if (maximo != null && actual != null && maximo > actual) {
+                jdbcTemplate.queryForObject("SELECT setval(?, ?)", Long.class, secuencia, maximo);
+                ajustadas++;
+            }
+        }
+        return ajustadas;
+    }
+}
@@ -1,4 +1,564 @@
 package service.implementation;
 
-public class TransaccionServiceImpl {
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import persistence.entity.Bodega;
+import persistence.entity.DetalleTransaccion;
+import persistence.entity.Lote;
+import persistence.entity.Proveedor;
+import persistence.entity.SolicitudIdempotente;
+import persistence.entity.SolicitudIdempotenteId;
+import persistence.entity.TipoMaterial;
+import persistence.entity.Transaccion;
+import persistence.entity.Usuario;
+import persistence.enums.EstadoTransaccion;
+import persistence.enums.MetodoPago;
+import persistence.enums.TipoOperacion;
+import persistence.projection.CuentaPorPagar;
+import persistence.repository.DetalleTrasaccionRepository;
+import persistence.repository.EstadisticaProveedorMensualRepository;
+import persistence.repository.PendientePagoDiarioRepository;
+import persistence.repository.SolicitudIdempotenteRepository;
+import persistence.repository.TransaccionRepository;
+import presentation.dto.CuentaPorPagarDTO;
+import presentation.dto.DetalleTransaccionDTO;
+import presentation.dto.LoteRequestDTO;
+import presentation.dto.LoteResponseDTO;
+import presentation.dto.MovimientoInventarioDTO;
+import presentation.dto.PaginaCursorDTO;
+import presentation.dto.TransaccionDTO;
+import service.exception.ClaveIdempotenciaReutilizadaException;
+import service.exception.TransaccionInvalidaException;
+import service.interfaces.CodigoService;
+import service.interfaces.InventarioService;
+import service.interfaces.LoteService;
+import service.interfaces.TransaccionService;
+import util.CursorPaginacion;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Implementación del servicio de Transacciones.
+ * MÓDULO 1: Control de Material Ingresado
+ *
+ * El registro de un ingreso persiste todo el documento en una transacción con un número
+ * fijo de viajes a la base de datos, sin importar el número de líneas:
+ * - Lotes y genealogía con el registro masivo de LoteService (batching JDBC), que además
+ *   valida proveedor, bodega, tipos de material y usuario
+ * - Transacción con referencias ya validadas (sin volver a cargarlas) y consecutivo de CodigoService
+ * - Detalles con ids de secuencia agrupados e inserción en batch
+ * - Entradas de inventario con InventarioService.aplicarMovimientos: un UPDATE de stock
+ *   por (bodega, material) y los movimientos en batch
+ *
+ * Cuentas por pagar: pendiente_pago_diario se ajusta en la misma transacción en la que una
+ * transacción entra o sale de PENDIENTE sin pago (registro y cambios de estado); el resumen
+ * por proveedor y su antigüedad se calculan sobre ese agregado.
+ *
+ * Estadísticas de proveedor: estadistica_proveedor_mensual se ajusta cuando una transacción
+ * entra o sale de un estado completado (EstadoTransaccion.esCompletada()).
+ *
+ * Idempotencia: la clave del dispositivo es única por usuario y se reclama en
+ * solicitud_idempotente al inicio de la misma transacción, de modo que dos reintentos
+ * concurrentes (en cualquier nodo) se serializan sobre la clave y solo uno registra el ingreso.
+ * La clave guarda el hash del cuerpo: reutilizarla con otro documento es un error (422), no
+ * una réplica. Las respuestas recientes se sirven desde una caché acotada en memoria, antes de
+ * abrir la transacción.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class TransaccionServiceImpl implements TransaccionService {
+
+    private static final String MOTIVO_INGRESO = "Ingreso de material";
+    private static final int TAMAÑO_MAXIMO_PAGINA = 500;
+
+    private final TransaccionRepository transaccionRepository;
+    private final DetalleTrasaccionRepository detalleTrasaccionRepository;
+    private final LoteService loteService;
+    private final InventarioService inventarioService;
+    private final CodigoService codigoService;
+    private final SolicitudIdempotenteRepository solicitudIdempotenteRepository;
+    private final PendientePagoDiarioRepository pendientePagoDiarioRepository;
+    private final EstadisticaProveedorMensualRepository estadisticaProveedorMensualRepository;
+    private final ObjectMapper objectMapper;
+    private final PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${sicofark.zona-horaria:America/Bogota}")
+    private ZoneId zonaHoraria;
+
+    @Value("${sicofark.idempotencia.cache-maximo:10000}")
+    private int maximoCache;
+
+    @Value("${sicofark.idempotencia.retencion-horas:72}")
+    private long horasRetencion;
+
+    // Respuestas recientes por (usuario, clave de idempotencia) (LRU acotado)
+    private Map<SolicitudIdempotenteId, RespuestaIdempotente> respuestasRecientes;
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    void iniciar() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        respuestasRecientes = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<SolicitudIdempotenteId, RespuestaIdempotente> eldest) {
+                return size() > maximoCache;
+            }
+        });
+    }
+
+    // ============ REGISTRO DE INGRESO ============
+
+    /**
+     * Sin transacción propia: un reintento servido desde la caché no toma conexión.
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public TransaccionDTO registrarIngreso(TransaccionDTO documento, Long usuarioId, String claveIdempotencia) {
+        if (claveIdempotencia == null || claveIdempotencia.isBlank()) {
+            return transactionTemplate.execute(status -> registrar(documento, usuarioId));
+        }
+        String clave = claveIdempotencia.strip();
+        if (clave.length() > 100) {
+            throw new IllegalArgumentException("La clave de idempotencia no puede superar 100 caracteres");
+        }
+        if (usuarioId == null) {
+            throw new IllegalArgumentException("La clave de idempotencia requiere el usuario de la solicitud");
+        }
+        SolicitudIdempotenteId id = new SolicitudIdempotenteId(usuarioId, clave);
+        String hash = hashSolicitud(documento);
+
+        RespuestaIdempotente reciente = respuestasRecientes.get(id);
+        if (reciente != null) {
+            return reciente.para(hash, clave);
+        }
+        return transactionTemplate.execute(status -> registrarIdempotente(documento, id, hash));
+    }
+
+    /**
+     * Reclamar la clave al inicio de la transacción del registro: dos reintentos concurrentes
+     * (en cualquier nodo) se serializan sobre la clave y solo uno registra el ingreso.
+     */
+    private TransaccionDTO registrarIdempotente(TransaccionDTO documento, SolicitudIdempotenteId id, String hash) {
+        String clave = id.getClave();
+        if (solicitudIdempotenteRepository.reclamar(id.getUsuarioId(), clave, hash, Instant.now()) == 0) {
+            // Ya registrada, en este u otro nodo (el INSERT esperó su confirmación)
+            SolicitudIdempotente solicitud = solicitudIdempotenteRepository.findById(id)
+                .orElseThrow(() -> new IllegalStateException("Clave de idempotencia no encontrada: " + clave));
+            RespuestaIdempotente original = new RespuestaIdempotente(solicitud.getHashSolicitud(), leerRespuesta(solicitud));
+            respuestasRecientes.put(id, original);
+            TransaccionDTO respuesta = original.para(hash, clave);
+            log.debug("Reintento del ingreso {} con clave {}", respuesta.getConsecutivo(), clave);
+            return respuesta;
+        }
+
+        TransaccionDTO resultado = registrar(documento, id.getUsuarioId());
+        solicitudIdempotenteRepository.completar(id.getUsuarioId(), clave, resultado.getId(), escribirRespuesta(resultado));
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                respuestasRecientes.put(id, new RespuestaIdempotente(hash, resultado));
+            }
+        });
+        return resultado;
+    }
+
+    /**
+     * Purgar claves de idempotencia más antiguas que la retención (los dispositivos
+     * no reintentan solicitudes de días anteriores).
+     */
+    @Transactional
+    @Scheduled(cron = "${sicofark.idempotencia.purga-cron:0 45 3 * * *}", zone = "${sicofark.zona-horaria:America/Bogota}")
+    public void purgarClavesIdempotencia() {
+        int eliminadas = solicitudIdempotenteRepository.deleteByFechaCreacionBefore(
+            Instant.now().minus(horasRetencion, ChronoUnit.HOURS));
+        if (eliminadas > 0) {
+            log.info("Claves de idempotencia purgadas: {}", eliminadas);
+        }
+    }
+
+    private TransaccionDTO registrar(TransaccionDTO documento, Long usuarioId) {
+        validarDocumento(documento);
+        List<DetalleTransaccionDTO> lineas = documento.getDetalles();
+
+        // 1. Lotes (uno por línea) con su genealogía
+        List<LoteRequestDTO> solicitudesLote = lineas.stream().map(linea -> toLoteRequest(documento, linea)).toList();
+        List<LoteResponseDTO> lotes = loteService.crearLotes(solicitudesLote, usuarioId);
+
+        // 2. Transacción
+        Instant ahora = Instant.now();
+        Transaccion transaccion = new Transaccion();
+        transaccion.setConsecutivo(codigoService.siguienteConsecutivo(documento.getBodegaId()));
+        transaccion.setFecha(documento.getFecha() != null ? documento.getFecha() : ahora);
+        transaccion.setObservaciones(documento.getObservaciones());
+        transaccion.setEstado(EstadoTransaccion.PENDIENTE);
+        transaccion.setMetodoPago(documento.getMetodoPago());
+        transaccion.setProveedor(entityManager.getReference(Proveedor.class, documento.getProveedorId()));
+        transaccion.setBodega(entityManager.getReference(Bodega.class, documento.getBodegaId()));
+        transaccion.setUsuario(entityManager.getReference(Usuario.class, usuarioId));
+        transaccion.setFechaCreacion(ahora);
+        transaccion.setFechaActualizacion(ahora);
+
+        // 3. Detalles, cada uno ligado a su lote
+        List<DetalleTransaccion> detalles = new ArrayList<>(lineas.size());
+        BigDecimal pesoTotal = BigDecimal.ZERO;
+        BigDecimal valorTotal = BigDecimal.ZERO;
+        for (int i = 0; i < lineas.size(); i++) {
+            DetalleTransaccionDTO linea = lineas.get(i);
+            LoteResponseDTO lote = lotes.get(i);
+            BigDecimal cantidad = linea.getCantidad() != null ? linea.getCantidad() : lote.getPesoNeto();
+
+            DetalleTransaccion detalle = new DetalleTransaccion();
+            detalle.setCantidad(cantidad);
+            detalle.setPeso(lote.getPesoNeto());
+            detalle.setPrecioUnitario(linea.getPrecioUnitario());
+            detalle.setSubtotal(cantidad.multiply(linea.getPrecioUnitario()).setScale(2, RoundingMode.HALF_UP));
+            detalle.setCalidad(linea.getCalidad());
+            detalle.setObservaciones(linea.getObservaciones());
+            detalle.setTransaccion(transaccion);
+            detalle.setTipoMaterial(entityManager.getReference(TipoMaterial.class, linea.getTipoMaterialId()));
+            detalle.setLote(entityManager.getReference(Lote.class, lote.getId()));
+            detalle.setFechaCreacion(ahora);
+            detalles.add(detalle);
+
+            pesoTotal = pesoTotal.add(detalle.getPeso());
+            valorTotal = valorTotal.add(detalle.getSubtotal());
+        }
+        transaccion.setPesoTotal(pesoTotal);
+        transaccion.setValorTotal(valorTotal);
+        transaccionRepository.save(transaccion);
+        detalleTrasaccionRepository.saveAll(detalles);
+        ajustarCuentasPorPagar(transaccion, 1);
+
+        // 4. Entradas de inventario: un delta por (bodega, material)
+        List<MovimientoInventarioDTO> entradas = new ArrayList<>(lotes.size());
+        for (LoteResponseDTO lote : lotes) {
+            MovimientoInventarioDTO entrada = new MovimientoInventarioDTO();
+            entrada.setTipoOperacion(TipoOperacion.ENTRADA);
+            entrada.setCantidad(lote.getPesoNeto());
+            entrada.setBodegaId(lote.getBodegaId());
+            entrada.setTipoMaterialId(lote.getTipoMaterialId());
+            entrada.setUsuarioId(usuarioId);
+            entrada.setLoteId(lote.getId());
+            entrada.setReferencia(transaccion.getConsecutivo());
+            entrada.setMotivo(MOTIVO_INGRESO);
+            entradas.add(entrada);
+        }
+        List<MovimientoInventarioDTO> movimientos = inventarioService.aplicarMovimientos(entradas);
+
+        log.info("Ingreso {} registrado: {} líneas, {} kg", transaccion.getConsecutivo(), lineas.size(), pesoTotal);
+        return toDTO(transaccion, detalles, lotes, movimientos);
+    }
+
+    // ============ ESTADO Y CUENTAS POR PAGAR ============
+
+    @Override
+    @Transactional
+    public TransaccionDTO cambiarEstado(Long transaccionId, EstadoTransaccion estado, MetodoPago metodoPago) {
+        if (estado == null) {
+            throw new IllegalArgumentException("Debe indicar el nuevo estado");
+        }
+        Transaccion transaccion = transaccionRepository.findByIdParaActualizar(transaccionId)
+            .orElseThrow(() -> new EntityNotFoundException("Transacción no encontrada: " + transaccionId));
+        if (transaccion.getEstado() == EstadoTransaccion.ANULADA) {
+            throw new TransaccionInvalidaException("La transacción " + transaccion.getConsecutivo() + " está anulada");
+        }
+
+        boolean pendienteAntes = esPendientePago(transaccion);
+        boolean completadaAntes = transaccion.getEstado().esCompletada();
+        Instant ahora = Instant.now();
+        transaccion.setEstado(estado);
+        if (metodoPago != null) {
+            transaccion.setMetodoPago(metodoPago);
+        }
+        if (estado == EstadoTransaccion.PAGADA) {
+            if (transaccion.getMetodoPago() == null) {
+                throw new IllegalArgumentException("Debe indicar el método de pago");
+            }
+            if (transaccion.getFechaPago() == null) {
+                transaccion.setFechaPago(ahora);
+            }
+        }
+        transaccion.setFechaActualizacion(ahora);
+
+        boolean pendienteDespues = esPendientePago(transaccion);
+        if (pendienteAntes != pendienteDespues) {
+            ajustarCuentasPorPagar(transaccion, pendienteDespues ? 1 : -1);
+        }
+        if (completadaAntes != estado.esCompletada()) {
+            ajustarEstadisticasProveedor(transaccion, estado.esCompletada() ? 1 : -1);
+        }
+        return toDTO(transaccion);
+    }
+
+    @Override
+    public List<CuentaPorPagarDTO> getCuentasPorPagar() {
+        LocalDate hoy = LocalDate.now(zonaHoraria);
+        return pendientePagoDiarioRepository.findCuentasPorPagar(hoy.minusDays(30), hoy.minusDays(60), hoy.minusDays(90))
+            .stream()
+            .map(TransaccionServiceImpl::toDTO)
+            .toList();
+    }
+
+    /**
+     * Keyset sobre (fecha, id) ascendente con un registro extra para saber si existe la siguiente página.
+     */
+    @Override
+    public PaginaCursorDTO<TransaccionDTO> getPendientesPago(Long proveedorId, String cursor, int tamaño) {
+        int limite = Math.max(1, Math.min(tamaño, TAMAÑO_MAXIMO_PAGINA));
+        CursorPaginacion posicion = CursorPaginacion.decodificar(cursor, CursorPaginacion.inicialAscendente());
+        List<Transaccion> filas = transaccionRepository.findPaginaPendientesPagoByProveedor(
+            proveedorId, posicion.fecha(), posicion.id(), Limit.of(limite + 1));
+
+        boolean hayMas = filas.size() > limite;
+        List<Transaccion> pagina = hayMas ? filas.subList(0, limite) : filas;
+        String siguiente = null;
+        if (hayMas) {
+            Transaccion ultima = pagina.get(pagina.size() - 1);
+            siguiente = new CursorPaginacion(ultima.getFecha(), ultima.getId()).codificar();
+        }
+        return new PaginaCursorDTO<>(pagina.stream().map(this::toDTO).toList(), siguiente);
+    }
+
+    @Override
+    @Transactional
+    public int reconstruirCuentasPorPagar() {
+        pendientePagoDiarioRepository.bloquearParaReconstruir();
+        pendientePagoDiarioRepository.deleteTodo();
+        int filas = pendientePagoDiarioRepository.reconstruir(zonaHoraria.getId());
+        log.info("Cuentas por pagar reconstruidas: {} filas (proveedor, día)", filas);
+        return filas;
+    }
+
+    /**
+     * Construir el agregado la primera vez (transacciones anteriores a pendiente_pago_diario).
+     */
+    @Transactional
+    @EventListener(ApplicationReadyEvent.class)
+    public void inicializarCuentasPorPagar() {
+        if (pendientePagoDiarioRepository.count() != 0
+                || !transaccionRepository.existsByEstadoAndFechaPagoIsNull(EstadoTransaccion.PENDIENTE)) {
+            return;
+        }
+        // Otro nodo o un ajuste en curso pudo llenarlo entre la consulta y el bloqueo
+        pendientePagoDiarioRepository.bloquearParaReconstruir();
+        if (pendientePagoDiarioRepository.count() == 0) {
+            reconstruirCuentasPorPagar();
+        }
+    }
+
+    private static boolean esPendientePago(Transaccion transaccion) {
+        return transaccion.getEstado() == EstadoTransaccion.PENDIENTE && transaccion.getFechaPago() == null;
+    }
+
+    /**
+     * Sumar (signo 1) o restar (signo -1) una transacción del día de su proveedor.
+     */
+    private void ajustarCuentasPorPagar(Transaccion transaccion, int signo) {
+        Long proveedorId = transaccion.getProveedor().getId();
+        LocalDate dia = LocalDate.ofInstant(transaccion.getFecha(), zonaHoraria);
+        pendientePagoDiarioRepository.acumular(proveedorId, dia, signo,
+            transaccion.getValorTotal().multiply(BigDecimal.valueOf(signo)));
+        if (signo < 0) {
+            pendientePagoDiarioRepository.deleteSiVacio(proveedorId, dia);
+        }
+    }
+
+    /**
+     * Sumar (signo 1) o restar (signo -1) una transacción del mes de su proveedor.
+     */
+    private void ajustarEstadisticasProveedor(Transaccion transaccion, int signo) {
+        BigDecimal factor = BigDecimal.valueOf(signo);
+        estadisticaProveedorMensualRepository.acumular(
+            transaccion.getProveedor().getId(),
+            LocalDate.ofInstant(transaccion.getFecha(), zonaHoraria).withDayOfMonth(1),
+            signo,
+            transaccion.getPesoTotal().multiply(factor),
+            transaccion.getValorTotal().multiply(factor));
+    }
+
+    // ============ UTILIDADES ============
+
+    private TransaccionDTO leerRespuesta(SolicitudIdempotente solicitud) {
+        String clave = solicitud.getId().getClave();
+        if (solicitud.getRespuesta() == null) {
+            throw new IllegalStateException("Clave de idempotencia sin respuesta: " + clave);
+        }
+        try {
+            return objectMapper.readValue(solicitud.getRespuesta(), TransaccionDTO.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Respuesta almacenada inválida para la clave " + clave, e);
+        }
+    }
+
+    /**
+     * SHA-256 del cuerpo tal como lo serializa la aplicación: los reintentos de un
+     * dispositivo envían el mismo documento y producen el mismo hash.
+     */
+    String hashSolicitud(TransaccionDTO documento) {
+        try {
+            byte[] cuerpo = objectMapper.writeValueAsBytes(documento);
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(cuerpo));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("No se pudo serializar el ingreso", e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+
+    private String escribirRespuesta(TransaccionDTO resultado) {
+        try {
+            return objectMapper.writeValueAsString(resultado);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar el ingreso " + resultado.getConsecutivo(), e);
+        }
+    }
+
+    private void validarDocumento(TransaccionDTO documento) {
+        if (documento.getProveedorId() == null || documento.getBodegaId() == null) {
+            throw new IllegalArgumentException("El ingreso debe indicar proveedor y bodega");
+        }
+        if (documento.getDetalles() == null || documento.getDetalles().isEmpty()) {
+            throw new IllegalArgumentException("El ingreso debe tener al menos un detalle");
+        }
+        for (int i = 0; i < documento.getDetalles().size(); i++) {
+            DetalleTransaccionDTO linea = documento.getDetalles().get(i);
+            String posicion = "Detalle " + (i + 1) + ": ";
+            if (linea.getTipoMaterialId() == null || linea.getCalidad() == null) {
+                throw new IllegalArgumentException(posicion + "debe indicar tipo de material y calidad");
+            }
+            if (linea.getPesoBruto() == null || linea.getTara() == null) {
+                throw new IllegalArgumentException(posicion + "debe indicar peso bruto y tara");
+            }
+            if (linea.getPrecioUnitario() == null || linea.getPrecioUnitario().signum() < 0) {
+                throw new IllegalArgumentException(posicion + "el precio unitario no puede ser negativo");
+            }
+            if (linea.getCantidad() != null && linea.getCantidad().signum() <= 0) {
+                throw new IllegalArgumentException(posicion + "la cantidad debe ser positiva");
+            }
+        }
+    }
+
+    private static LoteRequestDTO toLoteRequest(TransaccionDTO documento, DetalleTransaccionDTO linea) {
+        LoteRequestDTO solicitud = new LoteRequestDTO();
+        solicitud.setPesoBruto(linea.getPesoBruto());
+        solicitud.setTara(linea.getTara());
+        solicitud.setOrigen(linea.getOrigen());
+        solicitud.setObservaciones(linea.getObservaciones());
+        solicitud.setCalidad(linea.getCalidad());
+        solicitud.setProveedorId(documento.getProveedorId());
+        solicitud.setTipoMaterialId(linea.getTipoMaterialId());
+        solicitud.setBodegaId(documento.getBodegaId());
+        return solicitud;
+    }
+
+    private static CuentaPorPagarDTO toDTO(CuentaPorPagar cuenta) {
+        CuentaPorPagarDTO dto = new CuentaPorPagarDTO();
+        dto.setProveedorId(cuenta.getProveedorId());
+        dto.setProveedorNombre(cuenta.getProveedorNombres() + " " + cuenta.getProveedorApellidos());
+        dto.setNumeroTransacciones(cuenta.getNumeroTransacciones());
+        dto.setValorPendiente(cuenta.getValorPendiente());
+        dto.setFechaMasAntigua(cuenta.getDiaMasAntiguo());
+        dto.setValorHasta30Dias(cuenta.getValorHasta30Dias());
+        dto.setValor31a60Dias(cuenta.getValor31a60Dias());
+        dto.setValor61a90Dias(cuenta.getValor61a90Dias());
+        dto.setValorMas90Dias(cuenta.getValorMas90Dias());
+        return dto;
+    }
+
+    private TransaccionDTO toDTO(Transaccion transaccion) {
+        TransaccionDTO dto = new TransaccionDTO();
+        dto.setId(transaccion.getId());
+        dto.setConsecutivo(transaccion.getConsecutivo());
+        dto.setFecha(transaccion.getFecha());
+        dto.setPesoTotal(transaccion.getPesoTotal());
+        dto.setValorTotal(transaccion.getValorTotal());
+        dto.setObservaciones(transaccion.getObservaciones());
+        dto.setEstado(transaccion.getEstado());
+        dto.setMetodoPago(transaccion.getMetodoPago());
+        dto.setFechaPago(transaccion.getFechaPago());
+        dto.setProveedorId(transaccion.getProveedor().getId());
+        dto.setBodegaId(transaccion.getBodega().getId());
+        dto.setUsuarioId(transaccion.getUsuario().getId());
+        return dto;
+    }
+
+    private TransaccionDTO toDTO(Transaccion transaccion, List<DetalleTransaccion> detalles,
+                                 List<LoteResponseDTO> lotes, List<MovimientoInventarioDTO> movimientos) {
+        TransaccionDTO dto = toDTO(transaccion);
+
+        List<DetalleTransaccionDTO> detallesDTO = new ArrayList<>(detalles.size());
+        for (int i = 0; i < detalles.size(); i++) {
+            DetalleTransaccion detalle = detalles.get(i);
+            LoteResponseDTO lote = lotes.get(i);
+            DetalleTransaccionDTO detalleDTO = new DetalleTransaccionDTO();
+            detalleDTO.setId(detalle.getId());
+            detalleDTO.setTipoMaterialId(lote.getTipoMaterialId());
+            detalleDTO.setPesoBruto(lote.getPesoBruto());
+            detalleDTO.setTara(lote.getTara());
+            detalleDTO.setPeso(detalle.getPeso());
+            detalleDTO.setCantidad(detalle.getCantidad());
+            detalleDTO.setPrecioUnitario(detalle.getPrecioUnitario());
+            detalleDTO.setSubtotal(detalle.getSubtotal());
+            detalleDTO.setCalidad(detalle.getCalidad());
+            detalleDTO.setOrigen(lote.getOrigen());
+            detalleDTO.setObservaciones(detalle.getObservaciones());
+            detalleDTO.setLoteId(lote.getId());
+            detalleDTO.setLoteCodigo(lote.getCodigo());
+            detalleDTO.setMovimientoId(movimientos.get(i).getId());
+            detallesDTO.add(detalleDTO);
+        }
+        dto.setDetalles(detallesDTO);
+        dto.setCodigosLote(lotes.stream().map(LoteResponseDTO::getCodigo).toList());
+        return dto;
+    }
+
+    /**
+     * Respuesta original de una clave junto con el hash del cuerpo que la produjo.
+     */
+    private record RespuestaIdempotente(String hashSolicitud, TransaccionDTO respuesta) {
+
+        TransaccionDTO para(String hash, String clave) {
+            if (!hashSolicitud.equals(hash)) {
+                throw new ClaveIdempotenciaReutilizadaException(
+                    "La clave de idempotencia " + clave + " ya se usó con un documento distinto");
+            }
+            return respuesta;
+        }
+    }
 }
@@ -1,4 +1,42 @@
 package service.interfaces;
 
+import persistence.entity.EtapaProcesamiento;
+import persistence.projection.StockActualizado;
+
+/**
+ * Servicio de gestión de Alertas.
+ *
+ * Las alertas de stock se evalúan de forma incremental: el motor de stock informa cada
+ * cambio de Inventario.stockActual y solo los cruces de umbral generan o cierran alertas.
+ * Las de merma se evalúan al registrar cada etapa, mientras el lote sigue en la línea.
+ */
 public interface AlertaService {
+
+    /**
+     * Evaluar los umbrales mínimo y máximo de un inventario tras un cambio de stock.
+     * Debe ejecutarse en la misma transacción que actualizó el stock.
+     *
+     * - Cruce por debajo del mínimo: alerta STOCK_BAJO
+     * - Recuperación sobre el mínimo: cierre de la alerta STOCK_BAJO abierta
+     * - Igual para el máximo con STOCK_ALTO (solo si el inventario tiene máximo configurado)
+     */
+    void evaluarUmbralesStock(StockActualizado stock);
+
+    /**
+     * Barrido de consistencia: recorre todos los inventarios y alinea las alertas
+     * abiertas con el estado real del stock.
+     *
+     * @return número de alertas abiertas o cerradas por el barrido
+     */
+    int verificarAlertasStock();
+
+    /**
+     * Evaluar la merma parcial de una etapa recién registrada, en O(1), contra:
+     * - el umbral de merma de su tipo de material (TipoMaterial.umbralMerma)
+     * - las estadísticas de su grupo (tipo de etapa, material, bodega): z-score sobre la media
+     *
+     * Si se excede cualquiera de los dos abre (o repite) una alerta MERMA_ALTA sobre el lote,
+     * con severidad según la desviación. Debe ejecutarse en la transacción que registró la etapa.
+     */
+    void evaluarMerma(EtapaProcesamiento etapa);
 }
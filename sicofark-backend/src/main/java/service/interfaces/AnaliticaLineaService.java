@@ -0,0 +1,52 @@
+package service.interfaces;
+
+import persistence.entity.EtapaProcesamiento;
+import persistence.projection.UltimaEtapaLote;
+import presentation.dto.RendimientoEtapaDTO;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Analítica de la línea de procesamiento.
+ * MÓDULO 2: Control de Material Procesado
+ *
+ * Duración, kg/hora y espera entre etapas consecutivas de un lote, servidas desde agregados
+ * por hora (analitica_linea_hora, histograma_duracion_etapa) que se ajustan con cada etapa.
+ * Los días y turnos se calculan en la zona horaria de operación.
+ */
+public interface AnaliticaLineaService {
+
+    /**
+     * Sumar etapas a los agregados de su hora de inicio, con un upsert por (bodega, etapa, hora)
+     * y por intervalo de duración. Debe ejecutarse en la transacción que registra las etapas.
+     *
+     * Una etapa registrada con fecha pasada pasa a ser la anterior de la etapa que la sigue en su
+     * lote: la espera de esa etapa se recalcula respecto a la nueva en la hora de la siguiente.
+     * La merma acumulada de las etapas siguientes no se recalcula.
+     *
+     * @param etapasVecinas etapas previa y siguiente de cada lote (findUltimasEtapas); los lotes sin etapas no aparecen
+     */
+    void registrarEtapas(List<EtapaProcesamiento> etapas, Map<Long, UltimaEtapaLote> etapasVecinas);
+
+    /**
+     * Rendimiento por tipo de etapa entre dos días (inclusive), de una bodega o de todas,
+     * con el histograma de duraciones.
+     */
+    List<RendimientoEtapaDTO> getRendimiento(Long bodegaId, LocalDate desde, LocalDate hasta);
+
+    /**
+     * Tipos de etapa por bodega y turno ordenados como cuello de botella: mayor espera
+     * promedio antes de la etapa primero (a igual espera, menor kg/hora).
+     */
+    List<RendimientoEtapaDTO> getCuellosBotella(Long bodegaId, LocalDate desde, LocalDate hasta);
+
+    /**
+     * Recalcular los agregados completos desde etapa_procesamiento. Bloquea los agregados:
+     * los registros de etapas concurrentes esperan a que termine.
+     *
+     * @return horas (bodega, tipo de etapa, hora) reconstruidas
+     */
+    int reconstruir();
+}
@@ -0,0 +1,27 @@
+package service.interfaces;
+
+import presentation.dto.AsignacionLoteDTO;
+import presentation.dto.SolicitudAsignacionDTO;
+
+/**
+ * Servicio de asignación FIFO de lotes para salidas de material (ventas y procesamiento).
+ * MÓDULO 1: Control de Material Ingresado
+ * MÓDULO 2: Control de Material Procesado
+ */
+public interface AsignacionLoteService {
+
+    /**
+     * Asignar un peso entre los lotes disponibles de una bodega y material, del más
+     * antiguo al más reciente. En una sola transacción registra una SALIDA por lote
+     * usado y pasa a estadoDestino los lotes que se agotan.
+     *
+     * @throws service.exception.StockInsuficienteException si los lotes disponibles no cubren el peso
+     */
+    AsignacionLoteDTO asignar(SolicitudAsignacionDTO solicitud);
+
+    /**
+     * Descartar la cola en memoria de una bodega y material tras confirmarse la transacción
+     * actual (lotes creados, divididos o modificados fuera de la asignación).
+     */
+    void invalidarCola(Long bodegaId, Long tipoMaterialId);
+}
@@ -1,4 +1,29 @@
 package service.interfaces;
 
+import persistence.projection.DiscrepanciaOcupacion;
+
+import java.util.List;
+
+/**
+ * Servicio de gestión de Bodegas (Centros de Acopio).
+ * MÓDULO 1: Control de Material Ingresado
+ */
 public interface BodegaService {
+
+    /**
+     * Listar bodegas cuya ocupación materializada difiere de la suma de sus inventarios.
+     */
+    List<DiscrepanciaOcupacion> verificarOcupacion();
+
+    /**
+     * Reconstruir la ocupación materializada de las bodegas con discrepancias.
+     *
+     * @return número de bodegas reconstruidas
+     */
+    int reconstruirOcupacion();
+
+    /**
+     * Reconstruir la ocupación materializada de una bodega desde sus inventarios.
+     */
+    void reconstruirOcupacion(Long bodegaId);
 }
@@ -0,0 +1,75 @@
+package service.interfaces;
+
+import persistence.enums.EstadoBodega;
+import presentation.dto.BodegaCatalogoDTO;
+import presentation.dto.EstadisticasCacheDTO;
+import presentation.dto.ProveedorCatalogoDTO;
+import presentation.dto.TipoMaterialCatalogoDTO;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Catálogos de lectura frecuente (tipos de material, bodegas y proveedores) servidos desde
+ * una caché local con tamaño máximo y tiempo de vida.
+ *
+ * Se devuelven copias inmutables, no entidades: sirven para validar y mostrar; para asociar
+ * una entidad se usa EntityManager.getReference con el id de la copia.
+ * Las modificaciones vía JPA invalidan la caché al confirmarse la transacción; en otros
+ * nodos (o con UPDATE masivos) el tiempo de vida acota la desactualización.
+ */
+public interface CatalogoService {
+
+    Optional<TipoMaterialCatalogoDTO> getTipoMaterial(Long id);
+
+    /**
+     * Tipos de material por id; los ids inexistentes no aparecen en el resultado.
+     */
+    Map<Long, TipoMaterialCatalogoDTO> getTiposMaterial(Collection<Long> ids);
+
+    /**
+     * Tipos de material activos ordenados por nombre.
+     */
+    List<TipoMaterialCatalogoDTO> getTiposMaterialActivos();
+
+    Optional<BodegaCatalogoDTO> getBodega(Long id);
+
+    Map<Long, BodegaCatalogoDTO> getBodegas(Collection<Long> ids);
+
+    /**
+     * Bodegas en un estado ordenadas por nombre.
+     */
+    List<BodegaCatalogoDTO> getBodegasPorEstado(EstadoBodega estado);
+
+    Optional<ProveedorCatalogoDTO> getProveedor(Long id);
+
+    Map<Long, ProveedorCatalogoDTO> getProveedores(Collection<Long> ids);
+
+    /**
+     * Proveedores activos ordenados por nombre.
+     */
+    List<ProveedorCatalogoDTO> getProveedoresActivos();
+
+    // ============ INVALIDACIÓN ============
+
+    /**
+     * Descartar un tipo de material (y los listados) al confirmarse la transacción actual.
+     */
+    void invalidarTipoMaterial(Long id);
+
+    void invalidarBodega(Long id);
+
+    void invalidarProveedor(Long id);
+
+    /**
+     * Descartar todos los catálogos de inmediato.
+     */
+    void invalidarTodo();
+
+    /**
+     * Aciertos, fallos y expulsiones por caché.
+     */
+    List<EstadisticasCacheDTO> getEstadisticas();
+}
@@ -0,0 +1,21 @@
+package service.interfaces;
+
+import java.util.List;
+
+/**
+ * Asignación de códigos de negocio únicos: consecutivos de transacción y códigos de lote.
+ * Los números se reservan por bloques (bodega + año) en la base de datos y se entregan
+ * desde memoria; pueden quedar huecos, nunca duplicados, aun con varias instancias.
+ */
+public interface CodigoService {
+
+    /**
+     * Siguiente consecutivo de transacción de una bodega, p. ej. T3-2025-000042.
+     */
+    String siguienteConsecutivo(Long bodegaId);
+
+    /**
+     * Siguientes códigos de lote de una bodega, en orden, p. ej. L3-2025-000107.
+     */
+    List<String> siguientesCodigosLote(Long bodegaId, int cantidad);
+}
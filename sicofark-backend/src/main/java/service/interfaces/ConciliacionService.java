@@ -0,0 +1,37 @@
+package service.interfaces;
+
+import persistence.enums.TipoDiscrepancia;
+import presentation.dto.DiscrepanciaConciliacionDTO;
+import presentation.dto.EjecucionConciliacionDTO;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Conciliación de balance de masa de lotes.
+ * MÓDULO 2: Control de Material Procesado
+ *
+ * Para cada lote no anulado verifica que su peso neto cuadre con la cadena de pesos de sus
+ * etapas de procesamiento, con el peso de sus lotes hijos y con sus movimientos de inventario.
+ * Los descuadres se guardan como reporte de la ejecución (ver TipoDiscrepancia).
+ */
+public interface ConciliacionService {
+
+    /**
+     * Iniciar la conciliación completa en segundo plano y devolver la ejecución recién registrada
+     * (sin fecha de fin); el avance se consulta con getEjecucion.
+     *
+     * @throws IllegalStateException si ya hay una conciliación en curso en esta u otra instancia
+     */
+    EjecucionConciliacionDTO iniciarConciliacion();
+
+    Optional<EjecucionConciliacionDTO> getUltimaEjecucion();
+
+    EjecucionConciliacionDTO getEjecucion(Long ejecucionId);
+
+    /**
+     * Discrepancias de una ejecución en orden de id, a partir de despuesDe (exclusivo).
+     */
+    List<DiscrepanciaConciliacionDTO> getDiscrepancias(Long ejecucionId, TipoDiscrepancia tipo, Long bodegaId,
+                                                       Long despuesDe, int tamaño);
+}
@@ -0,0 +1,43 @@
+package service.interfaces;
+
+import persistence.enums.TipoEtapa;
+import presentation.dto.EstadisticaMermaDTO;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Estadísticas de merma parcial por (tipo de etapa, tipo de material, bodega) actualizadas
+ * con cada etapa registrada: media, desviación estándar y cuantiles p50/p90/p99.
+ *
+ * Se mantienen en memoria y se guardan periódicamente en estadistica_merma_etapa; las lecturas
+ * incluyen lo acumulado por otras instancias hasta su último checkpoint.
+ */
+public interface EstadisticaMermaService {
+
+    /**
+     * Agregar la merma parcial de una etapa. Con transacción activa se aplica al confirmarse.
+     */
+    void registrar(TipoEtapa tipoEtapa, Long tipoMaterialId, Long bodegaId, BigDecimal mermaParcial);
+
+    /**
+     * Estadística de un grupo exacto, en O(1); vacío si aún no tiene etapas.
+     */
+    Optional<EstadisticaMermaDTO> getEstadistica(TipoEtapa tipoEtapa, Long tipoMaterialId, Long bodegaId);
+
+    /**
+     * Estadísticas por grupo, filtradas por los parámetros no nulos.
+     */
+    List<EstadisticaMermaDTO> getEstadisticas(TipoEtapa tipoEtapa, Long tipoMaterialId, Long bodegaId);
+
+    /**
+     * Una estadística por tipo de etapa, fusionando materiales y (si bodegaId es nulo) bodegas.
+     */
+    List<EstadisticaMermaDTO> getResumenPorTipoEtapa(Long bodegaId);
+
+    /**
+     * Fusionar lo acumulado en memoria con las filas guardadas y recargar el total.
+     */
+    void checkpoint();
+}
@@ -1,4 +1,32 @@
 package service.interfaces;
 
+import presentation.dto.CorridaEtapaDTO;
+import presentation.dto.EtapaProcesamientoDTO;
+
+import java.util.List;
+
+/**
+ * Servicio de etapas de procesamiento de lotes.
+ * MÓDULO 2: Control de Material Procesado
+ */
 public interface EtapaProcesamientoService {
+
+    /**
+     * Registrar una etapa de un lote: calcula la merma parcial y la acumulada, pasa el lote
+     * a EN_PROCESO si estaba ACTIVO y actualiza las estadísticas de merma.
+     */
+    EtapaProcesamientoDTO registrarEtapa(EtapaProcesamientoDTO etapa, Long usuarioId);
+
+    /**
+     * Registrar una corrida: la misma etapa, con las mismas fechas, para varios lotes en una
+     * transacción. Si algún lote no es válido no se registra ninguno.
+     *
+     * @return las etapas creadas, en el orden de los lotes de la corrida
+     */
+    List<EtapaProcesamientoDTO> registrarCorrida(CorridaEtapaDTO corrida, Long usuarioId);
+
+    /**
+     * Etapas de un lote en orden cronológico.
+     */
+    List<EtapaProcesamientoDTO> getEtapasPorLote(Long loteId);
 }
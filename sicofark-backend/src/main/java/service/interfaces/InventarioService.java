@@ -1,4 +1,61 @@
 package service.interfaces;
 
+import presentation.dto.EstadisticasMotorStockDTO;
+import presentation.dto.InventarioDTO;
+import presentation.dto.MovimientoInventarioDTO;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Servicio de gestión de Inventarios.
+ * MÓDULO 1: Control de Material Ingresado
+ *
+ * Toda modificación de Inventario.stockActual pasa por el motor de mutación de stock,
+ * que serializa los movimientos por bodega y los confirma en grupos.
+ */
 public interface InventarioService {
+
+    /**
+     * Encolar un movimiento de inventario en el shard de su bodega.
+     * El futuro se completa cuando el grupo que contiene el movimiento se confirma
+     * en la base de datos (o falla con la causa del rechazo).
+     *
+     * @param solicitud bodegaId, tipoMaterialId, tipoOperacion, cantidad y usuarioId son obligatorios
+     * @return movimiento registrado con cantidadAnterior y cantidadNueva calculadas
+     */
+    CompletableFuture<MovimientoInventarioDTO> registrarMovimiento(MovimientoInventarioDTO solicitud);
+
+    /**
+     * Aplicar movimientos de inventario dentro de la transacción del llamador, sin pasar
+     * por la cola del motor. Para operaciones que deben confirmar el stock junto con otros
+     * cambios (asignación de lotes, ingresos). Mismas reglas que el motor: un UPDATE
+     * atómico por inventario, resumen diario y alertas de umbral.
+     *
+     * @return movimientos registrados en el mismo orden que las solicitudes
+     */
+    List<MovimientoInventarioDTO> aplicarMovimientos(List<MovimientoInventarioDTO> solicitudes);
+
+    /**
+     * Obtener métricas de rendimiento del motor de stock (throughput y profundidad de colas).
+     */
+    EstadisticasMotorStockDTO getEstadisticasMotor();
+
+    /**
+     * Reconstruir el stock de un inventario (bodega + tipo material) en un instante pasado.
+     * Parte del snapshot más cercano anterior a la fecha y reproduce solo los movimientos
+     * posteriores a él.
+     *
+     * @return vacío si el inventario no existía en esa fecha
+     */
+    Optional<InventarioDTO> getStockAFecha(Long bodegaId, Long tipoMaterialId, Instant fecha);
+
+    /**
+     * Registrar el snapshot de stock de todos los inventarios en un instante de corte.
+     *
+     * @return número de inventarios registrados (0 si el corte ya existía)
+     */
+    int registrarSnapshot(Instant corte);
 }
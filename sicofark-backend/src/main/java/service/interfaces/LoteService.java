@@ -1,4 +1,85 @@
 package service.interfaces;
 
+import persistence.enums.CalidadMaterial;
+import persistence.enums.EstadoLote;
+import presentation.dto.ImpactoRecallDTO;
+import presentation.dto.LoteRequestDTO;
+import presentation.dto.LoteResponseDTO;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Servicio de gestión de Lotes de Material.
+ * MÓDULO 1: Control de Material Ingresado
+ * MÓDULO 2: Control de Material Procesado
+ *
+ * Toda creación de lotes (ingreso o división) pasa por este servicio, que mantiene
+ * la tabla de clausura de genealogía en la misma transacción.
+ */
 public interface LoteService {
+
+    /**
+     * Registrar un lote. Si indica lotePadreId queda como descendiente de ese lote.
+     */
+    LoteResponseDTO crearLote(LoteRequestDTO solicitud, Long usuarioId);
+
+    /**
+     * Registrar varios lotes en una sola transacción (sincronización de centros de acopio).
+     * Acepta como máximo 1000 solicitudes; las inválidas se rechazan indicando su posición.
+     *
+     * @return lotes creados en el mismo orden que las solicitudes
+     */
+    List<LoteResponseDTO> crearLotes(List<LoteRequestDTO> solicitudes, Long usuarioId);
+
+    /**
+     * Dividir un lote en sublotes con los pesos netos indicados.
+     * La suma no puede superar el saldo del lote (peso neto menos salidas y mermas ya asignadas);
+     * la diferencia se considera merma.
+     * El lote dividido pasa a PROCESADO.
+     */
+    List<LoteResponseDTO> dividirLote(Long loteId, List<BigDecimal> pesosNetos, Long usuarioId);
+
+    // ============ LISTADOS ============
+
+    List<LoteResponseDTO> getLotesPorEstado(EstadoLote estado);
+
+    List<LoteResponseDTO> getLotesPorProveedor(Long proveedorId);
+
+    List<LoteResponseDTO> getLotesPorBodega(Long bodegaId);
+
+    List<LoteResponseDTO> getLotesPorTipoMaterial(Long tipoMaterialId);
+
+    /**
+     * Lotes ACTIVOS de un material en una bodega, en orden FIFO.
+     */
+    List<LoteResponseDTO> getLotesDisponibles(Long bodegaId, Long tipoMaterialId);
+
+    List<LoteResponseDTO> getLotesPorCalidad(CalidadMaterial calidad, EstadoLote estado);
+
+    /**
+     * Hijos directos de un lote (sublotes de una división).
+     */
+    List<LoteResponseDTO> getLotesHijos(Long lotePadreId);
+
+    List<LoteResponseDTO> getLotesPorFechaRegistro(Instant desde, Instant hasta);
+
+    // ============ GENEALOGÍA ============
+
+    /**
+     * Todos los ancestros de un lote, del padre inmediato a la raíz.
+     */
+    List<LoteResponseDTO> getAncestros(Long loteId);
+
+    /**
+     * Todos los descendientes de un lote, por nivel.
+     */
+    List<LoteResponseDTO> getDescendientes(Long loteId);
+
+    /**
+     * Impacto de un recall: el lote, todos sus descendientes y las transacciones
+     * y movimientos de inventario que los referencian.
+     */
+    ImpactoRecallDTO getImpactoRecall(Long loteId);
 }
@@ -1,4 +1,68 @@
 package service.interfaces;
 
+import persistence.enums.TipoOperacion;
+import presentation.dto.MovimientoInventarioDTO;
+import presentation.dto.PaginaCursorDTO;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Servicio de consulta del historial de Movimientos de Inventario.
+ * MÓDULO 1 y 2: Auditoría de inventario
+ *
+ * Todas las consultas de historial son paginadas por keyset (fecha, id) con
+ * cursores opacos; ninguna carga la tabla completa en memoria.
+ */
 public interface MovimientoInventarioService {
+
+    /**
+     * Historial de un inventario (bodega + tipo de material), del más reciente al más antiguo.
+     *
+     * @param cursor token de la página anterior; null para la primera página
+     */
+    PaginaCursorDTO<MovimientoInventarioDTO> getHistorialInventario(Long inventarioId, String cursor, int tamaño);
+
+    /**
+     * Movimientos registrados por un usuario, del más reciente al más antiguo.
+     */
+    PaginaCursorDTO<MovimientoInventarioDTO> getHistorialUsuario(Long usuarioId, String cursor, int tamaño);
+
+    /**
+     * Movimientos de un período, del más reciente al más antiguo.
+     */
+    PaginaCursorDTO<MovimientoInventarioDTO> getMovimientosEnPeriodo(Instant fechaInicio, Instant fechaFin,
+                                                                     String cursor, int tamaño);
+
+    /**
+     * Últimos N movimientos globales.
+     */
+    List<MovimientoInventarioDTO> getMovimientosRecientes(int limite);
+
+    // ============ REPORTES POR PERÍODO (resumen diario) ============
+
+    /**
+     * Suma de entradas de un inventario en [fechaInicio, fechaFin].
+     * Los días completos se leen del resumen diario y solo los extremos de los movimientos.
+     */
+    BigDecimal getSumaEntradas(Long inventarioId, Instant fechaInicio, Instant fechaFin);
+
+    /**
+     * Suma de salidas de un inventario en [fechaInicio, fechaFin].
+     */
+    BigDecimal getSumaSalidas(Long inventarioId, Instant fechaInicio, Instant fechaFin);
+
+    /**
+     * Número de movimientos de un tipo de operación en todos los inventarios en [fechaInicio, fechaFin].
+     */
+    Long contarPorTipoOperacion(TipoOperacion tipoOperacion, Instant fechaInicio, Instant fechaFin);
+
+    /**
+     * Reconstruir el resumen diario de un rango de días (inclusive) desde los movimientos.
+     *
+     * @return número de filas de resumen generadas
+     */
+    int reconstruirResumenDiario(LocalDate diaInicio, LocalDate diaFin);
 }
@@ -0,0 +1,25 @@
+package service.interfaces;
+
+import presentation.dto.VerificacionPodaDTO;
+
+import java.time.Instant;
+
+/**
+ * Servicio de mantenimiento del particionado mensual por fecha
+ * de movimiento_inventario y auditoria.
+ */
+public interface ParticionService {
+
+    /**
+     * Crear las particiones de los próximos meses y separar las que superan la retención.
+     * Las tablas que aún no están particionadas se omiten.
+     */
+    void mantenerParticiones();
+
+    /**
+     * Verificar con EXPLAIN que una consulta por rango de fecha solo lee
+     * las particiones que cubren [fechaInicio, fechaFin).
+     * La poda es efectiva si toda partición del plan es una de las esperadas para el rango.
+     */
+    VerificacionPodaDTO verificarPoda(String tabla, Instant fechaInicio, Instant fechaFin);
+}
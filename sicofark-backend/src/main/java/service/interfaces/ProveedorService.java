@@ -1,4 +1,49 @@
 package service.interfaces;
 
+import persistence.enums.EstadoProveedor;
+import presentation.dto.EstadisticaMensualProveedorDTO;
+import presentation.dto.ProveedorDTO;
+
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Servicio de gestión de Proveedores.
+ * MÓDULO 1: Control de Material Ingresado
+ *
+ * Las estadísticas de compras se leen de estadistica_proveedor_mensual, que se mantiene
+ * al completar o revertir transacciones; ningún listado recorre el historial de transacciones.
+ */
 public interface ProveedorService {
+
+    /**
+     * Proveedores con sus totales históricos de compras, en una sola consulta.
+     *
+     * @param estado opcional: solo proveedores en ese estado
+     */
+    List<ProveedorDTO> getProveedores(EstadoProveedor estado);
+
+    /**
+     * Buscar proveedores por nombres, apellidos o número de documento (autocompletado),
+     * sin distinguir mayúsculas ni acentos y tolerando errores de digitación,
+     * de mayor a menor relevancia.
+     */
+    List<ProveedorDTO> buscar(String texto, int limite);
+
+    /**
+     * Proveedores con más compras (valor) entre dos meses, inclusive.
+     */
+    List<ProveedorDTO> getRanking(YearMonth desde, YearMonth hasta, int limite);
+
+    /**
+     * Compras de un proveedor mes a mes entre dos meses, inclusive (meses sin compras se omiten).
+     */
+    List<EstadisticaMensualProveedorDTO> getEstadisticasMensuales(Long proveedorId, YearMonth desde, YearMonth hasta);
+
+    /**
+     * Recalcular las estadísticas de todos los proveedores desde las transacciones.
+     *
+     * @return número de filas (proveedor, mes) generadas
+     */
+    int reconstruirEstadisticas();
 }
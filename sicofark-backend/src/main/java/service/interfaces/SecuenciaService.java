@@ -0,0 +1,16 @@
+package service.interfaces;
+
+/**
+ * Servicio de mantenimiento de las secuencias de ids con asignación por bloques (pooled).
+ */
+public interface SecuenciaService {
+
+    /**
+     * Adelantar cada secuencia hasta el id máximo de su tabla.
+     * Necesario tras migrar una tabla de IDENTITY a secuencia, o tras inserciones
+     * que no pasaron por la secuencia.
+     *
+     * @return número de secuencias ajustadas
+     */
+    int alinearSecuencias();
+}
@@ -1,4 +1,59 @@
 package service.interfaces;
 
+import persistence.enums.EstadoTransaccion;
+import persistence.enums.MetodoPago;
+import presentation.dto.CuentaPorPagarDTO;
+import presentation.dto.PaginaCursorDTO;
+import presentation.dto.TransaccionDTO;
+
+import java.util.List;
+
+/**
+ * Servicio de gestión de Transacciones (Ingresos de Material).
+ * MÓDULO 1: Control de Material Ingresado
+ */
 public interface TransaccionService {
+
+    /**
+     * Registrar un documento de entrega completo en una sola transacción: la transacción,
+     * sus detalles, un lote por detalle y la entrada de inventario de cada lote.
+     * Todo o nada: cualquier línea inválida aborta el registro.
+     *
+     * Con claveIdempotencia, un reintento de la misma solicitud (en este u otro nodo)
+     * devuelve el resultado original sin volver a registrar el ingreso. La clave es única
+     * por usuario; reutilizarla con un documento distinto lanza
+     * ClaveIdempotenciaReutilizadaException.
+     *
+     * @param claveIdempotencia opcional: clave generada por el dispositivo para la solicitud
+     * @return el documento con consecutivo, ids y códigos de lote asignados
+     */
+    TransaccionDTO registrarIngreso(TransaccionDTO documento, Long usuarioId, String claveIdempotencia);
+
+    /**
+     * Cambiar el estado de una transacción. Al pasar a PAGADA se registra la fecha de pago;
+     * una transacción ANULADA no admite más cambios. Las cuentas por pagar se ajustan en la
+     * misma transacción.
+     *
+     * @param metodoPago opcional salvo al pagar una transacción sin método de pago
+     */
+    TransaccionDTO cambiarEstado(Long transaccionId, EstadoTransaccion estado, MetodoPago metodoPago);
+
+    // ============ CUENTAS POR PAGAR ============
+
+    /**
+     * Deuda pendiente por proveedor con su antigüedad, de mayor a menor valor.
+     */
+    List<CuentaPorPagarDTO> getCuentasPorPagar();
+
+    /**
+     * Transacciones pendientes de pago de un proveedor, de la más antigua a la más reciente.
+     */
+    PaginaCursorDTO<TransaccionDTO> getPendientesPago(Long proveedorId, String cursor, int tamaño);
+
+    /**
+     * Recalcular las cuentas por pagar desde las transacciones.
+     *
+     * @return número de filas (proveedor, día) generadas
+     */
+    int reconstruirCuentasPorPagar();
 }
@@ -0,0 +1,161 @@
+package util;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Caché en memoria acotada por tamaño (LRU) y por tiempo de vida, con contadores de
+ * aciertos, fallos y expulsiones. Pensada para catálogos pequeños que cambian pocas veces
+ * al día: la carga se hace fuera del candado y una carga concurrente de la misma clave
+ * simplemente sobrescribe el valor.
+ *
+ * Cada invalidación avanza la generación de la caché; una carga que empezó antes no se
+ * guarda, porque pudo leer el valor anterior a la modificación que se invalidó.
+ *
+ * IMPORTANTE: La caché es de esta instancia. Las invalidaciones no llegan a las demás, que
+ * siguen sirviendo el valor anterior hasta el tiempo de vida: las comprobaciones que no
+ * admiten ese retraso deben hacerse contra la base, dentro de la transacción que escribe.
+ */
+public class CacheLocal<K, V> {
+
+    private final String nombre;
+    private final int tamañoMaximo;
+    private final long ttlNanos;
+    private final LinkedHashMap<K, Entrada<V>> entradas;
+
+    private final LongAdder aciertos = new LongAdder();
+    private final LongAdder fallos = new LongAdder();
+    private final LongAdder expulsiones = new LongAdder();
+
+    // Protegida por entradas
+    private long generacion;
+
+    public CacheLocal(String nombre, int tamañoMaximo, Duration ttl) {
+        this.nombre = nombre;
+        this.tamañoMaximo = tamañoMaximo;
+        this.ttlNanos = ttl.toNanos();
+        this.entradas = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entrada<V>> eldest) {
+                if (size() > CacheLocal.this.tamañoMaximo) {
+                    expulsiones.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Valor de la clave; si no está o venció, se carga y se guarda.
+     */
+    public V obtener(K clave, Supplier<V> cargar) {
+        V valor = vigente(clave);
+        if (valor != null) {
+            aciertos.increment();
+            return valor;
+        }
+        fallos.increment();
+        long inicio = generacion();
+        valor = cargar.get();
+        guardar(clave, valor, inicio);
+        return valor;
+    }
+
+    /**
+     * Valores de varias claves; las ausentes o vencidas se cargan con una sola llamada.
+     * Las claves que la carga no devuelve no aparecen en el resultado.
+     */
+    public Map<K, V> obtenerTodos(Collection<K> claves, Function<Set<K>, Map<K, V>> cargar) {
+        Map<K, V> resultado = new HashMap<>(claves.size());
+        Set<K> faltantes = new HashSet<>();
+        for (K clave : claves) {
+            V valor = vigente(clave);
+            if (valor != null) {
+                resultado.put(clave, valor);
+            } else {
+                faltantes.add(clave);
+            }
+        }
+        aciertos.add(resultado.size());
+        if (!faltantes.isEmpty()) {
+            fallos.add(faltantes.size());
+            long inicio = generacion();
+            Map<K, V> cargados = cargar.apply(faltantes);
+            cargados.forEach((clave, valor) -> guardar(clave, valor, inicio));
+            resultado.putAll(cargados);
+        }
+        return resultado;
+    }
+
+    public void invalidar(K clave) {
+        synchronized (entradas) {
+            generacion++;
+            entradas.remove(clave);
+        }
+    }
+
+    public void invalidarTodo() {
+        synchronized (entradas) {
+            generacion++;
+            entradas.clear();
+        }
+    }
+
+    public Estadisticas estadisticas() {
+        int tamaño;
+        synchronized (entradas) {
+            tamaño = entradas.size();
+        }
+        return new Estadisticas(nombre, tamaño, aciertos.sum(), fallos.sum(), expulsiones.sum());
+    }
+
+    private V vigente(K clave) {
+        synchronized (entradas) {
+            Entrada<V> entrada = entradas.get(clave);
+            if (entrada == null) {
+                return null;
+            }
+            if (System.nanoTime() - entrada.cargadaNanos() > ttlNanos) {
+                entradas.remove(clave);
+                expulsiones.increment();
+                return null;
+            }
+            return entrada.valor();
+        }
+    }
+
+    private long generacion() {
+        synchronized (entradas) {
+            return generacion;
+        }
+    }
+
+    /**
+     * Guardar un valor cargado si no hubo invalidaciones desde que empezó la carga.
+     */
+    private void guardar(K clave, V valor, long inicio) {
+        if (valor == null) {
+            return;
+        }
+        synchronized (entradas) {
+            if (generacion == inicio) {
+                entradas.put(clave, new Entrada<>(valor, System.nanoTime()));
+            }
+        }
+    }
+
+    private record Entrada<V>(V valor, long cargadaNanos) {
+    }
+
+    public record Estadisticas(String nombre, int tamaño, long aciertos, long fallos, long expulsiones) {
+    }
+}
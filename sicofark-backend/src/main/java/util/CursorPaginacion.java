@@ -0,0 +1,63 @@
+package util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Cursor de paginación por keyset sobre (fecha, id), en orden descendente
+ * (o ascendente partiendo de inicialAscendente()).
+ * Se entrega al cliente como un token opaco (Base64 URL-safe); el cliente solo lo
+ * devuelve para pedir la página siguiente.
+ */
+public record CursorPaginacion(Instant fecha, Long id) {
+
+    /**
+     * Cursor de la primera página: posterior a cualquier registro existente.
+     */
+    public static CursorPaginacion inicial() {
+        return new CursorPaginacion(Instant.parse("9999-12-31T23:59:59Z"), Long.MAX_VALUE);
+    }
+
+    /**
+     * Cursor de la primera página en orden ascendente: anterior a cualquier registro existente.
+     */
+    public static CursorPaginacion inicialAscendente() {
+        return new CursorPaginacion(Instant.EPOCH, 0L);
+    }
+
+    public String codificar() {
+        String valor = fecha.getEpochSecond() + ":" + fecha.getNano() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodificar un token recibido del cliente; null o vacío equivale a la primera página.
+     *
+     * @throws IllegalArgumentException si el token no fue generado por codificar()
+     */
+    public static CursorPaginacion decodificar(String token) {
+        return decodificar(token, inicial());
+    }
+
+    /**
+     * Decodificar un token; null o vacío equivale al cursor inicial indicado.
+     */
+    public static CursorPaginacion decodificar(String token, CursorPaginacion inicial) {
+        if (token == null || token.isBlank()) {
+            return inicial;
+        }
+        try {
+            String valor = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] partes = valor.split(":");
+            if (partes.length != 3) {
+                throw new IllegalArgumentException("Cursor de paginación inválido");
+            }
+            Instant fecha = Instant.ofEpochSecond(Long.parseLong(partes[0]), Long.parseLong(partes[1]));
+            return new CursorPaginacion(fecha, Long.parseLong(partes[2]));
+        } catch (IllegalArgumentException | DateTimeException e) {
+            throw new IllegalArgumentException("Cursor de paginación inválido", e);
+        }
+    }
+}
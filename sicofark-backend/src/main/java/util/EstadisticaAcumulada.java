@@ -0,0 +1,115 @@
+package util;
+
+/**
+ * Conteo, media, varianza (algoritmo de Welford), mínimo, máximo y sketch de cuantiles
+ * de una serie de valores, actualizados en O(1) por valor.
+ *
+ * Dos acumulados se fusionan con la fórmula de Chan et al. para M2 (suma de cuadrados
+ * de las desviaciones), sin volver a recorrer los valores. No es seguro para hilos.
+ */
+public class EstadisticaAcumulada {
+
+    private long conteo;
+    private double media;
+    private double m2;
+    private double minimo = Double.NaN;
+    private double maximo = Double.NaN;
+    private final SketchCuantiles sketch;
+
+    public EstadisticaAcumulada() {
+        this(new SketchCuantiles());
+    }
+
+    private EstadisticaAcumulada(SketchCuantiles sketch) {
+        this.sketch = sketch;
+    }
+
+    /**
+     * Reconstruir un acumulado guardado.
+     */
+    public static EstadisticaAcumulada de(long conteo, double media, double m2,
+                                          double minimo, double maximo, SketchCuantiles sketch) {
+        EstadisticaAcumulada acumulada = new EstadisticaAcumulada(sketch);
+        acumulada.conteo = conteo;
+        acumulada.media = media;
+        acumulada.m2 = m2;
+        acumulada.minimo = conteo == 0 ? Double.NaN : minimo;
+        acumulada.maximo = conteo == 0 ? Double.NaN : maximo;
+        return acumulada;
+    }
+
+    public void agregar(double valor) {
+        conteo++;
+        double delta = valor - media;
+        media += delta / conteo;
+        m2 += delta * (valor - media);
+        minimo = conteo == 1 ? valor : Math.min(minimo, valor);
+        maximo = conteo == 1 ? valor : Math.max(maximo, valor);
+        sketch.agregar(valor);
+    }
+
+    public EstadisticaAcumulada fusionar(EstadisticaAcumulada otra) {
+        if (otra.conteo == 0) {
+            return this;
+        }
+        if (conteo == 0) {
+            media = otra.media;
+            m2 = otra.m2;
+            minimo = otra.minimo;
+            maximo = otra.maximo;
+        } else {
+            long total = conteo + otra.conteo;
+            double delta = otra.media - media;
+            media += delta * otra.conteo / total;
+            m2 += otra.m2 + delta * delta * ((double) conteo * otra.conteo / total);
+            minimo = Math.min(minimo, otra.minimo);
+            maximo = Math.max(maximo, otra.maximo);
+        }
+        conteo += otra.conteo;
+        sketch.fusionar(otra.sketch);
+        return this;
+    }
+
+    public EstadisticaAcumulada copia() {
+        return de(conteo, media, m2, minimo, maximo, sketch.copia());
+    }
+
+    public long getConteo() {
+        return conteo;
+    }
+
+    public double getMedia() {
+        return conteo == 0 ? Double.NaN : media;
+    }
+
+    public double getM2() {
+        return m2;
+    }
+
+    /**
+     * Varianza muestral; 0 con menos de dos valores.
+     */
+    public double getVarianza() {
+        return conteo < 2 ? 0 : m2 / (conteo - 1);
+    }
+
+    public double getDesviacionEstandar() {
+        return Math.sqrt(getVarianza());
+    }
+
+    public double getMinimo() {
+        return minimo;
+    }
+
+    public double getMaximo() {
+        return maximo;
+    }
+
+    public double cuantil(double q) {
+        return sketch.cuantil(q);
+    }
+
+    public SketchCuantiles getSketch() {
+        return sketch;
+    }
+}
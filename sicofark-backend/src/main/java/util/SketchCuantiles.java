@@ -0,0 +1,202 @@
+package util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+
+/**
+ * Sketch de cuantiles con error relativo acotado (esquema DDSketch): cada valor cae en un
+ * cubo logarítmico de razón gamma = (1 + α) / (1 - α), y el cuantil estimado está a menos
+ * de α (relativo) del valor real. Los cubos son contadores, así que dos sketches se
+ * fusionan sumando conteos: el resultado es el mismo que si todos los valores se hubieran
+ * agregado a uno solo (por turno, máquina o agrupación).
+ *
+ * Con α = 1 % y mermas entre 0,01 % y 100 % bastan unos 460 cubos por signo.
+ * No es seguro para hilos.
+ */
+public class SketchCuantiles {
+
+    private static final double PRECISION_RELATIVA = 0.01;
+    private static final double GAMMA = (1 + PRECISION_RELATIVA) / (1 - PRECISION_RELATIVA);
+    private static final double LOG_GAMMA = Math.log(GAMMA);
+    // Por debajo de este valor absoluto se cuenta como cero (la merma se registra con dos decimales)
+    private static final double MINIMO_INDEXABLE = 1e-3;
+    private static final byte VERSION = 1;
+
+    private final Cubos positivos = new Cubos();
+    private final Cubos negativos = new Cubos();
+    private long ceros;
+
+    public void agregar(double valor) {
+        if (valor > MINIMO_INDEXABLE) {
+            positivos.agregar(indice(valor), 1);
+        } else if (valor < -MINIMO_INDEXABLE) {
+            negativos.agregar(indice(-valor), 1);
+        } else {
+            ceros++;
+        }
+    }
+
+    public SketchCuantiles fusionar(SketchCuantiles otro) {
+        positivos.fusionar(otro.positivos);
+        negativos.fusionar(otro.negativos);
+        ceros += otro.ceros;
+        return this;
+    }
+
+    public long getConteo() {
+        return positivos.total() + negativos.total() + ceros;
+    }
+
+    /**
+     * Valor estimado del cuantil q (0 a 1); NaN si el sketch está vacío.
+     */
+    public double cuantil(double q) {
+        if (q < 0 || q > 1) {
+            throw new IllegalArgumentException("El cuantil debe estar entre 0 y 1: " + q);
+        }
+        long conteo = getConteo();
+        if (conteo == 0) {
+            return Double.NaN;
+        }
+        long rango = (long) Math.floor(q * (conteo - 1));
+
+        // Negativos de mayor a menor magnitud, luego ceros, luego positivos de menor a mayor
+        long acumulado = 0;
+        for (int i = negativos.conteos.length - 1; i >= 0; i--) {
+            acumulado += negativos.conteos[i];
+            if (acumulado > rango) {
+                return -valor(i + negativos.desplazamiento);
+            }
+        }
+        acumulado += ceros;
+        if (acumulado > rango) {
+            return 0;
+        }
+        for (int i = 0; i < positivos.conteos.length; i++) {
+            acumulado += positivos.conteos[i];
+            if (acumulado > rango) {
+                return valor(i + positivos.desplazamiento);
+            }
+        }
+        return valor(positivos.desplazamiento + positivos.conteos.length - 1);
+    }
+
+    public SketchCuantiles copia() {
+        return new SketchCuantiles().fusionar(this);
+    }
+
+    // ============ SERIALIZACIÓN ============
+
+    public byte[] serializar() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream salida = new DataOutputStream(bytes)) {
+            salida.writeByte(VERSION);
+            salida.writeLong(ceros);
+            positivos.escribir(salida);
+            negativos.escribir(salida);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    public static SketchCuantiles deserializar(byte[] datos) {
+        SketchCuantiles sketch = new SketchCuantiles();
+        if (datos == null || datos.length == 0) {
+            return sketch;
+        }
+        try (DataInputStream entrada = new DataInputStream(new ByteArrayInputStream(datos))) {
+            byte version = entrada.readByte();
+            if (version != VERSION) {
+                throw new IllegalStateException("Versión de sketch no soportada: " + version);
+            }
+            sketch.ceros = entrada.readLong();
+            sketch.positivos.leer(entrada);
+            sketch.negativos.leer(entrada);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return sketch;
+    }
+
+    // ============ CUBOS ============
+
+    private static int indice(double valorAbsoluto) {
+        return (int) Math.ceil(Math.log(valorAbsoluto) / LOG_GAMMA);
+    }
+
+    /**
+     * Punto medio (relativo) del cubo: el error es a lo sumo α en ambos extremos.
+     */
+    private static double valor(int indice) {
+        return 2 * Math.pow(GAMMA, indice) / (GAMMA + 1);
+    }
+
+    /**
+     * Conteos densos desde el índice "desplazamiento"; el arreglo crece hacia ambos lados.
+     */
+    private static final class Cubos {
+        private long[] conteos = new long[0];
+        private int desplazamiento;
+        private long total;
+
+        void agregar(int indice, long cantidad) {
+            asegurar(indice);
+            conteos[indice - desplazamiento] += cantidad;
+            total += cantidad;
+        }
+
+        void fusionar(Cubos otro) {
+            if (otro.conteos.length == 0) {
+                return;
+            }
+            asegurar(otro.desplazamiento);
+            asegurar(otro.desplazamiento + otro.conteos.length - 1);
+            for (int i = 0; i < otro.conteos.length; i++) {
+                conteos[otro.desplazamiento + i - desplazamiento] += otro.conteos[i];
+            }
+            total += otro.total;
+        }
+
+        long total() {
+            return total;
+        }
+
+        private void asegurar(int indice) {
+            if (conteos.length == 0) {
+                conteos = new long[1];
+                desplazamiento = indice;
+            } else if (indice < desplazamiento) {
+                long[] nuevos = new long[conteos.length + desplazamiento - indice];
+                System.arraycopy(conteos, 0, nuevos, desplazamiento - indice, conteos.length);
+                conteos = nuevos;
+                desplazamiento = indice;
+            } else if (indice >= desplazamiento + conteos.length) {
+                conteos = Arrays.copyOf(conteos, indice - desplazamiento + 1);
+            }
+        }
+
+        void escribir(DataOutputStream salida) throws IOException {
+            salida.writeInt(desplazamiento);
+            salida.writeInt(conteos.length);
+            for (long conteo : conteos) {
+                salida.writeLong(conteo);
+            }
+        }
+
+        void leer(DataInputStream entrada) throws IOException {
+            desplazamiento = entrada.readInt();
+            conteos = new long[entrada.readInt()];
+            total = 0;
+            for (int i = 0; i < conteos.length; i++) {
+                conteos[i] = entrada.readLong();
+                total += conteos[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,60 @@
+-- =====================================================================
+-- Búsqueda de proveedores con índice GIN de trigramas sin acentos
+--
+-- Migración manual (idempotente), con un usuario que pueda crear
+-- extensiones. Mientras no se ejecute, ProveedorServiceImpl usa la
+-- búsqueda LIKE sin índice; al arrancar detecta el índice
+-- idx_proveedor_busqueda_trgm y pasa a la búsqueda por trigramas.
+--
+-- Las extensiones se crean en public. Si ya existían en otro esquema,
+-- CREATE EXTENSION IF NOT EXISTS no las mueve: las funciones toman el
+-- esquema real de pg_extension en lugar de suponer public.
+--
+-- unaccent es STABLE y no puede usarse en un índice; el envoltorio
+-- IMMUTABLE fija el diccionario (calificado con su esquema).
+-- =====================================================================
+
+BEGIN;
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm SCHEMA public;
+CREATE EXTENSION IF NOT EXISTS unaccent SCHEMA public;
+
+DO $$
+DECLARE
+    esquema_unaccent text;
+BEGIN
+    SELECT n.nspname INTO STRICT esquema_unaccent
+    FROM pg_extension x
+    JOIN pg_namespace n ON n.oid = x.extnamespace
+    WHERE x.extname = 'unaccent';
+
+    EXECUTE format(
+        'CREATE OR REPLACE FUNCTION sicofar.normalizar_busqueda(texto text) RETURNS text '
+        'LANGUAGE sql IMMUTABLE PARALLEL SAFE STRICT '
+        'AS $f$ SELECT lower(%1$I.unaccent(%2$L::regdictionary, texto)) $f$',
+        esquema_unaccent, quote_ident(esquema_unaccent) || '.unaccent');
+END
+$$;
+
+CREATE OR REPLACE FUNCTION sicofar.proveedor_texto_busqueda(nombres text, apellidos text, documento text)
+RETURNS text LANGUAGE sql IMMUTABLE PARALLEL SAFE
+AS $$ SELECT sicofar.normalizar_busqueda(
+    coalesce(nombres, '') || ' ' || coalesce(apellidos, '') || ' ' || coalesce(documento, '')) $$;
+
+DO $$
+DECLARE
+    esquema_trgm text;
+BEGIN
+    SELECT n.nspname INTO STRICT esquema_trgm
+    FROM pg_extension x
+    JOIN pg_namespace n ON n.oid = x.extnamespace
+    WHERE x.extname = 'pg_trgm';
+
+    EXECUTE format(
+        'CREATE INDEX IF NOT EXISTS idx_proveedor_busqueda_trgm ON sicofar.proveedor USING gin '
+        '(sicofar.proveedor_texto_busqueda(nombres, apellidos, numero_documento) %I.gin_trgm_ops)',
+        esquema_trgm);
+END
+$$;
+
+COMMIT;
@@ -0,0 +1,126 @@
+-- =====================================================================
+-- Particionado mensual por rango de fecha de movimiento_inventario y auditoria
+--
+-- Migración manual (una sola vez), en ventana de mantenimiento y con la
+-- aplicación detenida. Las tablas originales se conservan como *_legado
+-- para verificación y se eliminan manualmente después.
+--
+--   psql -v zona_horaria=America/Bogota -f particionado_movimiento_auditoria.sql
+--
+-- Convenciones que asume ParticionServiceImpl:
+--   - Particiones mensuales llamadas <tabla>_pAAAA_MM
+--   - Límites de mes en la zona horaria de operación (sicofark.zona-horaria),
+--     recibida como variable zona_horaria de psql
+--   - Partición DEFAULT <tabla>_default para filas fuera de rango
+--
+-- La clave primaria de una tabla particionada debe incluir la columna de
+-- partición, por eso pasa a ser (id, fecha). El id se sigue generando desde
+-- la secuencia pooled de la entidad (<tabla>_seq, incremento 50), la misma
+-- que usa Hibernate: no debe existir una segunda secuencia para la tabla.
+-- Bases migradas con una versión anterior de este script (secuencias
+-- <tabla>_id_seq_part): aplicar secuencias_particionado.sql.
+-- =====================================================================
+
+\if :{?zona_horaria}
+\else
+    \echo 'Falta la variable zona_horaria (psql -v zona_horaria=...)'
+    \quit
+\endif
+
+BEGIN;
+
+-- ============ MOVIMIENTO_INVENTARIO ============
+
+ALTER TABLE sicofar.movimiento_inventario RENAME TO movimiento_inventario_legado;
+ALTER INDEX IF EXISTS sicofar.movimiento_inventario_pkey RENAME TO movimiento_inventario_legado_pkey;
+ALTER INDEX IF EXISTS sicofar.idx_movimiento_inventario_fecha_id RENAME TO idx_movimiento_inventario_fecha_id_legado;
+ALTER INDEX IF EXISTS sicofar.idx_movimiento_usuario_fecha_id RENAME TO idx_movimiento_usuario_fecha_id_legado;
+ALTER INDEX IF EXISTS sicofar.idx_movimiento_fecha_id RENAME TO idx_movimiento_fecha_id_legado;
+
+CREATE TABLE sicofar.movimiento_inventario (
+    LIKE sicofar.movimiento_inventario_legado INCLUDING DEFAULTS INCLUDING CONSTRAINTS
+) PARTITION BY RANGE (fecha);
+
+CREATE SEQUENCE IF NOT EXISTS sicofar.movimiento_inventario_seq INCREMENT BY 50;
+SELECT setval('sicofar.movimiento_inventario_seq',
+              GREATEST(COALESCE((SELECT max(id) FROM sicofar.movimiento_inventario_legado), 0),
+                       (SELECT last_value FROM sicofar.movimiento_inventario_seq)));
+ALTER TABLE sicofar.movimiento_inventario
+    ALTER COLUMN id SET DEFAULT nextval('sicofar.movimiento_inventario_seq');
+
+ALTER TABLE sicofar.movimiento_inventario
+    ADD CONSTRAINT movimiento_inventario_pkey PRIMARY KEY (id, fecha),
+    ADD CONSTRAINT fk_movimiento_inventario_inventario
+        FOREIGN KEY (inventario_id) REFERENCES sicofar.inventario (id) ON DELETE RESTRICT,
+    ADD CONSTRAINT fk_movimiento_inventario_usuario
+        FOREIGN KEY (usuario_id) REFERENCES sicofar.usuario (id) ON DELETE RESTRICT,
+    ADD CONSTRAINT fk_movimiento_inventario_lote
+        FOREIGN KEY (lote_id) REFERENCES sicofar.lote (id) ON DELETE SET NULL;
+
+CREATE INDEX idx_movimiento_inventario_fecha_id ON sicofar.movimiento_inventario (inventario_id, fecha, id);
+CREATE INDEX idx_movimiento_usuario_fecha_id ON sicofar.movimiento_inventario (usuario_id, fecha, id);
+CREATE INDEX idx_movimiento_fecha_id ON sicofar.movimiento_inventario (fecha, id);
+
+-- ============ AUDITORIA ============
+
+ALTER TABLE sicofar.auditoria RENAME TO auditoria_legado;
+ALTER INDEX IF EXISTS sicofar.auditoria_pkey RENAME TO auditoria_legado_pkey;
+ALTER INDEX IF EXISTS sicofar.idx_auditoria_fecha_id RENAME TO idx_auditoria_fecha_id_legado;
+
+CREATE TABLE sicofar.auditoria (
+    LIKE sicofar.auditoria_legado INCLUDING DEFAULTS INCLUDING CONSTRAINTS
+) PARTITION BY RANGE (fecha);
+
+CREATE SEQUENCE IF NOT EXISTS sicofar.auditoria_seq INCREMENT BY 50;
+SELECT setval('sicofar.auditoria_seq',
+              GREATEST(COALESCE((SELECT max(id) FROM sicofar.auditoria_legado), 0),
+                       (SELECT last_value FROM sicofar.auditoria_seq)));
+ALTER TABLE sicofar.auditoria
+    ALTER COLUMN id SET DEFAULT nextval('sicofar.auditoria_seq');
+
+ALTER TABLE sicofar.auditoria
+    ADD CONSTRAINT auditoria_pkey PRIMARY KEY (id, fecha),
+    ADD CONSTRAINT fk_auditoria_usuario
+        FOREIGN KEY (usuario_id) REFERENCES sicofar.usuario (id) ON DELETE RESTRICT;
+
+CREATE INDEX idx_auditoria_fecha_id ON sicofar.auditoria (fecha, id);
+
+-- ============ PARTICIONES ============
+-- Desde el mes del registro más antiguo hasta tres meses después del actual.
+-- A partir de aquí ParticionServiceImpl mantiene las particiones futuras.
+-- La zona debe ser la de sicofark.zona-horaria: define los límites de mes
+-- que ParticionServiceImpl espera al crear y verificar particiones.
+
+CREATE OR REPLACE FUNCTION sicofar.crear_particiones_mensuales(tabla text, desde timestamptz,
+                                                              meses_adelante integer, zona text)
+RETURNS void LANGUAGE plpgsql AS $$
+DECLARE
+    mes date := date_trunc('month', desde AT TIME ZONE zona)::date;
+    fin date := (date_trunc('month', now() AT TIME ZONE zona) + make_interval(months => meses_adelante))::date;
+BEGIN
+    WHILE mes <= fin LOOP
+        EXECUTE format('CREATE TABLE IF NOT EXISTS sicofar.%I PARTITION OF sicofar.%I FOR VALUES FROM (%L) TO (%L)',
+                       tabla || to_char(mes, '"_p"YYYY_MM'), tabla,
+                       mes::timestamp AT TIME ZONE zona,
+                       (mes + interval '1 month')::timestamp AT TIME ZONE zona);
+        mes := (mes + interval '1 month')::date;
+    END LOOP;
+END $$;
+
+SELECT sicofar.crear_particiones_mensuales('movimiento_inventario',
+           COALESCE((SELECT min(fecha) FROM sicofar.movimiento_inventario_legado), now()), 3, :'zona_horaria');
+SELECT sicofar.crear_particiones_mensuales('auditoria',
+           COALESCE((SELECT min(fecha) FROM sicofar.auditoria_legado), now()), 3, :'zona_horaria');
+
+CREATE TABLE sicofar.movimiento_inventario_default PARTITION OF sicofar.movimiento_inventario DEFAULT;
+CREATE TABLE sicofar.auditoria_default PARTITION OF sicofar.auditoria DEFAULT;
+
+-- ============ COPIA DE DATOS ============
+
+INSERT INTO sicofar.movimiento_inventario SELECT * FROM sicofar.movimiento_inventario_legado;
+INSERT INTO sicofar.auditoria SELECT * FROM sicofar.auditoria_legado;
+
+ANALYZE sicofar.movimiento_inventario;
+ANALYZE sicofar.auditoria;
+
+COMMIT;
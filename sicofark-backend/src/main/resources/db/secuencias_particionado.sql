@@ -0,0 +1,33 @@
+-- =====================================================================
+-- Unificar la secuencia de ids de movimiento_inventario y auditoria
+--
+-- Solo para bases particionadas con la versión anterior de
+-- particionado_movimiento_auditoria.sql. Esa versión dejaba como default
+-- del id una secuencia propia (<tabla>_id_seq_part), independiente de la
+-- secuencia pooled de la entidad (<tabla>_seq) con la que inserta
+-- Hibernate. Idempotente.
+-- =====================================================================
+
+BEGIN;
+
+-- ============ MOVIMIENTO_INVENTARIO ============
+
+CREATE SEQUENCE IF NOT EXISTS sicofar.movimiento_inventario_seq INCREMENT BY 50;
+SELECT setval('sicofar.movimiento_inventario_seq',
+              GREATEST(COALESCE((SELECT max(id) FROM sicofar.movimiento_inventario), 0),
+                       (SELECT last_value FROM sicofar.movimiento_inventario_seq)));
+ALTER TABLE sicofar.movimiento_inventario
+    ALTER COLUMN id SET DEFAULT nextval('sicofar.movimiento_inventario_seq');
+DROP SEQUENCE IF EXISTS sicofar.movimiento_inventario_id_seq_part;
+
+-- ============ AUDITORIA ============
+
+CREATE SEQUENCE IF NOT EXISTS sicofar.auditoria_seq INCREMENT BY 50;
+SELECT setval('sicofar.auditoria_seq',
+              GREATEST(COALESCE((SELECT max(id) FROM sicofar.auditoria), 0),
+                       (SELECT last_value FROM sicofar.auditoria_seq)));
+ALTER TABLE sicofar.auditoria
+    ALTER COLUMN id SET DEFAULT nextval('sicofar.auditoria_seq');
+DROP SEQUENCE IF EXISTS sicofar.auditoria_id_seq_part;
+
+COMMIT;
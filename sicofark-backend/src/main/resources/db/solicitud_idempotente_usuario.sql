@@ -0,0 +1,21 @@
+-- =====================================================================
+-- Claves de idempotencia por usuario y con hash del cuerpo
+--
+-- Migración manual (una sola vez), antes de desplegar la versión que
+-- reclama las claves por (usuario_id, clave). Las claves existentes no
+-- tienen hash del cuerpo con qué comparar los reintentos; se descartan
+-- (los dispositivos solo reintentan dentro de la retención de 72 h).
+-- =====================================================================
+
+BEGIN;
+
+DELETE FROM sicofar.solicitud_idempotente;
+
+ALTER TABLE sicofar.solicitud_idempotente
+    ADD COLUMN IF NOT EXISTS hash_solicitud varchar(64) NOT NULL;
+
+ALTER TABLE sicofar.solicitud_idempotente DROP CONSTRAINT solicitud_idempotente_pkey;
+ALTER TABLE sicofar.solicitud_idempotente
+    ADD CONSTRAINT solicitud_idempotente_pkey PRIMARY KEY (usuario_id, clave);
+
+COMMIT;
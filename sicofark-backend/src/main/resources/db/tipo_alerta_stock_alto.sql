@@ -0,0 +1,23 @@
+-- =====================================================================
+-- Tipo de alerta STOCK_ALTO para el stock sobre el máximo del inventario
+--
+-- Migración manual (una sola vez), antes de desplegar la versión que usa
+-- TipoAlerta.STOCK_ALTO. Hasta ahora esas alertas se registraban como
+-- SISTEMA sobre la entidad INVENTARIO; se reclasifican para que el barrido
+-- de AlertaServiceImpl no toque otras alertas SISTEMA.
+--
+-- ALTER TYPE ... ADD VALUE no puede usarse en la misma transacción que lo
+-- agrega, por eso va fuera del bloque BEGIN/COMMIT.
+-- =====================================================================
+
+ALTER TYPE sicofar.tipo_alerta ADD VALUE IF NOT EXISTS 'STOCK_ALTO' AFTER 'STOCK_BAJO';
+
+BEGIN;
+
+UPDATE sicofar.alerta
+SET tipo = 'STOCK_ALTO'
+WHERE tipo = 'SISTEMA'
+  AND entidad_tipo = 'INVENTARIO'
+  AND titulo = 'Stock sobre máximo';
+
+COMMIT;
@@ -0,0 +1,176 @@
+package persistence;
+
+import com.sicofark.sicofark_backend.SicofarkBackendApplication;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.ClassOrderer;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestClassOrder;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import persistence.entity.DetalleTransaccion;
+import persistence.entity.MovimientoInventario;
+import persistence.enums.CalidadMaterial;
+import presentation.dto.DetalleTransaccionDTO;
+import presentation.dto.TransaccionDTO;
+import service.interfaces.TransaccionService;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Benchmark del registro de ingresos (TransaccionService.registrarIngreso) con ids IDENTITY
+ * frente a la secuencia pooled de DetalleTransaccion y MovimientoInventario.
+ * La variante IDENTITY reemplaza el @GeneratedValue de ambas entidades con
+ * META-INF/orm-identity.xml: un INSERT ... RETURNING por fila, sin batching.
+ *
+ * Cada variante verifica las inserciones contadas por las estadísticas de Hibernate
+ * (un detalle y un movimiento por línea) y la pooled, que corre después, que prepara
+ * menos sentencias por ingreso que IDENTITY. Los tiempos solo se registran en el log.
+ * Excluido de mvn test por su etiqueta (propiedad pruebas.excluidas del pom).
+ *
+ * Requiere una base PostgreSQL de pruebas con un usuario, un proveedor ACTIVO, una bodega
+ * con capacidad suficiente y un tipo de material; los ingresos quedan registrados.
+ *
+ *   DATABASE_URL=... SICOFARK_BENCHMARK_USUARIO_ID=1 SICOFARK_BENCHMARK_PROVEEDOR_ID=1 \
+ *   SICOFARK_BENCHMARK_BODEGA_ID=1 SICOFARK_BENCHMARK_TIPO_MATERIAL_ID=1 \
+ *   mvn test -Dgroups=benchmark -Dpruebas.excluidas=
+ */
+@Slf4j
+@Tag("benchmark")
+@EnabledIfEnvironmentVariable(named = "DATABASE_URL", matches = ".+")
+@EnabledIfEnvironmentVariable(named = "SICOFARK_BENCHMARK_BODEGA_ID", matches = "\\d+")
+@SpringBootTest(classes = SicofarkBackendApplication.class,
+    properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@TestClassOrder(ClassOrderer.OrderAnnotation.class)
+class GeneracionIdsBenchmarkTest {
+
+    private static final int CALENTAMIENTO = 100;
+    private static final int LINEAS = 5;
+
+    // Sentencias preparadas por ingreso con IDENTITY, para comparar con la variante pooled
+    private static Double sentenciasPorIngresoIdentity;
+
+    @Nested
+    @Order(1)
+    @TestPropertySource(properties = "spring.jpa.mapping-resources=META-INF/orm-identity.xml")
+    class ConIdentity extends Medicion {
+
+        /**
+         * La secuencia propia de la columna (la del default IDENTITY) no se usa desde el
+         * cambio a pooled; se adelanta para no chocar con los ids ya asignados.
+         */
+        @Override
+        void preparar(JdbcTemplate jdbcTemplate) {
+            for (String tabla : List.of("sicofar.detalle_transaccion", "sicofar.movimiento_inventario")) {
+                jdbcTemplate.queryForObject("SELECT setval(pg_get_serial_sequence(?, 'id'), " +
+                    "(SELECT COALESCE(MAX(id), 0) + 1 FROM " + tabla + "), false)", Long.class, tabla);
+            }
+        }
+
+        @Override
+        void verificar(double sentenciasPorIngreso) {
+            // Un INSERT por fila como mínimo
+            assertTrue(sentenciasPorIngreso >= 2 * LINEAS,
+                "IDENTITY preparó " + sentenciasPorIngreso + " sentencias por ingreso");
+            sentenciasPorIngresoIdentity = sentenciasPorIngreso;
+        }
+    }
+
+    @Nested
+    @Order(2)
+    class ConSecuenciaPooled extends Medicion {
+
+        @Override
+        void verificar(double sentenciasPorIngreso) {
+            if (sentenciasPorIngresoIdentity != null) {
+                assertTrue(sentenciasPorIngreso < sentenciasPorIngresoIdentity,
+                    "pooled preparó " + sentenciasPorIngreso + " sentencias por ingreso, IDENTITY " +
+                    sentenciasPorIngresoIdentity);
+            }
+        }
+    }
+
+    abstract static class Medicion {
+
+        @Autowired
+        private TransaccionService transaccionService;
+
+        @Autowired
+        private EntityManagerFactory entityManagerFactory;
+
+        @Autowired
+        private JdbcTemplate jdbcTemplate;
+
+        void preparar(JdbcTemplate jdbcTemplate) {
+        }
+
+        abstract void verificar(double sentenciasPorIngreso);
+
+        @Test
+        void registrarIngresos() {
+            int ingresos = Integer.parseInt(System.getenv().getOrDefault("SICOFARK_BENCHMARK_INGRESOS", "2000"));
+            Statistics estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+            preparar(jdbcTemplate);
+            registrar(CALENTAMIENTO);
+            estadisticas.clear();
+
+            long inicio = System.nanoTime();
+            registrar(ingresos);
+            double segundos = (System.nanoTime() - inicio) / 1_000_000_000.0;
+
+            long detalles = estadisticas.getEntityStatistics(DetalleTransaccion.class.getName()).getInsertCount();
+            long movimientos = estadisticas.getEntityStatistics(MovimientoInventario.class.getName()).getInsertCount();
+            double sentenciasPorIngreso = (double) estadisticas.getPrepareStatementCount() / ingresos;
+            log.info("{}: {} ingresos en {} s, {} inserts de detalle y movimiento/s, {} sentencias preparadas por ingreso",
+                getClass().getSimpleName(), ingresos, String.format("%.2f", segundos),
+                String.format("%.0f", (detalles + movimientos) / segundos), String.format("%.1f", sentenciasPorIngreso));
+
+            assertEquals((long) ingresos * LINEAS, detalles);
+            assertEquals((long) ingresos * LINEAS, movimientos);
+            verificar(sentenciasPorIngreso);
+        }
+
+        private void registrar(int ingresos) {
+            Long usuarioId = Long.valueOf(System.getenv().getOrDefault("SICOFARK_BENCHMARK_USUARIO_ID", "1"));
+            for (int i = 0; i < ingresos; i++) {
+                transaccionService.registrarIngreso(documento(), usuarioId, null);
+            }
+        }
+
+        private static TransaccionDTO documento() {
+            Long tipoMaterialId = Long.valueOf(System.getenv().getOrDefault("SICOFARK_BENCHMARK_TIPO_MATERIAL_ID", "1"));
+            List<DetalleTransaccionDTO> lineas = new ArrayList<>(LINEAS);
+            for (int i = 0; i < LINEAS; i++) {
+                DetalleTransaccionDTO linea = new DetalleTransaccionDTO();
+                linea.setTipoMaterialId(tipoMaterialId);
+                linea.setPesoBruto(new BigDecimal("1.50"));
+                linea.setTara(new BigDecimal("0.50"));
+                linea.setPrecioUnitario(BigDecimal.ONE);
+                linea.setCalidad(CalidadMaterial.BUENA);
+                linea.setOrigen("Benchmark de ids");
+                lineas.add(linea);
+            }
+
+            TransaccionDTO documento = new TransaccionDTO();
+            documento.setProveedorId(Long.valueOf(System.getenv().getOrDefault("SICOFARK_BENCHMARK_PROVEEDOR_ID", "1")));
+            documento.setBodegaId(Long.valueOf(System.getenv("SICOFARK_BENCHMARK_BODEGA_ID")));
+            documento.setObservaciones("Benchmark de ids");
+            documento.setDetalles(lineas);
+            return documento;
+        }
+    }
+}
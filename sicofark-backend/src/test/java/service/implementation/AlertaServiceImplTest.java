@@ -0,0 +1,151 @@
+package service.implementation;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import persistence.entity.Alerta;
+import persistence.entity.Bodega;
+import persistence.entity.EtapaProcesamiento;
+import persistence.entity.Lote;
+import persistence.entity.TipoMaterial;
+import persistence.enums.SeveridadAlerta;
+import persistence.enums.TipoAlerta;
+import persistence.enums.TipoEtapa;
+import persistence.repository.AlertaRepository;
+import presentation.dto.EstadisticaMermaDTO;
+import presentation.dto.TipoMaterialCatalogoDTO;
+import service.interfaces.CatalogoService;
+import service.interfaces.EstadisticaMermaService;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AlertaServiceImplTest {
+
+    @Mock
+    private AlertaRepository alertaRepository;
+
+    @Mock
+    private CatalogoService catalogoService;
+
+    @Mock
+    private EstadisticaMermaService estadisticaMermaService;
+
+    @InjectMocks
+    private AlertaServiceImpl alertaService;
+
+    @BeforeEach
+    void configurar() {
+        ReflectionTestUtils.setField(alertaService, "zUmbral", 3.0);
+        ReflectionTestUtils.setField(alertaService, "minimoMuestras", 30L);
+    }
+
+    @Test
+    void severidadPorRazonSobreElUmbral() {
+        assertNull(AlertaServiceImpl.severidadPorRazon(0.5));
+        assertNull(AlertaServiceImpl.severidadPorRazon(1.0));
+        assertEquals(SeveridadAlerta.MEDIA, AlertaServiceImpl.severidadPorRazon(1.01));
+        assertEquals(SeveridadAlerta.ALTA, AlertaServiceImpl.severidadPorRazon(1.5));
+        assertEquals(SeveridadAlerta.ALTA, AlertaServiceImpl.severidadPorRazon(1.99));
+        assertEquals(SeveridadAlerta.CRITICA, AlertaServiceImpl.severidadPorRazon(2.0));
+    }
+
+    @Test
+    void severidadPorZEnMultiplosDelUmbral() {
+        assertNull(alertaService.severidadPorZ(-10));
+        assertNull(alertaService.severidadPorZ(2.99));
+        assertEquals(SeveridadAlerta.MEDIA, alertaService.severidadPorZ(3.0));
+        assertEquals(SeveridadAlerta.ALTA, alertaService.severidadPorZ(4.5));
+        assertEquals(SeveridadAlerta.CRITICA, alertaService.severidadPorZ(6.0));
+    }
+
+    @Test
+    void mayorIgnoraNulos() {
+        assertNull(AlertaServiceImpl.mayor(null, null));
+        assertEquals(SeveridadAlerta.MEDIA, AlertaServiceImpl.mayor(null, SeveridadAlerta.MEDIA));
+        assertEquals(SeveridadAlerta.ALTA, AlertaServiceImpl.mayor(SeveridadAlerta.ALTA, null));
+        assertEquals(SeveridadAlerta.CRITICA, AlertaServiceImpl.mayor(SeveridadAlerta.MEDIA, SeveridadAlerta.CRITICA));
+    }
+
+    @Test
+    void mermaBajoUmbralYDentroDelGrupoNoAlerta() {
+        when(catalogoService.getTipoMaterial(2L)).thenReturn(Optional.of(tipoMaterial("5.00")));
+        when(estadisticaMermaService.getEstadistica(TipoEtapa.LAVADO, 2L, 1L)).thenReturn(Optional.of(estadistica(100, 4, 1)));
+
+        alertaService.evaluarMerma(etapa("4.50"));
+
+        verify(alertaRepository, never()).save(any());
+    }
+
+    @Test
+    void mermaAtipicaEnSuGrupoAlertaAunqueNoSupereElUmbral() {
+        when(catalogoService.getTipoMaterial(2L)).thenReturn(Optional.of(tipoMaterial("10.00")));
+        when(estadisticaMermaService.getEstadistica(TipoEtapa.LAVADO, 2L, 1L)).thenReturn(Optional.of(estadistica(100, 4, 1)));
+        when(alertaRepository.findAbierta(TipoAlerta.MERMA_ALTA, AlertaServiceImpl.ENTIDAD_LOTE, 7L)).thenReturn(Optional.empty());
+
+        // z = (9 - 4) / 1 = 5: 1,5 veces el umbral de z
+        alertaService.evaluarMerma(etapa("9.00"));
+
+        ArgumentCaptor<Alerta> alerta = ArgumentCaptor.forClass(Alerta.class);
+        verify(alertaRepository).save(alerta.capture());
+        assertEquals(TipoAlerta.MERMA_ALTA, alerta.getValue().getTipo());
+        assertEquals(SeveridadAlerta.ALTA, alerta.getValue().getSeveridad());
+    }
+
+    @Test
+    void grupoConPocasMuestrasSoloUsaElUmbral() {
+        when(catalogoService.getTipoMaterial(2L)).thenReturn(Optional.of(tipoMaterial("4.00")));
+        when(estadisticaMermaService.getEstadistica(TipoEtapa.LAVADO, 2L, 1L)).thenReturn(Optional.of(estadistica(10, 1, 0.1)));
+        when(alertaRepository.findAbierta(TipoAlerta.MERMA_ALTA, AlertaServiceImpl.ENTIDAD_LOTE, 7L)).thenReturn(Optional.empty());
+
+        // Razón 9 / 4 = 2,25 (crítica); el z enorme del grupo se ignora por falta de muestras
+        alertaService.evaluarMerma(etapa("9.00"));
+
+        ArgumentCaptor<Alerta> alerta = ArgumentCaptor.forClass(Alerta.class);
+        verify(alertaRepository).save(alerta.capture());
+        assertEquals(SeveridadAlerta.CRITICA, alerta.getValue().getSeveridad());
+    }
+
+    private static TipoMaterialCatalogoDTO tipoMaterial(String umbralMerma) {
+        return new TipoMaterialCatalogoDTO(2L, "PET", null, null, null, null, null, new BigDecimal(umbralMerma), true);
+    }
+
+    private static EstadisticaMermaDTO estadistica(long conteo, double media, double desviacionEstandar) {
+        EstadisticaMermaDTO estadistica = new EstadisticaMermaDTO();
+        estadistica.setConteo(conteo);
+        estadistica.setMedia(media);
+        estadistica.setDesviacionEstandar(desviacionEstandar);
+        return estadistica;
+    }
+
+    private static EtapaProcesamiento etapa(String mermaParcial) {
+        TipoMaterial tipoMaterial = new TipoMaterial();
+        tipoMaterial.setId(2L);
+        Bodega bodega = new Bodega();
+        bodega.setId(1L);
+        Lote lote = new Lote();
+        lote.setId(7L);
+        lote.setCodigo("L1-2026-000007");
+        lote.setTipoMaterial(tipoMaterial);
+        lote.setBodega(bodega);
+
+        EtapaProcesamiento etapa = new EtapaProcesamiento();
+        etapa.setLote(lote);
+        etapa.setTipoEtapa(TipoEtapa.LAVADO);
+        etapa.setMermaParcial(new BigDecimal(mermaParcial));
+        return etapa;
+    }
+}
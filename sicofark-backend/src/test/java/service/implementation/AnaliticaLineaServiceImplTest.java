@@ -0,0 +1,178 @@
+package service.implementation;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import persistence.entity.Bodega;
+import persistence.entity.EtapaProcesamiento;
+import persistence.entity.Lote;
+import persistence.enums.TipoEtapa;
+import persistence.projection.UltimaEtapaLote;
+import persistence.repository.AnaliticaLineaHoraRepository;
+import persistence.repository.EtapaProcesamientoRepository;
+import persistence.repository.HistogramaDuracionEtapaRepository;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AnaliticaLineaServiceImplTest {
+
+    private static final ZoneId ZONA = ZoneId.of("America/Bogota");
+    private static final LocalDateTime DIA = LocalDateTime.of(2026, 3, 10, 0, 0);
+
+    @Mock
+    private AnaliticaLineaHoraRepository analiticaLineaHoraRepository;
+
+    @Mock
+    private HistogramaDuracionEtapaRepository histogramaDuracionEtapaRepository;
+
+    @Mock
+    private EtapaProcesamientoRepository etapaProcesamientoRepository;
+
+    @InjectMocks
+    private AnaliticaLineaServiceImpl analiticaLineaService;
+
+    @BeforeEach
+    void configurar() {
+        ReflectionTestUtils.setField(analiticaLineaService, "zonaHoraria", ZONA);
+        ReflectionTestUtils.setField(analiticaLineaService, "turnos", "22:00, 06:00,14:00");
+        analiticaLineaService.iniciar();
+    }
+
+    @Test
+    void cuboSegunLimitesDelHistograma() {
+        assertEquals(0, AnaliticaLineaServiceImpl.cubo(0));
+        assertEquals(0, AnaliticaLineaServiceImpl.cubo(4.99));
+        assertEquals(1, AnaliticaLineaServiceImpl.cubo(5));
+        assertEquals(3, AnaliticaLineaServiceImpl.cubo(59.9));
+        assertEquals(6, AnaliticaLineaServiceImpl.cubo(479));
+        assertEquals(7, AnaliticaLineaServiceImpl.cubo(480));
+        assertEquals(7, AnaliticaLineaServiceImpl.cubo(10_000));
+    }
+
+    @Test
+    void turnoEsElUltimoQueEmpezo() {
+        assertEquals(0, analiticaLineaService.turno(LocalTime.of(6, 0)));
+        assertEquals(0, analiticaLineaService.turno(LocalTime.of(13, 59)));
+        assertEquals(1, analiticaLineaService.turno(LocalTime.of(14, 0)));
+        assertEquals(2, analiticaLineaService.turno(LocalTime.of(23, 0)));
+        // Antes del primer turno del día sigue el último del día anterior
+        assertEquals(2, analiticaLineaService.turno(LocalTime.of(3, 0)));
+    }
+
+    @Test
+    void etapaConAnteriorSumaSuEspera() {
+        EtapaProcesamiento etapa = etapa(TipoEtapa.LAVADO, hora(10, 0), hora(10, 30));
+        UltimaEtapaLote vecinas = vecinas(hora(9, 45), null, null);
+
+        analiticaLineaService.registrarEtapas(List.of(etapa), Map.of(7L, vecinas));
+
+        verify(analiticaLineaHoraRepository).acumular(1L, "LAVADO", DIA.withHour(10), 1, 1800,
+            new BigDecimal("100"), new BigDecimal("90"), 1, 900);
+        verify(histogramaDuracionEtapaRepository).acumular(1L, "LAVADO", DIA.withHour(10), (short) 3, 1L);
+    }
+
+    @Test
+    void etapaConFechaPasadaCorrigeLaEsperaDeLaSiguiente() {
+        // Existían RECEPCION (fin 08:00) y SECADO (inicio 12:00, esperaba 4 h); LAVADO se registra en medio
+        EtapaProcesamiento etapa = etapa(TipoEtapa.LAVADO, hora(9, 0), hora(11, 0));
+        UltimaEtapaLote vecinas = vecinas(hora(8, 0), hora(12, 0), "SECADO");
+
+        analiticaLineaService.registrarEtapas(List.of(etapa), Map.of(7L, vecinas));
+
+        verify(analiticaLineaHoraRepository).acumular(1L, "LAVADO", DIA.withHour(9), 1, 7200,
+            new BigDecimal("100"), new BigDecimal("90"), 1, 3600);
+        // SECADO: misma cantidad de esperas, 4 h menos 1 h
+        verify(analiticaLineaHoraRepository).acumular(1L, "SECADO", DIA.withHour(12), 0, 0,
+            BigDecimal.ZERO, BigDecimal.ZERO, 0, 3600 - 14400);
+    }
+
+    @Test
+    void etapaConFechaPasadaSinAnteriorAgregaLaEsperaDeLaSiguiente() {
+        EtapaProcesamiento etapa = etapa(TipoEtapa.RECEPCION, hora(7, 0), hora(8, 0));
+        UltimaEtapaLote vecinas = vecinas(null, hora(8, 30), "LAVADO");
+
+        analiticaLineaService.registrarEtapas(List.of(etapa), Map.of(7L, vecinas));
+
+        verify(analiticaLineaHoraRepository).acumular(1L, "RECEPCION", DIA.withHour(7), 1, 3600,
+            new BigDecimal("100"), new BigDecimal("90"), 0, 0);
+        verify(analiticaLineaHoraRepository).acumular(1L, "LAVADO", DIA.withHour(8), 0, 0,
+            BigDecimal.ZERO, BigDecimal.ZERO, 1, 1800);
+    }
+
+    @Test
+    void etapaSinVecinasNoTocaOtrasHoras() {
+        analiticaLineaService.registrarEtapas(List.of(etapa(TipoEtapa.LAVADO, hora(10, 0), hora(10, 2))), Map.of());
+
+        verify(analiticaLineaHoraRepository).acumular(eq(1L), eq("LAVADO"), eq(DIA.withHour(10)), eq(1L), eq(120L),
+            any(), any(), eq(0L), eq(0L));
+        verify(analiticaLineaHoraRepository, never()).acumular(anyLong(), eq("SECADO"), any(), anyLong(), anyLong(),
+            any(), any(), anyLong(), anyLong());
+    }
+
+    @Test
+    void reconstruirBloqueaAntesDeBorrar() {
+        when(analiticaLineaHoraRepository.reconstruir(anyString())).thenReturn(3);
+
+        assertEquals(3, analiticaLineaService.reconstruir());
+
+        InOrder orden = inOrder(analiticaLineaHoraRepository, histogramaDuracionEtapaRepository);
+        orden.verify(analiticaLineaHoraRepository).bloquearParaReconstruir();
+        orden.verify(analiticaLineaHoraRepository).deleteTodo();
+        orden.verify(histogramaDuracionEtapaRepository).deleteTodo();
+        orden.verify(analiticaLineaHoraRepository).reconstruir(ZONA.getId());
+    }
+
+    private static Instant hora(int hora, int minuto) {
+        return DIA.withHour(hora).withMinute(minuto).atZone(ZONA).toInstant();
+    }
+
+    private static EtapaProcesamiento etapa(TipoEtapa tipoEtapa, Instant inicio, Instant fin) {
+        Bodega bodega = new Bodega();
+        bodega.setId(1L);
+        Lote lote = new Lote();
+        lote.setId(7L);
+        lote.setBodega(bodega);
+
+        EtapaProcesamiento etapa = new EtapaProcesamiento();
+        etapa.setLote(lote);
+        etapa.setTipoEtapa(tipoEtapa);
+        etapa.setFechaInicio(inicio);
+        etapa.setFechaFin(fin);
+        etapa.setPesoEntrada(new BigDecimal("100"));
+        etapa.setPesoSalida(new BigDecimal("90"));
+        return etapa;
+    }
+
+    private static UltimaEtapaLote vecinas(Instant finAnterior, Instant inicioSiguiente, String tipoSiguiente) {
+        UltimaEtapaLote vecinas = mock(UltimaEtapaLote.class);
+        when(vecinas.getFechaFinAnterior()).thenReturn(finAnterior);
+        when(vecinas.getFechaInicioSiguiente()).thenReturn(inicioSiguiente);
+        if (tipoSiguiente != null) {
+            when(vecinas.getTipoEtapaSiguiente()).thenReturn(tipoSiguiente);
+        }
+        return vecinas;
+    }
+}
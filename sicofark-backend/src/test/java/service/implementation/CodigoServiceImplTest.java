@@ -0,0 +1,152 @@
+package service.implementation;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import persistence.repository.ContadorCodigoRepository;
+import persistence.repository.LoteRepository;
+import persistence.repository.TransaccionRepository;
+
+import java.time.Year;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CodigoServiceImplTest {
+
+    private static final ZoneId ZONA = ZoneId.of("America/Bogota");
+
+    @Mock
+    private ContadorCodigoRepository contadorCodigoRepository;
+
+    @Mock
+    private LoteRepository loteRepository;
+
+    @Mock
+    private TransaccionRepository transaccionRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    // Valor del contador en la "base de datos"
+    private final AtomicLong contador = new AtomicLong();
+
+    private CodigoServiceImpl codigoService;
+    private int anio;
+
+    @BeforeEach
+    void configurar() {
+        codigoService = new CodigoServiceImpl(contadorCodigoRepository, loteRepository, transaccionRepository, transactionManager);
+        ReflectionTestUtils.setField(codigoService, "tamanoBloque", 50);
+        ReflectionTestUtils.setField(codigoService, "zonaHoraria", ZONA);
+        codigoService.iniciar();
+        anio = Year.now(ZONA).getValue();
+        lenient().when(contadorCodigoRepository.reservarBloque(anyString(), anyLong(), anyInt(), anyLong()))
+            .thenAnswer(invocacion -> Optional.of(contador.addAndGet(invocacion.getArgument(3))));
+    }
+
+    @Test
+    void entregaCodigosConsecutivosDesdeUnBloque() {
+        List<String> codigos = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            codigos.add(codigoService.siguienteConsecutivo(3L));
+        }
+
+        assertEquals("T3-" + anio + "-000001", codigos.get(0));
+        assertEquals("T3-" + anio + "-000050", codigos.get(49));
+        verify(contadorCodigoRepository, times(1)).reservarBloque("TRANSACCION", 3L, anio, 50L);
+    }
+
+    @Test
+    void registroMasivoReservaDeUnaVezLoQueFalta() {
+        codigoService.siguientesCodigosLote(3L, 10);
+        List<String> codigos = codigoService.siguientesCodigosLote(3L, 120);
+
+        assertEquals(120, codigos.size());
+        assertEquals("L3-" + anio + "-000011", codigos.get(0));
+        assertEquals("L3-" + anio + "-000130", codigos.get(119));
+        verify(contadorCodigoRepository).reservarBloque("LOTE", 3L, anio, 80L);
+    }
+
+    @Test
+    void inicializaElContadorConLaSecuenciaExistente() {
+        when(contadorCodigoRepository.reservarBloque(eq("LOTE"), eq(7L), anyInt(), anyLong()))
+            .thenReturn(Optional.empty())
+            .thenReturn(Optional.of(457L));
+        when(loteRepository.findMaxSecuenciaCodigo("L7-" + anio + "-")).thenReturn(407L);
+
+        assertEquals(List.of("L7-" + anio + "-000408"), codigoService.siguientesCodigosLote(7L, 1));
+        verify(contadorCodigoRepository).inicializar("LOTE", 7L, anio, 407L);
+    }
+
+    @Test
+    void rechazaSolicitudSinBodega() {
+        assertThrows(IllegalArgumentException.class, () -> codigoService.siguientesCodigosLote(null, 1));
+        assertThrows(IllegalArgumentException.class, () -> codigoService.siguientesCodigosLote(1L, 0));
+    }
+
+    @Test
+    void hilosConcurrentesNoRepitenCodigos() throws Exception {
+        int hilos = 8;
+        int porHilo = 400;
+        List<Callable<List<String>>> tareas = new ArrayList<>();
+        for (int h = 0; h < hilos; h++) {
+            int cantidad = h % 2 == 0 ? 1 : 7;
+            tareas.add(() -> {
+                List<String> propios = new ArrayList<>();
+                while (propios.size() < porHilo) {
+                    propios.addAll(codigoService.siguientesCodigosLote(1L, cantidad));
+                }
+                return propios;
+            });
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(hilos);
+        try {
+            Set<String> todos = new HashSet<>();
+            int entregados = 0;
+            for (Future<List<String>> resultado : executor.invokeAll(tareas)) {
+                entregados += resultado.get().size();
+                todos.addAll(resultado.get());
+            }
+            assertEquals(entregados, todos.size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void rangosSeEntreganEnOrdenAscendente() {
+        CodigoServiceImpl.RangosReservados rangos = new CodigoServiceImpl.RangosReservados();
+        rangos.agregar(151, 153);
+        rangos.agregar(101, 102);
+
+        assertEquals(List.of(101L, 102L, 151L), rangos.tomar(3));
+        assertEquals(List.of(152L, 153L), rangos.tomar(5));
+        assertEquals(List.of(), rangos.tomar(1));
+    }
+}
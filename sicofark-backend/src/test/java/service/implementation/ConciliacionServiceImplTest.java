@@ -0,0 +1,230 @@
+package service.implementation;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.quality.Strictness;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import persistence.entity.EjecucionConciliacion;
+import persistence.enums.TipoDiscrepancia;
+import persistence.repository.DiscrepanciaConciliacionRepository;
+import persistence.repository.EjecucionConciliacionRepository;
+import presentation.dto.EjecucionConciliacionDTO;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+@ExtendWith(MockitoExtension.class)
+class ConciliacionServiceImplTest {
+
+    private static final ZoneId ZONA = ZoneId.of("America/Bogota");
+
+    @Mock
+    private EjecucionConciliacionRepository ejecucionConciliacionRepository;
+
+    @Mock
+    private DiscrepanciaConciliacionRepository discrepanciaConciliacionRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private DataSource dataSource;
+
+    @Mock
+    private Connection conexion;
+
+    @Mock
+    private PreparedStatement sentencia;
+
+    @Mock
+    private ResultSet candado;
+
+    private ConciliacionServiceImpl conciliacionService;
+
+    @BeforeEach
+    void configurar() {
+        conciliacionService = new ConciliacionServiceImpl(ejecucionConciliacionRepository,
+            discrepanciaConciliacionRepository, jdbcTemplate, transactionManager);
+        ReflectionTestUtils.setField(conciliacionService, "tolerancia", new BigDecimal("0.05"));
+        ReflectionTestUtils.setField(conciliacionService, "tamanoRango", 1000L);
+        ReflectionTestUtils.setField(conciliacionService, "paralelismo", 2);
+        ReflectionTestUtils.setField(conciliacionService, "zonaHoraria", ZONA);
+        conciliacionService.iniciar();
+    }
+
+    // ============ BALANCE POR LOTE ============
+
+    @Test
+    void loteCuadradoNoTieneDiscrepancias() throws SQLException {
+        ConciliacionServiceImpl.Conciliador conciliador = conciliacionService.new Conciliador();
+        conciliador.procesar(fila(1L, "100", "90", "100", "100", 10L, "100", "95"));
+        conciliador.procesar(fila(1L, "100", "90", "100", "100", 11L, "95.02", "90"));
+        conciliador.cerrarLote();
+
+        assertEquals(1, conciliador.lotes);
+        assertEquals(2, conciliador.etapas);
+        assertEquals(List.of(), conciliador.discrepancias);
+    }
+
+    @Test
+    void cadenaDeEtapasRotaEHijosQueExcedenLaSalida() throws SQLException {
+        ConciliacionServiceImpl.Conciliador conciliador = conciliacionService.new Conciliador();
+        conciliador.procesar(fila(1L, "100", "92", null, null, 10L, "99", "95"));
+        conciliador.procesar(fila(1L, "100", "92", null, null, 11L, "94", "90"));
+        conciliador.cerrarLote();
+
+        assertEquals(List.of(TipoDiscrepancia.ETAPA_INICIAL, TipoDiscrepancia.CADENA_ETAPAS, TipoDiscrepancia.HIJOS_EXCEDEN),
+            conciliador.discrepancias.stream().map(ConciliacionServiceImpl.Discrepancia::tipo).toList());
+        ConciliacionServiceImpl.Discrepancia hijos = conciliador.discrepancias.get(2);
+        assertEquals(new BigDecimal("90"), hijos.esperado());
+        assertEquals(new BigDecimal("92"), hijos.encontrado());
+    }
+
+    @Test
+    void movimientosDescuadradosPorLote() throws SQLException {
+        ConciliacionServiceImpl.Conciliador conciliador = conciliacionService.new Conciliador();
+        // Lote 1 sin etapas: entradas por encima del peso neto y saldo negativo
+        conciliador.procesar(fila(1L, "100", null, "120", "-5", null, null, null));
+        // Lote 2: saldo por encima del peso neto; cambia de lote sin llamar a cerrarLote
+        conciliador.procesar(fila(2L, "50", null, "50", "60", null, null, null));
+        conciliador.cerrarLote();
+
+        assertEquals(2, conciliador.lotes);
+        assertEquals(0, conciliador.etapas);
+        assertEquals(List.of(TipoDiscrepancia.ENTRADA_INVENTARIO, TipoDiscrepancia.SALDO_NEGATIVO, TipoDiscrepancia.SALDO_EXCEDE),
+            conciliador.discrepancias.stream().map(ConciliacionServiceImpl.Discrepancia::tipo).toList());
+        assertEquals(2L, conciliador.discrepancias.get(2).loteId());
+    }
+
+    // ============ EJECUCIÓN ============
+
+    @Test
+    void ejecucionManualRespondeAntesDeTerminarYBloqueaLasDemas() throws Exception {
+        candadoLibre(true);
+        CountDownLatch liberar = new CountDownLatch(1);
+        when(ejecucionConciliacionRepository.save(any())).thenAnswer(invocacion -> {
+            EjecucionConciliacion ejecucion = invocacion.getArgument(0);
+            ejecucion.setId(1L);
+            return ejecucion;
+        });
+        when(jdbcTemplate.queryForMap(anyString())).thenAnswer(invocacion -> {
+            liberar.await(5, TimeUnit.SECONDS);
+            Map<String, Object> extremos = new HashMap<>();
+            extremos.put("minimo", null);
+            extremos.put("maximo", null);
+            return extremos;
+        });
+
+        EjecucionConciliacionDTO iniciada = conciliacionService.iniciarConciliacion();
+
+        assertEquals(1L, iniciada.getId());
+        assertNull(iniciada.getFechaFin());
+        assertFalse(iniciada.isCompleta());
+        assertThrows(IllegalStateException.class, () -> conciliacionService.iniciarConciliacion());
+        // La programada se omite sin lanzar excepción
+        conciliacionService.conciliarPeriodico();
+        verify(ejecucionConciliacionRepository, times(1)).save(any());
+
+        liberar.countDown();
+        verify(ejecucionConciliacionRepository, timeout(5000).times(2)).save(any());
+        verify(conexion, timeout(5000)).close();
+        verify(conexion).prepareStatement("SELECT pg_advisory_unlock(?)");
+    }
+
+    @Test
+    void ejecucionManualRechazadaSiOtraInstanciaTieneElCandado() throws Exception {
+        candadoLibre(false);
+
+        assertThrows(IllegalStateException.class, () -> conciliacionService.iniciarConciliacion());
+
+        verify(ejecucionConciliacionRepository, never()).save(any());
+        verify(conexion, never()).prepareStatement("SELECT pg_advisory_unlock(?)");
+        verify(conexion).close();
+    }
+
+    @Test
+    void programadaOmitidaSiOtraInstanciaYaReclamoElDia() throws Exception {
+        candadoLibre(true);
+        when(ejecucionConciliacionRepository.reclamarDia(eq(LocalDate.now(ZONA)), any())).thenReturn(0);
+
+        conciliacionService.conciliarPeriodico();
+
+        verify(jdbcTemplate, never()).queryForMap(anyString());
+        verify(discrepanciaConciliacionRepository, never()).deleteEjecucionesAntesDe(any());
+        verify(conexion).prepareStatement("SELECT pg_advisory_unlock(?)");
+        verify(conexion).close();
+    }
+
+    /**
+     * pg_try_advisory_lock devuelve libre en la conexión del DataSource.
+     */
+    private void candadoLibre(boolean libre) throws SQLException {
+        when(jdbcTemplate.getDataSource()).thenReturn(dataSource);
+        when(dataSource.getConnection()).thenReturn(conexion);
+        when(conexion.prepareStatement(anyString())).thenReturn(sentencia);
+        when(sentencia.executeQuery()).thenReturn(candado);
+        when(candado.next()).thenReturn(true);
+        when(candado.getBoolean(1)).thenReturn(libre);
+    }
+
+    /**
+     * Una fila de SQL_RANGO; etapaId null representa un lote sin etapas.
+     */
+    private static ResultSet fila(Long loteId, String pesoNeto, String pesoHijos, String entradas, String saldo,
+                                  Long etapaId, String pesoEntrada, String pesoSalida) throws SQLException {
+        // Las filas siguientes de un mismo lote solo leen la etapa
+        ResultSet rs = mock(ResultSet.class, withSettings().strictness(Strictness.LENIENT));
+        when(rs.getLong("id")).thenReturn(loteId);
+        when(rs.getString("codigo")).thenReturn("L1-2026-" + loteId);
+        when(rs.getLong("bodega_id")).thenReturn(1L);
+        when(rs.getBigDecimal("peso_neto")).thenReturn(decimal(pesoNeto));
+        when(rs.getBigDecimal("peso_hijos")).thenReturn(decimal(pesoHijos));
+        when(rs.getBigDecimal("entradas")).thenReturn(decimal(entradas));
+        when(rs.getBigDecimal("saldo")).thenReturn(decimal(saldo));
+        when(rs.getLong("etapa_id")).thenReturn(etapaId != null ? etapaId : 0L);
+        when(rs.wasNull()).thenReturn(etapaId == null);
+        if (etapaId != null) {
+            when(rs.getBigDecimal("peso_entrada")).thenReturn(decimal(pesoEntrada));
+            when(rs.getBigDecimal("peso_salida")).thenReturn(decimal(pesoSalida));
+        }
+        return rs;
+    }
+
+    private static BigDecimal decimal(String valor) {
+        return valor != null ? new BigDecimal(valor) : null;
+    }
+}
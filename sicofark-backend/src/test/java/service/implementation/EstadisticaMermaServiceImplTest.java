@@ -0,0 +1,65 @@
+package service.implementation;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.PlatformTransactionManager;
+import persistence.repository.EstadisticaMermaEtapaRepository;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class EstadisticaMermaServiceImplTest {
+
+    @Mock
+    private EstadisticaMermaEtapaRepository estadisticaMermaEtapaRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private EstadisticaMermaServiceImpl estadisticaMermaService;
+
+    @BeforeEach
+    void configurar() {
+        estadisticaMermaService.iniciar();
+    }
+
+    @Test
+    void inicializacionReconstruyeBajoBloqueo() {
+        when(estadisticaMermaEtapaRepository.count()).thenReturn(0L);
+
+        estadisticaMermaService.inicializar();
+
+        InOrder orden = inOrder(estadisticaMermaEtapaRepository, jdbcTemplate);
+        orden.verify(estadisticaMermaEtapaRepository).count();
+        orden.verify(estadisticaMermaEtapaRepository).bloquearParaReconstruir();
+        orden.verify(estadisticaMermaEtapaRepository).count();
+        orden.verify(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+    }
+
+    @Test
+    void inicializacionSeOmiteSiSeLlenoMientrasEsperabaElBloqueo() {
+        when(estadisticaMermaEtapaRepository.count()).thenReturn(0L, 3L);
+
+        estadisticaMermaService.inicializar();
+
+        verify(estadisticaMermaEtapaRepository).bloquearParaReconstruir();
+        verify(jdbcTemplate, never()).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+        verify(estadisticaMermaEtapaRepository).findAll();
+    }
+}
@@ -0,0 +1,174 @@
+package service.implementation;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import persistence.entity.Bodega;
+import persistence.entity.Lote;
+import persistence.entity.TipoMaterial;
+import persistence.entity.Usuario;
+import persistence.enums.EstadoLote;
+import persistence.enums.TipoEtapa;
+import persistence.projection.UltimaEtapaLote;
+import persistence.repository.EtapaProcesamientoRepository;
+import persistence.repository.LoteRepository;
+import presentation.dto.CorridaEtapaDTO;
+import presentation.dto.EtapaProcesamientoDTO;
+import service.interfaces.AlertaService;
+import service.interfaces.AnaliticaLineaService;
+import service.interfaces.EstadisticaMermaService;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class EtapaProcesamientoServiceImplTest {
+
+    private static final Instant INICIO = Instant.parse("2026-03-10T13:00:00Z");
+
+    @Mock
+    private EtapaProcesamientoRepository etapaProcesamientoRepository;
+
+    @Mock
+    private LoteRepository loteRepository;
+
+    @Mock
+    private EstadisticaMermaService estadisticaMermaService;
+
+    @Mock
+    private AlertaService alertaService;
+
+    @Mock
+    private AnaliticaLineaService analiticaLineaService;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @InjectMocks
+    private EtapaProcesamientoServiceImpl etapaProcesamientoService;
+
+    @BeforeEach
+    void configurar() {
+        ReflectionTestUtils.setField(etapaProcesamientoService, "entityManager", entityManager);
+        Usuario usuario = new Usuario();
+        usuario.setId(5L);
+        lenient().when(entityManager.getReference(Usuario.class, 5L)).thenReturn(usuario);
+    }
+
+    @Test
+    void mermaParcialEnPorcentajeConDosDecimales() {
+        assertEquals(new BigDecimal("10.00"), EtapaProcesamientoServiceImpl.mermaParcial(new BigDecimal("100"), new BigDecimal("90")));
+        assertEquals(new BigDecimal("33.33"), EtapaProcesamientoServiceImpl.mermaParcial(new BigDecimal("3"), new BigDecimal("2")));
+        assertEquals(new BigDecimal("0.00"), EtapaProcesamientoServiceImpl.mermaParcial(new BigDecimal("50"), new BigDecimal("50")));
+        assertEquals(new BigDecimal("100.00"), EtapaProcesamientoServiceImpl.mermaParcial(new BigDecimal("50"), BigDecimal.ZERO));
+    }
+
+    @Test
+    void mermaAcumuladaSeComponeSobreLoConservado() {
+        // Se conserva 90 % y luego 80 % de eso: 72 %, merma acumulada 28 %
+        assertEquals(new BigDecimal("28.00"), EtapaProcesamientoServiceImpl.mermaAcumulada(new BigDecimal("10"), new BigDecimal("20")));
+        assertEquals(new BigDecimal("15.00"), EtapaProcesamientoServiceImpl.mermaAcumulada(BigDecimal.ZERO, new BigDecimal("15")));
+        assertEquals(new BigDecimal("40.00"), EtapaProcesamientoServiceImpl.mermaAcumulada(new BigDecimal("40"), BigDecimal.ZERO));
+        assertEquals(new BigDecimal("100.00"), EtapaProcesamientoServiceImpl.mermaAcumulada(new BigDecimal("30"), new BigDecimal("100")));
+    }
+
+    @Test
+    void corridaBloqueaLosLotesAntesDeLeerSusEtapasPrevias() {
+        Lote lote3 = lote(3L, EstadoLote.EN_PROCESO);
+        Lote lote1 = lote(1L, EstadoLote.ACTIVO);
+        when(loteRepository.bloquearLotesPorId(List.of(3L, 1L))).thenReturn(List.of(lote1, lote3));
+        UltimaEtapaLote previa = mock(UltimaEtapaLote.class);
+        when(previa.getLoteId()).thenReturn(3L);
+        when(previa.getMermaAcumulada()).thenReturn(new BigDecimal("10.00"));
+        when(etapaProcesamientoRepository.findUltimasEtapas(List.of(3L, 1L), INICIO)).thenReturn(List.of(previa));
+
+        List<EtapaProcesamientoDTO> etapas = etapaProcesamientoService.registrarCorrida(
+            corrida(solicitud(3L, "100", "80"), solicitud(1L, "100", "95")), 5L);
+
+        InOrder orden = inOrder(loteRepository, etapaProcesamientoRepository);
+        orden.verify(loteRepository).bloquearLotesPorId(List.of(3L, 1L));
+        orden.verify(etapaProcesamientoRepository).findUltimasEtapas(List.of(3L, 1L), INICIO);
+        verify(loteRepository, never()).findAllById(any());
+
+        assertEquals(new BigDecimal("28.00"), etapas.get(0).getMermaAcumulada());
+        assertEquals(new BigDecimal("5.00"), etapas.get(1).getMermaAcumulada());
+        assertEquals(EstadoLote.EN_PROCESO, lote1.getEstado());
+        verify(analiticaLineaService).registrarEtapas(anyList(), eq(Map.of(3L, previa)));
+    }
+
+    @Test
+    void etapaConFechaPasadaSinEtapaAnteriorParteDeCero() {
+        Lote lote = lote(3L, EstadoLote.EN_PROCESO);
+        when(loteRepository.bloquearLotesPorId(List.of(3L))).thenReturn(List.of(lote));
+        // El lote solo tiene una etapa posterior a la nueva: no hay merma anterior
+        UltimaEtapaLote vecinas = mock(UltimaEtapaLote.class);
+        when(vecinas.getLoteId()).thenReturn(3L);
+        when(vecinas.getMermaAcumulada()).thenReturn(null);
+        when(etapaProcesamientoRepository.findUltimasEtapas(List.of(3L), INICIO)).thenReturn(List.of(vecinas));
+
+        List<EtapaProcesamientoDTO> etapas = etapaProcesamientoService.registrarCorrida(
+            corrida(solicitud(3L, "100", "80")), 5L);
+
+        assertEquals(new BigDecimal("20.00"), etapas.get(0).getMermaAcumulada());
+    }
+
+    @Test
+    void loteInexistenteAbortaLaCorrida() {
+        when(loteRepository.bloquearLotesPorId(List.of(9L))).thenReturn(List.of());
+
+        assertThrows(EntityNotFoundException.class,
+            () -> etapaProcesamientoService.registrarCorrida(corrida(solicitud(9L, "100", "90")), 5L));
+        verify(etapaProcesamientoRepository, never()).saveAll(any());
+    }
+
+    private static CorridaEtapaDTO corrida(EtapaProcesamientoDTO... lotes) {
+        CorridaEtapaDTO corrida = new CorridaEtapaDTO();
+        corrida.setTipoEtapa(TipoEtapa.LAVADO);
+        corrida.setFechaInicio(INICIO);
+        corrida.setFechaFin(INICIO.plusSeconds(3600));
+        corrida.setLotes(List.of(lotes));
+        return corrida;
+    }
+
+    private static EtapaProcesamientoDTO solicitud(Long loteId, String entrada, String salida) {
+        EtapaProcesamientoDTO solicitud = new EtapaProcesamientoDTO();
+        solicitud.setLoteId(loteId);
+        solicitud.setPesoEntrada(new BigDecimal(entrada));
+        solicitud.setPesoSalida(new BigDecimal(salida));
+        return solicitud;
+    }
+
+    private static Lote lote(Long id, EstadoLote estado) {
+        TipoMaterial tipoMaterial = new TipoMaterial();
+        tipoMaterial.setId(2L);
+        Bodega bodega = new Bodega();
+        bodega.setId(1L);
+        Lote lote = new Lote();
+        lote.setId(id);
+        lote.setEstado(estado);
+        lote.setTipoMaterial(tipoMaterial);
+        lote.setBodega(bodega);
+        return lote;
+    }
+}
@@ -0,0 +1,59 @@
+package service.implementation;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import persistence.enums.CalidadMaterial;
+import presentation.dto.LoteRequestDTO;
+import service.interfaces.CatalogoService;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class LoteServiceImplTest {
+
+    @Mock
+    private CatalogoService catalogoService;
+
+    @InjectMocks
+    private LoteServiceImpl loteService;
+
+    @Test
+    void solicitudSinCalidadSeRechazaConSuPosicion() {
+        LoteRequestDTO sinCalidad = solicitud();
+        sinCalidad.setCalidad(null);
+
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+            () -> loteService.crearLotes(List.of(solicitud(), sinCalidad), 5L));
+
+        assertEquals("Solicitud 2: la calidad es obligatoria", error.getMessage());
+        verifyNoInteractions(catalogoService);
+    }
+
+    @Test
+    void registroMasivoAcotado() {
+        List<LoteRequestDTO> solicitudes = Collections.nCopies(LoteServiceImpl.MAXIMO_LOTES_POR_SOLICITUD + 1, solicitud());
+
+        assertThrows(IllegalArgumentException.class, () -> loteService.crearLotes(solicitudes, 5L));
+        verifyNoInteractions(catalogoService);
+    }
+
+    private static LoteRequestDTO solicitud() {
+        LoteRequestDTO solicitud = new LoteRequestDTO();
+        solicitud.setProveedorId(1L);
+        solicitud.setTipoMaterialId(2L);
+        solicitud.setBodegaId(3L);
+        solicitud.setPesoBruto(new BigDecimal("120"));
+        solicitud.setTara(new BigDecimal("20"));
+        solicitud.setCalidad(CalidadMaterial.BUENA);
+        return solicitud;
+    }
+}
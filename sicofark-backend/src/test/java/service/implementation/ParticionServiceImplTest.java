@@ -0,0 +1,98 @@
+package service.implementation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import presentation.dto.VerificacionPodaDTO;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ParticionServiceImplTest {
+
+    private static final List<String> PARTICIONES = List.of(
+        "movimiento_inventario_default", "movimiento_inventario_p2026_09", "movimiento_inventario_p2026_10");
+
+    // Octubre de 2026 en America/Bogota (UTC-5)
+    private static final Instant INICIO_OCTUBRE = Instant.parse("2026-10-01T05:00:00Z");
+    private static final Instant INICIO_NOVIEMBRE = Instant.parse("2026-11-01T05:00:00Z");
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @InjectMocks
+    private ParticionServiceImpl particionService;
+
+    @BeforeEach
+    void configurar() {
+        ReflectionTestUtils.setField(particionService, "zonaHoraria", ZoneId.of("America/Bogota"));
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), eq("sicofar"), eq("movimiento_inventario")))
+            .thenReturn(PARTICIONES);
+    }
+
+    @Test
+    void podaEfectivaSoloSiElPlanLeeLasParticionesDelRango() {
+        ArgumentCaptor<String> consulta = ArgumentCaptor.forClass(String.class);
+        when(jdbcTemplate.queryForObject(consulta.capture(), eq(String.class)))
+            .thenReturn(plan("movimiento_inventario_p2026_10"));
+
+        VerificacionPodaDTO verificacion = particionService.verificarPoda("movimiento_inventario", INICIO_OCTUBRE, INICIO_NOVIEMBRE);
+
+        assertEquals(List.of("movimiento_inventario_p2026_10"), verificacion.getParticionesEsperadas());
+        assertTrue(verificacion.isPodaEfectiva());
+        // Fechas como literales para que el plan refleje la poda del planificador
+        assertTrue(consulta.getValue().contains("fecha >= TIMESTAMPTZ '2026-10-01T05:00:00Z'"), consulta.getValue());
+
+        // Leer otra partición además de la del mes no es poda, aunque no se lean todas
+        when(jdbcTemplate.queryForObject(anyString(), eq(String.class)))
+            .thenReturn(plan("movimiento_inventario_p2026_09", "movimiento_inventario_p2026_10"));
+
+        assertFalse(particionService.verificarPoda("movimiento_inventario", INICIO_OCTUBRE, INICIO_NOVIEMBRE).isPodaEfectiva());
+    }
+
+    @Test
+    void mesSinParticionEsperaLaDefault() {
+        when(jdbcTemplate.queryForObject(anyString(), eq(String.class)))
+            .thenReturn(plan("movimiento_inventario_default", "movimiento_inventario_p2026_10"));
+
+        VerificacionPodaDTO verificacion = particionService.verificarPoda("movimiento_inventario",
+            INICIO_OCTUBRE, Instant.parse("2026-12-01T05:00:00Z"));
+
+        assertEquals(List.of("movimiento_inventario_p2026_10", "movimiento_inventario_default"),
+            verificacion.getParticionesEsperadas());
+        assertTrue(verificacion.isPodaEfectiva());
+        verify(jdbcTemplate).queryForObject(anyString(), eq(String.class));
+    }
+
+    private static String plan(String... particiones) {
+        StringBuilder hijos = new StringBuilder();
+        for (String particion : particiones) {
+            if (!hijos.isEmpty()) {
+                hijos.append(',');
+            }
+            hijos.append("{\"Node Type\":\"Seq Scan\",\"Relation Name\":\"").append(particion).append("\"}");
+        }
+        return "[{\"Plan\":{\"Node Type\":\"Append\",\"Plans\":[" + hijos + "]}}]";
+    }
+}
@@ -0,0 +1,65 @@
+package service.implementation;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import persistence.repository.EstadisticaProveedorMensualRepository;
+import persistence.repository.TransaccionRepository;
+
+import java.time.ZoneId;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ProveedorServiceImplTest {
+
+    @Mock
+    private EstadisticaProveedorMensualRepository estadisticaProveedorMensualRepository;
+
+    @Mock
+    private TransaccionRepository transaccionRepository;
+
+    @InjectMocks
+    private ProveedorServiceImpl proveedorService;
+
+    @BeforeEach
+    void configurar() {
+        ReflectionTestUtils.setField(proveedorService, "zonaHoraria", ZoneId.of("America/Bogota"));
+    }
+
+    @Test
+    void inicializacionReconstruyeBajoBloqueo() {
+        when(estadisticaProveedorMensualRepository.count()).thenReturn(0L);
+        when(transaccionRepository.count()).thenReturn(40L);
+
+        proveedorService.inicializarEstadisticas();
+
+        InOrder orden = inOrder(estadisticaProveedorMensualRepository);
+        orden.verify(estadisticaProveedorMensualRepository).count();
+        orden.verify(estadisticaProveedorMensualRepository).bloquearParaReconstruir();
+        orden.verify(estadisticaProveedorMensualRepository).count();
+        orden.verify(estadisticaProveedorMensualRepository).deleteTodo();
+        orden.verify(estadisticaProveedorMensualRepository).reconstruir("America/Bogota");
+    }
+
+    @Test
+    void inicializacionSeOmiteSiSeLlenoMientrasEsperabaElBloqueo() {
+        when(estadisticaProveedorMensualRepository.count()).thenReturn(0L, 3L);
+        when(transaccionRepository.count()).thenReturn(40L);
+
+        proveedorService.inicializarEstadisticas();
+
+        verify(estadisticaProveedorMensualRepository).bloquearParaReconstruir();
+        verify(estadisticaProveedorMensualRepository, never()).deleteTodo();
+        verify(estadisticaProveedorMensualRepository, never()).reconstruir(anyString());
+    }
+}
@@ -0,0 +1,165 @@
+package service.implementation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import persistence.entity.SolicitudIdempotente;
+import persistence.entity.SolicitudIdempotenteId;
+import persistence.enums.EstadoTransaccion;
+import persistence.repository.PendientePagoDiarioRepository;
+import persistence.repository.SolicitudIdempotenteRepository;
+import persistence.repository.TransaccionRepository;
+import presentation.dto.TransaccionDTO;
+import service.exception.ClaveIdempotenciaReutilizadaException;
+
+import java.time.ZoneId;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TransaccionServiceImplTest {
+
+    private static final String CLAVE = "bascula-7:000123";
+
+    @Mock
+    private SolicitudIdempotenteRepository solicitudIdempotenteRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private PendientePagoDiarioRepository pendientePagoDiarioRepository;
+
+    @Mock
+    private TransaccionRepository transaccionRepository;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @InjectMocks
+    private TransaccionServiceImpl transaccionService;
+
+    @BeforeEach
+    void configurar() {
+        ReflectionTestUtils.setField(transaccionService, "maximoCache", 100);
+        transaccionService.iniciar();
+    }
+
+    @Test
+    void reintentoDevuelveLaRespuestaOriginalYLuegoSaleDeLaCache() throws Exception {
+        TransaccionDTO documento = documento(10L);
+        registradaPreviamente(5L, documento, "T1-2026-000001");
+
+        assertEquals("T1-2026-000001", transaccionService.registrarIngreso(documento, 5L, CLAVE).getConsecutivo());
+        assertEquals("T1-2026-000001", transaccionService.registrarIngreso(documento, 5L, " " + CLAVE + " ").getConsecutivo());
+
+        // El segundo reintento no abre transacción ni consulta la base
+        verify(transactionManager, times(1)).getTransaction(any());
+        verify(solicitudIdempotenteRepository, times(1)).reclamar(eq(5L), eq(CLAVE), anyString(), any());
+    }
+
+    @Test
+    void mismaClaveConOtroDocumentoSeRechaza() throws Exception {
+        registradaPreviamente(5L, documento(10L), "T1-2026-000001");
+
+        assertThrows(ClaveIdempotenciaReutilizadaException.class,
+            () -> transaccionService.registrarIngreso(documento(11L), 5L, CLAVE));
+        // También cuando la respuesta original ya está en caché
+        assertThrows(ClaveIdempotenciaReutilizadaException.class,
+            () -> transaccionService.registrarIngreso(documento(12L), 5L, CLAVE));
+        verify(solicitudIdempotenteRepository, times(1)).reclamar(eq(5L), eq(CLAVE), anyString(), any());
+    }
+
+    @Test
+    void laClaveSeAislaPorUsuario() throws Exception {
+        TransaccionDTO documento = documento(10L);
+        registradaPreviamente(5L, documento, "T1-2026-000001");
+        registradaPreviamente(6L, documento, "T1-2026-000002");
+
+        TransaccionDTO deUsuario5 = transaccionService.registrarIngreso(documento, 5L, CLAVE);
+        TransaccionDTO deUsuario6 = transaccionService.registrarIngreso(documento, 6L, CLAVE);
+
+        assertNotEquals(deUsuario5.getConsecutivo(), deUsuario6.getConsecutivo());
+        verify(solicitudIdempotenteRepository).reclamar(eq(6L), eq(CLAVE), anyString(), any());
+    }
+
+    @Test
+    void claveRequiereUsuarioYLongitudAcotada() {
+        assertThrows(IllegalArgumentException.class,
+            () -> transaccionService.registrarIngreso(documento(10L), null, CLAVE));
+        assertThrows(IllegalArgumentException.class,
+            () -> transaccionService.registrarIngreso(documento(10L), 5L, "x".repeat(101)));
+    }
+
+    // ============ CUENTAS POR PAGAR ============
+
+    @Test
+    void inicializacionReconstruyeBajoBloqueo() {
+        ReflectionTestUtils.setField(transaccionService, "zonaHoraria", ZoneId.of("America/Bogota"));
+        when(pendientePagoDiarioRepository.count()).thenReturn(0L);
+        when(transaccionRepository.existsByEstadoAndFechaPagoIsNull(EstadoTransaccion.PENDIENTE)).thenReturn(true);
+
+        transaccionService.inicializarCuentasPorPagar();
+
+        InOrder orden = inOrder(pendientePagoDiarioRepository);
+        orden.verify(pendientePagoDiarioRepository).count();
+        orden.verify(pendientePagoDiarioRepository).bloquearParaReconstruir();
+        orden.verify(pendientePagoDiarioRepository).count();
+        orden.verify(pendientePagoDiarioRepository).deleteTodo();
+        orden.verify(pendientePagoDiarioRepository).reconstruir("America/Bogota");
+    }
+
+    @Test
+    void inicializacionSeOmiteSiSeLlenoMientrasEsperabaElBloqueo() {
+        // Otro nodo reconstruyó (o un ajuste se confirmó) antes de obtener el bloqueo
+        when(pendientePagoDiarioRepository.count()).thenReturn(0L, 12L);
+        when(transaccionRepository.existsByEstadoAndFechaPagoIsNull(EstadoTransaccion.PENDIENTE)).thenReturn(true);
+
+        transaccionService.inicializarCuentasPorPagar();
+
+        verify(pendientePagoDiarioRepository).bloquearParaReconstruir();
+        verify(pendientePagoDiarioRepository, never()).deleteTodo();
+        verify(pendientePagoDiarioRepository, never()).reconstruir(anyString());
+    }
+
+    private void registradaPreviamente(Long usuarioId, TransaccionDTO documento, String consecutivo) throws Exception {
+        TransaccionDTO respuesta = new TransaccionDTO();
+        respuesta.setId(usuarioId * 100);
+        respuesta.setConsecutivo(consecutivo);
+
+        SolicitudIdempotenteId id = new SolicitudIdempotenteId(usuarioId, CLAVE);
+        SolicitudIdempotente solicitud = new SolicitudIdempotente();
+        solicitud.setId(id);
+        solicitud.setHashSolicitud(transaccionService.hashSolicitud(documento));
+        solicitud.setRespuesta(objectMapper.writeValueAsString(respuesta));
+
+        when(solicitudIdempotenteRepository.reclamar(eq(usuarioId), eq(CLAVE), anyString(), any())).thenReturn(0);
+        when(solicitudIdempotenteRepository.findById(id)).thenReturn(Optional.of(solicitud));
+    }
+
+    private TransaccionDTO documento(Long proveedorId) {
+        TransaccionDTO documento = new TransaccionDTO();
+        documento.setProveedorId(proveedorId);
+        documento.setBodegaId(3L);
+        return documento;
+    }
+}
@@ -0,0 +1,48 @@
+package util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CacheLocalTest {
+
+    @Test
+    void cargaSeGuardaYSeReutiliza() {
+        CacheLocal<Long, String> cache = new CacheLocal<>("prueba", 10, Duration.ofMinutes(5));
+
+        assertEquals("a", cache.obtener(1L, () -> "a"));
+        assertEquals("a", cache.obtener(1L, () -> "b"));
+        assertEquals(1, cache.estadisticas().aciertos());
+    }
+
+    @Test
+    void cargaInvalidadaMientrasCorriaNoSeGuarda() {
+        CacheLocal<Long, String> cache = new CacheLocal<>("prueba", 10, Duration.ofMinutes(5));
+
+        // La invalidación (commit de otra transacción) llega entre la lectura y el guardado
+        assertEquals("anterior", cache.obtener(1L, () -> {
+            cache.invalidar(1L);
+            return "anterior";
+        }));
+
+        assertEquals("nuevo", cache.obtener(1L, () -> "nuevo"));
+        assertEquals(0, cache.estadisticas().aciertos());
+    }
+
+    @Test
+    void cargaAgrupadaInvalidadaMientrasCorriaNoSeGuarda() {
+        CacheLocal<Long, String> cache = new CacheLocal<>("prueba", 10, Duration.ofMinutes(5));
+
+        cache.obtenerTodos(Set.of(1L, 2L), faltantes -> {
+            cache.invalidarTodo();
+            return Map.of(1L, "anterior", 2L, "anterior");
+        });
+
+        assertEquals(Map.of(1L, "nuevo", 2L, "nuevo"),
+            cache.obtenerTodos(Set.of(1L, 2L), faltantes -> Map.of(1L, "nuevo", 2L, "nuevo")));
+    }
+}
@@ -0,0 +1,43 @@
+package util;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CursorPaginacionTest {
+
+    @Test
+    void codificarYDecodificarConservaFechaConNanosEId() {
+        CursorPaginacion cursor = new CursorPaginacion(Instant.parse("2026-03-10T13:45:12.123456789Z"), 987654321L);
+
+        assertEquals(cursor, CursorPaginacion.decodificar(cursor.codificar()));
+    }
+
+    @Test
+    void tokenVacioEsLaPrimeraPagina() {
+        assertEquals(CursorPaginacion.inicial(), CursorPaginacion.decodificar(null));
+        assertEquals(CursorPaginacion.inicial(), CursorPaginacion.decodificar("  "));
+        assertEquals(CursorPaginacion.inicialAscendente(),
+            CursorPaginacion.decodificar("", CursorPaginacion.inicialAscendente()));
+    }
+
+    @Test
+    void tokenAjenoSeRechazaConIllegalArgument() {
+        assertThrows(IllegalArgumentException.class, () -> CursorPaginacion.decodificar("no es base64!"));
+        assertThrows(IllegalArgumentException.class, () -> CursorPaginacion.decodificar(token("1:2")));
+        assertThrows(IllegalArgumentException.class, () -> CursorPaginacion.decodificar(token("a:0:1")));
+        assertThrows(IllegalArgumentException.class, () -> CursorPaginacion.decodificar(token("1:0:1:4")));
+        // Fuera del rango de Instant
+        assertThrows(IllegalArgumentException.class,
+            () -> CursorPaginacion.decodificar(token(Long.MAX_VALUE + ":0:1")));
+    }
+
+    private static String token(String valor) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+}
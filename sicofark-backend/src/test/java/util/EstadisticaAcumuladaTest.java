@@ -0,0 +1,99 @@
+package util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EstadisticaAcumuladaTest {
+
+    private static final double DELTA = 1e-9;
+
+    @Test
+    void welfordCoincideConElCalculoDirecto() {
+        double[] valores = {2.5, 3.1, 0.0, 7.8, 4.4, 4.4, 1.2};
+        EstadisticaAcumulada acumulada = new EstadisticaAcumulada();
+        for (double valor : valores) {
+            acumulada.agregar(valor);
+        }
+
+        double media = 0;
+        for (double valor : valores) {
+            media += valor;
+        }
+        media /= valores.length;
+        double sumaCuadrados = 0;
+        for (double valor : valores) {
+            sumaCuadrados += (valor - media) * (valor - media);
+        }
+
+        assertEquals(valores.length, acumulada.getConteo());
+        assertEquals(media, acumulada.getMedia(), DELTA);
+        assertEquals(sumaCuadrados / (valores.length - 1), acumulada.getVarianza(), DELTA);
+        assertEquals(0.0, acumulada.getMinimo());
+        assertEquals(7.8, acumulada.getMaximo());
+    }
+
+    @Test
+    void fusionarEquivaleAAgregarTodoEnUno() {
+        Random aleatorio = new Random(42);
+        EstadisticaAcumulada total = new EstadisticaAcumulada();
+        EstadisticaAcumulada primera = new EstadisticaAcumulada();
+        EstadisticaAcumulada segunda = new EstadisticaAcumulada();
+        for (int i = 0; i < 1000; i++) {
+            double valor = i < 300 ? aleatorio.nextGaussian() * 2 + 5 : aleatorio.nextGaussian() * 4 + 12;
+            total.agregar(valor);
+            (i < 300 ? primera : segunda).agregar(valor);
+        }
+
+        primera.fusionar(segunda);
+
+        assertEquals(total.getConteo(), primera.getConteo());
+        assertEquals(total.getMedia(), primera.getMedia(), DELTA);
+        assertEquals(total.getM2(), primera.getM2(), 1e-6);
+        assertEquals(total.getMinimo(), primera.getMinimo());
+        assertEquals(total.getMaximo(), primera.getMaximo());
+        assertEquals(total.cuantil(0.9), primera.cuantil(0.9));
+    }
+
+    @Test
+    void fusionarConVacioNoCambiaNada() {
+        EstadisticaAcumulada acumulada = new EstadisticaAcumulada();
+        acumulada.agregar(3);
+        acumulada.agregar(5);
+
+        acumulada.fusionar(new EstadisticaAcumulada());
+        assertEquals(2, acumulada.getConteo());
+        assertEquals(4.0, acumulada.getMedia(), DELTA);
+
+        EstadisticaAcumulada vacia = new EstadisticaAcumulada().fusionar(acumulada);
+        assertEquals(2, vacia.getConteo());
+        assertEquals(2.0, vacia.getVarianza(), DELTA);
+        assertEquals(3.0, vacia.getMinimo());
+    }
+
+    @Test
+    void vaciaOConUnValorNoTieneVarianza() {
+        EstadisticaAcumulada acumulada = new EstadisticaAcumulada();
+        assertTrue(Double.isNaN(acumulada.getMedia()));
+        assertEquals(0.0, acumulada.getVarianza());
+
+        acumulada.agregar(8);
+        assertEquals(0.0, acumulada.getVarianza());
+        assertEquals(0.0, acumulada.getDesviacionEstandar());
+    }
+
+    @Test
+    void copiaEsIndependiente() {
+        EstadisticaAcumulada original = new EstadisticaAcumulada();
+        original.agregar(1);
+        EstadisticaAcumulada copia = original.copia();
+        copia.agregar(100);
+
+        assertEquals(1, original.getConteo());
+        assertEquals(1, original.getSketch().getConteo());
+        assertEquals(2, copia.getConteo());
+    }
+}
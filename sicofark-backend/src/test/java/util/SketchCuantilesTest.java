@@ -0,0 +1,90 @@
+package util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SketchCuantilesTest {
+
+    private static final double PRECISION_RELATIVA = 0.01;
+
+    @Test
+    void cuantilesConErrorRelativoAcotado() {
+        Random aleatorio = new Random(7);
+        double[] valores = new double[5000];
+        SketchCuantiles sketch = new SketchCuantiles();
+        for (int i = 0; i < valores.length; i++) {
+            valores[i] = 0.01 + aleatorio.nextDouble() * 99.99;
+            sketch.agregar(valores[i]);
+        }
+        Arrays.sort(valores);
+
+        for (double q : new double[]{0, 0.1, 0.5, 0.9, 0.99, 1}) {
+            double real = valores[(int) Math.floor(q * (valores.length - 1))];
+            double estimado = sketch.cuantil(q);
+            assertTrue(Math.abs(estimado - real) <= PRECISION_RELATIVA * real,
+                "q=" + q + ": estimado " + estimado + ", real " + real);
+        }
+    }
+
+    @Test
+    void negativosYCerosEnOrden() {
+        SketchCuantiles sketch = new SketchCuantiles();
+        sketch.agregar(-10);
+        sketch.agregar(0);
+        sketch.agregar(0.0001);
+        sketch.agregar(10);
+
+        assertEquals(4, sketch.getConteo());
+        assertEquals(-10, sketch.cuantil(0), 10 * PRECISION_RELATIVA);
+        assertEquals(0, sketch.cuantil(0.34));
+        assertEquals(10, sketch.cuantil(1), 10 * PRECISION_RELATIVA);
+    }
+
+    @Test
+    void fusionarEquivaleAAgregarTodoEnUno() {
+        SketchCuantiles total = new SketchCuantiles();
+        SketchCuantiles bajos = new SketchCuantiles();
+        SketchCuantiles altos = new SketchCuantiles();
+        for (int i = 1; i <= 200; i++) {
+            total.agregar(i * 0.5);
+            (i <= 100 ? bajos : altos).agregar(i * 0.5);
+        }
+
+        // Rangos de cubos disjuntos: el arreglo crece hacia ambos lados
+        SketchCuantiles fusion = altos.copia().fusionar(bajos);
+
+        assertEquals(total.getConteo(), fusion.getConteo());
+        for (double q = 0; q <= 1; q += 0.05) {
+            assertEquals(total.cuantil(q), fusion.cuantil(q));
+        }
+    }
+
+    @Test
+    void serializacionIdaYVuelta() {
+        SketchCuantiles sketch = new SketchCuantiles();
+        for (double valor : new double[]{-3, 0, 1.5, 2.5, 80}) {
+            sketch.agregar(valor);
+        }
+
+        SketchCuantiles leido = SketchCuantiles.deserializar(sketch.serializar());
+
+        assertEquals(sketch.getConteo(), leido.getConteo());
+        assertEquals(sketch.cuantil(0.5), leido.cuantil(0.5));
+        assertArrayEquals(sketch.serializar(), leido.serializar());
+        assertEquals(0, SketchCuantiles.deserializar(null).getConteo());
+    }
+
+    @Test
+    void vacioYCuantilFueraDeRango() {
+        SketchCuantiles sketch = new SketchCuantiles();
+        assertTrue(Double.isNaN(sketch.cuantil(0.5)));
+        assertThrows(IllegalArgumentException.class, () -> sketch.cuantil(1.5));
+    }
+}